@@ -0,0 +1,29 @@
+package org.example.jiranewsletterapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.jiranewsletterapp.jira.JiraClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class JiraConfig {
+
+    @Bean
+    @ConditionalOnProperty("app.jira.base-url")
+    public JiraClient jiraClient(@Value("${app.jira.base-url}") String baseUrl,
+                                 @Value("${app.jira.username:}") String username,
+                                 @Value("${app.jira.api-token:}") String apiToken,
+                                 @Value("${app.jira.timeout:30s}") Duration timeout,
+                                 ObjectMapper objectMapper) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        return new JiraClient(httpClient, baseUrl, username, apiToken, timeout, objectMapper);
+    }
+}
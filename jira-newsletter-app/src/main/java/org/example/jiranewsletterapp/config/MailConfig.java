@@ -0,0 +1,51 @@
+package org.example.jiranewsletterapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.jiranewsletterapp.mail.DomainRateLimits;
+import org.example.jiranewsletterapp.mail.MailSendScheduler;
+import org.example.jiranewsletterapp.mail.MailTransport;
+import org.example.jiranewsletterapp.mail.RetryPolicy;
+import org.example.jiranewsletterapp.mail.SmtpMailTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Properties;
+
+@Configuration
+public class MailConfig {
+
+    @Bean
+    public MailTransport mailTransport(@Value("${spring.mail.host:localhost}") String host,
+                                       @Value("${spring.mail.port:25}") int port,
+                                       @Value("${spring.mail.username:}") String username,
+                                       @Value("${spring.mail.password:}") String password,
+                                       @Value("${app.mail.from:newsletter@localhost}") String from,
+                                       @Value("${app.mail.smtp.pool-size:100}") int poolSize,
+                                       @Value("${app.mail.smtp.timeout:10s}") Duration timeout) {
+        Properties properties = new Properties();
+        properties.put("mail.smtp.auth", String.valueOf(!username.isBlank()));
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(timeout.toMillis()));
+        properties.put("mail.smtp.timeout", String.valueOf(timeout.toMillis()));
+        properties.put("mail.smtp.writetimeout", String.valueOf(timeout.toMillis()));
+        return new SmtpMailTransport(host, port, username, password, from, poolSize, properties);
+    }
+
+    @Bean
+    public MailSendScheduler mailSendScheduler(MailTransport mailTransport,
+                                               @Value("${app.mail.throttle.default-rate:0}") double defaultRate,
+                                               @Value("${app.mail.throttle.domain-rates:}") String domainRates,
+                                               @Value("${app.mail.dispatch.concurrency:100}") int concurrency,
+                                               MeterRegistry meterRegistry) {
+        return new MailSendScheduler(mailTransport, DomainRateLimits.parse(defaultRate, domainRates), concurrency,
+                meterRegistry);
+    }
+
+    @Bean
+    public RetryPolicy retryPolicy(@Value("${app.mail.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${app.mail.retry.base-delay:30s}") Duration baseDelay,
+                                   @Value("${app.mail.retry.max-delay:1h}") Duration maxDelay) {
+        return new RetryPolicy(maxAttempts, baseDelay, maxDelay);
+    }
+}
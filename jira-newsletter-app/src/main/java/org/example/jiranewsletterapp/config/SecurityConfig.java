@@ -1,10 +1,12 @@
 package org.example.jiranewsletterapp.config;
 
-import org.example.jiranewsletterapp.security.CustomUserDetailsService;
+import org.example.jiranewsletterapp.security.AuthenticationCache;
+import org.example.jiranewsletterapp.security.CachingAuthenticationProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -27,22 +29,29 @@ public class SecurityConfig {
     public AuthenticationManager authenticationManager(
             HttpSecurity http,
             PasswordEncoder passwordEncoder,
-            UserDetailsService customUserDetailsService
+            UserDetailsService customUserDetailsService,
+            AuthenticationCache authenticationCache
     ) throws Exception {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider();
+        daoProvider.setUserDetailsService(customUserDetailsService);
+        daoProvider.setPasswordEncoder(passwordEncoder);
+
         return http.getSharedObject(AuthenticationManagerBuilder.class)
-                .userDetailsService(customUserDetailsService)
-                .passwordEncoder(passwordEncoder)
-                .and()
+                .authenticationProvider(new CachingAuthenticationProvider(daoProvider, authenticationCache))
                 .build();
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager) throws Exception {
         http
+                .authenticationManager(authenticationManager)
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/login").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").authenticated()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/public/**").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                         .requestMatchers("/users/**").hasAuthority("ADMIN")
                         .requestMatchers("/subscribers/my/**").hasAnyAuthority("USER", "ADMIN")
                         .requestMatchers("/subscribers/**").hasAuthority("ADMIN")
@@ -50,6 +59,8 @@ public class SecurityConfig {
                         .requestMatchers("/subscriber-lists/**").hasAuthority("ADMIN")
                         .requestMatchers("/subscriber-entries/my/**").hasAnyAuthority("USER", "ADMIN")
                         .requestMatchers("/subscriber-entries/**").hasAnyAuthority("ADMIN")
+                        .requestMatchers("/campaigns/**").hasAuthority("ADMIN")
+                        .requestMatchers("/jira-issues/**").hasAuthority("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
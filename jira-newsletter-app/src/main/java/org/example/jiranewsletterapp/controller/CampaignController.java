@@ -0,0 +1,77 @@
+package org.example.jiranewsletterapp.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import org.example.jiranewsletterapp.dto.CampaignRequest;
+import org.example.jiranewsletterapp.dto.CampaignResponse;
+import org.example.jiranewsletterapp.dto.CampaignTrackingResponse;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.DeadLetterResponse;
+import org.example.jiranewsletterapp.dto.ScheduleRequest;
+import org.example.jiranewsletterapp.service.CampaignDispatchService;
+import org.example.jiranewsletterapp.service.CampaignService;
+import org.example.jiranewsletterapp.service.TrackingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/campaigns")
+public class CampaignController {
+
+    private final CampaignService campaignService;
+    private final CampaignDispatchService dispatchService;
+    private final TrackingService trackingService;
+
+    @Autowired
+    public CampaignController(CampaignService campaignService, CampaignDispatchService dispatchService,
+                              TrackingService trackingService) {
+        this.campaignService = campaignService;
+        this.dispatchService = dispatchService;
+        this.trackingService = trackingService;
+    }
+
+    @Operation(summary = "Wszystkie kampanie", tags = {"Campaigns - Admin API"})
+    @GetMapping
+    public CursorPage<CampaignResponse> getAll(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size) {
+        return campaignService.getAllCampaigns(cursor, size);
+    }
+
+    @Operation(summary = "Kampania przez ID", tags = {"Campaigns - Admin API"})
+    @GetMapping("/{id}")
+    public CampaignResponse getById(@PathVariable Long id) {
+        return campaignService.getById(id);
+    }
+
+    @Operation(summary = "Tworzenie kampanii dla wybranych list", tags = {"Campaigns - Admin API"})
+    @PostMapping
+    public CampaignResponse create(@RequestBody CampaignRequest request) {
+        return CampaignResponse.from(campaignService.createCampaign(request));
+    }
+
+    @Operation(summary = "Wysylka kampanii do potwierdzonych subskrybentow list", tags = {"Campaigns - Admin API"})
+    @PostMapping("/{id}/send")
+    public ResponseEntity<CampaignResponse> send(@PathVariable Long id) {
+        return ResponseEntity.accepted().body(dispatchService.startDispatch(id));
+    }
+
+    @Operation(summary = "Zaplanowanie wysylki kampanii", tags = {"Campaigns - Admin API"})
+    @PostMapping("/{id}/schedule")
+    public ResponseEntity<CampaignResponse> schedule(@PathVariable Long id, @RequestBody ScheduleRequest request) {
+        return ResponseEntity.accepted().body(dispatchService.scheduleDispatch(id, request));
+    }
+
+    @Operation(summary = "Wiadomosci kampanii, ktorych nie udalo sie dostarczyc", tags = {"Campaigns - Admin API"})
+    @GetMapping("/{id}/dead-letters")
+    public CursorPage<DeadLetterResponse> getDeadLetters(@PathVariable Long id,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        return dispatchService.getDeadLetters(id, cursor, size);
+    }
+
+    @Operation(summary = "Otwarcia i klikniecia kampanii", tags = {"Campaigns - Admin API"})
+    @GetMapping("/{id}/tracking")
+    public CampaignTrackingResponse getTracking(@PathVariable Long id) {
+        return trackingService.getTracking(id);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.jiranewsletterapp.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import org.example.jiranewsletterapp.dto.JiraIssueResponse;
+import org.example.jiranewsletterapp.dto.JiraSyncResult;
+import org.example.jiranewsletterapp.service.JiraIssueSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/jira-issues")
+public class JiraIssueController {
+
+    private final JiraIssueSyncService syncService;
+
+    @Autowired
+    public JiraIssueController(JiraIssueSyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @Operation(summary = "Zgloszenia projektu rozwiazane od podanej daty", tags = {"Jira - Admin API"})
+    @GetMapping("/resolved")
+    public List<JiraIssueResponse> getResolved(@RequestParam String project,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since) {
+        return syncService.getResolvedIssues(project, since != null ? since : OffsetDateTime.now().minusWeeks(1));
+    }
+
+    @Operation(summary = "Synchronizacja zmienionych zgloszen z Jiry", tags = {"Jira - Admin API"})
+    @PostMapping("/sync")
+    public JiraSyncResult sync(@RequestParam String project) {
+        return syncService.sync(project);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.jiranewsletterapp.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import org.example.jiranewsletterapp.dto.SignupRequest;
+import org.example.jiranewsletterapp.service.PublicSignupService;
+import org.example.jiranewsletterapp.service.SubscriptionConfirmationService;
+import org.example.jiranewsletterapp.service.UnsubscribeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.HtmlUtils;
+
+@RestController
+@RequestMapping("/public/subscriptions")
+public class PublicSubscriptionController {
+
+    // Title, form action, token and button label.
+    private static final String FORM_PAGE = """
+            <!DOCTYPE html>
+            <html>
+            <head><meta charset="utf-8"><title>%s</title></head>
+            <body>
+            <form method="post" action="%s">
+                <input type="hidden" name="token" value="%s">
+                <button type="submit">%s</button>
+            </form>
+            </body>
+            </html>
+            """;
+
+    private final PublicSignupService signupService;
+    private final SubscriptionConfirmationService confirmationService;
+    private final UnsubscribeService unsubscribeService;
+
+    @Autowired
+    public PublicSubscriptionController(PublicSignupService signupService,
+                                        SubscriptionConfirmationService confirmationService,
+                                        UnsubscribeService unsubscribeService) {
+        this.signupService = signupService;
+        this.confirmationService = confirmationService;
+        this.unsubscribeService = unsubscribeService;
+    }
+
+    @Operation(summary = "Zapis na liste z formularza na stronie", tags = {"Subscriptions - Public API"})
+    @PostMapping
+    public ResponseEntity<String> signup(@RequestBody SignupRequest request) {
+        signupService.signup(request);
+        return ResponseEntity.accepted().body("Signup received");
+    }
+
+    @Operation(summary = "Strona potwierdzenia zapisu otwierana linkiem z maila", tags = {"Subscriptions - Public API"})
+    @GetMapping(value = "/confirm", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> confirmPage(@RequestParam String token) {
+        // Only a page: mail scanners open every link, so confirming takes the subscriber's click on the button.
+        return formPage("Confirm your subscription", SubscriptionConfirmationService.CONFIRM_PATH, token,
+                "Confirm my subscription");
+    }
+
+    @Operation(summary = "Potwierdzenie zapisu na liste", tags = {"Subscriptions - Public API"})
+    @PostMapping("/confirm")
+    public ResponseEntity<String> confirm(@RequestParam String token) {
+        confirmationService.confirm(token);
+        return ResponseEntity.accepted().body("Subscription confirmed");
+    }
+
+    @Operation(summary = "Strona wypisania otwierana linkiem List-Unsubscribe w przegladarce",
+            tags = {"Subscriptions - Public API"})
+    @GetMapping(value = "/unsubscribe", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> unsubscribePage(@RequestParam String token) {
+        // Same as confirmPage: a scanner opening the link must not unsubscribe anyone.
+        return formPage("Unsubscribe", UnsubscribeService.UNSUBSCRIBE_PATH, token, "Unsubscribe me");
+    }
+
+    @Operation(summary = "Wypisanie z listy jednym kliknieciem (RFC 8058)", tags = {"Subscriptions - Public API"})
+    @PostMapping("/unsubscribe")
+    public ResponseEntity<String> unsubscribe(@RequestParam String token) {
+        unsubscribeService.unsubscribe(token);
+        return ResponseEntity.accepted().body("Unsubscribed");
+    }
+
+    private static ResponseEntity<String> formPage(String title, String action, String token, String button) {
+        String page = FORM_PAGE.formatted(title, action, HtmlUtils.htmlEscape(token), button);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(page);
+    }
+}
@@ -1,11 +1,19 @@
 package org.example.jiranewsletterapp.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.ImportReport;
+import org.example.jiranewsletterapp.dto.SubscriberResponse;
 import org.example.jiranewsletterapp.entity.Subscriber;
+import org.example.jiranewsletterapp.service.FileFormat;
+import org.example.jiranewsletterapp.service.SubscriberImportService;
 import org.example.jiranewsletterapp.service.SubscriberService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -13,34 +21,51 @@ import java.util.List;
 public class SubscriberController {
 
     private final SubscriberService subscriberService;
+    private final SubscriberImportService importService;
 
     @Autowired
-    public SubscriberController(SubscriberService subscriberService) {
+    public SubscriberController(SubscriberService subscriberService, SubscriberImportService importService) {
         this.subscriberService = subscriberService;
+        this.importService = importService;
     }
 
     @Operation(summary = "Wszyscy subskrybenci", tags = {"Subscribers - Admin API"})
     @GetMapping
-    public List<Subscriber> getAll() {
-        return subscriberService.getAllSubscribers();
+    public CursorPage<SubscriberResponse> getAll(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        return subscriberService.getAllSubscribers(cursor, size);
     }
 
     @Operation(summary = "Pobierz subscribera po ID", tags = {"Subscribers - Admin API"})
     @GetMapping("/{id}")
-    public Subscriber getById(@PathVariable Long id) {
+    public SubscriberResponse getById(@PathVariable Long id) {
         return subscriberService.getById(id);
     }
 
     @Operation(summary = "Stworz nowego subscribera", tags = {"Subscribers - Admin API"})
     @PostMapping
-    public Subscriber create(@RequestBody Subscriber subscriber) {
-        return subscriberService.create(subscriber);
+    public SubscriberResponse create(@RequestBody Subscriber subscriber) {
+        return SubscriberResponse.from(subscriberService.create(subscriber));
+    }
+
+    @Operation(summary = "Stworz wielu subscriberow naraz", tags = {"Subscribers - Admin API"})
+    @PostMapping("/batch")
+    public List<SubscriberResponse> createBatch(@RequestBody List<Subscriber> subscribers) {
+        return subscriberService.createAll(subscribers).stream().map(SubscriberResponse::from).toList();
+    }
+
+    @Operation(summary = "Import subskrybentow z pliku CSV lub NDJSON", tags = {"Subscribers - Admin API"})
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ImportReport importSubscribers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                          @RequestParam(required = false) Long listId,
+                                          InputStream body) {
+        return importService.importSubscribers(body, FileFormat.fromContentType(contentType), listId);
     }
 
     @Operation(summary = "Zaktualizuj subscribera", tags = {"Subscribers - Admin API"})
     @PutMapping("/{id}")
-    public Subscriber update(@PathVariable Long id, @RequestBody Subscriber updated) {
-        return subscriberService.update(id, updated);
+    public SubscriberResponse update(@PathVariable Long id, @RequestBody Subscriber updated) {
+        return SubscriberResponse.from(subscriberService.update(id, updated));
     }
 
     @Operation(summary = "Usun subscribera po ID", tags = {"Subscribers - Admin API"})
@@ -57,7 +82,8 @@ public class SubscriberController {
 
     @Operation(summary = "Wszyscy subskrybenci dla aktualnego uzytkownika", tags = {"Subscribers - User API"})
     @GetMapping("/my")
-    public List<Subscriber> getMySubscribers() {
-        return subscriberService.getMySubscribers();
+    public CursorPage<SubscriberResponse> getMySubscribers(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        return subscriberService.getMySubscribers(cursor, size);
     }
 }
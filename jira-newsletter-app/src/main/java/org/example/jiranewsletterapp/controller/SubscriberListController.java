@@ -1,46 +1,94 @@
 package org.example.jiranewsletterapp.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import org.example.jiranewsletterapp.dto.AudienceQuery;
+import org.example.jiranewsletterapp.dto.AudienceResult;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.SubscriberListResponse;
 import org.example.jiranewsletterapp.entity.SubscriberList;
+import org.example.jiranewsletterapp.service.FileFormat;
+import org.example.jiranewsletterapp.service.SubscriberListExportService;
 import org.example.jiranewsletterapp.service.SubscriberListService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/subscriber-lists")
 public class SubscriberListController {
 
     private final SubscriberListService listService;
+    private final SubscriberListExportService exportService;
 
     @Autowired
-    public SubscriberListController(SubscriberListService listService) {
+    public SubscriberListController(SubscriberListService listService, SubscriberListExportService exportService) {
         this.listService = listService;
+        this.exportService = exportService;
     }
 
     @Operation(summary = "Wszystkie listy", tags = {"Lists - Admin API"})
     @GetMapping
-    public List<SubscriberList> getAll() {
-        return listService.getAllLists();
+    public CursorPage<SubscriberListResponse> getAll(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        return listService.getAllLists(cursor, size);
+    }
+
+    @Operation(summary = "Odbiorcy wyznaczeni operacjami na listach", tags = {"Lists - Admin API"})
+    @PostMapping("/audience")
+    public AudienceResult audience(@RequestBody AudienceQuery query,
+                                   @RequestParam(required = false) Integer limit) {
+        return listService.getAudience(query, limit);
     }
 
     @Operation(summary = "Lista przez ID", tags = {"Lists - Admin API"})
     @GetMapping("/{id}")
-    public SubscriberList getById(@PathVariable Long id) {
+    public SubscriberListResponse getById(@PathVariable Long id) {
         return listService.getById(id);
     }
 
+    @Operation(summary = "Eksport czlonkow listy do CSV lub NDJSON", tags = {"Lists - Admin API"})
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable Long id,
+                                                        @RequestParam(defaultValue = "csv") String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        FileFormat fileFormat = FileFormat.fromName(format);
+        exportService.requireList(id);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 1 << 16);
+                exportService.exportMembers(id, fileFormat, compressed);
+                compressed.finish();
+            } else {
+                exportService.exportMembers(id, fileFormat, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(fileFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("list-" + id + "." + fileFormat.getExtension()).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @Operation(summary = "Tworzenie listy", tags = {"Lists - Admin API"})
     @PostMapping
-    public SubscriberList create(@RequestBody SubscriberList list) {
-        return listService.createList(list);
+    public SubscriberListResponse create(@RequestBody SubscriberList list) {
+        return SubscriberListResponse.from(listService.createList(list));
     }
 
     @Operation(summary = "Aktualizacja listy po ID", tags = {"Lists - Admin API"})
     @PutMapping("/{id}")
-    public SubscriberList update(@PathVariable Long id, @RequestBody SubscriberList updated) {
-        return listService.updateList(id, updated);
+    public SubscriberListResponse update(@PathVariable Long id, @RequestBody SubscriberList updated) {
+        return SubscriberListResponse.from(listService.updateList(id, updated));
     }
 
     @Operation(summary = "Usuniecie listy po ID", tags = {"Lists - Admin API"})
@@ -51,26 +99,26 @@ public class SubscriberListController {
 
     @Operation(summary = "Wszystkie listy", tags = {"Lists - User API"})
     @GetMapping("/my")
-    public List<SubscriberList> getMyLists() {
+    public List<SubscriberListResponse> getMyLists() {
         return listService.getCurrentUserLists();
     }
 
     @Operation(summary = "Wszystkie listy", tags = {"Lists - User API"})
     @GetMapping("/my/{id}")
-    public SubscriberList getMyListById(@PathVariable Long id) {
+    public SubscriberListResponse getMyListById(@PathVariable Long id) {
         return listService.getMyListById(id);
     }
 
     @Operation(summary = "Tworzenie listy", tags = {"Lists - User API"})
     @PostMapping("/my")
-    public SubscriberList createMyList(@RequestBody SubscriberList list) {
-        return listService.createListForCurrentUser(list);
+    public SubscriberListResponse createMyList(@RequestBody SubscriberList list) {
+        return SubscriberListResponse.from(listService.createListForCurrentUser(list));
     }
 
     @Operation(summary = "Aktualizacja listy po ID", tags = {"Lists - User API"})
     @PutMapping("/my/{id}")
-    public SubscriberList updateMyList(@PathVariable Long id, @RequestBody SubscriberList updatedList) {
-        return listService.updateListForCurrentUser(id, updatedList);
+    public SubscriberListResponse updateMyList(@PathVariable Long id, @RequestBody SubscriberList updatedList) {
+        return SubscriberListResponse.from(listService.updateListForCurrentUser(id, updatedList));
     }
 
     @Operation(summary = "Usuniecie listy po ID", tags = {"Lists - User API"})
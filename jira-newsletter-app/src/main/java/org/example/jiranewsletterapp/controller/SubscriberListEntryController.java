@@ -1,6 +1,8 @@
 package org.example.jiranewsletterapp.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.SubscriberListEntryResponse;
 import org.example.jiranewsletterapp.entity.SubscriberListEntry;
 import org.example.jiranewsletterapp.service.SubscriberListEntryService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,20 +23,21 @@ public class SubscriberListEntryController {
 
     @Operation(summary = "Wszystkie zapisy na listy", tags = {"Lists entries - Admin API"})
     @GetMapping
-    public List<SubscriberListEntry> getAll() {
-        return entryService.getAllEntries();
+    public CursorPage<SubscriberListEntryResponse> getAll(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size) {
+        return entryService.getAllEntries(cursor, size);
     }
 
     @Operation(summary = "Tworzenie nowego zapisu na liste", tags = {"Lists entries - Admin API"})
     @PostMapping
-    public SubscriberListEntry create(@RequestBody SubscriberListEntry entry) {
-        return entryService.createEntry(entry);
+    public SubscriberListEntryResponse create(@RequestBody SubscriberListEntry entry) {
+        return SubscriberListEntryResponse.from(entryService.createEntry(entry));
     }
 
     @Operation(summary = "Aktualizaca zapisu na liste po ID", tags = {"Lists entries - Admin API"})
     @PutMapping("/{id}")
-    public SubscriberListEntry update(@PathVariable Long id, @RequestBody SubscriberListEntry updated) {
-        return entryService.updateEntry(id, updated);
+    public SubscriberListEntryResponse update(@PathVariable Long id, @RequestBody SubscriberListEntry updated) {
+        return SubscriberListEntryResponse.from(entryService.updateEntry(id, updated));
     }
 
     @Operation(summary = "Usuniecie zapisu na liste po ID", tags = {"Lists entries - Admin API"})
@@ -45,19 +48,20 @@ public class SubscriberListEntryController {
 
     @Operation(summary = "Zapis na liste po ID", tags = {"Lists entries - Admin API"})
     @GetMapping("/{id}")
-    public SubscriberListEntry getById(@PathVariable Long id) {
+    public SubscriberListEntryResponse getById(@PathVariable Long id) {
         return entryService.getById(id);
     }
 
     @PostMapping("/assign")
     @Operation(summary = "Przypisanie subskrybenta do listy po ID", tags = {"Lists entries - Admin API"})
-    public SubscriberListEntry assignSubscriberToListAsAdmin(@RequestParam Long listId, @RequestParam Long subscriberId) {
-        return entryService.assignSubscriberToListAsAdmin(listId, subscriberId);
+    public SubscriberListEntryResponse assignSubscriberToListAsAdmin(@RequestParam Long listId,
+                                                                     @RequestParam Long subscriberId) {
+        return SubscriberListEntryResponse.from(entryService.assignSubscriberToListAsAdmin(listId, subscriberId));
     }
 
     @Operation(summary = "Wszystkie listy", tags = {"Lists entries - User API"})
     @GetMapping("/my")
-    public List<SubscriberListEntry> getMyEntries() {
+    public List<SubscriberListEntryResponse> getMyEntries() {
         return entryService.getEntriesForCurrentUser();
     }
 
@@ -69,7 +73,7 @@ public class SubscriberListEntryController {
 
     @Operation(summary = "Zapis na liste po ID", tags = {"Lists entries - User API"})
     @PostMapping("/my/assign")
-    public SubscriberListEntry assignSubscriber(@RequestParam Long listId, @RequestParam Long subscriberId) {
-        return entryService.assignSubscriberToMyList(listId, subscriberId);
+    public SubscriberListEntryResponse assignSubscriber(@RequestParam Long listId, @RequestParam Long subscriberId) {
+        return SubscriberListEntryResponse.from(entryService.assignSubscriberToMyList(listId, subscriberId));
     }
 }
@@ -0,0 +1,51 @@
+package org.example.jiranewsletterapp.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import org.example.jiranewsletterapp.service.TrackingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Base64;
+
+@RestController
+@RequestMapping("/public/track")
+public class TrackingController {
+
+    private static final byte[] PIXEL = Base64.getDecoder().decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+
+    private final TrackingService trackingService;
+
+    @Autowired
+    public TrackingController(TrackingService trackingService) {
+        this.trackingService = trackingService;
+    }
+
+    // The pixel is served whether or not the token checks out, so a stale link never shows a broken image.
+    @Operation(summary = "Piksel sledzacy otwarcie wiadomosci", tags = {"Tracking - Public API"})
+    @GetMapping("/open/{campaignId}/{token}")
+    public ResponseEntity<byte[]> open(@PathVariable long campaignId, @PathVariable String token) {
+        trackingService.recordOpen(campaignId, token);
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_GIF)
+                .cacheControl(CacheControl.noStore())
+                .body(PIXEL);
+    }
+
+    @Operation(summary = "Przekierowanie sledzace klikniecie linku", tags = {"Tracking - Public API"})
+    @GetMapping("/click/{campaignId}/{token}")
+    public ResponseEntity<Void> click(@PathVariable long campaignId, @PathVariable String token,
+                                      @RequestParam String url) {
+        if (!trackingService.recordClick(campaignId, token, url)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create(url))
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+}
@@ -1,14 +1,14 @@
 package org.example.jiranewsletterapp.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.UserResponse;
 import org.example.jiranewsletterapp.entity.User;
 import org.example.jiranewsletterapp.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/users")
 public class UserController {
@@ -22,37 +22,38 @@ public class UserController {
 
     @Operation(summary = "Pobierz wszystkich userow", tags = {"Users - Admin API"})
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public CursorPage<UserResponse> getAllUsers(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        return userService.getAllUsers(cursor, size);
     }
 
     @Operation(summary = "Pobierz usera po ID", tags = {"Users - Admin API"})
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        return userService.getUserById(id)
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
+        return userService.getUserResponseById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(summary = "Stworz nowego usera", tags = {"Users - Admin API"})
     @PostMapping
-    public User createUser(@RequestBody User user) {
-        return userService.createUser(user);
+    public UserResponse createUser(@RequestBody User user) {
+        return UserResponse.from(userService.createUser(user));
     }
 
     @Operation(summary = "Zaktualizuj usera po ID", tags = {"Users - Admin API"})
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User updatedUser) {
-        if (userService.getUserById(id).isEmpty()) {
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @RequestBody User updatedUser) {
+        if (!userService.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(userService.updateUser(id, updatedUser));
+        return ResponseEntity.ok(UserResponse.from(userService.updateUser(id, updatedUser)));
     }
 
     @Operation(summary = "Usun usera po ID", tags = {"Users - Admin API"})
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        if (userService.getUserById(id).isEmpty()) {
+        if (!userService.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
         userService.deleteUser(id);
@@ -0,0 +1,12 @@
+package org.example.jiranewsletterapp.dto;
+
+import java.util.List;
+
+public record AudienceQuery(List<Long> anyOf, List<Long> allOf, List<Long> noneOf) {
+
+    public AudienceQuery {
+        anyOf = anyOf == null ? List.of() : List.copyOf(anyOf);
+        allOf = allOf == null ? List.of() : List.copyOf(allOf);
+        noneOf = noneOf == null ? List.of() : List.copyOf(noneOf);
+    }
+}
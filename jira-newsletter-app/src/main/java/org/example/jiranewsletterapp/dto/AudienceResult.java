@@ -0,0 +1,6 @@
+package org.example.jiranewsletterapp.dto;
+
+import java.util.List;
+
+public record AudienceResult(long cardinality, List<Long> subscriberIds) {
+}
@@ -0,0 +1,16 @@
+package org.example.jiranewsletterapp.dto;
+
+import java.util.List;
+
+public record CampaignRequest(String name, String subject, String body, List<Long> listIds,
+                              List<Long> excludedListIds) {
+
+    public CampaignRequest {
+        listIds = listIds == null ? List.of() : List.copyOf(listIds);
+        excludedListIds = excludedListIds == null ? List.of() : List.copyOf(excludedListIds);
+    }
+
+    public CampaignRequest(String name, String subject, String body, List<Long> listIds) {
+        this(name, subject, body, listIds, List.of());
+    }
+}
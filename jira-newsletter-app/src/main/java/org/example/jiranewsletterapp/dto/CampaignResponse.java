@@ -0,0 +1,25 @@
+package org.example.jiranewsletterapp.dto;
+
+import org.example.jiranewsletterapp.entity.Campaign;
+import org.example.jiranewsletterapp.entity.CampaignStatus;
+
+import java.time.LocalDateTime;
+
+public record CampaignResponse(
+        Long id,
+        String name,
+        String subject,
+        CampaignStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime scheduledAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long sentCount,
+        long failedCount
+) {
+    public static CampaignResponse from(Campaign campaign) {
+        return new CampaignResponse(campaign.getId(), campaign.getName(), campaign.getSubject(), campaign.getStatus(),
+                campaign.getCreatedAt(), campaign.getScheduledAt(), campaign.getStartedAt(), campaign.getFinishedAt(),
+                campaign.getSentCount(), campaign.getFailedCount());
+    }
+}
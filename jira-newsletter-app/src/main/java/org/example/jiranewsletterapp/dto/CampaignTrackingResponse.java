@@ -0,0 +1,9 @@
+package org.example.jiranewsletterapp.dto;
+
+import java.util.List;
+
+public record CampaignTrackingResponse(long opens, long clicks, List<LinkClicks> links) {
+
+    public record LinkClicks(String url, long clicks) {
+    }
+}
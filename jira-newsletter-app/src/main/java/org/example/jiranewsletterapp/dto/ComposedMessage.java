@@ -0,0 +1,13 @@
+package org.example.jiranewsletterapp.dto;
+
+/**
+ * A message written in full when it is queued, rather than rendered from a campaign when it is sent.
+ */
+public record ComposedMessage(
+        long subscriberId,
+        Long subscriberListId,
+        String recipient,
+        String subject,
+        String body
+) {
+}
@@ -0,0 +1,14 @@
+package org.example.jiranewsletterapp.dto;
+
+import java.time.OffsetDateTime;
+
+public record DeadLetterResponse(
+        Long id,
+        Long subscriberId,
+        String recipient,
+        int attempts,
+        String lastError,
+        boolean permanent,
+        OffsetDateTime failedAt
+) {
+}
@@ -0,0 +1,4 @@
+package org.example.jiranewsletterapp.dto;
+
+public record DeliveryFailure(OutboundMessage message, String error, boolean permanent) {
+}
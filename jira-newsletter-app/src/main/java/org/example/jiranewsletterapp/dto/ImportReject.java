@@ -0,0 +1,4 @@
+package org.example.jiranewsletterapp.dto;
+
+public record ImportReject(long row, String reason) {
+}
@@ -0,0 +1,14 @@
+package org.example.jiranewsletterapp.dto;
+
+import java.util.List;
+
+public record ImportReport(
+        long rowsRead,
+        long rowsAccepted,
+        long rowsRejected,
+        long subscribersCreated,
+        long entriesCreated,
+        List<ImportReject> rejects,
+        boolean rejectsTruncated
+) {
+}
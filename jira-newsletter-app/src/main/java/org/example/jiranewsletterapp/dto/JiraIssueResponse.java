@@ -0,0 +1,13 @@
+package org.example.jiranewsletterapp.dto;
+
+import java.time.OffsetDateTime;
+
+public record JiraIssueResponse(
+        String key,
+        String summary,
+        String issueType,
+        String status,
+        OffsetDateTime resolvedAt,
+        OffsetDateTime updatedAt
+) {
+}
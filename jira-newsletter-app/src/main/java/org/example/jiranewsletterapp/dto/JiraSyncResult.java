@@ -0,0 +1,18 @@
+package org.example.jiranewsletterapp.dto;
+
+import java.time.OffsetDateTime;
+
+public record JiraSyncResult(
+        String project,
+        Outcome outcome,
+        int requests,
+        int issuesFetched,
+        int issuesChanged,
+        OffsetDateTime watermark
+) {
+    public enum Outcome {
+        SYNCED,
+        NOT_MODIFIED,
+        IN_PROGRESS
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.jiranewsletterapp.dto;
+
+import org.example.jiranewsletterapp.entity.Gender;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record ListMemberExport(
+        Long subscriberId,
+        String email,
+        String firstName,
+        String lastName,
+        LocalDate birthDate,
+        Gender gender,
+        LocalDateTime dateAdded,
+        boolean confirmed,
+        String source
+) {
+}
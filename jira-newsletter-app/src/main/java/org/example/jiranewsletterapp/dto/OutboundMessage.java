@@ -0,0 +1,26 @@
+package org.example.jiranewsletterapp.dto;
+
+import org.example.jiranewsletterapp.template.MergeValues;
+
+import java.time.LocalDate;
+
+public record OutboundMessage(
+        Long id,
+        Long campaignId,
+        long subscriberId,
+        String recipient,
+        String firstName,
+        String lastName,
+        LocalDate birthDate,
+        String listName,
+        int attempts,
+        Long entryId,
+        boolean suppressed,
+        String subject,
+        String body
+) implements MergeValues {
+    @Override
+    public String email() {
+        return recipient;
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.jiranewsletterapp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@code sendAt} is read in the server's time zone, or in each subscriber's own time zone when
+ * {@code subscriberLocalTime} is set.
+ */
+public record ScheduleRequest(LocalDateTime sendAt, boolean subscriberLocalTime) {
+}
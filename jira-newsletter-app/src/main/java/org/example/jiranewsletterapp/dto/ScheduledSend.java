@@ -0,0 +1,4 @@
+package org.example.jiranewsletterapp.dto;
+
+public record ScheduledSend(long id, long sendAtMillis) {
+}
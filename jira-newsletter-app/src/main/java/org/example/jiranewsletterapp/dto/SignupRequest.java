@@ -0,0 +1,7 @@
+package org.example.jiranewsletterapp.dto;
+
+/**
+ * {@code source} is stored on the list entry, e.g. the page the form was on; it defaults to {@code SIGNUP}.
+ */
+public record SignupRequest(String email, String firstName, String lastName, Long listId, String source) {
+}
@@ -0,0 +1,30 @@
+package org.example.jiranewsletterapp.dto;
+
+import org.example.jiranewsletterapp.entity.Gender;
+import org.example.jiranewsletterapp.entity.SubscriberListEntry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record SubscriberListEntryResponse(
+        Long id,
+        LocalDateTime dateAdded,
+        boolean confirmed,
+        String source,
+        Long listId,
+        SubscriberResponse subscriber
+) {
+    // Flat form used by JPQL constructor expressions, which cannot nest another "new".
+    public SubscriberListEntryResponse(Long id, LocalDateTime dateAdded, boolean confirmed, String source, Long listId,
+                                       Long subscriberId, String email, String firstName, String lastName,
+                                       LocalDate birthDate, Gender gender, LocalDateTime joinDate) {
+        this(id, dateAdded, confirmed, source, listId, subscriberId == null ? null
+                : new SubscriberResponse(subscriberId, email, firstName, lastName, birthDate, gender, joinDate));
+    }
+
+    public static SubscriberListEntryResponse from(SubscriberListEntry entry) {
+        return new SubscriberListEntryResponse(entry.getId(), entry.getDateAdded(), entry.isConfirmed(), entry.getSource(),
+                entry.getList() == null ? null : entry.getList().getId(),
+                entry.getSubscriber() == null ? null : SubscriberResponse.from(entry.getSubscriber()));
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.jiranewsletterapp.dto;
+
+import org.example.jiranewsletterapp.entity.SubscriberList;
+
+public record SubscriberListResponse(
+        Long id,
+        String name,
+        Long ownerId,
+        boolean publicSignup
+) {
+    public static SubscriberListResponse from(SubscriberList list) {
+        return new SubscriberListResponse(list.getId(), list.getName(),
+                list.getOwner() == null ? null : list.getOwner().getId(), list.isPublicSignup());
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.jiranewsletterapp.dto;
+
+import org.example.jiranewsletterapp.entity.Gender;
+import org.example.jiranewsletterapp.entity.Subscriber;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record SubscriberResponse(
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        LocalDate birthDate,
+        Gender gender,
+        LocalDateTime joinDate
+) {
+    public static SubscriberResponse from(Subscriber subscriber) {
+        return new SubscriberResponse(subscriber.getId(), subscriber.getEmail(), subscriber.getFirstName(),
+                subscriber.getLastName(), subscriber.getBirthDate(), subscriber.getGender(), subscriber.getJoinDate());
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.jiranewsletterapp.dto;
+
+import org.example.jiranewsletterapp.entity.Gender;
+import org.example.jiranewsletterapp.entity.Role;
+import org.example.jiranewsletterapp.entity.User;
+
+public record UserResponse(
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        Gender gender,
+        Role role
+) {
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getGender(), user.getRole());
+    }
+}
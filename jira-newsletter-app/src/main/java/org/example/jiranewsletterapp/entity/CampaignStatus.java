@@ -0,0 +1,9 @@
+package org.example.jiranewsletterapp.entity;
+
+public enum CampaignStatus {
+    DRAFT,
+    SCHEDULED,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -18,7 +18,8 @@ import java.util.List;
 public class Subscriber {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriber_seq")
+    @SequenceGenerator(name = "subscriber_seq", sequenceName = "subscriber_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -30,6 +31,9 @@ public class Subscriber {
 
     private LocalDate birthDate;
 
+    // IANA zone id, e.g. "Europe/Warsaw"; used for campaigns sent at the subscriber's local time.
+    private String timeZone;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Gender gender = Gender.UNKNOWN;
@@ -10,17 +10,22 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_subscriber_list_owner_id", columnList = "owner_id, id"))
 @Getter
 @Setter
 @NoArgsConstructor
 public class SubscriberList {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriber_list_seq")
+    @SequenceGenerator(name = "subscriber_list_seq", sequenceName = "subscriber_list_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
+    // Whether the public subscribe form may add entries to this list.
+    private boolean publicSignup;
+
     @ManyToOne
     @JoinColumn(name = "owner_id", nullable = false)
     @JsonBackReference
@@ -9,13 +9,17 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_subscriber_list_entry_subscriber_list", columnList = "subscriber_id, subscriber_list_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uc_subscriber_list_entry_list_subscriber",
+                columnNames = {"subscriber_list_id", "subscriber_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
 public class SubscriberListEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriber_list_entry_seq")
+    @SequenceGenerator(name = "subscriber_list_entry_seq", sequenceName = "subscriber_list_entry_seq", allocationSize = 50)
     private Long id;
 
     private LocalDateTime dateAdded = LocalDateTime.now();
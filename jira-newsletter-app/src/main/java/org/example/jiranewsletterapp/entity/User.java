@@ -18,7 +18,8 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_app_seq")
+    @SequenceGenerator(name = "user_app_seq", sequenceName = "user_app_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -0,0 +1,12 @@
+package org.example.jiranewsletterapp.jira;
+
+public class JiraApiException extends RuntimeException {
+
+    public JiraApiException(String message) {
+        super(message);
+    }
+
+    public JiraApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.jiranewsletterapp.jira;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Minimal client for the Jira REST search endpoint. Only the fields the newsletter needs are requested, and a
+ * previously returned {@code ETag} can be sent back so that an unchanged result costs a 304 instead of a page of JSON.
+ */
+public class JiraClient {
+
+    public static final String SEARCH_PATH = "/rest/api/2/search";
+
+    private static final String FIELDS = "summary,status,issuetype,resolutiondate,updated";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+
+    private final HttpClient httpClient;
+    private final URI searchUri;
+    private final String authorization;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+
+    public JiraClient(HttpClient httpClient, String baseUrl, String username, String apiToken, Duration timeout,
+                      ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.searchUri = URI.create(baseUrl.replaceAll("/+$", "") + SEARCH_PATH);
+        this.authorization = authorization(username, apiToken);
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+    }
+
+    // Jira Cloud takes e-mail and API token as basic auth; Data Center personal access tokens are bearer tokens.
+    private static String authorization(String username, String apiToken) {
+        if (apiToken == null || apiToken.isBlank()) {
+            return null;
+        }
+        if (username == null || username.isBlank()) {
+            return "Bearer " + apiToken;
+        }
+        String credentials = username + ":" + apiToken;
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public JiraSearchResult search(String jql, int startAt, int maxResults, String etag) {
+        URI uri = URI.create(searchUri + "?jql=" + URLEncoder.encode(jql, StandardCharsets.UTF_8)
+                + "&startAt=" + startAt + "&maxResults=" + maxResults + "&fields=" + FIELDS);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new JiraApiException("Jira search failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JiraApiException("Interrupted while searching Jira", e);
+        }
+
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 304) {
+                return JiraSearchResult.NOT_MODIFIED;
+            }
+            if (response.statusCode() != 200) {
+                throw new JiraApiException("Jira search returned HTTP " + response.statusCode());
+            }
+            JsonNode root = objectMapper.readTree(body);
+            List<JiraIssue> issues = new ArrayList<>();
+            for (JsonNode issue : root.path("issues")) {
+                issues.add(toIssue(issue));
+            }
+            return new JiraSearchResult(false, response.headers().firstValue("ETag").orElse(null),
+                    root.path("total").asInt(issues.size()), issues);
+        } catch (IOException e) {
+            throw new JiraApiException("Could not read Jira search response: " + e.getMessage(), e);
+        }
+    }
+
+    private static JiraIssue toIssue(JsonNode issue) {
+        String key = issue.path("key").asText();
+        JsonNode fields = issue.path("fields");
+        return new JiraIssue(
+                issue.path("id").asLong(),
+                key,
+                key.substring(0, key.lastIndexOf('-')),
+                fields.path("summary").asText(null),
+                fields.path("issuetype").path("name").asText(null),
+                fields.path("status").path("name").asText(null),
+                timestamp(fields.path("resolutiondate")),
+                timestamp(fields.path("updated")));
+    }
+
+    private static OffsetDateTime timestamp(JsonNode value) {
+        return value.isTextual() ? OffsetDateTime.parse(value.asText(), TIMESTAMP) : null;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.jiranewsletterapp.jira;
+
+import java.time.OffsetDateTime;
+
+public record JiraIssue(
+        long id,
+        String key,
+        String projectKey,
+        String summary,
+        String issueType,
+        String status,
+        OffsetDateTime resolvedAt,
+        OffsetDateTime updatedAt
+) {
+}
@@ -0,0 +1,11 @@
+package org.example.jiranewsletterapp.jira;
+
+import java.util.List;
+
+/**
+ * One page of a JQL search, or {@link #NOT_MODIFIED} when the server answered a conditional request with 304.
+ */
+public record JiraSearchResult(boolean notModified, String etag, int total, List<JiraIssue> issues) {
+
+    public static final JiraSearchResult NOT_MODIFIED = new JiraSearchResult(true, null, 0, List.of());
+}
@@ -0,0 +1,41 @@
+package org.example.jiranewsletterapp.mail;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Unsynchronized growable byte array. Slices are only valid once writing has finished, since growing replaces the
+ * backing array.
+ */
+final class ByteSink {
+
+    private byte[] bytes;
+    private int length;
+
+    ByteSink(int capacity) {
+        this.bytes = new byte[Math.max(capacity, 16)];
+    }
+
+    void write(int b) {
+        if (length == bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        bytes[length++] = (byte) b;
+    }
+
+    void write(byte[] b) {
+        if (length + b.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + b.length));
+        }
+        System.arraycopy(b, 0, bytes, length, b.length);
+        length += b.length;
+    }
+
+    int length() {
+        return length;
+    }
+
+    ByteBuffer slice(int from, int to) {
+        return ByteBuffer.wrap(bytes, from, to - from);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.jiranewsletterapp.mail;
+
+/**
+ * A recipient that must not be mailed again, taken from a bounce or complaint report.
+ */
+public record DeliveryReport(String recipient, Kind kind) {
+
+    public enum Kind {
+        HARD_BOUNCE,
+        COMPLAINT
+    }
+}
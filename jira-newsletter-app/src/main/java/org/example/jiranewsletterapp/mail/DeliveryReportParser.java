@@ -0,0 +1,186 @@
+package org.example.jiranewsletterapp.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads delivery status notifications (RFC 3464) and abuse feedback reports (RFC 5965) line by line, so a report is
+ * never held in memory as a whole. Only the machine-readable parts are looked at: a {@code message/delivery-status}
+ * part yields a {@link DeliveryReport.Kind#HARD_BOUNCE} for every recipient with {@code Action: failed} and a
+ * {@code 5.x.x} status, and a {@code message/feedback-report} part yields a {@link DeliveryReport.Kind#COMPLAINT} for
+ * its {@code Original-Rcpt-To}, or for the {@code To} of the attached original message when that is missing.
+ * Delays and temporary failures yield nothing.
+ * <p>
+ * MIME boundaries are not matched exactly: any line starting with {@code --} ends the current part. Parts are expected
+ * in 7bit or 8bit, as MTAs write them.
+ */
+public final class DeliveryReportParser {
+
+    private enum Part {
+        OTHER,
+        DELIVERY_STATUS,
+        FEEDBACK_REPORT,
+        ORIGINAL_MESSAGE
+    }
+
+    private final List<DeliveryReport> reports = new ArrayList<>();
+    private Part part = Part.OTHER;
+    private boolean inPartHeaders;
+    private String fieldName;
+    private StringBuilder fieldValue;
+
+    // Per-recipient fields of the delivery-status group being read.
+    private String finalRecipient;
+    private String originalRecipient;
+    private String action;
+    private String status;
+
+    private String feedbackType;
+    private final List<String> complainants = new ArrayList<>();
+    private String originalTo;
+
+    private DeliveryReportParser() {
+    }
+
+    public static List<DeliveryReport> parse(BufferedReader reader) throws IOException {
+        DeliveryReportParser parser = new DeliveryReportParser();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            parser.line(line);
+        }
+        parser.finish();
+        return parser.reports;
+    }
+
+    private void line(String line) {
+        if (!line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+            if (fieldName != null) {
+                fieldValue.append(' ').append(line.trim());
+            }
+            return;
+        }
+        completeField();
+        if (line.startsWith("--")) {
+            endGroup();
+            part = Part.OTHER;
+            inPartHeaders = true;
+            return;
+        }
+        if (line.isBlank()) {
+            if (inPartHeaders) {
+                inPartHeaders = false;
+            } else {
+                endGroup();
+            }
+            return;
+        }
+        int colon = line.indexOf(':');
+        if (colon > 0 && line.lastIndexOf(' ', colon) < 0) {
+            fieldName = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            fieldValue = new StringBuilder(line.substring(colon + 1).trim());
+        }
+    }
+
+    private void completeField() {
+        if (fieldName == null) {
+            return;
+        }
+        String name = fieldName;
+        String value = fieldValue.toString().trim();
+        fieldName = null;
+        fieldValue = null;
+
+        if (inPartHeaders) {
+            if (name.equals("content-type")) {
+                part = partOf(value);
+            }
+            return;
+        }
+        switch (part) {
+            case DELIVERY_STATUS -> {
+                switch (name) {
+                    case "final-recipient" -> finalRecipient = address(value);
+                    case "original-recipient" -> originalRecipient = address(value);
+                    case "action" -> action = value.toLowerCase(Locale.ROOT);
+                    case "status" -> status = value;
+                    default -> {
+                    }
+                }
+            }
+            case FEEDBACK_REPORT -> {
+                switch (name) {
+                    case "feedback-type" -> feedbackType = value.toLowerCase(Locale.ROOT);
+                    case "original-rcpt-to" -> complainants.add(address(value));
+                    default -> {
+                    }
+                }
+            }
+            case ORIGINAL_MESSAGE -> {
+                if (name.equals("to") && originalTo == null) {
+                    originalTo = address(value);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void endGroup() {
+        String recipient = finalRecipient != null ? finalRecipient : originalRecipient;
+        if (recipient != null && "failed".equals(action) && status != null && status.startsWith("5")) {
+            reports.add(new DeliveryReport(recipient, DeliveryReport.Kind.HARD_BOUNCE));
+        }
+        finalRecipient = null;
+        originalRecipient = null;
+        action = null;
+        status = null;
+    }
+
+    private void finish() {
+        completeField();
+        endGroup();
+        // "not-spam" reports that a message was wrongly filtered; every other feedback type is a complaint.
+        if (feedbackType == null || feedbackType.equals("not-spam")) {
+            return;
+        }
+        if (complainants.isEmpty() && originalTo != null) {
+            complainants.add(originalTo);
+        }
+        complainants.stream()
+                .filter(recipient -> recipient != null)
+                .forEach(recipient -> reports.add(new DeliveryReport(recipient, DeliveryReport.Kind.COMPLAINT)));
+    }
+
+    private static Part partOf(String contentType) {
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("message/delivery-status") || type.startsWith("message/global-delivery-status")) {
+            return Part.DELIVERY_STATUS;
+        }
+        if (type.startsWith("message/feedback-report")) {
+            return Part.FEEDBACK_REPORT;
+        }
+        if (type.startsWith("message/rfc822") || type.startsWith("text/rfc822-headers")) {
+            return Part.ORIGINAL_MESSAGE;
+        }
+        return Part.OTHER;
+    }
+
+    // Accepts "rfc822; user@example.com", "<user@example.com>" and "Name <user@example.com>".
+    private static String address(String value) {
+        String address = value;
+        int semicolon = address.indexOf(';');
+        if (semicolon >= 0) {
+            address = address.substring(semicolon + 1);
+        }
+        int open = address.lastIndexOf('<');
+        int close = address.lastIndexOf('>');
+        if (open >= 0 && close > open) {
+            address = address.substring(open + 1, close);
+        }
+        address = address.trim();
+        return address.indexOf('@') > 0 ? address : null;
+    }
+}
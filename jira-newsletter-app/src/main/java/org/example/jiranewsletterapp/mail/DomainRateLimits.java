@@ -0,0 +1,62 @@
+package org.example.jiranewsletterapp.mail;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-recipient-domain send rates in messages per second, with a default for unlisted domains. Each bucket allows a
+ * burst of one second's worth of messages.
+ */
+public class DomainRateLimits {
+
+    private final double defaultRate;
+    private final Map<String, Double> domainRates;
+
+    public DomainRateLimits(double defaultRate, Map<String, Double> domainRates) {
+        this.defaultRate = defaultRate;
+        Map<String, Double> normalized = new HashMap<>();
+        domainRates.forEach((domain, rate) -> normalized.put(domain.toLowerCase(Locale.ROOT), rate));
+        this.domainRates = Map.copyOf(normalized);
+    }
+
+    // Parses "gmail.com=20,outlook.com=10".
+    public static DomainRateLimits parse(double defaultRate, String domainRates) {
+        Map<String, Double> rates = new HashMap<>();
+        if (domainRates != null) {
+            for (String pair : domainRates.split(",")) {
+                if (pair.isBlank()) {
+                    continue;
+                }
+                String[] parts = pair.split("=", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected domain=rate but got: " + pair.trim());
+                }
+                rates.put(parts[0].trim(), Double.parseDouble(parts[1].trim()));
+            }
+        }
+        return new DomainRateLimits(defaultRate, rates);
+    }
+
+    public double rateFor(String domain) {
+        return domainRates.getOrDefault(domain, defaultRate);
+    }
+
+    /**
+     * The domain itself if it has its own rate, otherwise {@code "other"}, so metrics tagged by domain stay bounded
+     * however many recipient domains a campaign reaches.
+     */
+    public String metricsTag(String domain) {
+        return domainRates.containsKey(domain) ? domain : "other";
+    }
+
+    public TokenBucket newBucket(String domain) {
+        double rate = rateFor(domain);
+        return new TokenBucket(rate, (int) Math.max(1, Math.min(rate, Integer.MAX_VALUE)));
+    }
+
+    public static String domainOf(String email) {
+        int at = email.lastIndexOf('@');
+        return (at < 0 ? "" : email.substring(at + 1)).trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.jiranewsletterapp.mail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@code text/plain} body that is already quoted-printable encoded, held as a gather list of buffers. Buffers may
+ * be shared between many bodies; they are never written to and never have their position moved, so one encoded
+ * copy of a campaign's common text can back every recipient's message at once.
+ */
+public final class EncodedBody {
+
+    public static final String CONTENT_TYPE = "text/plain; charset=UTF-8";
+    public static final String TRANSFER_ENCODING = "quoted-printable";
+
+    private final ByteBuffer[] parts;
+    private final long size;
+
+    EncodedBody(ByteBuffer[] parts) {
+        this.parts = parts;
+        long total = 0;
+        for (ByteBuffer part : parts) {
+            total += part.remaining();
+        }
+        this.size = total;
+    }
+
+    public static EncodedBody ofText(String text) {
+        return new EncodedBody(new ByteBuffer[]{encode(text, true)});
+    }
+
+    static ByteBuffer encode(String text, boolean last) {
+        ByteSink sink = new ByteSink(text.length() + text.length() / 8);
+        QuotedPrintable.encode(text, last, sink);
+        return sink.slice(0, sink.length());
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public List<ByteBuffer> buffers() {
+        List<ByteBuffer> views = new ArrayList<>(parts.length);
+        for (ByteBuffer part : parts) {
+            views.add(part.asReadOnlyBuffer());
+        }
+        return views;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        for (ByteBuffer part : parts) {
+            out.write(part.array(), part.arrayOffset() + part.position(), part.remaining());
+        }
+    }
+}
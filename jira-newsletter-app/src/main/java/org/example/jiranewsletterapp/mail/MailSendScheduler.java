@@ -0,0 +1,179 @@
+package org.example.jiranewsletterapp.mail;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shapes outbound mail per recipient domain. Messages whose domain has no token left are parked in that domain's
+ * queue and drained when the bucket refills, so a throttled provider never holds up the others. Sends run on
+ * virtual threads, at most {@code concurrency} at a time across all domains. A domain's queue is dropped once it is
+ * drained and its bucket has refilled, so the map only holds domains with mail in flight or a rate still recovering;
+ * a dropped queue's bucket would have been full anyway, so starting a new one loses nothing.
+ * <p>
+ * Records how long each message waited for its domain's token ({@code newsletter.mail.throttle.wait}, tagged with
+ * the domains that have their own rate), how long the transport took ({@code newsletter.mail.send}), and gauges for
+ * parked and in-flight messages.
+ */
+public class MailSendScheduler implements DisposableBean {
+
+    private final MailTransport transport;
+    private final DomainRateLimits rateLimits;
+    private final int concurrency;
+    private final Semaphore sendPermits;
+    private final AtomicInteger parked = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final Timer sendSucceeded;
+    private final Timer sendFailed;
+    private final ConcurrentHashMap<String, DomainQueue> queues = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("mail-throttle-timer").daemon().factory());
+
+    public MailSendScheduler(MailTransport transport, DomainRateLimits rateLimits, int concurrency) {
+        // A composite registry with nothing added records nothing.
+        this(transport, rateLimits, concurrency, new CompositeMeterRegistry());
+    }
+
+    public MailSendScheduler(MailTransport transport, DomainRateLimits rateLimits, int concurrency,
+                             MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.rateLimits = rateLimits;
+        this.concurrency = concurrency;
+        this.sendPermits = new Semaphore(concurrency);
+        this.meterRegistry = meterRegistry;
+        this.sendSucceeded = sendTimer(meterRegistry, "success");
+        this.sendFailed = sendTimer(meterRegistry, "failure");
+        Gauge.builder("newsletter.mail.throttle.parked", parked, AtomicInteger::get)
+                .description("Messages waiting for their domain's rate limit")
+                .register(meterRegistry);
+        Gauge.builder("newsletter.mail.dispatch.in-flight", this, MailSendScheduler::inFlight)
+                .description("Messages currently being handed to the transport")
+                .register(meterRegistry);
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("newsletter.mail.send")
+                .description("Time the mail transport took per message")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Void> submit(OutboundMail mail) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        PendingMail pending = new PendingMail(mail, result, System.nanoTime());
+        parked.incrementAndGet();
+        // Enqueued under the map's lock for the domain, so a queue is never dropped with this mail in it.
+        DomainQueue queue = queues.compute(DomainRateLimits.domainOf(mail.to()), (domain, existing) -> {
+            DomainQueue target = existing == null ? new DomainQueue(domain) : existing;
+            target.mails.add(pending);
+            return target;
+        });
+        queue.signal();
+        return result;
+    }
+
+    public int inFlight() {
+        return concurrency - sendPermits.availablePermits();
+    }
+
+    public int domainCount() {
+        return queues.size();
+    }
+
+    public int parkedCount(String domain) {
+        DomainQueue queue = queues.get(domain);
+        return queue == null ? 0 : queue.mails.size();
+    }
+
+    private void send(PendingMail pending) {
+        long start = System.nanoTime();
+        try {
+            transport.send(pending.mail());
+            sendSucceeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            pending.result().complete(null);
+        } catch (RuntimeException e) {
+            sendFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            pending.result().completeExceptionally(e);
+        } finally {
+            sendPermits.release();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    private record PendingMail(OutboundMail mail, CompletableFuture<Void> result, long submittedNanos) {
+    }
+
+    private final class DomainQueue {
+        private final String domain;
+        private final TokenBucket bucket;
+        private final Timer throttleWait;
+        private final ConcurrentLinkedQueue<PendingMail> mails = new ConcurrentLinkedQueue<>();
+        // At most one drainer per domain: either running or waiting on the timer.
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private DomainQueue(String domain) {
+            this.domain = domain;
+            this.bucket = rateLimits.newBucket(domain);
+            this.throttleWait = Timer.builder("newsletter.mail.throttle.wait")
+                    .description("Time a message waited for its domain's rate limit and a send slot")
+                    .tag("domain", rateLimits.metricsTag(domain))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        private void signal() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                PendingMail next = mails.peek();
+                if (next == null) {
+                    draining.set(false);
+                    // A submit may have enqueued after our peek but seen draining still set.
+                    if (mails.isEmpty() || !draining.compareAndSet(false, true)) {
+                        retireIfIdle();
+                        return;
+                    }
+                    continue;
+                }
+                long waitNanos = bucket.tryAcquire(System.nanoTime());
+                if (waitNanos > 0) {
+                    timer.schedule(() -> senders.execute(this::drain), waitNanos, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                mails.poll();
+                parked.decrementAndGet();
+                sendPermits.acquireUninterruptibly();
+                throttleWait.record(System.nanoTime() - next.submittedNanos(), TimeUnit.NANOSECONDS);
+                senders.execute(() -> send(next));
+            }
+        }
+
+        // Drops this queue if nothing is queued or draining and its bucket is full, else checks again once it is.
+        private void retireIfIdle() {
+            long untilFull = bucket.nanosUntilFull(System.nanoTime());
+            if (untilFull > 0) {
+                timer.schedule(this::retireIfIdle, untilFull, TimeUnit.NANOSECONDS);
+                return;
+            }
+            queues.computeIfPresent(domain,
+                    (key, current) -> current == this && mails.isEmpty() && !draining.get() ? null : current);
+        }
+    }
+}
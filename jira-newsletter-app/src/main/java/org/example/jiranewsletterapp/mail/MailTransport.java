@@ -0,0 +1,9 @@
+package org.example.jiranewsletterapp.mail;
+
+/**
+ * Delivers a single message. Implementations must be safe to call from many threads at once.
+ */
+public interface MailTransport {
+
+    void send(OutboundMail mail) throws MailTransportException;
+}
@@ -0,0 +1,23 @@
+package org.example.jiranewsletterapp.mail;
+
+/**
+ * A failed send. Transient failures (4xx replies, lost connections) are worth retrying later; permanent ones (5xx
+ * replies, malformed addresses) will fail the same way every time.
+ */
+public class MailTransportException extends RuntimeException {
+
+    private final boolean permanent;
+
+    public MailTransportException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    public MailTransportException(String message, Throwable cause, boolean permanent) {
+        super(message, cause);
+        this.permanent = permanent;
+    }
+
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.jiranewsletterapp.mail;
+
+/**
+ * @param unsubscribeUrl one-click unsubscribe endpoint (RFC 8058) advertised in the message headers, or {@code null}
+ */
+public record OutboundMail(String to, String subject, EncodedBody body, String unsubscribeUrl) {
+
+    public OutboundMail(String to, String subject, EncodedBody body) {
+        this(to, subject, body, null);
+    }
+
+    public OutboundMail(String to, String subject, String text) {
+        this(to, subject, EncodedBody.ofText(text));
+    }
+}
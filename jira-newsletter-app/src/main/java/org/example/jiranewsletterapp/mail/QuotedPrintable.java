@@ -0,0 +1,94 @@
+package org.example.jiranewsletterapp.mail;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 2045 quoted-printable encoding of text as UTF-8, with line breaks written as CRLF.
+ * <p>
+ * Each call starts a fresh line and, unless it is the last piece of the body, ends with a soft line break. That makes
+ * independently encoded pieces safe to concatenate: a decoder joins them back into exactly the original text, and no
+ * line ever exceeds 76 characters regardless of where the pieces were cut.
+ */
+final class QuotedPrintable {
+
+    static final int MAX_LINE_LENGTH = 76;
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] SOFT_BREAK = {'=', '\r', '\n'};
+
+    private QuotedPrintable() {
+    }
+
+    static void encode(CharSequence text, boolean last, ByteSink out) {
+        int column = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n')) {
+                if (c == '\r') {
+                    i++;
+                }
+                out.write(CRLF);
+                column = 0;
+            } else if (c < 0x80) {
+                boolean literal = (c >= 33 && c <= 126 && c != '=')
+                        || ((c == ' ' || c == '\t') && !endsLine(text, i + 1, last));
+                column = literal ? writeLiteral(c, column, out) : writeEncoded(c, column, out);
+            } else if (c < 0x800) {
+                column = writeEncoded(0xC0 | (c >> 6), column, out);
+                column = writeEncoded(0x80 | (c & 0x3F), column, out);
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    column = writeEncoded(0xF0 | (codePoint >> 18), column, out);
+                    column = writeEncoded(0x80 | ((codePoint >> 12) & 0x3F), column, out);
+                    column = writeEncoded(0x80 | ((codePoint >> 6) & 0x3F), column, out);
+                    column = writeEncoded(0x80 | (codePoint & 0x3F), column, out);
+                } else {
+                    // Unpaired surrogate: same replacement String.getBytes would make.
+                    column = writeLiteral('?', column, out);
+                }
+            } else {
+                column = writeEncoded(0xE0 | (c >> 12), column, out);
+                column = writeEncoded(0x80 | ((c >> 6) & 0x3F), column, out);
+                column = writeEncoded(0x80 | (c & 0x3F), column, out);
+            }
+        }
+        if (!last && column > 0) {
+            out.write(SOFT_BREAK);
+        }
+    }
+
+    private static int writeLiteral(int b, int column, ByteSink out) {
+        column = wrapIfNeeded(1, column, out);
+        out.write(b);
+        return column + 1;
+    }
+
+    private static int writeEncoded(int b, int column, ByteSink out) {
+        column = wrapIfNeeded(3, column, out);
+        out.write('=');
+        out.write(HEX[b >> 4]);
+        out.write(HEX[b & 0x0F]);
+        return column + 3;
+    }
+
+    // Leaves room for the '=' of a soft break.
+    private static int wrapIfNeeded(int width, int column, ByteSink out) {
+        if (column + width > MAX_LINE_LENGTH - 1) {
+            out.write(SOFT_BREAK);
+            return 0;
+        }
+        return column;
+    }
+
+    // Whitespace must not be the last character of an encoded line; a following soft break is fine.
+    private static boolean endsLine(CharSequence text, int next, boolean last) {
+        if (next == text.length()) {
+            return last;
+        }
+        char c = text.charAt(next);
+        return c == '\n' || (c == '\r' && next + 1 < text.length() && text.charAt(next + 1) == '\n');
+    }
+}
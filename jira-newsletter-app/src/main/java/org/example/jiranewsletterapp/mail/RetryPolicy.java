@@ -0,0 +1,46 @@
+package org.example.jiranewsletterapp.mail;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Exponential backoff with "equal jitter": the n-th retry waits between half and all of
+ * {@code min(maxDelay, baseDelay * 2^(n-1))}. The random half keeps recipients that failed together, e.g. during one
+ * server outage, from all coming back in the same instant, while the fixed half still guarantees a minimum wait.
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        if (maxAttempts < 1 || baseDelay.isNegative() || baseDelay.isZero() || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("Invalid retry policy");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+    }
+
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Whether a transient failure on the given attempt (counting from 1) may be tried again.
+     */
+    public boolean canRetry(int attempts) {
+        return attempts < maxAttempts;
+    }
+
+    /**
+     * Delay before the next try after the given failed attempt (counting from 1).
+     */
+    public Duration backoff(int attempts, RandomGenerator random) {
+        int doublings = Math.clamp(attempts - 1, 0, Long.SIZE - 2);
+        long ceiling = baseDelayMillis > maxDelayMillis >> doublings ? maxDelayMillis : baseDelayMillis << doublings;
+        long half = ceiling / 2;
+        return Duration.ofMillis(ceiling - half + random.nextLong(half + 1));
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.jiranewsletterapp.mail;
+
+import org.example.jiranewsletterapp.template.CompiledTemplate;
+import org.example.jiranewsletterapp.template.CompiledTemplate.Field;
+import org.example.jiranewsletterapp.template.CompiledTemplate.Literal;
+import org.example.jiranewsletterapp.template.CompiledTemplate.Segment;
+import org.example.jiranewsletterapp.template.MergeValues;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A campaign body with its literal text quoted-printable encoded once. Rendering for a recipient only encodes the
+ * merge-field values and gathers them between the shared buffers, so the cost per message is proportional to the
+ * personalized bytes rather than to the whole body.
+ * <p>
+ * {@code http(s)://} links in the literal text are kept as segments of their own, so a recipient's render can swap
+ * each one for a personal tracking link; without a link mapping they go out from the shared buffers as written.
+ * Trailing sentence punctuation is not part of a link, and a link running into a merge field is left alone because
+ * its target is only known once the field is filled in.
+ */
+public final class SharedBodyTemplate {
+
+    private static final int ESTIMATED_FIELD_BYTES = 32;
+    private static final int ESTIMATED_LINK_BYTES = 256;
+    private static final Pattern LINK = Pattern.compile("https?://[^\\s\\p{Cntrl}<>\"]+");
+    private static final String TRAILING_PUNCTUATION = ".,;:!?'";
+
+    // A piece of the body: literal text, a link in the literal text, or a merge field.
+    private record Piece(String text, boolean link, Field field) {
+    }
+
+    private final ByteBuffer[] shared;
+    private final Field[] fields;
+    private final String[] links;
+    private final boolean[] last;
+    private final int fieldCount;
+    private final int linkCount;
+
+    private SharedBodyTemplate(ByteBuffer[] shared, Field[] fields, String[] links, boolean[] last) {
+        this.shared = shared;
+        this.fields = fields;
+        this.links = links;
+        this.last = last;
+        int fieldCount = 0;
+        int linkCount = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                fieldCount++;
+            } else if (links[i] != null) {
+                linkCount++;
+            }
+        }
+        this.fieldCount = fieldCount;
+        this.linkCount = linkCount;
+    }
+
+    public static SharedBodyTemplate compile(CompiledTemplate template) {
+        List<Segment> segments = template.segments();
+        List<Piece> pieces = new ArrayList<>(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            switch (segments.get(i)) {
+                case Literal literal -> splitLinks(literal.text(),
+                        i + 1 < segments.size() && segments.get(i + 1) instanceof Field, pieces);
+                case Field field -> pieces.add(new Piece(null, false, field));
+            }
+        }
+
+        int count = pieces.size();
+        ByteBuffer[] shared = new ByteBuffer[count];
+        Field[] fields = new Field[count];
+        String[] links = new String[count];
+        boolean[] last = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            Piece piece = pieces.get(i);
+            last[i] = i == count - 1;
+            if (piece.field() != null) {
+                fields[i] = piece.field();
+                continue;
+            }
+            shared[i] = EncodedBody.encode(piece.text(), last[i]);
+            if (piece.link()) {
+                links[i] = piece.text();
+            }
+        }
+        return new SharedBodyTemplate(shared, fields, links, last);
+    }
+
+    private static void splitLinks(String text, boolean fieldFollows, List<Piece> pieces) {
+        Matcher matcher = LINK.matcher(text);
+        int position = 0;
+        while (matcher.find()) {
+            int end = linkEnd(text, matcher.start(), matcher.end());
+            if (end == text.length() && fieldFollows) {
+                break;
+            }
+            if (matcher.start() > position) {
+                pieces.add(new Piece(text.substring(position, matcher.start()), false, null));
+            }
+            pieces.add(new Piece(text.substring(matcher.start(), end), true, null));
+            position = end;
+        }
+        if (position < text.length()) {
+            pieces.add(new Piece(text.substring(position), false, null));
+        }
+    }
+
+    // Drops sentence punctuation after a link, and a closing parenthesis that closes text around it.
+    private static int linkEnd(String text, int start, int end) {
+        while (end > start) {
+            char c = text.charAt(end - 1);
+            boolean unmatched = c == ')' && count(text, start, end, '(') < count(text, start, end, ')');
+            if (TRAILING_PUNCTUATION.indexOf(c) < 0 && !unmatched) {
+                break;
+            }
+            end--;
+        }
+        return end;
+    }
+
+    private static int count(String text, int start, int end, char c) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Encodes this recipient's merge fields into one array and gathers slices of it between the shared buffers.
+     * {@code scratch} is reused between calls and cleared here.
+     */
+    public EncodedBody render(MergeValues values, StringBuilder scratch) {
+        return render(values, null, scratch);
+    }
+
+    /**
+     * Like {@link #render(MergeValues, StringBuilder)}, but every link in the literal text is replaced by what
+     * {@code linkMapper} returns for it, if the mapper is not {@code null}.
+     */
+    public EncodedBody render(MergeValues values, UnaryOperator<String> linkMapper, StringBuilder scratch) {
+        int linkBytes = linkMapper == null ? 0 : linkCount * ESTIMATED_LINK_BYTES;
+        ByteSink personalized = new ByteSink(fieldCount * ESTIMATED_FIELD_BYTES + linkBytes);
+        boolean[] personal = new boolean[shared.length];
+        int[] ends = new int[shared.length];
+        for (int i = 0; i < shared.length; i++) {
+            if (fields[i] != null) {
+                scratch.setLength(0);
+                fields[i].appendTo(values, scratch);
+                QuotedPrintable.encode(scratch, last[i], personalized);
+                personal[i] = true;
+            } else if (links[i] != null && linkMapper != null) {
+                scratch.setLength(0);
+                scratch.append(linkMapper.apply(links[i]));
+                QuotedPrintable.encode(scratch, last[i], personalized);
+                personal[i] = true;
+            }
+            ends[i] = personalized.length();
+        }
+
+        ByteBuffer[] parts = new ByteBuffer[shared.length];
+        int start = 0;
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = personal[i] ? personalized.slice(start, ends[i]) : shared[i];
+            start = ends[i];
+        }
+        return new EncodedBody(parts);
+    }
+}
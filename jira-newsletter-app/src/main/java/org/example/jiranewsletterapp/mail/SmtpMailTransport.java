@@ -0,0 +1,225 @@
+package org.example.jiranewsletterapp.mail;
+
+import jakarta.mail.*;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends over SMTP, reusing connected transports instead of paying a TCP and EHLO/AUTH handshake per message.
+ * At most {@code poolSize} idle connections are kept; extra connections opened under load are closed after use.
+ * <p>
+ * Angus {@code SMTPTransport} does its socket IO inside {@code synchronized} methods, which pins a virtual thread to
+ * its carrier on JDK 21. The SMTP conversation therefore runs on {@code poolSize} platform threads, and a virtual
+ * thread calling {@link #send} just parks until its message is handed over.
+ * <p>
+ * Failures are reported as permanent when the server answered with a 5xx reply or the address is unusable, and as
+ * transient for 4xx replies and connection trouble.
+ */
+public class SmtpMailTransport implements MailTransport, DisposableBean {
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final InternetAddress from;
+    private final String fromDomain;
+    private final BlockingQueue<Transport> idle;
+    private final ExecutorService smtpExecutor;
+
+    public SmtpMailTransport(String host, int port, String username, String password, String from, int poolSize,
+                             Properties sessionProperties) {
+        this.session = Session.getInstance(sessionProperties);
+        this.host = host;
+        this.port = port;
+        this.username = username == null || username.isBlank() ? null : username;
+        this.password = password == null || password.isBlank() ? null : password;
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+        this.smtpExecutor = Executors.newFixedThreadPool(poolSize, Thread.ofPlatform().name("smtp-", 0).daemon().factory());
+        try {
+            this.from = new InternetAddress(from);
+            this.fromDomain = this.from.getAddress().substring(this.from.getAddress().lastIndexOf('@') + 1);
+        } catch (AddressException e) {
+            throw new IllegalArgumentException("Invalid sender address: " + from, e);
+        }
+    }
+
+    @Override
+    public void send(OutboundMail mail) {
+        MimeMessage message = toMimeMessage(mail);
+        try {
+            smtpExecutor.submit(() -> deliver(mail, message)).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MailTransportException cause) {
+                throw cause;
+            }
+            throw new MailTransportException("Failed to send to " + mail.to(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailTransportException("Interrupted while sending to " + mail.to(), e);
+        }
+    }
+
+    private Void deliver(OutboundMail mail, MimeMessage message) {
+        Transport transport = idle.poll();
+        if (transport != null) {
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+                release(transport);
+                return null;
+            } catch (SendFailedException e) {
+                release(transport);
+                throw rejected(mail, e);
+            } catch (MessagingException e) {
+                // The server may have dropped an idle connection; retry once on a fresh one.
+                close(transport);
+            }
+        }
+
+        try {
+            transport = connect();
+        } catch (MessagingException e) {
+            throw new MailTransportException("Cannot connect to SMTP server " + host + ":" + port, e);
+        }
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+            release(transport);
+            return null;
+        } catch (SendFailedException e) {
+            release(transport);
+            throw rejected(mail, e);
+        } catch (MessagingException e) {
+            close(transport);
+            throw new MailTransportException("Failed to send to " + mail.to(), e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        smtpExecutor.shutdownNow();
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            close(transport);
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboundMail mail) {
+        try {
+            MimeMessage message = new PreencodedMessage(session, mail.body());
+            message.setFrom(from);
+            message.setRecipient(Message.RecipientType.TO, new InternetAddress(mail.to(), true));
+            message.setSubject(mail.subject(), StandardCharsets.UTF_8.name());
+            message.setSentDate(new Date());
+            message.setHeader("Message-ID", messageId());
+            message.setHeader("MIME-Version", "1.0");
+            message.setHeader("Content-Type", EncodedBody.CONTENT_TYPE);
+            message.setHeader("Content-Transfer-Encoding", EncodedBody.TRANSFER_ENCODING);
+            if (mail.unsubscribeUrl() != null) {
+                message.setHeader("List-Unsubscribe", "<" + mail.unsubscribeUrl() + ">");
+                message.setHeader("List-Unsubscribe-Post", "List-Unsubscribe=One-Click");
+            }
+            return message;
+        } catch (MessagingException e) {
+            throw new MailTransportException("Invalid message for " + mail.to(), e, true);
+        }
+    }
+
+    private static MailTransportException rejected(OutboundMail mail, SendFailedException e) {
+        int code = replyCode(e);
+        String reason = code > 0 ? " (" + code + ")" : "";
+        // Without a reply code the address was refused before it reached the server.
+        return new MailTransportException("Recipient rejected: " + mail.to() + reason, e, code == 0 || code >= 500);
+    }
+
+    private static int replyCode(MessagingException e) {
+        for (Exception next = e; next != null;
+             next = next instanceof MessagingException messaging ? messaging.getNextException() : null) {
+            int code = switch (next) {
+                case SMTPSendFailedException failed -> failed.getReturnCode();
+                case SMTPAddressFailedException failed -> failed.getReturnCode();
+                case SMTPSenderFailedException failed -> failed.getReturnCode();
+                default -> 0;
+            };
+            if (code > 0) {
+                return code;
+            }
+        }
+        return 0;
+    }
+
+    private String messageId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "<" + Long.toUnsignedString(random.nextLong(), 36) + Long.toUnsignedString(random.nextLong(), 36)
+                + "." + System.currentTimeMillis() + "@" + fromDomain + ">";
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        transport.connect(host, port, username, password);
+        return transport;
+    }
+
+    private void release(Transport transport) {
+        if (!idle.offer(transport)) {
+            close(transport);
+        }
+    }
+
+    /**
+     * Writes its headers followed by the pre-encoded body buffers, instead of letting JavaMail encode the content
+     * again for every recipient. Headers are set explicitly and {@code saveChanges()} is never called.
+     */
+    private static final class PreencodedMessage extends MimeMessage {
+        private static final byte[] CRLF = {'\r', '\n'};
+
+        private final EncodedBody body;
+
+        private PreencodedMessage(Session session, EncodedBody body) {
+            super(session);
+            this.body = body;
+        }
+
+        @Override
+        public int getSize() {
+            return (int) Math.min(body.size(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void writeTo(OutputStream out, String[] ignoreList) throws IOException, MessagingException {
+            Enumeration<String> lines = getNonMatchingHeaderLines(ignoreList);
+            while (lines.hasMoreElements()) {
+                out.write(lines.nextElement().getBytes(StandardCharsets.ISO_8859_1));
+                out.write(CRLF);
+            }
+            out.write(CRLF);
+            body.writeTo(out);
+            out.flush();
+        }
+    }
+
+    private static void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException ignored) {
+            // Connection is being discarded anyway.
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.jiranewsletterapp.mail;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time" updated by CAS, so
+ * there is no refill thread and no lock on the send path. A rate of zero or less means unlimited.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this.emissionIntervalNanos = permitsPerSecond <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(burst, 1) - 1L);
+    }
+
+    public boolean isUnlimited() {
+        return emissionIntervalNanos == 0;
+    }
+
+    /**
+     * Returns the nanoseconds until the bucket holds its whole burst again, 0 if it already does.
+     */
+    public long nanosUntilFull(long nowNanos) {
+        long tat = theoreticalArrival.get();
+        return tat == Long.MIN_VALUE || tat - nowNanos <= 0 ? 0 : tat - nowNanos;
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 when the token was taken, otherwise the nanoseconds to wait before trying again
+     */
+    public long tryAcquire(long nowNanos) {
+        if (isUnlimited()) {
+            return 0;
+        }
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long effective = tat == Long.MIN_VALUE || tat - nowNanos < 0 ? nowNanos : tat;
+            long wait = effective - burstToleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, effective + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
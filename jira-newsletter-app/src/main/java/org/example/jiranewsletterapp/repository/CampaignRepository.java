@@ -0,0 +1,61 @@
+package org.example.jiranewsletterapp.repository;
+
+import org.example.jiranewsletterapp.dto.CampaignResponse;
+import org.example.jiranewsletterapp.entity.Campaign;
+import org.example.jiranewsletterapp.entity.CampaignStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CampaignRepository extends JpaRepository<Campaign, Long> {
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.CampaignResponse(c.id, c.name, c.subject, c.status,
+                c.createdAt, c.scheduledAt, c.startedAt, c.finishedAt, c.sentCount, c.failedCount)
+            from Campaign c
+            where c.id > :id
+            order by c.id
+            """)
+    List<CampaignResponse> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.CampaignResponse(c.id, c.name, c.subject, c.status,
+                c.createdAt, c.scheduledAt, c.startedAt, c.finishedAt, c.sentCount, c.failedCount)
+            from Campaign c
+            where c.id = :id
+            """)
+    Optional<CampaignResponse> findResponseById(@Param("id") Long id);
+
+    @Query("select l.id from Campaign c join c.lists l where c.id = :id")
+    List<Long> findListIdsById(@Param("id") Long id);
+
+    @Query("select l.id from Campaign c join c.excludedLists l where c.id = :id")
+    List<Long> findExcludedListIdsById(@Param("id") Long id);
+
+    // Conditional update so two concurrent send requests cannot both start the same campaign.
+    @Transactional
+    @Modifying
+    @Query("""
+            update Campaign c set c.status = :to, c.startedAt = :startedAt
+            where c.id = :id and c.status = :from
+            """)
+    int transitionStatus(@Param("id") Long id, @Param("from") CampaignStatus from, @Param("to") CampaignStatus to,
+                         @Param("startedAt") LocalDateTime startedAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Campaign c
+            set c.status = org.example.jiranewsletterapp.entity.CampaignStatus.SCHEDULED,
+                c.scheduledAt = :scheduledAt, c.subscriberLocalTime = :subscriberLocalTime
+            where c.id = :id and c.status = org.example.jiranewsletterapp.entity.CampaignStatus.DRAFT
+            """)
+    int schedule(@Param("id") Long id, @Param("scheduledAt") LocalDateTime scheduledAt,
+                 @Param("subscriberLocalTime") boolean subscriberLocalTime);
+}
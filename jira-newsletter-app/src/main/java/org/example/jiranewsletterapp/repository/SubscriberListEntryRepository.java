@@ -1,7 +1,79 @@
 package org.example.jiranewsletterapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.jiranewsletterapp.dto.ListMemberExport;
+import org.example.jiranewsletterapp.dto.ListMembership;
+import org.example.jiranewsletterapp.dto.SubscriberListEntryResponse;
 import org.example.jiranewsletterapp.entity.SubscriberListEntry;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SubscriberListEntryRepository extends JpaRepository<SubscriberListEntry, Long> {
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberListEntryResponse(
+                e.id, e.dateAdded, e.confirmed, e.source, l.id,
+                s.id, s.email, s.firstName, s.lastName, s.birthDate, s.gender, s.joinDate)
+            from SubscriberListEntry e left join e.list l left join e.subscriber s
+            where e.id > :id
+            order by e.id
+            """)
+    List<SubscriberListEntryResponse> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberListEntryResponse(
+                e.id, e.dateAdded, e.confirmed, e.source, l.id,
+                s.id, s.email, s.firstName, s.lastName, s.birthDate, s.gender, s.joinDate)
+            from SubscriberListEntry e left join e.list l left join e.subscriber s
+            where e.id = :id
+            """)
+    Optional<SubscriberListEntryResponse> findResponseById(@Param("id") Long id);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberListEntryResponse(
+                e.id, e.dateAdded, e.confirmed, e.source, l.id,
+                s.id, s.email, s.firstName, s.lastName, s.birthDate, s.gender, s.joinDate)
+            from SubscriberListEntry e left join e.list l left join e.subscriber s
+            where l.owner.id = :ownerId
+            order by e.id
+            """)
+    List<SubscriberListEntryResponse> findResponsesByListOwnerId(@Param("ownerId") Long ownerId);
+
+    boolean existsBySubscriberIdAndListOwnerId(Long subscriberId, Long ownerId);
+
+    boolean existsByListIdAndSubscriberId(Long listId, Long subscriberId);
+
+    @Query("""
+            select e.subscriber.id from SubscriberListEntry e
+            where e.list.id = :listId and e.subscriber is not null
+            """)
+    List<Long> findSubscriberIdsByListId(@Param("listId") Long listId);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.ListMembership(e.list.id, e.subscriber.id)
+            from SubscriberListEntry e
+            where e.list is not null and e.subscriber is not null
+            """)
+    Stream<ListMembership> streamAllMemberships();
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.ListMemberExport(
+                s.id, s.email, s.firstName, s.lastName, s.birthDate, s.gender, e.dateAdded, e.confirmed, e.source)
+            from SubscriberListEntry e join e.subscriber s
+            where e.list.id = :listId
+            order by e.id
+            """)
+    Stream<ListMemberExport> streamMembersByListId(@Param("listId") Long listId);
 }
@@ -1,7 +1,51 @@
 package org.example.jiranewsletterapp.repository;
 
+import org.example.jiranewsletterapp.dto.SubscriberListResponse;
 import org.example.jiranewsletterapp.entity.SubscriberList;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface SubscriberListRepository extends JpaRepository<SubscriberList, Long> {
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberListResponse(
+                l.id, l.name, l.owner.id, l.publicSignup)
+            from SubscriberList l
+            where l.id > :id
+            order by l.id
+            """)
+    List<SubscriberListResponse> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberListResponse(
+                l.id, l.name, l.owner.id, l.publicSignup)
+            from SubscriberList l
+            where l.id = :id
+            """)
+    Optional<SubscriberListResponse> findResponseById(@Param("id") Long id);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberListResponse(
+                l.id, l.name, l.owner.id, l.publicSignup)
+            from SubscriberList l
+            where l.owner.id = :ownerId
+            order by l.id
+            """)
+    List<SubscriberListResponse> findResponsesByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberListResponse(
+                l.id, l.name, l.owner.id, l.publicSignup)
+            from SubscriberList l
+            where l.id = :id and l.owner.id = :ownerId
+            """)
+    Optional<SubscriberListResponse> findResponseByIdAndOwnerId(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    Optional<SubscriberList> findByIdAndOwnerId(Long id, Long ownerId);
+
+    boolean existsByIdAndPublicSignupTrue(Long id);
 }
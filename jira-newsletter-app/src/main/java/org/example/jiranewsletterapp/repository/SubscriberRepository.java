@@ -1,10 +1,46 @@
 package org.example.jiranewsletterapp.repository;
 
+import org.example.jiranewsletterapp.dto.SubscriberResponse;
 import org.example.jiranewsletterapp.entity.Subscriber;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface SubscriberRepository extends JpaRepository<Subscriber, Long> {
-    Optional<Subscriber> findByEmail(String email);
-}
\ No newline at end of file
+    @Query("select s from Subscriber s where lower(s.email) = lower(:email)")
+    Optional<Subscriber> findByEmail(@Param("email") String email);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberResponse(
+                s.id, s.email, s.firstName, s.lastName, s.birthDate, s.gender, s.joinDate)
+            from Subscriber s
+            where s.id > :id
+            order by s.id
+            """)
+    List<SubscriberResponse> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberResponse(
+                s.id, s.email, s.firstName, s.lastName, s.birthDate, s.gender, s.joinDate)
+            from Subscriber s
+            where s.id = :id
+            """)
+    Optional<SubscriberResponse> findResponseById(@Param("id") Long id);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.SubscriberResponse(
+                s.id, s.email, s.firstName, s.lastName, s.birthDate, s.gender, s.joinDate)
+            from Subscriber s
+            where s.id > :afterId
+              and exists (select 1 from SubscriberListEntry e
+                          where e.subscriber = s and e.list.owner.id = :ownerId)
+            order by s.id
+            """)
+    List<SubscriberResponse> findByOwnerIdAndIdGreaterThan(@Param("ownerId") Long ownerId,
+                                                  @Param("afterId") Long afterId,
+                                                  Limit limit);
+}
@@ -1,10 +1,30 @@
 package org.example.jiranewsletterapp.repository;
 
+import org.example.jiranewsletterapp.dto.UserResponse;
 import org.example.jiranewsletterapp.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.UserResponse(u.id, u.email, u.firstName, u.lastName, u.gender, u.role)
+            from User u
+            where u.id > :id
+            order by u.id
+            """)
+    List<UserResponse> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    @Query("""
+            select new org.example.jiranewsletterapp.dto.UserResponse(u.id, u.email, u.firstName, u.lastName, u.gender, u.role)
+            from User u
+            where u.id = :id
+            """)
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
 }
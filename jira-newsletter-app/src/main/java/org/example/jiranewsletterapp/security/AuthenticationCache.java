@@ -0,0 +1,187 @@
+package org.example.jiranewsletterapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers credentials that already passed BCrypt so repeat requests skip both the user lookup and the hash.
+ * Keys are an HMAC of username and password under a per-process random secret; plain passwords are never stored.
+ * <p>
+ * A login takes a {@link #stamp()} before it reads the user and passes it to {@link #put}. Invalidating a user records
+ * a newer stamp for them, so a login that read the row before an update and finished BCrypt after it cannot cache the
+ * old principal. The keys cached for each user are tracked, so invalidating a user touches only their entries.
+ * <p>
+ * Both the key index and the invalidation stamps stay bounded: a user's keys are dropped as their entries are evicted,
+ * and at most {@code max-size} stamps are kept. A forgotten stamp raises a floor that applies to every user, so it
+ * can only keep more logins out of the cache, never let a stale one in.
+ */
+@Component
+public class AuthenticationCache {
+
+    public static final String CACHE_NAME = "authentication";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, UserPrincipal> cache;
+    private final SecretKeySpec secret;
+    private final AtomicLong clock = new AtomicLong();
+    // Latest invalidation stamp per user id, the highest stamp evicted from it, and the latest invalidateAll().
+    private final Cache<Long, Long> invalidatedAt;
+    private final AtomicLong forgottenInvalidation = new AtomicLong(Long.MIN_VALUE);
+    private volatile long allInvalidatedAt = Long.MIN_VALUE;
+    // Keys cached per user id; a set is only changed inside compute() or after being removed from the map.
+    private final Map<Long, Set<String>> keysByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AuthenticationCache(MeterRegistry meterRegistry,
+                               @Value("${app.security.auth-cache.ttl:5m}") Duration ttl,
+                               @Value("${app.security.auth-cache.max-size:10000}") long maxSize) {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.secret = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .<String, UserPrincipal>removalListener((key, principal, cause) -> {
+                    // Explicit removals already dropped the user's keys; replacements keep the key cached.
+                    if (cause.wasEvicted() && principal != null && principal.getId() != null) {
+                        unindex(principal.getId(), key);
+                    }
+                })
+                .build();
+        // Size-bounded only: an expired stamp would read as absent before its eviction raised the floor.
+        this.invalidatedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .<Long, Long>evictionListener((userId, stamp, cause) ->
+                        forgottenInvalidation.accumulateAndGet(stamp, Math::max))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public UserPrincipal get(String username, String password) {
+        return cache.getIfPresent(keyFor(username, password));
+    }
+
+    /**
+     * Returns the stamp a login must take before reading the user it is about to {@link #put}.
+     */
+    public long stamp() {
+        return clock.get();
+    }
+
+    /**
+     * Caches a principal read after {@code stamp} was taken, unless the user has been invalidated since.
+     */
+    public void put(String username, String password, UserPrincipal principal, long stamp) {
+        String key = keyFor(username, password);
+        Long userId = principal.getId();
+        cache.put(key, principal);
+        if (userId == null) {
+            return;
+        }
+        keysByUser.compute(userId, (id, keys) -> {
+            Set<String> updated = keys == null ? new HashSet<>() : keys;
+            updated.add(key);
+            return updated;
+        });
+        // Checked after the key is indexed: an invalidation either sees the key or is seen here.
+        long invalidated = Math.max(invalidatedAt.asMap().getOrDefault(userId, Long.MIN_VALUE),
+                Math.max(allInvalidatedAt, forgottenInvalidation.get()));
+        if (invalidated > stamp) {
+            cache.invalidate(key);
+        }
+    }
+
+    // Runs again after commit so a request racing the update cannot re-cache the old row.
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        allInvalidatedAt = clock.incrementAndGet();
+        keysByUser.clear();
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Returns how many users have keys indexed or an invalidation stamp remembered.
+     */
+    long trackedUsers() {
+        cache.cleanUp();
+        invalidatedAt.cleanUp();
+        Set<Long> users = new HashSet<>(keysByUser.keySet());
+        users.addAll(invalidatedAt.asMap().keySet());
+        return users.size();
+    }
+
+    private void evict(Long userId) {
+        invalidatedAt.asMap().merge(userId, clock.incrementAndGet(), Math::max);
+        Set<String> keys = keysByUser.remove(userId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    // Runs after the cache dropped the entry; a put of the same key since then must keep it indexed.
+    private void unindex(Long userId, String key) {
+        keysByUser.computeIfPresent(userId, (id, keys) -> {
+            if (!cache.asMap().containsKey(key)) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private String keyFor(String username, String password) {
+        byte[] user = username.getBytes(StandardCharsets.UTF_8);
+        byte[] pass = password.getBytes(StandardCharsets.UTF_8);
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secret);
+            mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(user.length).flip());
+            mac.update(user);
+            mac.update(pass);
+            return HexFormat.of().formatHex(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.jiranewsletterapp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.OptionalLong;
+
+/**
+ * Self-contained tokens for links sent by mail. A token carries an id and an expiry, authenticated by an HMAC-SHA256
+ * (truncated to 128 bits) over them and the token's {@link Purpose}, so it is checked without a database read and a
+ * token issued for one purpose is rejected for any other. A token can also be bound to a context string that the link
+ * carries in the clear, e.g. a redirect target: the context is covered by the MAC but not stored in the token.
+ * <p>
+ * Every node must share {@code app.security.token-secret}; without it each process signs with a random key and its
+ * links stop working after a restart.
+ */
+@Component
+public class SignedTokens {
+
+    public enum Purpose {
+        CONFIRM_SUBSCRIPTION,
+        UNSUBSCRIBE,
+        TRACK_OPEN,
+        TRACK_CLICK
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SignedTokens.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final int MAC_BYTES = 16;
+    private static final int PAYLOAD_BYTES = 2 * Long.BYTES;
+    private static final int TOKEN_BYTES = PAYLOAD_BYTES + MAC_BYTES;
+
+    private final SecretKeySpec key;
+    private final Mac prototype;
+
+    @Autowired
+    public SignedTokens(@Value("${app.security.token-secret:}") String secret) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            log.warn("app.security.token-secret is not set; links in mail will stop working after a restart");
+            keyBytes = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("app.security.token-secret must be at least " + MIN_SECRET_BYTES + " bytes");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.prototype = initializedMac();
+    }
+
+    public String sign(Purpose purpose, long subjectId, Instant expiresAt) {
+        return sign(purpose, subjectId, expiresAt, "");
+    }
+
+    public String sign(Purpose purpose, long subjectId, Instant expiresAt, String context) {
+        ByteBuffer token = ByteBuffer.allocate(TOKEN_BYTES)
+                .putLong(subjectId)
+                .putLong(expiresAt.getEpochSecond());
+        token.put(mac(purpose, token.array(), context), 0, MAC_BYTES);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.array());
+    }
+
+    /**
+     * Returns the id the token was issued for, or nothing if it is malformed, forged, for another purpose or expired.
+     */
+    public OptionalLong verify(Purpose purpose, String token, Instant now) {
+        return verify(purpose, token, now, "");
+    }
+
+    /**
+     * Like {@link #verify(Purpose, String, Instant)}, for a token that was signed with {@code context}.
+     */
+    public OptionalLong verify(Purpose purpose, String token, Instant now, String context) {
+        byte[] bytes;
+        try {
+            bytes = token == null ? null : Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return OptionalLong.empty();
+        }
+        if (bytes == null || bytes.length != TOKEN_BYTES) {
+            return OptionalLong.empty();
+        }
+        byte[] expected = Arrays.copyOf(mac(purpose, bytes, context), MAC_BYTES);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, PAYLOAD_BYTES, TOKEN_BYTES))) {
+            return OptionalLong.empty();
+        }
+        ByteBuffer payload = ByteBuffer.wrap(bytes);
+        long subjectId = payload.getLong();
+        if (now.getEpochSecond() >= payload.getLong()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(subjectId);
+    }
+
+    private byte[] mac(Purpose purpose, byte[] token, String context) {
+        Mac mac = newMac();
+        mac.update(purpose.name().getBytes(StandardCharsets.US_ASCII));
+        mac.update((byte) 0);
+        mac.update(token, 0, PAYLOAD_BYTES);
+        mac.update(context.getBytes(StandardCharsets.UTF_8));
+        return mac.doFinal();
+    }
+
+    // Cloning the initialized prototype skips the provider lookup and key setup of Mac.getInstance/init.
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return initializedMac();
+        }
+    }
+
+    private Mac initializedMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.jiranewsletterapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.jiranewsletterapp.mail.DeliveryReport;
+import org.example.jiranewsletterapp.mail.DeliveryReportParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suppresses subscribers from the bounce and complaint reports an MTA drops into {@code app.bounces.spool-dir}. A
+ * {@link WatchService} wakes the ingester when files arrive; it then walks the directory in batches of
+ * {@code app.bounces.batch-size} files, parses them in parallel with {@link DeliveryReportParser}, marks every
+ * matching subscriber with one {@code UPDATE} per batch, joined on the {@code lower(email)} index, and deletes the
+ * batch's files once that has committed. A crash between the two only means a batch is read again, which is harmless.
+ * The directory is also rescanned every {@code app.bounces.rescan-interval} in case watch events were lost.
+ * <p>
+ * Files are expected to appear atomically, e.g. written elsewhere on the same file system and moved in; names starting
+ * with a dot are left alone. Files that cannot be read are moved to {@code failed/}.
+ */
+@Service
+public class BounceIngestionService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BounceIngestionService.class);
+
+    static final String FAILED_DIR = "failed";
+
+    private static final String SUPPRESS_SUBSCRIBERS = """
+            UPDATE subscriber s
+            SET suppressed_at = localtimestamp, suppression_reason = r.reason
+            FROM unnest(?::varchar[], ?::varchar[]) AS r(email, reason)
+            WHERE lower(s.email) = r.email
+              AND s.suppressed_at IS NULL
+            RETURNING s.suppression_reason
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Path spoolDir;
+    private final int batchSize;
+    private final Duration rescanInterval;
+    private final ExecutorService parseExecutor;
+    private final ExecutorService watchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running = true;
+
+    @Autowired
+    public BounceIngestionService(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.bounces.enabled:true}") boolean enabled,
+                                  @Value("${app.bounces.spool-dir:}") String spoolDir,
+                                  @Value("${app.bounces.batch-size:500}") int batchSize,
+                                  @Value("${app.bounces.parse-threads:16}") int parseThreads,
+                                  @Value("${app.bounces.rescan-interval:1m}") Duration rescanInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.spoolDir = spoolDir.isBlank() ? null : Path.of(spoolDir);
+        this.batchSize = batchSize;
+        this.rescanInterval = rescanInterval;
+        this.parseExecutor = Executors.newFixedThreadPool(parseThreads, Thread.ofVirtual().factory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || spoolDir == null) {
+            return;
+        }
+        log.info("Watching {} for bounce and complaint reports", spoolDir);
+        watchExecutor.execute(this::run);
+    }
+
+    private void run() {
+        try (WatchService watchService = spoolDir.getFileSystem().newWatchService()) {
+            Files.createDirectories(spoolDir);
+            spoolDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+            while (running) {
+                try {
+                    ingestPending();
+                } catch (RuntimeException e) {
+                    log.error("Bounce ingestion failed, retrying", e);
+                }
+                WatchKey key = watchService.poll(rescanInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    // The events themselves are not needed: the next pass reads whatever is in the directory.
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Cannot watch bounce spool directory {}", spoolDir, e);
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down.
+        }
+    }
+
+    /**
+     * Ingests every report currently in the spool directory; returns the number of files processed.
+     */
+    public synchronized int ingestPending() {
+        if (spoolDir == null || !Files.isDirectory(spoolDir)) {
+            return 0;
+        }
+        int processed = 0;
+        List<Path> batch = new ArrayList<>(batchSize);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir, BounceIngestionService::isReport)) {
+            for (Path file : files) {
+                batch.add(file);
+                if (batch.size() == batchSize) {
+                    processed += ingest(batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list bounce spool directory " + spoolDir, e);
+        }
+        if (!batch.isEmpty()) {
+            processed += ingest(batch);
+        }
+        return processed;
+    }
+
+    private static boolean isReport(Path file) {
+        return !file.getFileName().toString().startsWith(".") && Files.isRegularFile(file);
+    }
+
+    private int ingest(List<Path> files) {
+        List<Future<List<DeliveryReport>>> parsed = new ArrayList<>(files.size());
+        for (Path file : files) {
+            parsed.add(parseExecutor.submit(() -> {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+                    return DeliveryReportParser.parse(reader);
+                }
+            }));
+        }
+
+        Map<String, DeliveryReport.Kind> suppressions = new LinkedHashMap<>();
+        List<Path> done = new ArrayList<>(files.size());
+        int failed = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            try {
+                for (DeliveryReport report : parsed.get(i).get()) {
+                    suppressions.putIfAbsent(report.recipient().toLowerCase(Locale.ROOT), report.kind());
+                }
+                done.add(file);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof NoSuchFileException) {
+                    continue;
+                }
+                log.warn("Cannot read bounce report {}, moving it to {}/", file, FAILED_DIR, e.getCause());
+                moveToFailed(file);
+                failed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reading bounce reports", e);
+            }
+        }
+
+        if (!suppressions.isEmpty()) {
+            suppress(suppressions);
+        }
+        for (Path file : done) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Cannot delete ingested bounce report {}", file, e);
+            }
+        }
+        count("newsletter.bounces.files", "result", "processed", done.size());
+        count("newsletter.bounces.files", "result", "failed", failed);
+        log.debug("Ingested {} bounce reports, {} recipients reported", done.size(), suppressions.size());
+        return done.size();
+    }
+
+    private void suppress(Map<String, DeliveryReport.Kind> suppressions) {
+        Map<String, Integer> suppressed = new HashMap<>();
+        jdbcTemplate.query(SUPPRESS_SUBSCRIBERS,
+                (RowCallbackHandler) rs -> suppressed.merge(rs.getString("suppression_reason"), 1, Integer::sum),
+                suppressions.keySet().toArray(String[]::new),
+                suppressions.values().stream().map(Enum::name).toArray(String[]::new));
+        suppressed.forEach((reason, count) ->
+                count("newsletter.bounces.suppressed", "reason", reason.toLowerCase(Locale.ROOT), count));
+    }
+
+    private void count(String name, String tag, String value, int amount) {
+        if (amount > 0) {
+            Counter.builder(name).tag(tag, value).register(meterRegistry).increment(amount);
+        }
+    }
+
+    private void moveToFailed(Path file) {
+        try {
+            Path failedDir = Files.createDirectories(spoolDir.resolve(FAILED_DIR));
+            Files.move(file, failedDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Cannot move unreadable bounce report {}", file, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        watchExecutor.shutdownNow();
+        parseExecutor.shutdownNow();
+    }
+}
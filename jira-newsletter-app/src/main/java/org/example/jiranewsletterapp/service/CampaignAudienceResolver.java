@@ -0,0 +1,130 @@
+package org.example.jiranewsletterapp.service;
+
+import org.example.jiranewsletterapp.util.LongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Works out who a campaign goes to: every distinct confirmed subscriber of its lists who is not on any of its excluded
+ * lists. Memberships are streamed and deduplicated by subscriber id in a primitive set, so memory grows with the
+ * number of recipients rather than with the number of list entries, and each recipient is attributed to the
+ * lowest-numbered list they are confirmed on.
+ */
+@Service
+public class CampaignAudienceResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(CampaignAudienceResolver.class);
+
+    static final int BATCH_SIZE = 5000;
+    static final int FETCH_SIZE = 10000;
+
+    private static final String SELECT_CAMPAIGN_LISTS = """
+            SELECT subscriber_list_id FROM campaign_subscriber_list WHERE campaign_id = ? ORDER BY subscriber_list_id
+            """;
+
+    private static final String SELECT_EXCLUDED_LISTS = """
+            SELECT subscriber_list_id FROM campaign_excluded_list WHERE campaign_id = ?
+            """;
+
+    private static final String STREAM_LIST_MEMBERS = """
+            SELECT subscriber_id FROM subscriber_list_entry WHERE subscriber_list_id = ANY (?)
+            """;
+
+    private static final String STREAM_CONFIRMED_MEMBERS = """
+            SELECT subscriber_id FROM subscriber_list_entry WHERE subscriber_list_id = ? AND confirmed
+            """;
+
+    /**
+     * Receives recipients in batches of at most {@link #BATCH_SIZE}, all reached through the same list.
+     */
+    @FunctionalInterface
+    public interface RecipientSink {
+        int accept(Long listId, long[] subscriberIds);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CampaignAudienceResolver(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams the campaign's recipients into {@code sink} and returns the sum of what the sink returned.
+     */
+    @Transactional
+    public int resolve(Long campaignId, RecipientSink sink) {
+        List<Long> listIds = jdbcTemplate.queryForList(SELECT_CAMPAIGN_LISTS, Long.class, campaignId);
+        List<Long> excludedListIds = jdbcTemplate.queryForList(SELECT_EXCLUDED_LISTS, Long.class, campaignId);
+
+        LongHashSet seen = new LongHashSet();
+        if (!excludedListIds.isEmpty()) {
+            streamSubscriberIds(STREAM_LIST_MEMBERS, excludedListIds.toArray(Long[]::new), seen::add);
+        }
+        int excluded = seen.size();
+
+        RecipientBatch batch = new RecipientBatch(seen, sink);
+        for (Long listId : listIds) {
+            batch.listId = listId;
+            streamSubscriberIds(STREAM_CONFIRMED_MEMBERS, listId, batch);
+            batch.flush();
+        }
+        log.debug("Campaign {} resolved to {} recipients from {} lists; {} subscribers excluded, {} entries skipped",
+                campaignId, batch.accepted, listIds.size(), excluded, batch.skipped);
+        return batch.accepted;
+    }
+
+    private void streamSubscriberIds(String sql, Object parameter, LongConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setObject(1, parameter);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1)));
+    }
+
+    private static final class RecipientBatch implements LongConsumer {
+
+        private final LongHashSet seen;
+        private final RecipientSink sink;
+        private final long[] subscriberIds = new long[BATCH_SIZE];
+        private Long listId;
+        private int length;
+        private int accepted;
+        private int skipped;
+
+        RecipientBatch(LongHashSet seen, RecipientSink sink) {
+            this.seen = seen;
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(long subscriberId) {
+            if (!seen.add(subscriberId)) {
+                skipped++;
+                return;
+            }
+            subscriberIds[length++] = subscriberId;
+            if (length == subscriberIds.length) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (length > 0) {
+                accepted += sink.accept(listId, Arrays.copyOf(subscriberIds, length));
+                length = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.jiranewsletterapp.service;
+
+import org.example.jiranewsletterapp.dto.CampaignResponse;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.DeadLetterResponse;
+import org.example.jiranewsletterapp.dto.ScheduleRequest;
+import org.example.jiranewsletterapp.entity.CampaignStatus;
+import org.example.jiranewsletterapp.repository.CampaignRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Starts a campaign by writing one {@code outbound_message} row per confirmed subscriber of its lists. The rows are
+ * sent by the {@link OutboundQueueWorker}s of whichever nodes claim them, and the last batch to complete marks the
+ * campaign as sent. A scheduled campaign writes its recipients to {@code scheduled_send} instead, and the
+ * {@link ScheduledSendScheduler} moves them to the queue as they fall due.
+ */
+@Service
+public class CampaignDispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(CampaignDispatchService.class);
+
+    private final CampaignRepository campaignRepository;
+    private final OutboundMessageQueue outboundMessageQueue;
+    private final ScheduledSendStore scheduledSendStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ZoneId timeZone;
+
+    @Autowired
+    public CampaignDispatchService(CampaignRepository campaignRepository,
+                                   OutboundMessageQueue outboundMessageQueue,
+                                   ScheduledSendStore scheduledSendStore,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.schedule.time-zone:}") String timeZone) {
+        this.campaignRepository = campaignRepository;
+        this.outboundMessageQueue = outboundMessageQueue;
+        this.scheduledSendStore = scheduledSendStore;
+        this.eventPublisher = eventPublisher;
+        this.timeZone = timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+    }
+
+    @Transactional
+    public CampaignResponse startDispatch(Long campaignId) {
+        if (!campaignRepository.existsById(campaignId)) {
+            throw new RuntimeException("Campaign not found with id: " + campaignId);
+        }
+        if (campaignRepository.transitionStatus(campaignId, CampaignStatus.DRAFT, CampaignStatus.SENDING,
+                LocalDateTime.now()) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Campaign has already been sent");
+        }
+        int queued = outboundMessageQueue.enqueueCampaign(campaignId);
+        if (queued == 0) {
+            outboundMessageQueue.finishIfDrained(campaignId);
+        }
+        log.info("Campaign {} queued {} messages", campaignId, queued);
+        return campaignRepository.findResponseById(campaignId).orElseThrow();
+    }
+
+    @Transactional
+    public CampaignResponse scheduleDispatch(Long campaignId, ScheduleRequest request) {
+        if (request.sendAt() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sendAt is required");
+        }
+        if (!campaignRepository.existsById(campaignId)) {
+            throw new RuntimeException("Campaign not found with id: " + campaignId);
+        }
+        if (campaignRepository.schedule(campaignId, request.sendAt(), request.subscriberLocalTime()) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Campaign has already been scheduled or sent");
+        }
+        int scheduled = scheduledSendStore.scheduleCampaign(campaignId, request.sendAt(),
+                request.subscriberLocalTime(), timeZone);
+        if (scheduled == 0) {
+            outboundMessageQueue.finishIfDrained(campaignId);
+        } else {
+            eventPublisher.publishEvent(new CampaignScheduledEvent(campaignId));
+        }
+        log.info("Campaign {} scheduled {} messages for {}{}", campaignId, scheduled, request.sendAt(),
+                request.subscriberLocalTime() ? " subscriber local time" : "");
+        return campaignRepository.findResponseById(campaignId).orElseThrow();
+    }
+
+    public CursorPage<DeadLetterResponse> getDeadLetters(Long campaignId, String cursor, Integer size) {
+        if (!campaignRepository.existsById(campaignId)) {
+            throw new RuntimeException("Campaign not found with id: " + campaignId);
+        }
+        int pageSize = CursorPage.pageSize(size);
+        List<DeadLetterResponse> fetched = outboundMessageQueue.findDeadLetters(campaignId,
+                CursorPage.decodeCursor(cursor), CursorPage.fetchLimit(pageSize).max());
+        return CursorPage.of(fetched, pageSize, DeadLetterResponse::id);
+    }
+}
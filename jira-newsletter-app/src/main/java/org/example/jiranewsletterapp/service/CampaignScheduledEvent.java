@@ -0,0 +1,7 @@
+package org.example.jiranewsletterapp.service;
+
+/**
+ * Published when a campaign's sends have been written to {@code scheduled_send}.
+ */
+public record CampaignScheduledEvent(Long campaignId) {
+}
@@ -0,0 +1,79 @@
+package org.example.jiranewsletterapp.service;
+
+import org.example.jiranewsletterapp.dto.CampaignRequest;
+import org.example.jiranewsletterapp.dto.CampaignResponse;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.entity.Campaign;
+import org.example.jiranewsletterapp.entity.SubscriberList;
+import org.example.jiranewsletterapp.repository.CampaignRepository;
+import org.example.jiranewsletterapp.repository.SubscriberListRepository;
+import org.example.jiranewsletterapp.template.CompiledTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class CampaignService {
+
+    private final CampaignRepository campaignRepository;
+    private final SubscriberListRepository listRepository;
+
+    @Autowired
+    public CampaignService(CampaignRepository campaignRepository, SubscriberListRepository listRepository) {
+        this.campaignRepository = campaignRepository;
+        this.listRepository = listRepository;
+    }
+
+    public CursorPage<CampaignResponse> getAllCampaigns(String cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        List<CampaignResponse> fetched = campaignRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), CursorPage.fetchLimit(pageSize));
+        return CursorPage.of(fetched, pageSize, CampaignResponse::id);
+    }
+
+    public CampaignResponse getById(Long id) {
+        return campaignRepository.findResponseById(id)
+                .orElseThrow(() -> new RuntimeException("Campaign not found with id: " + id));
+    }
+
+    @Transactional
+    public Campaign createCampaign(CampaignRequest request) {
+        if (request.name() == null || request.subject() == null || request.body() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campaign needs a name, subject and body");
+        }
+        try {
+            CompiledTemplate.compile(request.subject());
+            CompiledTemplate.compile(request.body());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        Set<Long> listIds = new HashSet<>(request.listIds());
+        if (listIds.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campaign needs at least one list");
+        }
+        Set<Long> excludedListIds = new HashSet<>(request.excludedListIds());
+        if (!Collections.disjoint(listIds, excludedListIds)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A list cannot be both targeted and excluded");
+        }
+        List<SubscriberList> lists = listRepository.findAllById(listIds);
+        List<SubscriberList> excludedLists = listRepository.findAllById(excludedListIds);
+        if (lists.size() != listIds.size() || excludedLists.size() != excludedListIds.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "List not found");
+        }
+
+        Campaign campaign = new Campaign();
+        campaign.setName(request.name());
+        campaign.setSubject(request.subject());
+        campaign.setBody(request.body());
+        campaign.setLists(new HashSet<>(lists));
+        campaign.setExcludedLists(new HashSet<>(excludedLists));
+        return campaignRepository.save(campaign);
+    }
+}
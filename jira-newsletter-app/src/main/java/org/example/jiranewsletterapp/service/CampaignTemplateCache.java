@@ -0,0 +1,53 @@
+package org.example.jiranewsletterapp.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.jiranewsletterapp.entity.Campaign;
+import org.example.jiranewsletterapp.mail.SharedBodyTemplate;
+import org.example.jiranewsletterapp.repository.CampaignRepository;
+import org.example.jiranewsletterapp.template.CompiledTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Compiled subject and pre-encoded body per campaign. A campaign's text cannot change once it is sending, so entries
+ * never need invalidating; they only age out after {@code ttl} without use or when more than {@code maxSize}
+ * campaigns are live.
+ */
+@Service
+public class CampaignTemplateCache {
+
+    public static final String CACHE_NAME = "campaignTemplates";
+
+    private final LoadingCache<Long, CampaignTemplates> cache;
+
+    @Autowired
+    public CampaignTemplateCache(CampaignRepository campaignRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.mail.template.cache-ttl:1h}") Duration ttl,
+                                 @Value("${app.mail.template.cache-size:1000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(campaignId -> {
+                    Campaign campaign = campaignRepository.findById(campaignId)
+                            .orElseThrow(() -> new RuntimeException("Campaign not found with id: " + campaignId));
+                    return new CampaignTemplates(CompiledTemplate.compile(campaign.getSubject()),
+                            SharedBodyTemplate.compile(CompiledTemplate.compile(campaign.getBody())));
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CampaignTemplates get(Long campaignId) {
+        return cache.get(campaignId);
+    }
+
+    public record CampaignTemplates(CompiledTemplate subject, SharedBodyTemplate body) {
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.jiranewsletterapp.service;
+
+import java.io.IOException;
+
+/**
+ * RFC 4180 field writer, the counterpart of {@link CsvReader}. Values are quoted only when they contain a separator,
+ * a quote or a line break, or are empty, so an empty string and a missing value stay distinguishable.
+ */
+public final class CsvWriter {
+
+    private CsvWriter() {
+    }
+
+    /**
+     * Appends one field; {@code null} is written as nothing.
+     */
+    public static void writeField(Appendable out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.isEmpty();
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char ch = value.charAt(i);
+            needsQuotes = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!needsQuotes) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') {
+                out.append('"');
+            }
+            out.append(ch);
+        }
+        out.append('"');
+    }
+}
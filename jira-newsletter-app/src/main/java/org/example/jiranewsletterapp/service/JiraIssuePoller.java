@@ -0,0 +1,86 @@
+package org.example.jiranewsletterapp.service;
+
+import org.example.jiranewsletterapp.jira.JiraClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Syncs every project in {@code app.jira.projects} once per {@code app.jira.poll-interval}. Every node may poll;
+ * a project being synced elsewhere is skipped rather than fetched twice.
+ */
+@Service
+public class JiraIssuePoller implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JiraIssuePoller.class);
+
+    private final JiraIssueSyncService syncService;
+    private final ObjectProvider<JiraClient> jiraClient;
+    private final boolean enabled;
+    private final List<String> projects;
+    private final Duration pollInterval;
+    private final ExecutorService pollExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running = true;
+
+    @Autowired
+    public JiraIssuePoller(JiraIssueSyncService syncService,
+                           ObjectProvider<JiraClient> jiraClient,
+                           @Value("${app.jira.poll.enabled:true}") boolean enabled,
+                           @Value("${app.jira.projects:}") String projects,
+                           @Value("${app.jira.poll-interval:5m}") Duration pollInterval) {
+        this.syncService = syncService;
+        this.jiraClient = jiraClient;
+        this.enabled = enabled;
+        this.projects = Arrays.stream(projects.split(",")).map(String::strip).filter(p -> !p.isEmpty()).toList();
+        this.pollInterval = pollInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || projects.isEmpty() || jiraClient.getIfAvailable() == null) {
+            return;
+        }
+        log.info("Polling Jira projects {} every {}", projects, pollInterval);
+        pollExecutor.execute(this::run);
+    }
+
+    private void run() {
+        while (running) {
+            pollOnce();
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public void pollOnce() {
+        for (String project : projects) {
+            try {
+                syncService.sync(project);
+            } catch (RuntimeException e) {
+                log.warn("Syncing Jira project {} failed, retrying in {}", project, pollInterval, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        pollExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,299 @@
+package org.example.jiranewsletterapp.service;
+
+import org.example.jiranewsletterapp.dto.JiraIssueResponse;
+import org.example.jiranewsletterapp.dto.JiraSyncResult;
+import org.example.jiranewsletterapp.dto.JiraSyncResult.Outcome;
+import org.example.jiranewsletterapp.jira.JiraClient;
+import org.example.jiranewsletterapp.jira.JiraIssue;
+import org.example.jiranewsletterapp.jira.JiraSearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Mirrors the issues of a Jira project into {@code jira_issue}. Every sync asks only for issues updated since the
+ * newest one already stored, so its cost follows the number of changed issues rather than the size of the project.
+ * JQL compares {@code updated} to the minute, so the query starts at the watermark's minute (less
+ * {@code app.jira.overlap}) and the re-fetched issues are recognised by their unchanged {@code updated} and not
+ * written again. When nothing changed since the last sync, the stored ETag turns the request into a 304.
+ * <p>
+ * Results are ordered by {@code updated}, which moves while a sync runs: an issue edited mid-sync jumps to the end and
+ * {@code startAt} paging would skip whatever slid across the page boundary. Each further page is therefore asked for
+ * with {@code updated >=} the newest minute of the previous page, and issues seen twice are merged by id. Only when a
+ * whole page shares that minute does paging fall back to {@code startAt} within it. The watermark never moves past the
+ * moment the sync started.
+ * <p>
+ * A sync claims its project with a lease on {@code jira_sync_state} and talks to Jira without holding a connection
+ * or a transaction; the issues and the new watermark are written together in one short transaction at the end.
+ */
+@Service
+public class JiraIssueSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(JiraIssueSyncService.class);
+
+    private static final int UPSERT_BATCH_SIZE = 1000;
+
+    private static final Pattern PROJECT_KEY = Pattern.compile("[A-Z][A-Z0-9_]{0,49}");
+    private static final DateTimeFormatter JQL_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
+
+    private static final String INIT_STATE = """
+            INSERT INTO jira_sync_state (project_key) VALUES (?) ON CONFLICT DO NOTHING
+            """;
+
+    private static final String ACQUIRE_LEASE = """
+            UPDATE jira_sync_state
+            SET lease_owner = ?, lease_expires_at = now() + ? * INTERVAL '1 millisecond'
+            WHERE project_key = ? AND (lease_expires_at IS NULL OR lease_expires_at < now())
+            RETURNING watermark, etag, etag_query
+            """;
+
+    private static final String SAVE_STATE = """
+            UPDATE jira_sync_state
+            SET watermark = ?, etag = ?, etag_query = ?, last_synced_at = now(), lease_owner = NULL,
+                lease_expires_at = NULL
+            WHERE project_key = ? AND lease_owner = ?
+            """;
+
+    private static final String TOUCH_STATE = """
+            UPDATE jira_sync_state SET last_synced_at = now(), lease_owner = NULL, lease_expires_at = NULL
+            WHERE project_key = ? AND lease_owner = ?
+            """;
+
+    private static final String RELEASE_LEASE = """
+            UPDATE jira_sync_state SET lease_owner = NULL, lease_expires_at = NULL
+            WHERE project_key = ? AND lease_owner = ?
+            """;
+
+    private static final String UPSERT_ISSUES = """
+            INSERT INTO jira_issue (id, issue_key, project_key, summary, issue_type, status, resolved_at, updated_at,
+                                    synced_at)
+            SELECT u.*, now()
+            FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[],
+                        ?::varchar[]::timestamptz[], ?::varchar[]::timestamptz[])
+                     AS u(id, issue_key, project_key, summary, issue_type, status, resolved_at, updated_at)
+            ON CONFLICT (id) DO UPDATE
+                SET issue_key   = EXCLUDED.issue_key,
+                    project_key = EXCLUDED.project_key,
+                    summary     = EXCLUDED.summary,
+                    issue_type  = EXCLUDED.issue_type,
+                    status      = EXCLUDED.status,
+                    resolved_at = EXCLUDED.resolved_at,
+                    updated_at  = EXCLUDED.updated_at,
+                    synced_at   = EXCLUDED.synced_at
+            WHERE jira_issue.updated_at < EXCLUDED.updated_at
+            """;
+
+    private static final String SELECT_RESOLVED = """
+            SELECT issue_key, summary, issue_type, status, resolved_at, updated_at
+            FROM jira_issue
+            WHERE project_key = ? AND resolved_at >= ?
+            ORDER BY resolved_at, id
+            """;
+
+    private static final RowMapper<SyncState> STATE_MAPPER = (rs, rowNum) -> new SyncState(
+            rs.getObject("watermark", OffsetDateTime.class), rs.getString("etag"), rs.getString("etag_query"));
+
+    private static final RowMapper<JiraIssueResponse> ISSUE_MAPPER = (rs, rowNum) -> new JiraIssueResponse(
+            rs.getString("issue_key"), rs.getString("summary"), rs.getString("issue_type"), rs.getString("status"),
+            rs.getObject("resolved_at", OffsetDateTime.class), rs.getObject("updated_at", OffsetDateTime.class));
+
+    private record SyncState(OffsetDateTime watermark, String etag, String etagQuery) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<JiraClient> jiraClient;
+    private final int pageSize;
+    private final Duration overlap;
+    private final ZoneId timeZone;
+    private final Duration lease;
+
+    @Autowired
+    public JiraIssueSyncService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ObjectProvider<JiraClient> jiraClient,
+                                @Value("${app.jira.page-size:100}") int pageSize,
+                                @Value("${app.jira.overlap:1m}") Duration overlap,
+                                @Value("${app.jira.time-zone:UTC}") ZoneId timeZone,
+                                @Value("${app.jira.lease:10m}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jiraClient = jiraClient;
+        this.pageSize = pageSize;
+        this.overlap = overlap;
+        this.timeZone = timeZone;
+        this.lease = lease;
+    }
+
+    /**
+     * Fetches and stores the issues of {@code projectKey} changed since the last sync. If another node is already
+     * syncing the project, returns {@link Outcome#IN_PROGRESS} straight away instead of waiting for it.
+     */
+    public JiraSyncResult sync(String projectKey) {
+        validateProjectKey(projectKey);
+        JiraClient client = jiraClient.getIfAvailable();
+        if (client == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Jira is not configured");
+        }
+
+        jdbcTemplate.update(INIT_STATE, projectKey);
+        String owner = UUID.randomUUID().toString();
+        List<SyncState> leased = jdbcTemplate.query(ACQUIRE_LEASE, STATE_MAPPER, owner, lease.toMillis(), projectKey);
+        if (leased.isEmpty()) {
+            return new JiraSyncResult(projectKey, Outcome.IN_PROGRESS, 0, 0, 0, null);
+        }
+        try {
+            return sync(client, projectKey, owner, leased.getFirst());
+        } catch (RuntimeException e) {
+            jdbcTemplate.update(RELEASE_LEASE, projectKey, owner);
+            throw e;
+        }
+    }
+
+    private JiraSyncResult sync(JiraClient client, String projectKey, String owner, SyncState state) {
+        OffsetDateTime started = OffsetDateTime.now();
+        String firstJql = jql(projectKey, state.watermark());
+
+        Map<Long, JiraIssue> issues = new LinkedHashMap<>();
+        String jql = firstJql;
+        int startAt = 0;
+        String etag = null;
+        int firstTotal = 0;
+        int requests = 0;
+        while (true) {
+            String ifNoneMatch = requests == 0 && jql.equals(state.etagQuery()) ? state.etag() : null;
+            JiraSearchResult page = client.search(jql, startAt, pageSize, ifNoneMatch);
+            requests++;
+            if (page.notModified()) {
+                jdbcTemplate.update(TOUCH_STATE, projectKey, owner);
+                return new JiraSyncResult(projectKey, Outcome.NOT_MODIFIED, requests, 0, 0, state.watermark());
+            }
+            if (requests == 1) {
+                etag = page.etag();
+                firstTotal = page.total();
+            }
+            OffsetDateTime newest = null;
+            for (JiraIssue issue : page.issues()) {
+                issues.merge(issue.id(), issue,
+                        (seen, again) -> again.updatedAt().isAfter(seen.updatedAt()) ? again : seen);
+                if (newest == null || issue.updatedAt().isAfter(newest)) {
+                    newest = issue.updatedAt();
+                }
+            }
+            if (page.issues().isEmpty() || startAt + page.issues().size() >= page.total()) {
+                break;
+            }
+            String next = query(projectKey, newest);
+            if (next.equals(jql)) {
+                startAt += page.issues().size();
+            } else {
+                jql = next;
+                startAt = 0;
+            }
+        }
+
+        OffsetDateTime watermark = state.watermark();
+        for (JiraIssue issue : issues.values()) {
+            if (watermark == null || issue.updatedAt().isAfter(watermark)) {
+                watermark = issue.updatedAt();
+            }
+        }
+        if (watermark != null && watermark.isAfter(started)) {
+            watermark = started;
+        }
+        // An ETag only proves that nothing changed if it covers the whole result, and only helps if the next sync
+        // sends the same query.
+        boolean reusable = requests == 1 && firstTotal <= pageSize && firstJql.equals(jql(projectKey, watermark));
+        OffsetDateTime savedWatermark = watermark;
+        String savedEtag = reusable ? etag : null;
+        String savedQuery = reusable ? firstJql : null;
+        List<JiraIssue> fetched = List.copyOf(issues.values());
+        int changed = transactionTemplate.execute(status -> {
+            int written = 0;
+            for (int from = 0; from < fetched.size(); from += UPSERT_BATCH_SIZE) {
+                written += upsert(fetched.subList(from, Math.min(from + UPSERT_BATCH_SIZE, fetched.size())));
+            }
+            if (jdbcTemplate.update(SAVE_STATE, savedWatermark, savedEtag, savedQuery, projectKey, owner) == 0) {
+                log.warn("Lease on Jira project {} ran out during the sync, watermark not saved", projectKey);
+            }
+            return written;
+        });
+        log.info("Synced Jira project {}: {} issues fetched in {} requests, {} changed, watermark {}",
+                projectKey, fetched.size(), requests, changed, watermark);
+        return new JiraSyncResult(projectKey, Outcome.SYNCED, requests, fetched.size(), changed, watermark);
+    }
+
+    public List<JiraIssueResponse> getResolvedIssues(String projectKey, OffsetDateTime since) {
+        validateProjectKey(projectKey);
+        return jdbcTemplate.query(SELECT_RESOLVED, ISSUE_MAPPER, projectKey, since);
+    }
+
+    String jql(String projectKey, OffsetDateTime watermark) {
+        return query(projectKey, watermark == null ? null : watermark.minus(overlap));
+    }
+
+    private String query(String projectKey, OffsetDateTime from) {
+        String jql = "project = \"" + projectKey + "\"";
+        if (from != null) {
+            String minute = from.atZoneSameInstant(timeZone).truncatedTo(ChronoUnit.MINUTES).format(JQL_TIMESTAMP);
+            jql += " AND updated >= \"" + minute + "\"";
+        }
+        return jql + " ORDER BY updated ASC";
+    }
+
+    private int upsert(List<JiraIssue> issues) {
+        if (issues.isEmpty()) {
+            return 0;
+        }
+        int size = issues.size();
+        Long[] ids = new Long[size];
+        String[] keys = new String[size];
+        String[] projects = new String[size];
+        String[] summaries = new String[size];
+        String[] types = new String[size];
+        String[] statuses = new String[size];
+        String[] resolved = new String[size];
+        String[] updated = new String[size];
+        for (int i = 0; i < size; i++) {
+            JiraIssue issue = issues.get(i);
+            ids[i] = issue.id();
+            keys[i] = issue.key();
+            projects[i] = issue.projectKey();
+            summaries[i] = truncate(issue.summary(), 255);
+            types[i] = truncate(issue.issueType(), 100);
+            statuses[i] = truncate(issue.status(), 100);
+            resolved[i] = issue.resolvedAt() == null ? null : issue.resolvedAt().toString();
+            updated[i] = issue.updatedAt().toString();
+        }
+        return jdbcTemplate.update(UPSERT_ISSUES, ids, keys, projects, summaries, types, statuses, resolved, updated);
+    }
+
+    private static void validateProjectKey(String projectKey) {
+        if (projectKey == null || !PROJECT_KEY.matcher(projectKey).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Jira project key");
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,314 @@
+package org.example.jiranewsletterapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.jiranewsletterapp.dto.ComposedMessage;
+import org.example.jiranewsletterapp.dto.DeadLetterResponse;
+import org.example.jiranewsletterapp.dto.DeliveryFailure;
+import org.example.jiranewsletterapp.dto.OutboundMessage;
+import org.example.jiranewsletterapp.mail.RetryPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable send queue shared by every node. Rows are claimed with {@code FOR UPDATE SKIP LOCKED} so concurrent
+ * workers never wait on each other, and each claim carries a lease: if a node dies mid-batch its rows become
+ * claimable again once the lease runs out. Delivery is therefore at-least-once.
+ * <p>
+ * A transient failure puts the row back as {@code PENDING} with a {@code next_attempt_at} given by the
+ * {@link RetryPolicy}; nothing waits for it in memory, the row simply is not claimable until then. Claims take rows
+ * by that due time, fresh rows first, which is the order of {@code idx_outbound_message_claimable}, so deferred
+ * retries are never scanned. Permanent failures and messages out of attempts move to {@code FAILED} and get a
+ * {@code dead_letter} row. Outcomes of a batch are written with one statement per kind, passing the ids as arrays.
+ * <p>
+ * Besides campaign messages the queue carries {@link ComposedMessage composed} ones, such as confirmation links, that
+ * have no campaign and keep their subject and body in the row; they get the same retries and dead letters.
+ * <p>
+ * The {@code newsletter.outbound.queued} gauges report pending rows that are due and those waiting for a retry. They
+ * are counted at most once per {@code app.metrics.queue-depth-refresh}, however often they are scraped.
+ */
+@Service
+public class OutboundMessageQueue {
+
+    static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String ENQUEUE_RECIPIENTS = """
+            INSERT INTO outbound_message (campaign_id, subscriber_id, subscriber_list_id, recipient, status, created_at)
+            SELECT ?, s.id, ?, s.email, 'PENDING', now()
+            FROM unnest(?::bigint[]) AS u(subscriber_id)
+                     JOIN subscriber s ON s.id = u.subscriber_id
+            WHERE s.suppressed_at IS NULL
+            ON CONFLICT ON CONSTRAINT uc_outbound_message_campaign_subscriber DO NOTHING
+            """;
+
+    private static final String ENQUEUE_COMPOSED = """
+            INSERT INTO outbound_message (subscriber_id, subscriber_list_id, recipient, subject, body, status, created_at)
+            SELECT u.*, 'PENDING', now()
+            FROM unnest(?::bigint[], ?::bigint[], ?::varchar[], ?::varchar[], ?::text[])
+                     AS u(subscriber_id, subscriber_list_id, recipient, subject, body)
+                     JOIN subscriber s ON s.id = u.subscriber_id
+            WHERE s.suppressed_at IS NULL
+            """;
+
+    private static final String CLAIM_BATCH = """
+            WITH claimable AS (SELECT id
+                               FROM outbound_message
+                               WHERE status = 'PENDING'
+                                 AND (lease_expires_at IS NULL OR lease_expires_at < now())
+                                 AND coalesce(next_attempt_at, '-infinity'::timestamptz) <= now()
+                               ORDER BY coalesce(next_attempt_at, '-infinity'::timestamptz), id
+                               LIMIT ? FOR UPDATE SKIP LOCKED)
+            UPDATE outbound_message m
+            SET lease_owner      = ?,
+                lease_expires_at = now() + ? * INTERVAL '1 millisecond',
+                attempts         = m.attempts + 1
+            FROM claimable, subscriber s
+            WHERE m.id = claimable.id
+              AND s.id = m.subscriber_id
+            RETURNING m.id, m.campaign_id, m.subscriber_id, m.recipient, s.first_name, s.last_name, s.birth_date,
+                (SELECT l.name FROM subscriber_list l WHERE l.id = m.subscriber_list_id) AS list_name, m.attempts,
+                (SELECT e.id
+                 FROM subscriber_list_entry e
+                 WHERE e.subscriber_list_id = m.subscriber_list_id
+                   AND e.subscriber_id = m.subscriber_id) AS entry_id,
+                s.suppressed_at IS NOT NULL AS suppressed, m.subject, m.body
+            """;
+
+    private static final String MARK_SENT = """
+            UPDATE outbound_message
+            SET status = 'SENT', sent_at = now(), next_attempt_at = NULL, lease_owner = NULL, lease_expires_at = NULL
+            WHERE id = ANY (?) AND lease_owner = ? AND status = 'PENDING'
+            RETURNING campaign_id
+            """;
+
+    private static final String MARK_CANCELLED = """
+            UPDATE outbound_message
+            SET status = 'CANCELLED', next_attempt_at = NULL, lease_owner = NULL, lease_expires_at = NULL
+            WHERE id = ANY (?) AND lease_owner = ? AND status = 'PENDING'
+            RETURNING campaign_id
+            """;
+
+    private static final String RESCHEDULE_RETRIES = """
+            UPDATE outbound_message m
+            SET last_error       = u.error,
+                next_attempt_at  = now() + u.delay_millis * INTERVAL '1 millisecond',
+                lease_owner      = NULL,
+                lease_expires_at = NULL
+            FROM unnest(?::bigint[], ?::varchar[], ?::bigint[]) AS u(id, error, delay_millis)
+            WHERE m.id = u.id AND m.lease_owner = ? AND m.status = 'PENDING'
+            """;
+
+    private static final String DEAD_LETTER = """
+            WITH failed AS (
+                UPDATE outbound_message m
+                SET status = 'FAILED', last_error = u.error, next_attempt_at = NULL,
+                    lease_owner = NULL, lease_expires_at = NULL
+                FROM unnest(?::bigint[], ?::varchar[], ?::boolean[]) AS u(id, error, permanent)
+                WHERE m.id = u.id AND m.lease_owner = ? AND m.status = 'PENDING'
+                RETURNING m.id, m.campaign_id, m.subscriber_id, m.recipient, m.attempts, m.last_error, u.permanent)
+            INSERT INTO dead_letter (outbound_message_id, campaign_id, subscriber_id, recipient, attempts, last_error,
+                                     permanent, failed_at)
+            SELECT id, campaign_id, subscriber_id, recipient, attempts, last_error, permanent, now()
+            FROM failed
+            RETURNING campaign_id
+            """;
+
+    private static final String FIND_DEAD_LETTERS = """
+            SELECT id, subscriber_id, recipient, attempts, last_error, permanent, failed_at
+            FROM dead_letter
+            WHERE campaign_id = ? AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String ADD_CAMPAIGN_COUNTS = """
+            UPDATE campaign SET sent_count = sent_count + ?, failed_count = failed_count + ? WHERE id = ?
+            """;
+
+    private static final String FINISH_DRAINED_CAMPAIGN = """
+            UPDATE campaign c
+            SET status = 'SENT', finished_at = localtimestamp
+            WHERE c.id = ?
+              AND c.status IN ('SENDING', 'SCHEDULED')
+              AND NOT EXISTS (SELECT 1 FROM outbound_message m WHERE m.campaign_id = c.id AND m.status = 'PENDING')
+              AND NOT EXISTS (SELECT 1 FROM scheduled_send d WHERE d.campaign_id = c.id)
+            """;
+
+    private static final String COUNT_QUEUED = """
+            SELECT count(*) FILTER (WHERE next_attempt_at IS NULL OR next_attempt_at <= now()) AS due,
+                   count(*) FILTER (WHERE next_attempt_at > now())                             AS deferred
+            FROM outbound_message
+            WHERE status = 'PENDING'
+            """;
+
+    private static final RowMapper<OutboundMessage> MESSAGE_MAPPER = (rs, rowNum) -> new OutboundMessage(
+            rs.getLong("id"), rs.getObject("campaign_id", Long.class), rs.getLong("subscriber_id"),
+            rs.getString("recipient"), rs.getString("first_name"), rs.getString("last_name"),
+            rs.getObject("birth_date", LocalDate.class), rs.getString("list_name"), rs.getInt("attempts"),
+            rs.getObject("entry_id", Long.class), rs.getBoolean("suppressed"), rs.getString("subject"),
+            rs.getString("body"));
+
+    private static final RowMapper<DeadLetterResponse> DEAD_LETTER_MAPPER = (rs, rowNum) -> new DeadLetterResponse(
+            rs.getLong("id"), rs.getObject("subscriber_id", Long.class), rs.getString("recipient"),
+            rs.getInt("attempts"), rs.getString("last_error"), rs.getBoolean("permanent"),
+            rs.getObject("failed_at", OffsetDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CampaignAudienceResolver audienceResolver;
+    private final RetryPolicy retryPolicy;
+    private final long depthRefreshNanos;
+    private QueueDepth depth;
+
+    @Autowired
+    public OutboundMessageQueue(JdbcTemplate jdbcTemplate, CampaignAudienceResolver audienceResolver,
+                                RetryPolicy retryPolicy, MeterRegistry meterRegistry,
+                                @Value("${app.metrics.queue-depth-refresh:15s}") Duration depthRefresh) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.audienceResolver = audienceResolver;
+        this.retryPolicy = retryPolicy;
+        this.depthRefreshNanos = depthRefresh.toNanos();
+        Gauge.builder("newsletter.outbound.queued", this, queue -> queue.queueDepth().due())
+                .description("Pending outbound messages that can be claimed now")
+                .tag("state", "due")
+                .register(meterRegistry);
+        Gauge.builder("newsletter.outbound.queued", this, queue -> queue.queueDepth().deferred())
+                .description("Pending outbound messages waiting for a retry")
+                .tag("state", "deferred")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes one {@code PENDING} row per recipient resolved by the {@link CampaignAudienceResolver}.
+     */
+    @Transactional
+    public int enqueueCampaign(Long campaignId) {
+        return audienceResolver.resolve(campaignId, (listId, subscriberIds) ->
+                jdbcTemplate.update(ENQUEUE_RECIPIENTS, campaignId, listId, subscriberIds));
+    }
+
+    /**
+     * Queues messages that were composed up front; they are sent as they are, outside any campaign. Messages to
+     * suppressed subscribers are left out.
+     */
+    public int enqueueComposed(List<ComposedMessage> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(ENQUEUE_COMPOSED,
+                messages.stream().map(ComposedMessage::subscriberId).toArray(Long[]::new),
+                messages.stream().map(ComposedMessage::subscriberListId).toArray(Long[]::new),
+                messages.stream().map(ComposedMessage::recipient).toArray(String[]::new),
+                messages.stream().map(ComposedMessage::subject).toArray(String[]::new),
+                messages.stream().map(ComposedMessage::body).toArray(String[]::new));
+    }
+
+    @Transactional
+    public List<OutboundMessage> claim(String nodeId, int batchSize, Duration lease) {
+        return jdbcTemplate.query(CLAIM_BATCH, MESSAGE_MAPPER, batchSize, nodeId, lease.toMillis());
+    }
+
+    @Transactional
+    public void complete(String nodeId, List<OutboundMessage> sent, List<DeliveryFailure> failed) {
+        complete(nodeId, sent, List.of(), failed);
+    }
+
+    /**
+     * Records the outcome of a claimed batch. Rows whose lease was meanwhile taken over by another node are left
+     * alone, so counts are only ever added once per row. Retries are not counted until they are finally sent or
+     * dead-lettered. Cancelled messages, whose recipient left the list after they were queued, are closed as
+     * {@code CANCELLED} without counting as sent or failed.
+     */
+    @Transactional
+    public void complete(String nodeId, List<OutboundMessage> sent, List<OutboundMessage> cancelled,
+                         List<DeliveryFailure> failed) {
+        Map<Long, long[]> countsByCampaign = new HashMap<>();
+
+        if (!sent.isEmpty()) {
+            Long[] ids = sent.stream().map(OutboundMessage::id).toArray(Long[]::new);
+            for (Long campaignId : jdbcTemplate.queryForList(MARK_SENT, Long.class, ids, nodeId)) {
+                if (campaignId != null) {
+                    countsByCampaign.computeIfAbsent(campaignId, id -> new long[2])[0]++;
+                }
+            }
+        }
+
+        if (!cancelled.isEmpty()) {
+            Long[] ids = cancelled.stream().map(OutboundMessage::id).toArray(Long[]::new);
+            for (Long campaignId : jdbcTemplate.queryForList(MARK_CANCELLED, Long.class, ids, nodeId)) {
+                if (campaignId != null) {
+                    countsByCampaign.computeIfAbsent(campaignId, id -> new long[2]);
+                }
+            }
+        }
+
+        List<DeliveryFailure> retries = new ArrayList<>();
+        List<DeliveryFailure> deadLetters = new ArrayList<>();
+        for (DeliveryFailure failure : failed) {
+            boolean retry = !failure.permanent() && retryPolicy.canRetry(failure.message().attempts());
+            (retry ? retries : deadLetters).add(failure);
+        }
+        if (!retries.isEmpty()) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            jdbcTemplate.update(RESCHEDULE_RETRIES,
+                    retries.stream().map(failure -> failure.message().id()).toArray(Long[]::new),
+                    retries.stream().map(failure -> truncate(failure.error())).toArray(String[]::new),
+                    retries.stream().map(failure -> retryPolicy.backoff(failure.message().attempts(), random).toMillis())
+                            .toArray(Long[]::new),
+                    nodeId);
+        }
+        if (!deadLetters.isEmpty()) {
+            List<Long> failedCampaigns = jdbcTemplate.queryForList(DEAD_LETTER, Long.class,
+                    deadLetters.stream().map(failure -> failure.message().id()).toArray(Long[]::new),
+                    deadLetters.stream().map(failure -> truncate(failure.error())).toArray(String[]::new),
+                    deadLetters.stream().map(DeliveryFailure::permanent).toArray(Boolean[]::new),
+                    nodeId);
+            for (Long campaignId : failedCampaigns) {
+                if (campaignId != null) {
+                    countsByCampaign.computeIfAbsent(campaignId, id -> new long[2])[1]++;
+                }
+            }
+        }
+
+        countsByCampaign.forEach((campaignId, counts) -> {
+            jdbcTemplate.update(ADD_CAMPAIGN_COUNTS, counts[0], counts[1], campaignId);
+            finishIfDrained(campaignId);
+        });
+    }
+
+    public List<DeadLetterResponse> findDeadLetters(Long campaignId, long afterId, int limit) {
+        return jdbcTemplate.query(FIND_DEAD_LETTERS, DEAD_LETTER_MAPPER, campaignId, afterId, limit);
+    }
+
+    public boolean finishIfDrained(Long campaignId) {
+        return jdbcTemplate.update(FINISH_DRAINED_CAMPAIGN, campaignId) > 0;
+    }
+
+    synchronized QueueDepth queueDepth() {
+        long now = System.nanoTime();
+        if (depth == null || now - depth.countedAtNanos() >= depthRefreshNanos) {
+            depth = jdbcTemplate.queryForObject(COUNT_QUEUED, (rs, rowNum) ->
+                    new QueueDepth(rs.getLong("due"), rs.getLong("deferred"), now));
+        }
+        return depth;
+    }
+
+    record QueueDepth(long due, long deferred, long countedAtNanos) {
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,269 @@
+package org.example.jiranewsletterapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.jiranewsletterapp.dto.DeliveryFailure;
+import org.example.jiranewsletterapp.dto.OutboundMessage;
+import org.example.jiranewsletterapp.mail.EncodedBody;
+import org.example.jiranewsletterapp.mail.MailSendScheduler;
+import org.example.jiranewsletterapp.mail.MailTransportException;
+import org.example.jiranewsletterapp.mail.OutboundMail;
+import org.example.jiranewsletterapp.service.CampaignTemplateCache.CampaignTemplates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs this node's share of the {@link OutboundMessageQueue}. Each worker claims a batch under its own lease owner,
+ * renders each message from its campaign's compiled templates, reusing the shared encoded body, hands it to the
+ * {@link MailSendScheduler} and records the outcome once every send has settled, so adding nodes adds claimers
+ * without any coordination beyond the row locks. A message that failed transiently goes back to the queue with a
+ * later due time rather than being retried here, so a slow or flaky recipient never holds up the rest of its batch.
+ * <p>
+ * Each attempt is counted in {@code newsletter.mail.messages}, tagged by campaign ({@code none} for composed
+ * messages) and outcome, so the send rate of a campaign is {@code rate()} over its counters. A campaign's counters are
+ * removed once this node has counted nothing for it for {@code app.metrics.campaign-meter-idle}, so finished
+ * campaigns do not pile up in the registry; a campaign that picks up again simply starts new counters.
+ */
+@Service
+public class OutboundQueueWorker implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundQueueWorker.class);
+
+    private static final String MESSAGES_METER = "newsletter.mail.messages";
+    private static final String[] OUTCOMES = {"sent", "transient_failure", "permanent_failure", "cancelled"};
+
+    private final OutboundMessageQueue queue;
+    private final MailSendScheduler sendScheduler;
+    private final CampaignTemplateCache templateCache;
+    private final UnsubscribeService unsubscribeService;
+    private final TrackingService trackingService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration idleDelay;
+    private final String nodeId;
+    private final long meterIdleNanos;
+    // Campaign tag to System.nanoTime() of its last count; guarded by itself together with the meters it tracks.
+    private final Map<String, Long> campaignMeters = new HashMap<>();
+    private final ExecutorService workerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running = true;
+
+    @Autowired
+    public OutboundQueueWorker(OutboundMessageQueue queue,
+                               MailSendScheduler sendScheduler,
+                               CampaignTemplateCache templateCache,
+                               UnsubscribeService unsubscribeService,
+                               TrackingService trackingService,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.mail.queue.enabled:true}") boolean enabled,
+                               @Value("${app.mail.queue.workers:4}") int workers,
+                               @Value("${app.mail.queue.batch-size:100}") int batchSize,
+                               @Value("${app.mail.queue.lease:5m}") Duration lease,
+                               @Value("${app.mail.queue.idle-delay:1s}") Duration idleDelay,
+                               @Value("${app.mail.queue.node-id:}") String nodeId,
+                               @Value("${app.metrics.campaign-meter-idle:1h}") Duration meterIdle) {
+        this.queue = queue;
+        this.sendScheduler = sendScheduler;
+        this.templateCache = templateCache;
+        this.unsubscribeService = unsubscribeService;
+        this.trackingService = trackingService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.idleDelay = idleDelay;
+        // RuntimeMXBean name is "pid@hostname", unique per running instance.
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        this.meterIdleNanos = meterIdle.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Starting {} outbound queue workers on node {}", workers, nodeId);
+        for (int i = 0; i < workers; i++) {
+            String owner = nodeId + "#" + i;
+            workerExecutor.execute(() -> run(owner));
+        }
+    }
+
+    private void run(String owner) {
+        while (running) {
+            try {
+                if (processBatch(owner) == 0) {
+                    Thread.sleep(idleDelay);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Outbound queue worker {} failed, retrying", owner, e);
+                try {
+                    Thread.sleep(idleDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims and sends one batch on the calling thread; returns the number of messages claimed.
+     */
+    public int processBatch() {
+        return processBatch(nodeId);
+    }
+
+    /**
+     * Keeps processing batches until the queue has nothing claimable left.
+     */
+    public void drain() {
+        while (processBatch() > 0) {
+            // keep claiming
+        }
+    }
+
+    private int processBatch(String owner) {
+        removeIdleCampaignMeters();
+        List<OutboundMessage> claimed = queue.claim(owner, batchSize, lease);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboundMessage> attempted = new ArrayList<>(claimed.size());
+        List<OutboundMessage> cancelled = new ArrayList<>();
+        List<CompletableFuture<Void>> results = new ArrayList<>(claimed.size());
+        StringBuilder buffer = new StringBuilder(1024);
+        for (OutboundMessage message : claimed) {
+            // The recipient left the list after the campaign was queued; they must not get the rest of it.
+            if (message.campaignId() != null && message.entryId() == null) {
+                cancelled.add(message);
+                continue;
+            }
+            attempted.add(message);
+            // Queued before the address was suppressed by a bounce or complaint: fail permanently without sending.
+            if (message.suppressed()) {
+                results.add(CompletableFuture.failedFuture(
+                        new MailTransportException("Recipient " + message.recipient() + " is suppressed", null, true)));
+                continue;
+            }
+            // Composed messages, such as confirmations, carry their own subject and body.
+            if (message.campaignId() == null) {
+                results.add(sendScheduler.submit(new OutboundMail(message.recipient(), message.subject(),
+                        message.body())));
+                continue;
+            }
+            OutboundMail mail;
+            try {
+                CampaignTemplates templates = templateCache.get(message.campaignId());
+                String subject = templates.subject().render(message, buffer);
+                long campaignId = message.campaignId();
+                // Links become the recipient's click-tracking links; bodies are plain text, so there is no open pixel.
+                EncodedBody body = templates.body().render(message,
+                        url -> trackingService.trackLink(campaignId, message.subscriberId(), url), buffer);
+                // Campaign mail carries the one-click unsubscribe link for the recipient's list entry.
+                mail = new OutboundMail(message.recipient(), subject, body,
+                        unsubscribeService.unsubscribeUrl(message.entryId()));
+            } catch (RuntimeException e) {
+                results.add(CompletableFuture.failedFuture(e));
+                continue;
+            }
+            results.add(sendScheduler.submit(mail));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> null)
+                .join();
+
+        List<OutboundMessage> sent = new ArrayList<>(attempted.size());
+        List<DeliveryFailure> failed = new ArrayList<>();
+        for (int i = 0; i < attempted.size(); i++) {
+            CompletableFuture<Void> result = results.get(i);
+            if (!result.isCompletedExceptionally()) {
+                sent.add(attempted.get(i));
+                continue;
+            }
+            try {
+                result.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                // Anything other than a transport error, e.g. a template that cannot render, would fail again.
+                boolean permanent = !(cause instanceof MailTransportException transport) || transport.isPermanent();
+                failed.add(new DeliveryFailure(attempted.get(i), String.valueOf(cause.getMessage()), permanent));
+                log.debug("Sending message {} to {} failed", attempted.get(i).id(), attempted.get(i).recipient(),
+                        cause);
+            }
+        }
+        queue.complete(owner, sent, cancelled, failed);
+        countOutcomes(sent, cancelled, failed);
+        return claimed.size();
+    }
+
+    private void countOutcomes(List<OutboundMessage> sent, List<OutboundMessage> cancelled,
+                               List<DeliveryFailure> failed) {
+        Map<String, long[]> byCampaign = new HashMap<>();
+        sent.forEach(message -> byCampaign.computeIfAbsent(campaignTag(message), id -> new long[4])[0]++);
+        failed.forEach(failure -> byCampaign.computeIfAbsent(campaignTag(failure.message()), id -> new long[4])
+                [failure.permanent() ? 2 : 1]++);
+        cancelled.forEach(message -> byCampaign.computeIfAbsent(campaignTag(message), id -> new long[4])[3]++);
+        long now = System.nanoTime();
+        synchronized (campaignMeters) {
+            byCampaign.forEach((campaign, counts) -> {
+                campaignMeters.put(campaign, now);
+                for (int outcome = 0; outcome < OUTCOMES.length; outcome++) {
+                    if (counts[outcome] > 0) {
+                        Counter.builder(MESSAGES_METER)
+                                .description("Delivery attempts by campaign and outcome")
+                                .tag("campaign", campaign)
+                                .tag("outcome", OUTCOMES[outcome])
+                                .register(meterRegistry)
+                                .increment(counts[outcome]);
+                    }
+                }
+            });
+        }
+    }
+
+    private void removeIdleCampaignMeters() {
+        long now = System.nanoTime();
+        synchronized (campaignMeters) {
+            for (Iterator<Map.Entry<String, Long>> it = campaignMeters.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Long> campaign = it.next();
+                if (now - campaign.getValue() >= meterIdleNanos) {
+                    it.remove();
+                    meterRegistry.find(MESSAGES_METER).tag("campaign", campaign.getKey()).meters()
+                            .forEach(meterRegistry::remove);
+                }
+            }
+        }
+    }
+
+    private static String campaignTag(OutboundMessage message) {
+        return message.campaignId() == null ? "none" : message.campaignId().toString();
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        workerExecutor.shutdownNow();
+    }
+}
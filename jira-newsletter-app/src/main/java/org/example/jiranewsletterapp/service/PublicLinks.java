@@ -0,0 +1,27 @@
+package org.example.jiranewsletterapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Absolute links to the public endpoints, for mails that leave the application. {@code app.public-url} may be set with
+ * or without a trailing slash.
+ */
+@Component
+public class PublicLinks {
+
+    private final String baseUrl;
+
+    @Autowired
+    public PublicLinks(@Value("${app.public-url:http://localhost:8080}") String publicUrl) {
+        this.baseUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+    }
+
+    /**
+     * Returns the absolute form of {@code path}, which starts with a slash.
+     */
+    public String url(String path) {
+        return baseUrl + path;
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.jiranewsletterapp.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.jiranewsletterapp.dto.SignupRequest;
+import org.example.jiranewsletterapp.repository.SubscriberListRepository;
+import org.example.jiranewsletterapp.util.WriteBehindBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Signups from the public subscribe form. A valid signup is only put in a {@link WriteBehindBuffer}, keyed by email
+ * and list so a double submit costs nothing, and acknowledged; a background loop writes each batch with a single
+ * statement that upserts the subscribers by email and adds the missing list entries. Anyone can post the form, so an
+ * existing subscriber's data is never changed by it; only new subscribers take their names from the signup. Once
+ * {@code app.signup.buffer.capacity} signups are waiting the endpoint answers 503 instead of queueing more.
+ * <p>
+ * Only lists whose owner set {@code publicSignup} take signups; any other list id is answered 404. That check reads a
+ * cache kept for {@code app.signup.public-lists.cache-ttl}, so the write checks again and drops signups for a list
+ * that was closed or deleted in the meantime, without creating the subscriber.
+ * <p>
+ * New entries are unconfirmed and get a confirmation mail from {@link SubscriptionConfirmationService}, queued in the
+ * same transaction as the entries.
+ */
+@Service
+public class PublicSignupService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicSignupService.class);
+
+    static final String DEFAULT_SOURCE = "SIGNUP";
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final int PUBLIC_LISTS_CACHE_SIZE = 10_000;
+
+    private static final String UPSERT_SIGNUPS = """
+            WITH signup AS (SELECT *
+                            FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::bigint[], ?::varchar[])
+                                     AS s(email, first_name, last_name, list_id, source)
+                            WHERE EXISTS (SELECT 1
+                                          FROM subscriber_list l
+                                          WHERE l.id = s.list_id
+                                            AND l.public_signup)),
+                 subscriber_upsert AS (
+                     INSERT INTO subscriber (email, first_name, last_name, gender, join_date)
+                         SELECT DISTINCT ON (lower(email)) email, first_name, last_name, 'UNKNOWN', localtimestamp
+                         FROM signup
+                         ORDER BY lower(email)
+                         -- A no-op update, so RETURNING yields existing subscribers without touching their data.
+                         ON CONFLICT ((lower(email))) DO UPDATE SET email = subscriber.email
+                         RETURNING id, email),
+                 entry_insert AS (
+                     INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id,
+                                                        subscriber_id)
+                         SELECT localtimestamp, false, s.source, s.list_id, u.id
+                         FROM signup s
+                                  JOIN subscriber_upsert u ON lower(u.email) = lower(s.email)
+                         ON CONFLICT ON CONSTRAINT uc_subscriber_list_entry_list_subscriber DO NOTHING
+                         RETURNING id, subscriber_list_id, subscriber_id)
+            SELECT e.id, e.subscriber_list_id, e.subscriber_id, u.email, l.name AS list_name
+            FROM entry_insert e
+                     JOIN subscriber_upsert u ON u.id = e.subscriber_id
+                     JOIN subscriber_list l ON l.id = e.subscriber_list_id
+            """;
+
+    private record Signup(String email, String firstName, String lastName, long listId, String source) {
+    }
+
+    private record NewEntry(long id, long listId, long subscriberId, String email, String listName) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SubscriberListMembershipIndex membershipIndex;
+    private final SubscriptionConfirmationService confirmationService;
+    private final Duration retryDelay;
+    private final LoadingCache<Long, Boolean> publicLists;
+    private final WriteBehindBuffer<String, Signup> signups;
+    private final ExecutorService flushExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public PublicSignupService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               SubscriberListMembershipIndex membershipIndex,
+                               SubscriptionConfirmationService confirmationService,
+                               SubscriberListRepository listRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.signup.buffer.capacity:100000}") int capacity,
+                               @Value("${app.signup.buffer.batch-size:1000}") int batchSize,
+                               @Value("${app.signup.buffer.max-delay:1s}") Duration maxDelay,
+                               @Value("${app.signup.public-lists.cache-ttl:30s}") Duration publicListsTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.membershipIndex = membershipIndex;
+        this.confirmationService = confirmationService;
+        this.retryDelay = maxDelay;
+        this.publicLists = Caffeine.newBuilder()
+                .expireAfterWrite(publicListsTtl)
+                .maximumSize(PUBLIC_LISTS_CACHE_SIZE)
+                .build(listRepository::existsByIdAndPublicSignupTrue);
+        this.signups = new WriteBehindBuffer<>(capacity, batchSize, maxDelay, this::writeSignups);
+        signups.bindTo(meterRegistry, "signups");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flushExecutor.execute(() -> signups.flushUntilInterrupted(retryDelay,
+                e -> log.error("Writing signups failed, retrying", e)));
+    }
+
+    /**
+     * Validates a signup and queues it; it is written with the next batch.
+     */
+    public void signup(SignupRequest request) {
+        String email = trimToNull(request.email());
+        if (email == null || !SubscriberImportService.EMAIL.matcher(email).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A valid email is required");
+        }
+        if (request.listId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "listId is required");
+        }
+        String source = trimToNull(request.source());
+        Signup signup = new Signup(email, trimToNull(request.firstName()), trimToNull(request.lastName()),
+                request.listId(), source == null ? DEFAULT_SOURCE : source);
+        if (tooLong(signup.email()) || tooLong(signup.firstName()) || tooLong(signup.lastName())
+                || tooLong(signup.source())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Fields must be at most " + MAX_FIELD_LENGTH + " characters");
+        }
+        if (!publicLists.get(signup.listId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "List not found with id: " + signup.listId());
+        }
+        if (!signups.offer(email.toLowerCase(Locale.ROOT) + ' ' + signup.listId(), signup)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many signups, try again shortly");
+        }
+    }
+
+    /**
+     * Writes all buffered signups now; returns how many were written.
+     */
+    public int flush() {
+        return signups.flush();
+    }
+
+    private void writeSignups(List<Signup> batch) {
+        // The entries and their confirmation mails commit together, so a retried batch cannot lose the mails.
+        List<NewEntry> created = transactionTemplate.execute(status -> insertSignups(batch));
+        for (NewEntry entry : created) {
+            membershipIndex.add(entry.listId(), entry.subscriberId());
+        }
+    }
+
+    private List<NewEntry> insertSignups(List<Signup> batch) {
+        List<NewEntry> created = jdbcTemplate.query(UPSERT_SIGNUPS,
+                (rs, rowNum) -> new NewEntry(rs.getLong("id"), rs.getLong("subscriber_list_id"),
+                        rs.getLong("subscriber_id"), rs.getString("email"), rs.getString("list_name")),
+                batch.stream().map(Signup::email).toArray(String[]::new),
+                batch.stream().map(Signup::firstName).toArray(String[]::new),
+                batch.stream().map(Signup::lastName).toArray(String[]::new),
+                batch.stream().map(Signup::listId).toArray(Long[]::new),
+                batch.stream().map(Signup::source).toArray(String[]::new));
+        confirmationService.requestConfirmations(created.stream()
+                .map(entry -> new SubscriptionConfirmationService.PendingEntry(entry.id(), entry.subscriberId(),
+                        entry.listId(), entry.email(), entry.listName()))
+                .toList());
+        return created;
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_FIELD_LENGTH;
+    }
+
+    @Override
+    public void destroy() {
+        flushExecutor.shutdownNow();
+        try {
+            signups.flush();
+        } catch (RuntimeException e) {
+            log.error("Dropping {} buffered signups on shutdown", signups.size(), e);
+        }
+    }
+}
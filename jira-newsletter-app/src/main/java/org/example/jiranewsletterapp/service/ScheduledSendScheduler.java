@@ -0,0 +1,172 @@
+package org.example.jiranewsletterapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.jiranewsletterapp.dto.ScheduledSend;
+import org.example.jiranewsletterapp.util.HierarchicalTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Releases scheduled sends to the outbound queue when they fall due. Instead of asking the database every tick what
+ * is due, the scheduler loads the sends of the next {@code app.schedule.window} into a
+ * {@link HierarchicalTimingWheel} and expires them from memory, loading the following window once half of the
+ * current one has passed. The schedule table stays the source of truth: after a restart the first tick loads every
+ * unreleased send up to the horizon again, and anything already overdue goes out straight away.
+ * <p>
+ * Sends scheduled into a window this node has already loaded are picked up from the {@link CampaignScheduledEvent}.
+ * Every node runs its own wheel over the same rows and releasing is idempotent, so whichever node gets to a send first
+ * queues it; a periodic sweep for overdue rows covers sends whose scheduling node went away before releasing them.
+ */
+@Service
+public class ScheduledSendScheduler implements DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledSendScheduler.class);
+
+    static final int WHEEL_SIZE = 64;
+    static final int WHEEL_LEVELS = 3;
+
+    private final ScheduledSendStore store;
+    private final boolean enabled;
+    private final Duration tick;
+    private final Duration window;
+    private final Duration sweepInterval;
+    private final int releaseBatchSize;
+    private final Queue<Long> scheduledCampaigns = new ConcurrentLinkedQueue<>();
+    private final ExecutorService tickExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running = true;
+
+    private HierarchicalTimingWheel<Long> wheel;
+    private Instant loadedUntil;
+    private Instant lastSweep;
+    private volatile int waiting;
+
+    @Autowired
+    public ScheduledSendScheduler(ScheduledSendStore store,
+                                  @Value("${app.schedule.enabled:true}") boolean enabled,
+                                  @Value("${app.schedule.tick:1s}") Duration tick,
+                                  @Value("${app.schedule.window:1h}") Duration window,
+                                  @Value("${app.schedule.sweep-interval:1m}") Duration sweepInterval,
+                                  @Value("${app.schedule.release-batch-size:1000}") int releaseBatchSize) {
+        if (window.compareTo(tick.multipliedBy((long) Math.pow(WHEEL_SIZE, WHEEL_LEVELS))) >= 0) {
+            throw new IllegalArgumentException("app.schedule.window must be shorter than the timing wheel's range");
+        }
+        this.store = store;
+        this.enabled = enabled;
+        this.tick = tick;
+        this.window = window;
+        this.sweepInterval = sweepInterval;
+        this.releaseBatchSize = releaseBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Starting send scheduler with a {} tick and a {} window", tick, window);
+        tickExecutor.execute(this::run);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                tick(Instant.now());
+            } catch (RuntimeException e) {
+                log.error("Send scheduler tick failed, retrying", e);
+            }
+            try {
+                long millis = tick.toMillis();
+                Thread.sleep(millis - System.currentTimeMillis() % millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCampaignScheduled(CampaignScheduledEvent event) {
+        scheduledCampaigns.add(event.campaignId());
+    }
+
+    /**
+     * Loads whatever part of the schedule the wheel is missing as of {@code now}, then releases every send that is
+     * due; returns the number of messages queued.
+     */
+    public synchronized int tick(Instant now) {
+        load(now);
+        List<Long> due = new ArrayList<>();
+        wheel.advance(now.toEpochMilli(), due::add);
+
+        int queued = 0;
+        for (int from = 0; from < due.size(); from += releaseBatchSize) {
+            queued += store.release(due.subList(from, Math.min(from + releaseBatchSize, due.size())));
+        }
+        waiting = wheel.size();
+        if (!due.isEmpty()) {
+            log.debug("Released {} scheduled sends, {} queued, {} still in the wheel", due.size(), queued, wheel.size());
+        }
+        return queued;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("newsletter.schedule.waiting", this, scheduler -> scheduler.waiting)
+                .description("Scheduled sends loaded into this node's timing wheel and not yet due")
+                .register(registry);
+    }
+
+    private void load(Instant now) {
+        if (wheel == null) {
+            wheel = new HierarchicalTimingWheel<>(tick.toMillis(), WHEEL_SIZE, WHEEL_LEVELS, now.toEpochMilli());
+            loadedUntil = now.plus(window);
+            lastSweep = now;
+            scheduledCampaigns.clear();
+            store.forEachDueBefore(loadedUntil, this::add);
+            log.info("Loaded {} scheduled sends due before {}", wheel.size(), loadedUntil);
+            return;
+        }
+
+        Long campaignId;
+        while ((campaignId = scheduledCampaigns.poll()) != null) {
+            store.forEachCampaignSendDueBefore(campaignId, loadedUntil, this::add);
+        }
+        if (!now.plus(window.dividedBy(2)).isBefore(loadedUntil)) {
+            Instant horizon = now.plus(window);
+            store.forEachDueBetween(loadedUntil, horizon, this::add);
+            loadedUntil = horizon;
+        }
+        if (!now.isBefore(lastSweep.plus(sweepInterval))) {
+            store.forEachDueBefore(now.minus(sweepInterval), this::add);
+            lastSweep = now;
+        }
+    }
+
+    private void add(ScheduledSend send) {
+        wheel.add(send.sendAtMillis(), send.id());
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        tickExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.jiranewsletterapp.service;
+
+import org.example.jiranewsletterapp.dto.ScheduledSend;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Persistent schedule of campaign sends, one row per recipient with the instant it is due. Rows are deleted as they
+ * are moved to the {@link OutboundMessageQueue}, so the table only ever holds sends that are still to come.
+ */
+@Service
+public class ScheduledSendStore {
+
+    static final int FETCH_SIZE = 10000;
+
+    // A subscriber without a time zone of their own gets the campaign's zone.
+    private static final String SCHEDULE_RECIPIENTS = """
+            INSERT INTO scheduled_send (campaign_id, subscriber_id, subscriber_list_id, send_at)
+            SELECT ?, s.id, ?, CASE WHEN ? THEN ?::timestamp AT TIME ZONE coalesce(s.time_zone, ?) ELSE ? END
+            FROM unnest(?::bigint[]) AS u(subscriber_id)
+                     JOIN subscriber s ON s.id = u.subscriber_id
+            WHERE s.suppressed_at IS NULL
+            ON CONFLICT ON CONSTRAINT uc_scheduled_send_campaign_subscriber DO NOTHING
+            """;
+
+    private static final String SELECT_DUE_BEFORE = """
+            SELECT id, send_at FROM scheduled_send WHERE send_at < ?
+            """;
+
+    private static final String SELECT_DUE_BETWEEN = """
+            SELECT id, send_at FROM scheduled_send WHERE send_at >= ? AND send_at < ?
+            """;
+
+    private static final String SELECT_CAMPAIGN_DUE_BEFORE = """
+            SELECT id, send_at FROM scheduled_send WHERE campaign_id = ? AND send_at < ?
+            """;
+
+    // Rows another node is releasing right now are skipped rather than waited for; they are gone once it commits.
+    private static final String RELEASE = """
+            WITH released AS (DELETE FROM scheduled_send
+                              WHERE id IN (SELECT id FROM scheduled_send WHERE id = ANY (?) FOR UPDATE SKIP LOCKED)
+                              RETURNING campaign_id, subscriber_id, subscriber_list_id),
+                 started AS (UPDATE campaign
+                             SET status = 'SENDING', started_at = localtimestamp
+                             WHERE id IN (SELECT campaign_id FROM released) AND status = 'SCHEDULED')
+            INSERT INTO outbound_message (campaign_id, subscriber_id, subscriber_list_id, recipient, status, created_at)
+            SELECT r.campaign_id, r.subscriber_id, r.subscriber_list_id, s.email, 'PENDING', now()
+            FROM released r
+                     JOIN subscriber s ON s.id = r.subscriber_id
+            WHERE s.suppressed_at IS NULL
+            ON CONFLICT ON CONSTRAINT uc_outbound_message_campaign_subscriber DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CampaignAudienceResolver audienceResolver;
+
+    @Autowired
+    public ScheduledSendStore(JdbcTemplate jdbcTemplate, CampaignAudienceResolver audienceResolver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.audienceResolver = audienceResolver;
+    }
+
+    /**
+     * Writes one row per recipient due at {@code sendAt}, read in {@code zone} or, with {@code subscriberLocalTime},
+     * in the subscriber's own zone.
+     */
+    @Transactional
+    public int scheduleCampaign(Long campaignId, LocalDateTime sendAt, boolean subscriberLocalTime, ZoneId zone) {
+        OffsetDateTime sendAtInZone = sendAt.atZone(zone).toOffsetDateTime();
+        return audienceResolver.resolve(campaignId, (listId, subscriberIds) -> jdbcTemplate.update(
+                SCHEDULE_RECIPIENTS, campaignId, listId, subscriberLocalTime, sendAt, zone.getId(), sendAtInZone,
+                subscriberIds));
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachDueBefore(Instant before, Consumer<ScheduledSend> consumer) {
+        stream(SELECT_DUE_BEFORE, consumer, utc(before));
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachDueBetween(Instant from, Instant to, Consumer<ScheduledSend> consumer) {
+        stream(SELECT_DUE_BETWEEN, consumer, utc(from), utc(to));
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachCampaignSendDueBefore(Long campaignId, Instant before, Consumer<ScheduledSend> consumer) {
+        stream(SELECT_CAMPAIGN_DUE_BEFORE, consumer, campaignId, utc(before));
+    }
+
+    /**
+     * Moves the given sends to the outbound queue and marks their campaigns as sending; returns the number queued.
+     */
+    @Transactional
+    public int release(List<Long> ids) {
+        return jdbcTemplate.update(RELEASE, (Object) ids.toArray(Long[]::new));
+    }
+
+    private void stream(String sql, Consumer<ScheduledSend> consumer, Object... parameters) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(new ScheduledSend(rs.getLong("id"),
+                rs.getObject("send_at", OffsetDateTime.class).toInstant().toEpochMilli())));
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,307 @@
+package org.example.jiranewsletterapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.jiranewsletterapp.dto.ImportReject;
+import org.example.jiranewsletterapp.dto.ImportReport;
+import org.example.jiranewsletterapp.entity.Gender;
+import org.example.jiranewsletterapp.repository.SubscriberListRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+@Service
+public class SubscriberImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriberImportService.class);
+
+    static final int MAX_REPORTED_REJECTS = 100;
+    private static final int PROGRESS_INTERVAL = 100_000;
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+    private static final int CONFIRMATION_BATCH_SIZE = 1000;
+    private static final int MAX_FIELD_LENGTH = 255;
+    static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMP TABLE subscriber_import
+            (
+                row_no     BIGINT       NOT NULL,
+                email      VARCHAR(255) NOT NULL,
+                first_name VARCHAR(255),
+                last_name  VARCHAR(255),
+                birth_date DATE,
+                gender     VARCHAR(255) NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_INTO_STAGING = """
+            COPY subscriber_import (row_no, email, first_name, last_name, birth_date, gender)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private static final String MERGE_SUBSCRIBERS = """
+            INSERT INTO subscriber (email, first_name, last_name, birth_date, gender, join_date)
+            SELECT DISTINCT ON (lower(i.email)) i.email, i.first_name, i.last_name, i.birth_date, i.gender, localtimestamp
+            FROM subscriber_import i
+            WHERE NOT EXISTS (SELECT 1 FROM subscriber s WHERE lower(s.email) = lower(i.email))
+            ORDER BY lower(i.email), i.row_no
+            ON CONFLICT ((lower(email))) DO NOTHING
+            """;
+
+    // Returns the new entries with their address, for the confirmation mails.
+    private static final String MERGE_ENTRIES = """
+            WITH inserted AS (
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                    SELECT localtimestamp, false, 'IMPORT', ?, s.id
+                    FROM subscriber s
+                             JOIN (SELECT DISTINCT lower(email) AS email FROM subscriber_import) i
+                                  ON lower(s.email) = i.email
+                    WHERE NOT EXISTS (SELECT 1
+                                      FROM subscriber_list_entry e
+                                      WHERE e.subscriber_list_id = ?
+                                        AND e.subscriber_id = s.id)
+                    ON CONFLICT ON CONSTRAINT uc_subscriber_list_entry_list_subscriber DO NOTHING
+                    RETURNING id, subscriber_id)
+            SELECT i.id, i.subscriber_id, s.email
+            FROM inserted i
+                     JOIN subscriber s ON s.id = i.subscriber_id
+            """;
+
+    private final DataSource dataSource;
+    private final SubscriberListRepository listRepository;
+    private final SubscriberListMembershipIndex membershipIndex;
+    private final SubscriptionConfirmationService confirmationService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SubscriberImportService(DataSource dataSource, SubscriberListRepository listRepository,
+                                   SubscriberListMembershipIndex membershipIndex,
+                                   SubscriptionConfirmationService confirmationService, ObjectMapper objectMapper) {
+        this.dataSource = dataSource;
+        this.listRepository = listRepository;
+        this.membershipIndex = membershipIndex;
+        this.confirmationService = confirmationService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Imports subscribers and, given a list, adds them to it unconfirmed. Every new entry is sent a confirmation mail,
+     * queued in the import's transaction like entries added one by one.
+     */
+    @Transactional
+    public ImportReport importSubscribers(InputStream input, FileFormat format, Long listId) {
+        String listName = null;
+        if (listId != null) {
+            listName = listRepository.findById(listId)
+                    .orElseThrow(() -> new RuntimeException("List not found with id: " + listId))
+                    .getName();
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+            }
+
+            ImportProgress progress = new ImportProgress();
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+                 Writer copy = new BufferedWriter(new OutputStreamWriter(
+                         new PGCopyOutputStream(pgConnection, COPY_INTO_STAGING, COPY_BUFFER_SIZE),
+                         StandardCharsets.UTF_8), COPY_BUFFER_SIZE)) {
+                if (format == FileFormat.CSV) {
+                    stageCsv(reader, copy, progress);
+                } else {
+                    stageNdjson(reader, copy, progress);
+                }
+            }
+
+            long subscribersCreated;
+            long entriesCreated = 0;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE subscriber_import");
+                subscribersCreated = statement.executeUpdate(MERGE_SUBSCRIBERS);
+            }
+            if (listId != null) {
+                entriesCreated = mergeEntries(connection, listId, listName);
+                membershipIndex.reloadList(listId);
+            }
+
+            log.info("Subscriber import finished: {} rows read, {} rejected, {} subscribers and {} entries created",
+                    progress.rowsRead, progress.rowsRejected, subscribersCreated, entriesCreated);
+            return new ImportReport(progress.rowsRead, progress.rowsRead - progress.rowsRejected, progress.rowsRejected,
+                    subscribersCreated, entriesCreated, progress.rejects,
+                    progress.rowsRejected > progress.rejects.size());
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Subscriber import failed: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private long mergeEntries(Connection connection, long listId, String listName) throws SQLException {
+        long created = 0;
+        List<SubscriptionConfirmationService.PendingEntry> pending = new ArrayList<>(CONFIRMATION_BATCH_SIZE);
+        try (PreparedStatement statement = connection.prepareStatement(MERGE_ENTRIES)) {
+            statement.setLong(1, listId);
+            statement.setLong(2, listId);
+            statement.setFetchSize(CONFIRMATION_BATCH_SIZE);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    created++;
+                    pending.add(new SubscriptionConfirmationService.PendingEntry(rs.getLong("id"),
+                            rs.getLong("subscriber_id"), listId, rs.getString("email"), listName));
+                    if (pending.size() == CONFIRMATION_BATCH_SIZE) {
+                        confirmationService.requestConfirmations(pending);
+                        pending.clear();
+                    }
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            confirmationService.requestConfirmations(pending);
+        }
+        return created;
+    }
+
+    private void stageCsv(Reader reader, Writer copy, ImportProgress progress) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("_", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("email")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header must contain an email column");
+        }
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            stage(copy, progress, column(record, columns, "email"), column(record, columns, "firstname"),
+                    column(record, columns, "lastname"), column(record, columns, "birthdate"),
+                    column(record, columns, "gender"));
+        }
+    }
+
+    private void stageNdjson(Reader reader, Writer copy, ImportProgress progress) throws IOException {
+        BufferedReader lines = new BufferedReader(reader, COPY_BUFFER_SIZE);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                progress.reject(++progress.rowsRead, "Malformed JSON");
+                continue;
+            }
+            stage(copy, progress, text(node, "email"), text(node, "firstName"), text(node, "lastName"),
+                    text(node, "birthDate"), text(node, "gender"));
+        }
+    }
+
+    private void stage(Writer copy, ImportProgress progress, String email, String firstName, String lastName,
+                       String birthDate, String gender) throws IOException {
+        long row = ++progress.rowsRead;
+        if (row % PROGRESS_INTERVAL == 0) {
+            log.info("Subscriber import progress: {} rows read, {} rejected", row, progress.rowsRejected);
+        }
+
+        String reason = null;
+        LocalDate parsedBirthDate = null;
+        Gender parsedGender = Gender.UNKNOWN;
+        email = blankToNull(email);
+        if (email == null || !EMAIL.matcher(email).matches()) {
+            reason = "Invalid email";
+        } else if (tooLong(email) || tooLong(firstName) || tooLong(lastName)) {
+            reason = "Field longer than " + MAX_FIELD_LENGTH + " characters";
+        } else {
+            try {
+                if (blankToNull(birthDate) != null) {
+                    parsedBirthDate = LocalDate.parse(birthDate.trim());
+                }
+                if (blankToNull(gender) != null) {
+                    parsedGender = Gender.valueOf(gender.trim().toUpperCase(Locale.ROOT));
+                }
+            } catch (DateTimeParseException e) {
+                reason = "Invalid birthDate";
+            } catch (IllegalArgumentException e) {
+                reason = "Invalid gender";
+            }
+        }
+        if (reason != null) {
+            progress.reject(row, reason);
+            return;
+        }
+
+        copy.write(Long.toString(row));
+        copy.write(',');
+        CsvWriter.writeField(copy, email.trim());
+        copy.write(',');
+        CsvWriter.writeField(copy, blankToNull(firstName));
+        copy.write(',');
+        CsvWriter.writeField(copy, blankToNull(lastName));
+        copy.write(',');
+        CsvWriter.writeField(copy, parsedBirthDate == null ? null : parsedBirthDate.toString());
+        copy.write(',');
+        copy.write(parsedGender.name());
+        copy.write('\n');
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_FIELD_LENGTH;
+    }
+
+    private static final class ImportProgress {
+        private long rowsRead;
+        private long rowsRejected;
+        private final List<ImportReject> rejects = new ArrayList<>();
+
+        private void reject(long row, String reason) {
+            rowsRejected++;
+            if (rejects.size() < MAX_REPORTED_REJECTS) {
+                rejects.add(new ImportReject(row, reason));
+            }
+        }
+    }
+}
@@ -1,13 +1,14 @@
 package org.example.jiranewsletterapp.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.SubscriberListEntryResponse;
 import org.example.jiranewsletterapp.entity.Subscriber;
 import org.example.jiranewsletterapp.entity.SubscriberList;
 import org.example.jiranewsletterapp.entity.SubscriberListEntry;
-import org.example.jiranewsletterapp.entity.User;
 import org.example.jiranewsletterapp.repository.SubscriberListEntryRepository;
 import org.example.jiranewsletterapp.repository.SubscriberListRepository;
 import org.example.jiranewsletterapp.repository.SubscriberRepository;
-import org.example.jiranewsletterapp.repository.UserRepository;
 import org.example.jiranewsletterapp.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,63 +16,71 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
+@Timed(value = "newsletter.service", histogram = true)
 public class SubscriberListEntryService {
 
     private final SubscriberListEntryRepository entryRepository;
-    private final UserRepository userRepository;
     private final SubscriberListRepository listRepository;
     private final SubscriberRepository subscriberRepository;
+    private final SubscriberListMembershipIndex membershipIndex;
+    private final SubscriptionConfirmationService confirmationService;
 
     @Autowired
     public SubscriberListEntryService(
             SubscriberListEntryRepository entryRepository,
-            UserRepository userRepository,
             SubscriberListRepository listRepository,
-            SubscriberRepository subscriberRepository
+            SubscriberRepository subscriberRepository,
+            SubscriberListMembershipIndex membershipIndex,
+            SubscriptionConfirmationService confirmationService
     ) {
         this.entryRepository = entryRepository;
-        this.userRepository = userRepository;
         this.listRepository = listRepository;
         this.subscriberRepository = subscriberRepository;
+        this.membershipIndex = membershipIndex;
+        this.confirmationService = confirmationService;
     }
 
-    public List<SubscriberListEntry> getAllEntries() {
-        return entryRepository.findAll();
+    public CursorPage<SubscriberListEntryResponse> getAllEntries(String cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        List<SubscriberListEntryResponse> fetched = entryRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), CursorPage.fetchLimit(pageSize));
+        return CursorPage.of(fetched, pageSize, SubscriberListEntryResponse::id);
     }
 
     public SubscriberListEntry createEntry(SubscriberListEntry entry) {
-        return entryRepository.save(entry);
+        SubscriberListEntry saved = entryRepository.save(entry);
+        membershipIndex.add(saved);
+        requestConfirmation(saved);
+        return saved;
     }
 
     public SubscriberListEntry updateEntry(Long id, SubscriberListEntry updated) {
+        Optional<SubscriberListEntry> previous = entryRepository.findById(id);
         updated.setId(id);
-        return entryRepository.save(updated);
+        SubscriberListEntry saved = entryRepository.save(updated);
+        previous.ifPresent(membershipIndex::remove);
+        membershipIndex.add(saved);
+        return saved;
     }
 
     public void deleteEntry(Long id) {
-        entryRepository.deleteById(id);
+        entryRepository.findById(id).ifPresent(entry -> {
+            entryRepository.delete(entry);
+            membershipIndex.remove(entry);
+        });
     }
 
-    public SubscriberListEntry getById(Long id) {
-        return entryRepository.findById(id)
+    public SubscriberListEntryResponse getById(Long id) {
+        return entryRepository.findResponseById(id)
                 .orElseThrow(() -> new RuntimeException("Entry not found with id: " + id));
     }
 
-    @Transactional(readOnly = true)
-    public List<SubscriberListEntry> getEntriesForCurrentUser() {
+    public List<SubscriberListEntryResponse> getEntriesForCurrentUser() {
         UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        User user = userRepository.findById(principal.getUser().getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        user.getSubscriberLists().forEach(list -> list.getEntries().size());
-
-        return user.getSubscriberLists().stream()
-                .flatMap(list -> list.getEntries().stream())
-                .distinct()
-                .collect(Collectors.toList());
+        return entryRepository.findResponsesByListOwnerId(principal.getUser().getId());
     }
 
     @Transactional
@@ -87,6 +96,7 @@ public class SubscriberListEntryService {
         }
 
         entryRepository.delete(entry);
+        membershipIndex.remove(entry);
     }
 
     @Transactional
@@ -97,10 +107,17 @@ public class SubscriberListEntryService {
         Subscriber subscriber = subscriberRepository.findById(subscriberId)
                 .orElseThrow(() -> new RuntimeException("Subscriber not found"));
 
+        if (entryRepository.existsByListIdAndSubscriberId(listId, subscriberId)) {
+            throw new RuntimeException("Subscriber already assigned to list");
+        }
+
         SubscriberListEntry newEntry = new SubscriberListEntry();
         newEntry.setList(targetList);
         newEntry.setSubscriber(subscriber);
-        return entryRepository.save(newEntry);
+        SubscriberListEntry saved = entryRepository.save(newEntry);
+        membershipIndex.add(saved);
+        requestConfirmation(saved);
+        return saved;
     }
 
     @Transactional
@@ -108,25 +125,41 @@ public class SubscriberListEntryService {
         UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         Long currentUserId = principal.getUser().getId();
 
-        SubscriberList targetList = listRepository.findById(listId)
-                .filter(list -> list.getOwner().getId().equals(currentUserId))
+        SubscriberList targetList = listRepository.findByIdAndOwnerId(listId, currentUserId)
                 .orElseThrow(() -> new RuntimeException("List not found or not owned by current user"));
 
-        boolean subscriberExistsInUserLists = listRepository.findAll().stream()
-                .filter(list -> list.getOwner().getId().equals(currentUserId))
-                .flatMap(list -> list.getEntries().stream())
-                .anyMatch(entry -> entry.getSubscriber().getId().equals(subscriberId));
-
-        if (!subscriberExistsInUserLists) {
+        if (!entryRepository.existsBySubscriberIdAndListOwnerId(subscriberId, currentUserId)) {
             throw new RuntimeException("Subscriber not found on any of your lists");
         }
 
         Subscriber subscriber = subscriberRepository.findById(subscriberId)
                 .orElseThrow(() -> new RuntimeException("Subscriber not found"));
 
+        if (entryRepository.existsByListIdAndSubscriberId(listId, subscriberId)) {
+            throw new RuntimeException("Subscriber already assigned to list");
+        }
+
         SubscriberListEntry newEntry = new SubscriberListEntry();
         newEntry.setList(targetList);
         newEntry.setSubscriber(subscriber);
-        return entryRepository.save(newEntry);
+        SubscriberListEntry saved = entryRepository.save(newEntry);
+        membershipIndex.add(saved);
+        requestConfirmation(saved);
+        return saved;
+    }
+
+    private void requestConfirmation(SubscriberListEntry entry) {
+        if (entry.isConfirmed() || entry.getSubscriber() == null) {
+            return;
+        }
+        String email = entry.getSubscriber().getEmail() != null
+                ? entry.getSubscriber().getEmail()
+                : subscriberRepository.findById(entry.getSubscriber().getId()).map(Subscriber::getEmail).orElse(null);
+        if (email != null) {
+            SubscriberList list = entry.getList();
+            confirmationService.requestConfirmation(new SubscriptionConfirmationService.PendingEntry(entry.getId(),
+                    entry.getSubscriber().getId(), list == null ? null : list.getId(), email,
+                    list == null ? null : list.getName()));
+        }
     }
 }
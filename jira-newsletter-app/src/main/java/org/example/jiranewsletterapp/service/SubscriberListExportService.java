@@ -0,0 +1,86 @@
+package org.example.jiranewsletterapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.jiranewsletterapp.dto.ListMemberExport;
+import org.example.jiranewsletterapp.repository.SubscriberListEntryRepository;
+import org.example.jiranewsletterapp.repository.SubscriberListRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class SubscriberListExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final String CSV_HEADER =
+            "subscriber_id,email,first_name,last_name,birth_date,gender,date_added,confirmed,source";
+
+    private final SubscriberListRepository listRepository;
+    private final SubscriberListEntryRepository entryRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SubscriberListExportService(SubscriberListRepository listRepository,
+                                       SubscriberListEntryRepository entryRepository,
+                                       ObjectMapper objectMapper) {
+        this.listRepository = listRepository;
+        this.entryRepository = entryRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void requireList(Long listId) {
+        if (!listRepository.existsById(listId)) {
+            throw new RuntimeException("List not found with id: " + listId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportMembers(Long listId, FileFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long rows = 0;
+        try (Stream<ListMemberExport> members = entryRepository.streamMembersByListId(listId)) {
+            if (format == FileFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<ListMemberExport> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                ListMemberExport member = iterator.next();
+                if (format == FileFormat.CSV) {
+                    writeCsv(writer, member);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(member));
+                }
+                writer.write('\n');
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, ListMemberExport member) throws IOException {
+        writer.write(String.valueOf(member.subscriberId()));
+        writer.write(',');
+        CsvWriter.writeField(writer, member.email());
+        writer.write(',');
+        CsvWriter.writeField(writer, member.firstName());
+        writer.write(',');
+        CsvWriter.writeField(writer, member.lastName());
+        writer.write(',');
+        CsvWriter.writeField(writer, member.birthDate() == null ? null : member.birthDate().toString());
+        writer.write(',');
+        CsvWriter.writeField(writer, member.gender() == null ? null : member.gender().name());
+        writer.write(',');
+        CsvWriter.writeField(writer, member.dateAdded() == null ? null : member.dateAdded().toString());
+        writer.write(',');
+        writer.write(Boolean.toString(member.confirmed()));
+        writer.write(',');
+        CsvWriter.writeField(writer, member.source());
+    }
+}
@@ -0,0 +1,266 @@
+package org.example.jiranewsletterapp.service;
+
+import org.example.jiranewsletterapp.dto.AudienceQuery;
+import org.example.jiranewsletterapp.dto.ListMembership;
+import org.example.jiranewsletterapp.entity.SubscriberListEntry;
+import org.example.jiranewsletterapp.repository.SubscriberListEntryRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * One compressed bitmap of subscriber ids per subscriber list, rebuilt at startup and
+ * updated after each committed write.
+ */
+@Component
+public class SubscriberListMembershipIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriberListMembershipIndex.class);
+
+    private final SubscriberListEntryRepository entryRepository;
+
+    private final Object mutationLock = new Object();
+    private volatile Map<Long, ListBitmap> bitmaps = new ConcurrentHashMap<>();
+    private List<Consumer<Map<Long, ListBitmap>>> mutationsDuringRebuild;
+    private volatile boolean ready;
+
+    public SubscriberListMembershipIndex(SubscriberListEntryRepository entryRepository) {
+        this.entryRepository = entryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (mutationLock) {
+            mutationsDuringRebuild = new ArrayList<>();
+        }
+        Map<Long, ListBitmap> fresh = new ConcurrentHashMap<>();
+        long memberships = 0;
+        try (Stream<ListMembership> rows = entryRepository.streamAllMemberships()) {
+            for (Iterator<ListMembership> it = rows.iterator(); it.hasNext(); memberships++) {
+                ListMembership row = it.next();
+                fresh.computeIfAbsent(row.listId(), id -> new ListBitmap()).bitmap.addLong(row.subscriberId());
+            }
+        }
+        synchronized (mutationLock) {
+            mutationsDuringRebuild.forEach(mutation -> mutation.accept(fresh));
+            mutationsDuringRebuild = null;
+            bitmaps = fresh;
+            ready = true;
+        }
+        log.info("Membership index built for {} lists from {} entries", fresh.size(), memberships);
+    }
+
+    public void add(SubscriberListEntry entry) {
+        add(listIdOf(entry), subscriberIdOf(entry));
+    }
+
+    public void remove(SubscriberListEntry entry) {
+        remove(listIdOf(entry), subscriberIdOf(entry));
+    }
+
+    public void add(Long listId, Long subscriberId) {
+        if (listId == null || subscriberId == null) {
+            return;
+        }
+        afterCommit(() -> mutate(map -> map.computeIfAbsent(listId, id -> new ListBitmap()).add(subscriberId)));
+    }
+
+    public void remove(Long listId, Long subscriberId) {
+        if (listId == null || subscriberId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            if (entryRepository.existsByListIdAndSubscriberId(listId, subscriberId)) {
+                return;
+            }
+            mutate(map -> {
+                ListBitmap listBitmap = map.get(listId);
+                if (listBitmap != null) {
+                    listBitmap.remove(subscriberId);
+                }
+            });
+        });
+    }
+
+    /**
+     * Removes memberships whose entries are known to be deleted, e.g. the rows returned by a {@code DELETE}, without
+     * asking the database again: the list and subscriber pair is unique, so no other entry can still hold them.
+     */
+    public void removeAll(Collection<ListMembership> memberships) {
+        if (memberships.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Long>> byList = new HashMap<>();
+        for (ListMembership membership : memberships) {
+            if (membership.listId() != null && membership.subscriberId() != null) {
+                byList.computeIfAbsent(membership.listId(), id -> new ArrayList<>()).add(membership.subscriberId());
+            }
+        }
+        afterCommit(() -> mutate(map -> byList.forEach((listId, subscriberIds) -> {
+            ListBitmap listBitmap = map.get(listId);
+            if (listBitmap != null) {
+                listBitmap.removeAll(subscriberIds);
+            }
+        })));
+    }
+
+    public void removeList(Long listId) {
+        if (listId == null) {
+            return;
+        }
+        afterCommit(() -> mutate(map -> map.remove(listId)));
+    }
+
+    public void reloadList(Long listId) {
+        if (listId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            ListBitmap reloaded = new ListBitmap();
+            entryRepository.findSubscriberIdsByListId(listId).forEach(reloaded.bitmap::addLong);
+            mutate(map -> map.put(listId, reloaded));
+        });
+    }
+
+    public Roaring64Bitmap evaluate(AudienceQuery query) {
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Membership index is still loading");
+        }
+        Map<Long, ListBitmap> current = bitmaps;
+        SortedSet<Long> involved = new TreeSet<>();
+        involved.addAll(query.anyOf());
+        involved.addAll(query.allOf());
+        involved.addAll(query.noneOf());
+
+        // Read locks are always taken in ascending list id order; writers only ever hold one lock.
+        List<Lock> held = new ArrayList<>(involved.size());
+        try {
+            for (Long listId : involved) {
+                ListBitmap listBitmap = current.get(listId);
+                if (listBitmap != null) {
+                    Lock lock = listBitmap.lock.readLock();
+                    lock.lock();
+                    held.add(lock);
+                }
+            }
+            return combine(current, query);
+        } finally {
+            held.forEach(Lock::unlock);
+        }
+    }
+
+    public long cardinality(Long listId) {
+        ListBitmap listBitmap = bitmaps.get(listId);
+        if (listBitmap == null) {
+            return 0L;
+        }
+        listBitmap.lock.readLock().lock();
+        try {
+            return listBitmap.bitmap.getLongCardinality();
+        } finally {
+            listBitmap.lock.readLock().unlock();
+        }
+    }
+
+    private Roaring64Bitmap combine(Map<Long, ListBitmap> current, AudienceQuery query) {
+        Roaring64Bitmap result = null;
+        for (Long listId : query.anyOf()) {
+            Roaring64Bitmap bitmap = bitmapOf(current, listId);
+            result = result == null ? bitmap.clone() : Roaring64Bitmap.or(result, bitmap);
+        }
+        for (Long listId : query.allOf()) {
+            Roaring64Bitmap bitmap = bitmapOf(current, listId);
+            result = result == null ? bitmap.clone() : Roaring64Bitmap.and(result, bitmap);
+        }
+        if (result == null) {
+            return new Roaring64Bitmap();
+        }
+        for (Long listId : query.noneOf()) {
+            result.andNot(bitmapOf(current, listId));
+        }
+        return result;
+    }
+
+    private static Long listIdOf(SubscriberListEntry entry) {
+        return entry == null || entry.getList() == null ? null : entry.getList().getId();
+    }
+
+    private static Long subscriberIdOf(SubscriberListEntry entry) {
+        return entry == null || entry.getSubscriber() == null ? null : entry.getSubscriber().getId();
+    }
+
+    private static Roaring64Bitmap bitmapOf(Map<Long, ListBitmap> current, Long listId) {
+        ListBitmap listBitmap = current.get(listId);
+        return listBitmap == null ? new Roaring64Bitmap() : listBitmap.bitmap;
+    }
+
+    private void mutate(Consumer<Map<Long, ListBitmap>> mutation) {
+        synchronized (mutationLock) {
+            if (mutationsDuringRebuild != null) {
+                mutationsDuringRebuild.add(mutation);
+            }
+            mutation.accept(bitmaps);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class ListBitmap {
+        private final Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private void add(long subscriberId) {
+            lock.writeLock().lock();
+            try {
+                bitmap.addLong(subscriberId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(long subscriberId) {
+            lock.writeLock().lock();
+            try {
+                bitmap.removeLong(subscriberId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeAll(List<Long> subscriberIds) {
+            lock.writeLock().lock();
+            try {
+                subscriberIds.forEach(bitmap::removeLong);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
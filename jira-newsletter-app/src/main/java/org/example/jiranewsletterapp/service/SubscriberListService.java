@@ -1,36 +1,51 @@
 package org.example.jiranewsletterapp.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.jiranewsletterapp.dto.AudienceQuery;
+import org.example.jiranewsletterapp.dto.AudienceResult;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.SubscriberListResponse;
 import org.example.jiranewsletterapp.entity.SubscriberList;
 import org.example.jiranewsletterapp.entity.User;
 import org.example.jiranewsletterapp.repository.SubscriberListRepository;
 import org.example.jiranewsletterapp.repository.UserRepository;
 import org.example.jiranewsletterapp.security.UserPrincipal;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
+@Timed(value = "newsletter.service", histogram = true)
 public class SubscriberListService {
 
     private final SubscriberListRepository listRepository;
     private final UserRepository userRepository;
+    private final SubscriberListMembershipIndex membershipIndex;
 
     @Autowired
-    public SubscriberListService(SubscriberListRepository listRepository, UserRepository userRepository) {
+    public SubscriberListService(SubscriberListRepository listRepository, UserRepository userRepository,
+                                 SubscriberListMembershipIndex membershipIndex) {
         this.listRepository = listRepository;
         this.userRepository = userRepository;
+        this.membershipIndex = membershipIndex;
     }
 
 
-    public List<SubscriberList> getAllLists() {
-        return listRepository.findAll();
+    public CursorPage<SubscriberListResponse> getAllLists(String cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        List<SubscriberListResponse> fetched = listRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), CursorPage.fetchLimit(pageSize));
+        return CursorPage.of(fetched, pageSize, SubscriberListResponse::id);
     }
 
-    public SubscriberList getById(Long id) {
-        return listRepository.findById(id)
+    public SubscriberListResponse getById(Long id) {
+        return listRepository.findResponseById(id)
                 .orElseThrow(() -> new RuntimeException("List not found with id: " + id));
     }
 
@@ -43,28 +58,41 @@ public class SubscriberListService {
 
     public SubscriberList updateList(Long id, SubscriberList updated) {
         updated.setId(id);
-        return listRepository.save(updated);
+        SubscriberList saved = listRepository.save(updated);
+        membershipIndex.reloadList(id);
+        return saved;
     }
 
     public void deleteList(Long id) {
         listRepository.deleteById(id);
+        membershipIndex.removeList(id);
     }
 
-    @Transactional(readOnly = true)
-    public List<SubscriberList> getCurrentUserLists() {
-        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        User user = userRepository.findById(userPrincipal.getUser().getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public AudienceResult getAudience(AudienceQuery query, Integer limit) {
+        Roaring64Bitmap audience = membershipIndex.evaluate(query);
+        int maxIds = CursorPage.pageSize(limit);
+        List<Long> subscriberIds = new ArrayList<>(Math.min(maxIds, 64));
+        LongIterator iterator = audience.getLongIterator();
+        while (iterator.hasNext() && subscriberIds.size() < maxIds) {
+            subscriberIds.add(iterator.next());
+        }
+        return new AudienceResult(audience.getLongCardinality(), subscriberIds);
+    }
 
-        user.getSubscriberLists().size();
+    public List<SubscriberListResponse> getCurrentUserLists() {
+        UserPrincipal userPrincipal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return listRepository.findResponsesByOwnerId(userPrincipal.getUser().getId());
+    }
 
-        return user.getSubscriberLists();
+    public SubscriberListResponse getMyListById(Long id) {
+        UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return listRepository.findResponseByIdAndOwnerId(id, principal.getUser().getId())
+                .orElseThrow(() -> new RuntimeException("List not found or access denied"));
     }
-    @Transactional(readOnly = true)
-    public SubscriberList getMyListById(Long id) {
+
+    private SubscriberList findMyList(Long id) {
         UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return listRepository.findById(id)
-                .filter(list -> list.getOwner().getId().equals(principal.getUser().getId()))
+        return listRepository.findByIdAndOwnerId(id, principal.getUser().getId())
                 .orElseThrow(() -> new RuntimeException("List not found or access denied"));
     }
 
@@ -83,16 +111,20 @@ public class SubscriberListService {
 
     @Transactional
     public SubscriberList updateListForCurrentUser(Long id, SubscriberList updated) {
-        SubscriberList existing = getMyListById(id);
+        SubscriberList existing = findMyList(id);
         existing.setName(updated.getName());
+        existing.setPublicSignup(updated.isPublicSignup());
         existing.getEntries().clear();
         existing.getEntries().addAll(updated.getEntries());
-        return listRepository.save(existing);
+        SubscriberList saved = listRepository.save(existing);
+        membershipIndex.reloadList(id);
+        return saved;
     }
 
     @Transactional
     public void deleteListForCurrentUser(Long id) {
-        SubscriberList list = getMyListById(id);
+        SubscriberList list = findMyList(id);
         listRepository.delete(list);
+        membershipIndex.removeList(id);
     }
 }
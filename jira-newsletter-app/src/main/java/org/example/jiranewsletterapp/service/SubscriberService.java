@@ -1,45 +1,72 @@
 package org.example.jiranewsletterapp.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.SubscriberResponse;
 import org.example.jiranewsletterapp.entity.Subscriber;
-import org.example.jiranewsletterapp.entity.User;
 import org.example.jiranewsletterapp.repository.SubscriberRepository;
-import org.example.jiranewsletterapp.repository.UserRepository;
 import org.example.jiranewsletterapp.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.ZoneId;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
+@Timed(value = "newsletter.service", histogram = true)
 public class SubscriberService {
 
-    private final SubscriberRepository subscriberRepository;
-    private final UserRepository userRepository;
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final String EMAIL_INDEX = "uidx_subscriber_email_lower";
 
+    private final SubscriberRepository subscriberRepository;
     @Autowired
-    public SubscriberService(SubscriberRepository subscriberRepository, UserRepository userRepository) {
+    public SubscriberService(SubscriberRepository subscriberRepository) {
         this.subscriberRepository = subscriberRepository;
-        this.userRepository = userRepository;
     }
 
-    public List<Subscriber> getAllSubscribers() {
-        return subscriberRepository.findAll();
+    public CursorPage<SubscriberResponse> getAllSubscribers(String cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        List<SubscriberResponse> fetched = subscriberRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), CursorPage.fetchLimit(pageSize));
+        return CursorPage.of(fetched, pageSize, SubscriberResponse::id);
     }
 
-    public Subscriber getById(Long id) {
-        return subscriberRepository.findById(id)
+    public SubscriberResponse getById(Long id) {
+        return subscriberRepository.findResponseById(id)
                 .orElseThrow(() -> new RuntimeException("Subscriber not found with id: " + id));
     }
 
     public Subscriber create(Subscriber subscriber) {
-        return subscriberRepository.save(subscriber);
+        validateTimeZone(subscriber);
+        return saveUnique(() -> subscriberRepository.save(subscriber));
+    }
+
+    @Transactional
+    public List<Subscriber> createAll(List<Subscriber> subscribers) {
+        if (subscribers.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch too large, at most " + MAX_BATCH_SIZE + " subscribers allowed");
+        }
+        subscribers.forEach(SubscriberService::validateTimeZone);
+        // Flush here so a duplicate email fails inside the method rather than at commit.
+        return saveUnique(() -> {
+            List<Subscriber> saved = subscriberRepository.saveAll(subscribers);
+            subscriberRepository.flush();
+            return saved;
+        });
     }
 
     public Subscriber update(Long id, Subscriber updated) {
         updated.setId(id);
-        return subscriberRepository.save(updated);
+        validateTimeZone(updated);
+        return saveUnique(() -> subscriberRepository.save(updated));
     }
 
     public void delete(Long id) {
@@ -53,15 +80,32 @@ public class SubscriberService {
     }
 
     @Transactional(readOnly = true)
-    public List<Subscriber> getMySubscribers() {
+    public CursorPage<SubscriberResponse> getMySubscribers(String cursor, Integer size) {
         UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        User user = userRepository.findById(principal.getUser().getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        int pageSize = CursorPage.pageSize(size);
+        List<SubscriberResponse> fetched = subscriberRepository.findByOwnerIdAndIdGreaterThan(
+                principal.getUser().getId(), CursorPage.decodeCursor(cursor), CursorPage.fetchLimit(pageSize));
+        return CursorPage.of(fetched, pageSize, SubscriberResponse::id);
+    }
+
+    // Emails are unique case-insensitively; the index, not a lookup, decides so concurrent writes cannot both pass.
+    private static <T> T saveUnique(Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.contains(EMAIL_INDEX)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Subscriber with this email already exists");
+            }
+            throw e;
+        }
+    }
 
-        return user.getSubscriberLists().stream()
-                .flatMap(list -> list.getEntries().stream())
-                .map(entry -> entry.getSubscriber())
-                .distinct()
-                .toList();
+    // Region ids only: PostgreSQL reads bare offsets such as "+02:00" with the POSIX sign convention.
+    private static void validateTimeZone(Subscriber subscriber) {
+        String timeZone = subscriber.getTimeZone();
+        if (timeZone != null && !ZoneId.getAvailableZoneIds().contains(timeZone)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown time zone: " + timeZone);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package org.example.jiranewsletterapp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.jiranewsletterapp.dto.ComposedMessage;
+import org.example.jiranewsletterapp.security.SignedTokens;
+import org.example.jiranewsletterapp.util.WriteBehindBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Double opt-in for subscriber list entries. Each new unconfirmed entry is mailed a link with a
+ * {@link SignedTokens signed token} naming the entry. The mail is put on the {@link OutboundMessageQueue} in the
+ * transaction that creates the entry, so it is retried and dead-lettered like any other message. The link opens a page
+ * whose button posts the token back, so mail scanners that fetch every link cannot confirm on the subscriber's behalf.
+ * The post checks the token without touching the database and queues the entry id in a {@link WriteBehindBuffer}.
+ * A background loop turns the buffered ids into one {@code UPDATE ... WHERE id = ANY(?)} per batch, so a wave of
+ * clicks right after a campaign costs a handful of statements instead of a transaction per click.
+ */
+@Service
+public class SubscriptionConfirmationService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionConfirmationService.class);
+
+    public static final String CONFIRM_PATH = "/public/subscriptions/confirm";
+
+    private static final String CONFIRM_ENTRIES = """
+            UPDATE subscriber_list_entry SET confirmed = true WHERE id = ANY (?) AND NOT confirmed
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SignedTokens signedTokens;
+    private final OutboundMessageQueue outboundQueue;
+    private final Duration tokenTtl;
+    private final String confirmUrl;
+    private final Duration retryDelay;
+    private final WriteBehindBuffer<Long, Long> confirmations;
+    private final ExecutorService flushExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public SubscriptionConfirmationService(JdbcTemplate jdbcTemplate,
+                                           SignedTokens signedTokens,
+                                           OutboundMessageQueue outboundQueue,
+                                           PublicLinks publicLinks,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${app.subscription.confirmation-ttl:7d}") Duration tokenTtl,
+                                           @Value("${app.subscription.confirm-buffer.capacity:100000}") int capacity,
+                                           @Value("${app.subscription.confirm-buffer.batch-size:1000}") int batchSize,
+                                           @Value("${app.subscription.confirm-buffer.max-delay:1s}") Duration maxDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.signedTokens = signedTokens;
+        this.outboundQueue = outboundQueue;
+        this.tokenTtl = tokenTtl;
+        this.confirmUrl = publicLinks.url(CONFIRM_PATH + "?token=");
+        this.retryDelay = maxDelay;
+        this.confirmations = new WriteBehindBuffer<>(capacity, batchSize, maxDelay, this::confirmEntries);
+        confirmations.bindTo(meterRegistry, "confirmations");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flushExecutor.execute(() -> confirmations.flushUntilInterrupted(retryDelay,
+                e -> log.error("Writing confirmations failed, retrying", e)));
+    }
+
+    /**
+     * A new unconfirmed list entry to mail a confirmation link to.
+     */
+    public record PendingEntry(long entryId, long subscriberId, Long listId, String email, String listName) {
+    }
+
+    /**
+     * Queues a confirmation mail for the entry, in the caller's transaction if there is one. Nothing is sent to a
+     * subscriber suppressed after a hard bounce or complaint.
+     */
+    public void requestConfirmation(PendingEntry entry) {
+        requestConfirmations(List.of(entry));
+    }
+
+    /**
+     * Queues confirmation mails for the entries with one statement, in the caller's transaction if there is one.
+     */
+    public void requestConfirmations(List<PendingEntry> entries) {
+        Instant expiresAt = Instant.now().plus(tokenTtl);
+        outboundQueue.enqueueComposed(entries.stream().map(entry -> confirmationMail(entry, expiresAt)).toList());
+    }
+
+    private ComposedMessage confirmationMail(PendingEntry entry, Instant expiresAt) {
+        String token = signedTokens.sign(SignedTokens.Purpose.CONFIRM_SUBSCRIPTION, entry.entryId(), expiresAt);
+        String listName = entry.listName() == null ? "our newsletter" : entry.listName();
+        String body = "Please confirm that you want to receive " + listName
+                + " by opening this link:\n\n" + confirmUrl + token
+                + "\n\nIf you did not sign up, you can ignore this message.";
+        return new ComposedMessage(entry.subscriberId(), entry.listId(), entry.email(),
+                "Please confirm your subscription", body);
+    }
+
+    /**
+     * Accepts a confirmation posted from the link's page; the entry is marked confirmed by the next batch write.
+     */
+    public void confirm(String token) {
+        OptionalLong entryId = signedTokens.verify(SignedTokens.Purpose.CONFIRM_SUBSCRIPTION, token, Instant.now());
+        if (entryId.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or expired confirmation link");
+        }
+        if (!confirmations.offer(entryId.getAsLong(), entryId.getAsLong())) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many confirmations, try again shortly");
+        }
+    }
+
+    /**
+     * Writes all buffered confirmations now; returns how many were written.
+     */
+    public int flush() {
+        return confirmations.flush();
+    }
+
+    private void confirmEntries(List<Long> entryIds) {
+        jdbcTemplate.update(CONFIRM_ENTRIES, (Object) entryIds.toArray(Long[]::new));
+    }
+
+    @Override
+    public void destroy() {
+        flushExecutor.shutdownNow();
+        try {
+            confirmations.flush();
+        } catch (RuntimeException e) {
+            log.error("Dropping {} buffered confirmations on shutdown", confirmations.size(), e);
+        }
+    }
+}
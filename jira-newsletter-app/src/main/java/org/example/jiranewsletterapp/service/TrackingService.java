@@ -0,0 +1,296 @@
+package org.example.jiranewsletterapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.jiranewsletterapp.dto.CampaignTrackingResponse;
+import org.example.jiranewsletterapp.security.SignedTokens;
+import org.example.jiranewsletterapp.util.AppendOnlyLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Open and click tracking. Links carry a {@link SignedTokens signed token} naming the subscriber and bound to the
+ * campaign (and, for clicks, the target URL), so a hit is checked and counted without a database read: it increments
+ * a {@link LongAdder} per campaign or per campaign link, which spreads contended increments over striped cells, and
+ * queues a line for the {@link AppendOnlyLog}. Every {@code app.tracking.flush-interval} the counters are drained and
+ * their deltas added to {@code campaign_tracking} and {@code campaign_link_click} with one statement; if that fails the
+ * deltas are put back for the next flush.
+ * <p>
+ * The raw events, one per line as {@code epochMillis TAB open|click TAB campaignId TAB subscriberId [TAB url]}, go to
+ * daily files in {@code app.tracking.log-dir}, from which per-subscriber activity can be replayed. Totals only include
+ * what has been flushed.
+ */
+@Service
+public class TrackingService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackingService.class);
+
+    public static final String OPEN_PATH = "/public/track/open/";
+    public static final String CLICK_PATH = "/public/track/click/";
+    static final int MAX_URL_LENGTH = 2048;
+    private static final Pattern TRACKABLE_URL = Pattern.compile("^https?://[^\\s\\p{Cntrl}]+$");
+
+    private static final String ADD_DELTAS = """
+            WITH link_delta AS (SELECT d.campaign_id, d.url, d.clicks
+                                FROM unnest(?::bigint[], ?::varchar[], ?::bigint[]) AS d(campaign_id, url, clicks)
+                                WHERE EXISTS (SELECT 1 FROM campaign c WHERE c.id = d.campaign_id)),
+                 campaign_delta AS (SELECT d.campaign_id, sum(d.opens)::bigint AS opens, sum(d.clicks)::bigint AS clicks
+                                    FROM (SELECT o.campaign_id, o.opens, 0::bigint AS clicks
+                                          FROM unnest(?::bigint[], ?::bigint[]) AS o(campaign_id, opens)
+                                          UNION ALL
+                                          SELECT campaign_id, 0, clicks FROM link_delta) d
+                                    WHERE EXISTS (SELECT 1 FROM campaign c WHERE c.id = d.campaign_id)
+                                    GROUP BY d.campaign_id),
+                 link_upsert AS (
+                     INSERT INTO campaign_link_click (campaign_id, url, click_count)
+                         SELECT campaign_id, url, clicks FROM link_delta
+                         ON CONFLICT ON CONSTRAINT pk_campaign_link_click DO UPDATE
+                             SET click_count = campaign_link_click.click_count + EXCLUDED.click_count)
+            INSERT INTO campaign_tracking (campaign_id, open_count, click_count)
+            SELECT campaign_id, opens, clicks FROM campaign_delta
+            ON CONFLICT ON CONSTRAINT pk_campaign_tracking DO UPDATE
+                SET open_count  = campaign_tracking.open_count + EXCLUDED.open_count,
+                    click_count = campaign_tracking.click_count + EXCLUDED.click_count
+            """;
+
+    private static final String SELECT_TOTALS = """
+            SELECT coalesce(t.open_count, 0) AS opens, coalesce(t.click_count, 0) AS clicks
+            FROM campaign c
+                     LEFT JOIN campaign_tracking t ON t.campaign_id = c.id
+            WHERE c.id = ?
+            """;
+
+    private static final String SELECT_LINKS = """
+            SELECT url, click_count FROM campaign_link_click WHERE campaign_id = ? ORDER BY click_count DESC, url
+            """;
+
+    private record LinkKey(long campaignId, String url) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SignedTokens signedTokens;
+    private final Duration tokenTtl;
+    private final String openUrl;
+    private final String clickUrl;
+    private final Duration flushInterval;
+    private final AppendOnlyLog eventLog;
+    private final Counter openCounter;
+    private final Counter clickCounter;
+    private final ConcurrentHashMap<Long, LongAdder> opens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LinkKey, LongAdder> clicks = new ConcurrentHashMap<>();
+    // Idle counters removed by the last flush; a hit that raced with the removal is picked up from here next time.
+    private List<Map.Entry<Long, LongAdder>> retiredOpens = List.of();
+    private List<Map.Entry<LinkKey, LongAdder>> retiredClicks = List.of();
+    private final ExecutorService flushExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running = true;
+
+    @Autowired
+    public TrackingService(JdbcTemplate jdbcTemplate,
+                           SignedTokens signedTokens,
+                           PublicLinks publicLinks,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.tracking.token-ttl:365d}") Duration tokenTtl,
+                           @Value("${app.tracking.flush-interval:10s}") Duration flushInterval,
+                           @Value("${app.tracking.log-dir:tracking-log}") String logDir,
+                           @Value("${app.tracking.log-capacity:100000}") int logCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.signedTokens = signedTokens;
+        this.tokenTtl = tokenTtl;
+        this.openUrl = publicLinks.url(OPEN_PATH);
+        this.clickUrl = publicLinks.url(CLICK_PATH);
+        this.flushInterval = flushInterval;
+        this.eventLog = new AppendOnlyLog(Path.of(logDir), "tracking", logCapacity);
+        this.openCounter = Counter.builder("newsletter.tracking.events").tag("type", "open").register(meterRegistry);
+        this.clickCounter = Counter.builder("newsletter.tracking.events").tag("type", "click").register(meterRegistry);
+        FunctionCounter.builder("newsletter.tracking.log.dropped", eventLog, AppendOnlyLog::dropped)
+                .description("Tracking events left out of the event log because it could not keep up")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flushExecutor.execute(this::run);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(flushInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Flushing tracking counters failed, retrying", e);
+            }
+        }
+    }
+
+    public String openPixelUrl(long campaignId, long subscriberId) {
+        return openUrl + campaignId + "/" + signedTokens.sign(SignedTokens.Purpose.TRACK_OPEN, subscriberId,
+                Instant.now().plus(tokenTtl), Long.toString(campaignId));
+    }
+
+    public String clickUrl(long campaignId, long subscriberId, String url) {
+        if (!isTrackable(url)) {
+            throw new IllegalArgumentException("Cannot track link: " + url);
+        }
+        String token = signedTokens.sign(SignedTokens.Purpose.TRACK_CLICK, subscriberId, Instant.now().plus(tokenTtl),
+                clickContext(campaignId, url));
+        return clickUrl + campaignId + "/" + token + "?url=" + URLEncoder.encode(url, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the tracked form of a link in a campaign mail, or the link itself if it cannot be tracked.
+     */
+    public String trackLink(long campaignId, long subscriberId, String url) {
+        return isTrackable(url) ? clickUrl(campaignId, subscriberId, url) : url;
+    }
+
+    /**
+     * Counts an open; returns {@code false} if the token is not valid for the campaign.
+     */
+    public boolean recordOpen(long campaignId, String token) {
+        OptionalLong subscriberId = signedTokens.verify(SignedTokens.Purpose.TRACK_OPEN, token, Instant.now(),
+                Long.toString(campaignId));
+        if (subscriberId.isEmpty()) {
+            return false;
+        }
+        opens.computeIfAbsent(campaignId, id -> new LongAdder()).increment();
+        openCounter.increment();
+        eventLog.append(System.currentTimeMillis() + "\topen\t" + campaignId + "\t" + subscriberId.getAsLong());
+        return true;
+    }
+
+    /**
+     * Counts a click; returns {@code false} if the token is not valid for the campaign and URL, in which case the
+     * caller must not redirect.
+     */
+    public boolean recordClick(long campaignId, String token, String url) {
+        if (!isTrackable(url)) {
+            return false;
+        }
+        OptionalLong subscriberId = signedTokens.verify(SignedTokens.Purpose.TRACK_CLICK, token, Instant.now(),
+                clickContext(campaignId, url));
+        if (subscriberId.isEmpty()) {
+            return false;
+        }
+        clicks.computeIfAbsent(new LinkKey(campaignId, url), key -> new LongAdder()).increment();
+        clickCounter.increment();
+        eventLog.append(System.currentTimeMillis() + "\tclick\t" + campaignId + "\t" + subscriberId.getAsLong() + "\t" + url);
+        return true;
+    }
+
+    /**
+     * Writes the counts gathered since the last flush; returns the number of hits written.
+     */
+    public synchronized long flush() {
+        Map<Long, Long> openDeltas = new HashMap<>();
+        Map<LinkKey, Long> clickDeltas = new HashMap<>();
+        retiredOpens = drain(opens, retiredOpens, openDeltas);
+        retiredClicks = drain(clicks, retiredClicks, clickDeltas);
+        if (openDeltas.isEmpty() && clickDeltas.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.update(ADD_DELTAS,
+                    clickDeltas.keySet().stream().map(LinkKey::campaignId).toArray(Long[]::new),
+                    clickDeltas.keySet().stream().map(LinkKey::url).toArray(String[]::new),
+                    clickDeltas.values().toArray(Long[]::new),
+                    openDeltas.keySet().toArray(Long[]::new),
+                    openDeltas.values().toArray(Long[]::new));
+        } catch (RuntimeException e) {
+            openDeltas.forEach((campaignId, delta) -> opens.computeIfAbsent(campaignId, id -> new LongAdder()).add(delta));
+            clickDeltas.forEach((key, delta) -> clicks.computeIfAbsent(key, k -> new LongAdder()).add(delta));
+            throw e;
+        }
+        long written = 0;
+        for (long delta : openDeltas.values()) {
+            written += delta;
+        }
+        for (long delta : clickDeltas.values()) {
+            written += delta;
+        }
+        return written;
+    }
+
+    private static <K> List<Map.Entry<K, LongAdder>> drain(ConcurrentHashMap<K, LongAdder> counters,
+                                                          List<Map.Entry<K, LongAdder>> retired, Map<K, Long> deltas) {
+        for (Map.Entry<K, LongAdder> entry : retired) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            }
+        }
+        List<Map.Entry<K, LongAdder>> idle = new ArrayList<>();
+        for (Map.Entry<K, LongAdder> entry : counters.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            } else if (counters.remove(entry.getKey(), entry.getValue())) {
+                idle.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        return idle;
+    }
+
+    public CampaignTrackingResponse getTracking(Long campaignId) {
+        List<CampaignTrackingResponse> totals = jdbcTemplate.query(SELECT_TOTALS,
+                (rs, rowNum) -> new CampaignTrackingResponse(rs.getLong("opens"), rs.getLong("clicks"), List.of()),
+                campaignId);
+        if (totals.isEmpty()) {
+            throw new RuntimeException("Campaign not found with id: " + campaignId);
+        }
+        List<CampaignTrackingResponse.LinkClicks> links = jdbcTemplate.query(SELECT_LINKS,
+                (rs, rowNum) -> new CampaignTrackingResponse.LinkClicks(rs.getString("url"), rs.getLong("click_count")),
+                campaignId);
+        return new CampaignTrackingResponse(totals.get(0).opens(), totals.get(0).clicks(), links);
+    }
+
+    public Path eventLogFile(LocalDate date) {
+        return eventLog.fileFor(date);
+    }
+
+    private static boolean isTrackable(String url) {
+        return url != null && url.length() <= MAX_URL_LENGTH && TRACKABLE_URL.matcher(url).matches();
+    }
+
+    private static String clickContext(long campaignId, String url) {
+        return campaignId + " " + url;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        flushExecutor.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Dropping unflushed tracking counters on shutdown", e);
+        }
+        eventLog.close();
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.jiranewsletterapp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.jiranewsletterapp.dto.ListMembership;
+import org.example.jiranewsletterapp.security.SignedTokens;
+import org.example.jiranewsletterapp.util.WriteBehindBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One-click unsubscribe (RFC 8058). Every campaign message carries a {@code List-Unsubscribe} link with a
+ * {@link SignedTokens signed token} naming its subscriber list entry. A click is checked against the signature alone
+ * and acknowledged straight away; the entry id waits in a {@link WriteBehindBuffer} until a background loop removes a
+ * whole batch with one {@code DELETE ... WHERE id = ANY(?)}, so a burst of clicks after a campaign never takes a
+ * connection from the request threads.
+ */
+@Service
+public class UnsubscribeService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UnsubscribeService.class);
+
+    public static final String UNSUBSCRIBE_PATH = "/public/subscriptions/unsubscribe";
+
+    private static final String DELETE_ENTRIES = """
+            DELETE FROM subscriber_list_entry WHERE id = ANY (?) RETURNING subscriber_list_id, subscriber_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SignedTokens signedTokens;
+    private final SubscriberListMembershipIndex membershipIndex;
+    private final Duration tokenTtl;
+    private final String unsubscribeUrl;
+    private final Duration retryDelay;
+    private final WriteBehindBuffer<Long, Long> removals;
+    private final ExecutorService flushExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public UnsubscribeService(JdbcTemplate jdbcTemplate,
+                              SignedTokens signedTokens,
+                              SubscriberListMembershipIndex membershipIndex,
+                              PublicLinks publicLinks,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.subscription.unsubscribe-ttl:365d}") Duration tokenTtl,
+                              @Value("${app.subscription.unsubscribe-buffer.capacity:100000}") int capacity,
+                              @Value("${app.subscription.unsubscribe-buffer.batch-size:1000}") int batchSize,
+                              @Value("${app.subscription.unsubscribe-buffer.max-delay:1s}") Duration maxDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.signedTokens = signedTokens;
+        this.membershipIndex = membershipIndex;
+        this.tokenTtl = tokenTtl;
+        this.unsubscribeUrl = publicLinks.url(UNSUBSCRIBE_PATH + "?token=");
+        this.retryDelay = maxDelay;
+        this.removals = new WriteBehindBuffer<>(capacity, batchSize, maxDelay, this::deleteEntries);
+        removals.bindTo(meterRegistry, "unsubscribes");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flushExecutor.execute(() -> removals.flushUntilInterrupted(retryDelay,
+                e -> log.error("Removing unsubscribed entries failed, retrying", e)));
+    }
+
+    /**
+     * Returns the one-click unsubscribe link for a subscriber list entry.
+     */
+    public String unsubscribeUrl(long entryId) {
+        return unsubscribeUrl + signedTokens.sign(SignedTokens.Purpose.UNSUBSCRIBE, entryId, Instant.now().plus(tokenTtl));
+    }
+
+    /**
+     * Accepts an unsubscribe request; the entry is removed by the next batch write.
+     */
+    public void unsubscribe(String token) {
+        OptionalLong entryId = signedTokens.verify(SignedTokens.Purpose.UNSUBSCRIBE, token, Instant.now());
+        if (entryId.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or expired unsubscribe link");
+        }
+        if (!removals.offer(entryId.getAsLong(), entryId.getAsLong())) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many unsubscribe requests, try again shortly");
+        }
+    }
+
+    /**
+     * Removes all buffered entries now; returns how many unsubscribe requests were written.
+     */
+    public int flush() {
+        return removals.flush();
+    }
+
+    private void deleteEntries(List<Long> entryIds) {
+        List<ListMembership> removed = jdbcTemplate.query(DELETE_ENTRIES,
+                (rs, rowNum) -> new ListMembership(rs.getLong("subscriber_list_id"), rs.getLong("subscriber_id")),
+                (Object) entryIds.toArray(Long[]::new));
+        membershipIndex.removeAll(removed);
+    }
+
+    @Override
+    public void destroy() {
+        flushExecutor.shutdownNow();
+        try {
+            removals.flush();
+        } catch (RuntimeException e) {
+            log.error("Dropping {} buffered unsubscribe requests on shutdown", removals.size(), e);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package org.example.jiranewsletterapp.service;
 
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.UserResponse;
 import org.example.jiranewsletterapp.entity.User;
 import org.example.jiranewsletterapp.repository.UserRepository;
+import org.example.jiranewsletterapp.security.AuthenticationCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -12,14 +15,27 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final AuthenticationCache authenticationCache;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, AuthenticationCache authenticationCache) {
         this.userRepository = userRepository;
+        this.authenticationCache = authenticationCache;
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPage<UserResponse> getAllUsers(String cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        List<UserResponse> fetched = userRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), CursorPage.fetchLimit(pageSize));
+        return CursorPage.of(fetched, pageSize, UserResponse::id);
+    }
+
+    public Optional<UserResponse> getUserResponseById(Long id) {
+        return userRepository.findResponseById(id);
+    }
+
+    public boolean existsById(Long id) {
+        return userRepository.existsById(id);
     }
 
     public Optional<User> getUserById(Long id) {
@@ -32,10 +48,13 @@ public class UserService {
 
     public User updateUser(Long id, User updatedUser) {
         updatedUser.setId(id);
-        return userRepository.save(updatedUser);
+        User saved = userRepository.save(updatedUser);
+        authenticationCache.invalidateUser(id);
+        return saved;
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        authenticationCache.invalidateUser(id);
     }
 }
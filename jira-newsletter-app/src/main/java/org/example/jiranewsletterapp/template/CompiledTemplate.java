@@ -0,0 +1,148 @@
+package org.example.jiranewsletterapp.template;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template parsed once into an immutable list of literal and merge-field segments. Merge fields are written as
+ * {@code {{firstName}}}, optionally with a fallback for missing values: {@code {{firstName|there}}}.
+ * Rendering walks the segments and appends into a caller-supplied buffer, so a worker can reuse one buffer for a
+ * whole batch; instances are safe to share between threads.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int ESTIMATED_FIELD_LENGTH = 16;
+
+    public sealed interface Segment permits Literal, Field {
+    }
+
+    public record Literal(String text) implements Segment {
+    }
+
+    public record Field(MergeField field, String fallback) implements Segment {
+
+        public void appendTo(MergeValues values, StringBuilder out) {
+            switch (field) {
+                case EMAIL -> appendOrFallback(values.email(), out);
+                case FIRST_NAME -> appendOrFallback(values.firstName(), out);
+                case LAST_NAME -> appendOrFallback(values.lastName(), out);
+                case LIST_NAME -> appendOrFallback(values.listName(), out);
+                case BIRTH_DATE -> {
+                    LocalDate date = values.birthDate();
+                    if (date == null) {
+                        out.append(fallback);
+                    } else {
+                        appendIsoDate(date, out);
+                    }
+                }
+            }
+        }
+
+        private void appendOrFallback(String value, StringBuilder out) {
+            out.append(value == null || value.isEmpty() ? fallback : value);
+        }
+    }
+
+    private final Segment[] segments;
+    private final String staticText;
+    private final int estimatedLength;
+
+    private CompiledTemplate(Segment[] segments) {
+        this.segments = segments;
+        int length = 0;
+        for (Segment segment : segments) {
+            length += segment instanceof Literal literal ? literal.text().length() : ESTIMATED_FIELD_LENGTH;
+        }
+        this.estimatedLength = length;
+        if (segments.length == 0) {
+            this.staticText = "";
+        } else if (segments.length == 1 && segments[0] instanceof Literal literal) {
+            this.staticText = literal.text();
+        } else {
+            this.staticText = null;
+        }
+    }
+
+    public static CompiledTemplate compile(String source) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                segments.add(new Literal(source.substring(position)));
+                break;
+            }
+            if (open > position) {
+                segments.add(new Literal(source.substring(position, open)));
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed merge field at position " + open);
+            }
+            String expression = source.substring(open + OPEN.length(), close);
+            int separator = expression.indexOf('|');
+            String key = (separator < 0 ? expression : expression.substring(0, separator)).strip();
+            String fallback = separator < 0 ? "" : expression.substring(separator + 1);
+            segments.add(new Field(MergeField.byKey(key), fallback));
+            position = close + CLOSE.length();
+        }
+        return new CompiledTemplate(segments.toArray(Segment[]::new));
+    }
+
+    public List<Segment> segments() {
+        return List.of(segments);
+    }
+
+    public boolean isStatic() {
+        return staticText != null;
+    }
+
+    public int estimatedLength() {
+        return estimatedLength;
+    }
+
+    /**
+     * Renders into {@code buffer}, which is cleared first, and returns the result. Templates without merge fields
+     * return their text without touching the buffer.
+     */
+    public String render(MergeValues values, StringBuilder buffer) {
+        if (staticText != null) {
+            return staticText;
+        }
+        buffer.setLength(0);
+        appendTo(values, buffer);
+        return buffer.toString();
+    }
+
+    public void appendTo(MergeValues values, StringBuilder out) {
+        for (Segment segment : segments) {
+            switch (segment) {
+                case Literal literal -> out.append(literal.text());
+                case Field field -> field.appendTo(values, out);
+            }
+        }
+    }
+
+    // Same output as LocalDate.toString() for four-digit years, without the intermediate String.
+    private static void appendIsoDate(LocalDate date, StringBuilder out) {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            out.append(date);
+            return;
+        }
+        out.append(year).append('-');
+        appendTwoDigits(date.getMonthValue(), out);
+        out.append('-');
+        appendTwoDigits(date.getDayOfMonth(), out);
+    }
+
+    private static void appendTwoDigits(int value, StringBuilder out) {
+        if (value < 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.jiranewsletterapp.template;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public enum MergeField {
+    EMAIL("email"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    BIRTH_DATE("birthDate"),
+    LIST_NAME("listName");
+
+    private static final Map<String, MergeField> BY_KEY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(MergeField::key, Function.identity()));
+
+    private final String key;
+
+    MergeField(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static MergeField byKey(String key) {
+        MergeField field = BY_KEY.get(key);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown merge field: " + key);
+        }
+        return field;
+    }
+}
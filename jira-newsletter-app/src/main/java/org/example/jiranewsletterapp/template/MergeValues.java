@@ -0,0 +1,18 @@
+package org.example.jiranewsletterapp.template;
+
+import java.time.LocalDate;
+
+/**
+ * Per-recipient values a {@link CompiledTemplate} can merge in; any of them may be {@code null}.
+ */
+public interface MergeValues {
+    String email();
+
+    String firstName();
+
+    String lastName();
+
+    LocalDate birthDate();
+
+    String listName();
+}
@@ -0,0 +1,139 @@
+package org.example.jiranewsletterapp.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Line-oriented log that callers append to without touching the disk. Lines go into a bounded queue and a single
+ * background thread writes them in batches to {@code <prefix>-<UTC date>.log} in {@code directory}, flushing after
+ * every batch, so the files only ever grow and one file per day can be replayed or shipped on its own.
+ * <p>
+ * {@link #append} never blocks: when {@code capacity} lines are already waiting, or the file cannot be written, lines
+ * are dropped and counted in {@link #dropped()}. Lines still queued when the process dies are lost; {@link #close}
+ * writes them out.
+ */
+public final class AppendOnlyLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AppendOnlyLog.class);
+
+    private static final int MAX_BATCH = 4096;
+
+    private final Path directory;
+    private final String prefix;
+    private final BlockingQueue<String> pending;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    private BufferedWriter writer;
+    private LocalDate writerDate;
+
+    public AppendOnlyLog(Path directory, String prefix, int capacity) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create log directory " + directory, e);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.pending = new ArrayBlockingQueue<>(capacity);
+        this.writerThread = Thread.ofVirtual().name(prefix + "-log-writer").start(this::run);
+    }
+
+    /**
+     * Queues a line, which must not contain line breaks; returns {@code false} if it was dropped.
+     */
+    public boolean append(String line) {
+        if (closed || !pending.offer(line)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public Path fileFor(LocalDate date) {
+        return directory.resolve(prefix + "-" + date + ".log");
+    }
+
+    private void run() {
+        List<String> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (!closed || !pending.isEmpty()) {
+                String first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeWriter();
+        }
+    }
+
+    private void write(List<String> lines) {
+        try {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            if (!today.equals(writerDate)) {
+                closeWriter();
+                writer = Files.newBufferedWriter(fileFor(today), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                writerDate = today;
+            }
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException e) {
+            dropped.add(lines.size());
+            log.error("Cannot write {} lines to {}", lines.size(), directory, e);
+            closeWriter();
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Cannot close log file in {}", directory, e);
+            }
+            writer = null;
+            writerDate = null;
+        }
+    }
+
+    /**
+     * Stops accepting lines and waits until everything queued has been written.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        writerThread.join();
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.jiranewsletterapp.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck). Level 0 has one bucket per tick; each higher level has buckets as
+ * wide as the whole level below it. Adding a timer appends it to one bucket and expiring a tick drains one bucket, both
+ * O(1) regardless of how many timers are pending. When a lower level wraps around, the next bucket of the level above
+ * is cascaded down, so each timer moves at most once per level. Timers further out than the top level can reach wait
+ * in an overflow list until the top level wraps.
+ * <p>
+ * Time is measured in milliseconds and rounded down to whole ticks. Not thread-safe.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private record Timer<T>(long tick, T value) {
+    }
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final ArrayDeque<Timer<T>>[][] levels;
+    private final List<Timer<T>> overflow = new ArrayList<>();
+    private final List<Timer<T>> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param wheelSize buckets per level, a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || Integer.bitCount(wheelSize) != 1 || wheelSize < 2 || levelCount < 1
+                || (long) Integer.numberOfTrailingZeros(wheelSize) * levelCount >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = new ArrayDeque[levelCount][wheelSize];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public void add(long deadlineMillis, T value) {
+        place(new Timer<>(Math.floorDiv(deadlineMillis, tickMillis), value));
+        size++;
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.tick() - currentTick;
+        if (delta <= 0) {
+            due.add(timer);
+            return;
+        }
+        for (int level = 0; level < levels.length; level++) {
+            if (delta < 1L << (bits * (level + 1))) {
+                int slot = (int) (timer.tick() >>> (bits * level)) & mask;
+                ArrayDeque<Timer<T>> bucket = levels[level][slot];
+                if (bucket == null) {
+                    bucket = levels[level][slot] = new ArrayDeque<>();
+                }
+                bucket.add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and hands every timer whose tick has been reached to
+     * {@code expired}, in tick order. Timers added with a deadline at or before the current time expire on the next
+     * call.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        expireDue(expired);
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            int slot = (int) currentTick & mask;
+            ArrayDeque<Timer<T>> bucket = levels[0][slot];
+            if (bucket != null) {
+                levels[0][slot] = null;
+                expire(bucket, expired);
+            }
+            expireDue(expired);
+        }
+    }
+
+    // When the low bits of the tick roll over, the matching bucket of every level above is due to be spread out.
+    // Higher levels go first so their timers can land in the lower buckets that are cascaded next.
+    private void cascade() {
+        int top = 0;
+        while (top + 1 < levels.length && (currentTick & ((1L << (bits * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        if (top == levels.length - 1 && (currentTick & ((1L << (bits * levels.length)) - 1)) == 0
+                && !overflow.isEmpty()) {
+            List<Timer<T>> waiting = new ArrayList<>(overflow);
+            overflow.clear();
+            waiting.forEach(this::place);
+        }
+        for (int level = top; level >= 1; level--) {
+            int slot = (int) (currentTick >>> (bits * level)) & mask;
+            ArrayDeque<Timer<T>> bucket = levels[level][slot];
+            if (bucket != null) {
+                levels[level][slot] = null;
+                bucket.forEach(this::place);
+            }
+        }
+    }
+
+    private void expireDue(Consumer<T> expired) {
+        if (!due.isEmpty()) {
+            List<Timer<T>> reached = new ArrayList<>(due);
+            due.clear();
+            expire(reached, expired);
+        }
+    }
+
+    private void expire(Iterable<Timer<T>> timers, Consumer<T> expired) {
+        for (Timer<T> timer : timers) {
+            size--;
+            expired.accept(timer.value());
+        }
+    }
+
+    public long currentTimeMillis() {
+        return currentTick * tickMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.jiranewsletterapp.util;
+
+/**
+ * Open-addressing hash set of primitive {@code long}s with linear probing. Uses 8 bytes per slot and keeps the table
+ * at most 75% full, so 20M ids fit in 256 MB where a {@code HashSet<Long>} would need several times that for boxes
+ * and entry objects. Not thread-safe; removal is not supported.
+ */
+public final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.75f;
+    // 0 marks an empty slot, so the value 0 itself is tracked separately.
+    private static final long EMPTY = 0L;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] slots;
+    private int mask;
+    private int shift;
+    private int size;
+    private int resizeAt;
+    private boolean containsEmptyValue;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns {@code true} if the value was not in the set yet.
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmptyValue) {
+                return false;
+            }
+            containsEmptyValue = true;
+            size++;
+            return true;
+        }
+        int index = indexOf(value);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        if (++size > resizeAt) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmptyValue;
+        }
+        int index = indexOf(value);
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int indexOf(long value) {
+        // Fibonacci hashing: the top bits of the product spread sequential ids, which database keys mostly are.
+        return (int) ((value * GOLDEN_RATIO) >>> shift);
+    }
+
+    private void grow() {
+        long[] old = slots;
+        if (old.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("LongHashSet cannot grow beyond " + MAX_CAPACITY + " slots");
+        }
+        allocate(old.length * 2);
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = indexOf(value);
+                while (slots[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(mask);
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        if (needed > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+}
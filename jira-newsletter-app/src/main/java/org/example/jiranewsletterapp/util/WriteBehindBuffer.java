@@ -0,0 +1,183 @@
+package org.example.jiranewsletterapp.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Bounded buffer that collects writes in memory and hands them to {@code writer} in batches. Writes with the same key
+ * are coalesced, the latest value winning, so a burst of repeats costs one row. A batch is due once
+ * {@code batchSize} keys are pending or the oldest pending write is {@code maxDelay} old.
+ * <p>
+ * {@link #offer} never blocks: when {@code capacity} distinct keys are already pending it returns {@code false} and
+ * the caller decides how to shed load. Batches that fail are put back in front of newer writes and the exception is
+ * rethrown, so nothing is dropped while the store is unavailable. Pending writes are lost if the process dies.
+ */
+public final class WriteBehindBuffer<K, V> {
+
+    private static final String PENDING_METER = "newsletter.write-behind.pending";
+
+    private final int capacity;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Consumer<List<V>> writer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchDue = lock.newCondition();
+    // Held while writing, so batches reach the writer one at a time and in order.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private LinkedHashMap<K, V> pending = new LinkedHashMap<>();
+    private long oldestNanos;
+
+    public WriteBehindBuffer(int capacity, int batchSize, Duration maxDelay, Consumer<List<V>> writer) {
+        if (capacity < 1 || batchSize < 1 || maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Invalid write-behind buffer settings");
+        }
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.writer = writer;
+    }
+
+    /**
+     * Queues a write, replacing a pending one with the same key; returns {@code false} if the buffer is full.
+     */
+    public boolean offer(K key, V value) {
+        lock.lock();
+        try {
+            if (pending.size() >= capacity && !pending.containsKey(key)) {
+                return false;
+            }
+            if (pending.isEmpty()) {
+                oldestNanos = System.nanoTime();
+            }
+            pending.put(key, value);
+            if (pending.size() == 1 || pending.size() == batchSize) {
+                batchDue.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a batch is due, then writes everything pending; returns the number of writes made.
+     */
+    public int awaitAndFlush() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (pending.size() < batchSize) {
+                if (pending.isEmpty()) {
+                    batchDue.await();
+                    continue;
+                }
+                long remaining = oldestNanos + maxDelayNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                batchDue.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return flush();
+    }
+
+    /**
+     * Writes due batches until the calling thread is interrupted. A failed write is passed to {@code onFailure} and
+     * retried after {@code retryDelay}.
+     */
+    public void flushUntilInterrupted(Duration retryDelay, Consumer<RuntimeException> onFailure) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                awaitAndFlush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                onFailure.accept(e);
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes everything pending now, in batches of at most {@code batchSize}; returns the number of writes made.
+     */
+    public int flush() {
+        writeLock.lock();
+        try {
+            List<Map.Entry<K, V>> drained;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                drained = new ArrayList<>(pending.entrySet());
+                pending = new LinkedHashMap<>();
+            } finally {
+                lock.unlock();
+            }
+
+            int written = 0;
+            for (int from = 0; from < drained.size(); from += batchSize) {
+                List<Map.Entry<K, V>> batch = drained.subList(from, Math.min(from + batchSize, drained.size()));
+                List<V> values = new ArrayList<>(batch.size());
+                batch.forEach(entry -> values.add(entry.getValue()));
+                try {
+                    writer.accept(values);
+                } catch (RuntimeException e) {
+                    requeue(drained.subList(from, drained.size()));
+                    throw e;
+                }
+                written += batch.size();
+            }
+            return written;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void requeue(List<Map.Entry<K, V>> unwritten) {
+        lock.lock();
+        try {
+            LinkedHashMap<K, V> merged = new LinkedHashMap<>();
+            unwritten.forEach(entry -> merged.put(entry.getKey(), entry.getValue()));
+            merged.putAll(pending);
+            pending = merged;
+            oldestNanos = System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publishes the number of pending writes as {@code newsletter.write-behind.pending}, tagged with the buffer's name.
+     */
+    public void bindTo(MeterRegistry registry, String name) {
+        Gauge.builder(PENDING_METER, this, WriteBehindBuffer::size)
+                .description("Writes waiting in a write-behind buffer")
+                .tag("buffer", name)
+                .register(registry);
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
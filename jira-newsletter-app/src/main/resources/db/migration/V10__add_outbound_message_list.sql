@@ -0,0 +1,6 @@
+-- The list through which the subscriber was reached, for the {{listName}} merge field.
+ALTER TABLE outbound_message
+    ADD COLUMN subscriber_list_id BIGINT;
+
+ALTER TABLE outbound_message
+    ADD CONSTRAINT FK_OUTBOUND_MESSAGE_ON_SUBSCRIBER_LIST FOREIGN KEY (subscriber_list_id) REFERENCES subscriber_list (id) ON DELETE SET NULL;
@@ -0,0 +1,14 @@
+CREATE TABLE campaign_excluded_list
+(
+    campaign_id        BIGINT NOT NULL,
+    subscriber_list_id BIGINT NOT NULL,
+    CONSTRAINT pk_campaign_excluded_list PRIMARY KEY (campaign_id, subscriber_list_id)
+);
+
+ALTER TABLE campaign_excluded_list
+    ADD CONSTRAINT FK_CAMPAIGN_EXCLUDED_LIST_ON_CAMPAIGN FOREIGN KEY (campaign_id) REFERENCES campaign (id) ON DELETE CASCADE;
+
+ALTER TABLE campaign_excluded_list
+    ADD CONSTRAINT FK_CAMPAIGN_EXCLUDED_LIST_ON_SUBSCRIBER_LIST FOREIGN KEY (subscriber_list_id) REFERENCES subscriber_list (id) ON DELETE CASCADE;
+
+CREATE INDEX idx_campaign_excluded_list_list ON campaign_excluded_list (subscriber_list_id);
@@ -0,0 +1,26 @@
+CREATE TABLE jira_issue
+(
+    id              BIGINT                   NOT NULL,
+    issue_key       VARCHAR(50)              NOT NULL,
+    project_key     VARCHAR(50)              NOT NULL,
+    summary         VARCHAR(255),
+    issue_type      VARCHAR(100),
+    status          VARCHAR(100),
+    resolved_at     TIMESTAMP WITH TIME ZONE,
+    updated_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    synced_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_jira_issue PRIMARY KEY (id)
+);
+
+-- Digests read the issues of a project resolved in a period.
+CREATE INDEX idx_jira_issue_project_resolved ON jira_issue (project_key, resolved_at);
+
+CREATE TABLE jira_sync_state
+(
+    project_key    VARCHAR(50) NOT NULL,
+    watermark      TIMESTAMP WITH TIME ZONE,
+    etag           VARCHAR(255),
+    etag_query     VARCHAR(1000),
+    last_synced_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT pk_jira_sync_state PRIMARY KEY (project_key)
+);
@@ -0,0 +1,37 @@
+ALTER TABLE subscriber
+    ADD COLUMN time_zone VARCHAR(255);
+
+ALTER TABLE campaign
+    ADD COLUMN scheduled_at TIMESTAMP WITHOUT TIME ZONE;
+
+ALTER TABLE campaign
+    ADD COLUMN subscriber_local_time BOOLEAN DEFAULT false NOT NULL;
+
+CREATE SEQUENCE scheduled_send_seq INCREMENT BY 50;
+
+CREATE TABLE scheduled_send
+(
+    id                 BIGINT DEFAULT nextval('scheduled_send_seq') NOT NULL,
+    campaign_id        BIGINT                                       NOT NULL,
+    subscriber_id      BIGINT                                       NOT NULL,
+    subscriber_list_id BIGINT,
+    send_at            TIMESTAMP WITH TIME ZONE                     NOT NULL,
+    CONSTRAINT pk_scheduled_send PRIMARY KEY (id),
+    CONSTRAINT uc_scheduled_send_campaign_subscriber UNIQUE (campaign_id, subscriber_id)
+);
+
+ALTER SEQUENCE scheduled_send_seq OWNED BY scheduled_send.id;
+
+ALTER TABLE scheduled_send
+    ADD CONSTRAINT FK_SCHEDULED_SEND_ON_CAMPAIGN FOREIGN KEY (campaign_id) REFERENCES campaign (id) ON DELETE CASCADE;
+
+ALTER TABLE scheduled_send
+    ADD CONSTRAINT FK_SCHEDULED_SEND_ON_SUBSCRIBER FOREIGN KEY (subscriber_id) REFERENCES subscriber (id) ON DELETE CASCADE;
+
+ALTER TABLE scheduled_send
+    ADD CONSTRAINT FK_SCHEDULED_SEND_ON_SUBSCRIBER_LIST FOREIGN KEY (subscriber_list_id) REFERENCES subscriber_list (id) ON DELETE SET NULL;
+
+-- The scheduler loads the next window of sends by time.
+CREATE INDEX idx_scheduled_send_send_at ON scheduled_send (send_at);
+
+CREATE INDEX idx_scheduled_send_subscriber ON scheduled_send (subscriber_id);
@@ -0,0 +1,33 @@
+-- A transiently failed message stays PENDING and is not claimed again before its next attempt is due.
+ALTER TABLE outbound_message
+    ADD COLUMN next_attempt_at TIMESTAMP WITH TIME ZONE;
+
+CREATE SEQUENCE dead_letter_seq INCREMENT BY 50;
+
+CREATE TABLE dead_letter
+(
+    id                  BIGINT DEFAULT nextval('dead_letter_seq') NOT NULL,
+    outbound_message_id BIGINT                                    NOT NULL,
+    campaign_id         BIGINT                                    NOT NULL,
+    subscriber_id       BIGINT,
+    recipient           VARCHAR(255)                              NOT NULL,
+    attempts            INTEGER                                   NOT NULL,
+    last_error          VARCHAR(1000),
+    permanent           BOOLEAN                                   NOT NULL,
+    failed_at           TIMESTAMP WITH TIME ZONE                  NOT NULL,
+    CONSTRAINT pk_dead_letter PRIMARY KEY (id),
+    CONSTRAINT uc_dead_letter_outbound_message UNIQUE (outbound_message_id)
+);
+
+ALTER SEQUENCE dead_letter_seq OWNED BY dead_letter.id;
+
+ALTER TABLE dead_letter
+    ADD CONSTRAINT FK_DEAD_LETTER_ON_CAMPAIGN FOREIGN KEY (campaign_id) REFERENCES campaign (id) ON DELETE CASCADE;
+
+-- Dead letters outlive the subscriber so a deleted address can still be looked into.
+ALTER TABLE dead_letter
+    ADD CONSTRAINT FK_DEAD_LETTER_ON_SUBSCRIBER FOREIGN KEY (subscriber_id) REFERENCES subscriber (id) ON DELETE SET NULL;
+
+CREATE INDEX idx_dead_letter_campaign ON dead_letter (campaign_id, id);
+
+CREATE INDEX idx_dead_letter_subscriber ON dead_letter (subscriber_id);
@@ -0,0 +1,6 @@
+-- Set from bounce and complaint reports; a suppressed subscriber is left out of every later send.
+ALTER TABLE subscriber
+    ADD COLUMN suppressed_at TIMESTAMP WITHOUT TIME ZONE;
+
+ALTER TABLE subscriber
+    ADD COLUMN suppression_reason VARCHAR(32);
@@ -0,0 +1,22 @@
+-- Open and click totals, written as aggregated deltas by the tracking flusher rather than a row per event.
+CREATE TABLE campaign_tracking
+(
+    campaign_id BIGINT           NOT NULL,
+    open_count  BIGINT DEFAULT 0 NOT NULL,
+    click_count BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_campaign_tracking PRIMARY KEY (campaign_id)
+);
+
+ALTER TABLE campaign_tracking
+    ADD CONSTRAINT FK_CAMPAIGN_TRACKING_ON_CAMPAIGN FOREIGN KEY (campaign_id) REFERENCES campaign (id) ON DELETE CASCADE;
+
+CREATE TABLE campaign_link_click
+(
+    campaign_id BIGINT        NOT NULL,
+    url         VARCHAR(2048) NOT NULL,
+    click_count BIGINT        NOT NULL,
+    CONSTRAINT pk_campaign_link_click PRIMARY KEY (campaign_id, url)
+);
+
+ALTER TABLE campaign_link_click
+    ADD CONSTRAINT FK_CAMPAIGN_LINK_CLICK_ON_CAMPAIGN FOREIGN KEY (campaign_id) REFERENCES campaign (id) ON DELETE CASCADE;
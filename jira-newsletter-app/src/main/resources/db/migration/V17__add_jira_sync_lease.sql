@@ -0,0 +1,6 @@
+-- A sync claims its project with a lease instead of holding the row locked while it talks to Jira.
+ALTER TABLE jira_sync_state
+    ADD COLUMN lease_owner VARCHAR(100);
+
+ALTER TABLE jira_sync_state
+    ADD COLUMN lease_expires_at TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,12 @@
+-- Mail composed up front, such as a confirmation link, goes through the same queue without a campaign.
+ALTER TABLE outbound_message
+    ALTER COLUMN campaign_id DROP NOT NULL;
+
+ALTER TABLE outbound_message
+    ADD COLUMN subject VARCHAR(255);
+
+ALTER TABLE outbound_message
+    ADD COLUMN body TEXT;
+
+ALTER TABLE dead_letter
+    ALTER COLUMN campaign_id DROP NOT NULL;
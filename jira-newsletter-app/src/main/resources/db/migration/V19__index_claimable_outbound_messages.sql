@@ -0,0 +1,7 @@
+-- Workers claim pending rows whose next attempt is due, oldest due first. Rows never tried sort as '-infinity', so
+-- the claim reads this index from the start and stops at the first row not yet due; deferred retries are not scanned.
+CREATE INDEX idx_outbound_message_claimable
+    ON outbound_message ((coalesce(next_attempt_at, '-infinity'::timestamptz)), id) WHERE status = 'PENDING';
+
+-- Superseded by the index above, which covers the same pending rows.
+DROP INDEX idx_outbound_message_pending;
@@ -0,0 +1,3 @@
+-- Lists take signups from the public form only once their owner opts in.
+ALTER TABLE subscriber_list
+    ADD COLUMN public_signup BOOLEAN NOT NULL DEFAULT false;
@@ -0,0 +1,5 @@
+CREATE INDEX idx_subscriber_list_owner_id
+    ON subscriber_list (owner_id, id);
+
+CREATE INDEX idx_subscriber_list_entry_subscriber_list
+    ON subscriber_list_entry (subscriber_id, subscriber_list_id);
@@ -0,0 +1,43 @@
+ALTER TABLE subscriber
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE subscriber_seq INCREMENT BY 50 OWNED BY subscriber.id;
+
+SELECT setval('subscriber_seq', COALESCE(MAX(id), 0) + 1, false)
+FROM subscriber;
+
+ALTER TABLE subscriber
+    ALTER COLUMN id SET DEFAULT nextval('subscriber_seq');
+
+ALTER TABLE user_app
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE user_app_seq INCREMENT BY 50 OWNED BY user_app.id;
+
+SELECT setval('user_app_seq', COALESCE(MAX(id), 0) + 1, false)
+FROM user_app;
+
+ALTER TABLE user_app
+    ALTER COLUMN id SET DEFAULT nextval('user_app_seq');
+
+ALTER TABLE subscriber_list
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE subscriber_list_seq INCREMENT BY 50 OWNED BY subscriber_list.id;
+
+SELECT setval('subscriber_list_seq', COALESCE(MAX(id), 0) + 1, false)
+FROM subscriber_list;
+
+ALTER TABLE subscriber_list
+    ALTER COLUMN id SET DEFAULT nextval('subscriber_list_seq');
+
+ALTER TABLE subscriber_list_entry
+    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE subscriber_list_entry_seq INCREMENT BY 50 OWNED BY subscriber_list_entry.id;
+
+SELECT setval('subscriber_list_entry_seq', COALESCE(MAX(id), 0) + 1, false)
+FROM subscriber_list_entry;
+
+ALTER TABLE subscriber_list_entry
+    ALTER COLUMN id SET DEFAULT nextval('subscriber_list_entry_seq');
@@ -0,0 +1,28 @@
+-- Merge subscribers whose emails differ only by case into the oldest row before enforcing uniqueness.
+CREATE TEMP TABLE subscriber_duplicate ON COMMIT DROP AS
+SELECT id, keep_id
+FROM (SELECT id, MIN(id) OVER (PARTITION BY lower(email)) AS keep_id
+      FROM subscriber) s
+WHERE id <> keep_id;
+
+UPDATE subscriber_list_entry e
+SET subscriber_id = d.keep_id
+FROM subscriber_duplicate d
+WHERE e.subscriber_id = d.id;
+
+DELETE
+FROM subscriber s
+    USING subscriber_duplicate d
+WHERE s.id = d.id;
+
+DELETE
+FROM subscriber_list_entry e
+    USING subscriber_list_entry older
+WHERE e.subscriber_list_id = older.subscriber_list_id
+  AND e.subscriber_id = older.subscriber_id
+  AND e.id > older.id;
+
+CREATE UNIQUE INDEX uidx_subscriber_email_lower ON subscriber (lower(email));
+
+ALTER TABLE subscriber_list_entry
+    ADD CONSTRAINT uc_subscriber_list_entry_list_subscriber UNIQUE (subscriber_list_id, subscriber_id);
@@ -0,0 +1,33 @@
+CREATE SEQUENCE campaign_seq INCREMENT BY 50;
+
+CREATE TABLE campaign
+(
+    id           BIGINT DEFAULT nextval('campaign_seq') NOT NULL,
+    name         VARCHAR(255)                            NOT NULL,
+    subject      VARCHAR(255)                            NOT NULL,
+    body         TEXT                                    NOT NULL,
+    status       VARCHAR(255)                            NOT NULL,
+    created_at   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    started_at   TIMESTAMP WITHOUT TIME ZONE,
+    finished_at  TIMESTAMP WITHOUT TIME ZONE,
+    sent_count   BIGINT DEFAULT 0                        NOT NULL,
+    failed_count BIGINT DEFAULT 0                        NOT NULL,
+    CONSTRAINT pk_campaign PRIMARY KEY (id)
+);
+
+ALTER SEQUENCE campaign_seq OWNED BY campaign.id;
+
+CREATE TABLE campaign_subscriber_list
+(
+    campaign_id        BIGINT NOT NULL,
+    subscriber_list_id BIGINT NOT NULL,
+    CONSTRAINT pk_campaign_subscriber_list PRIMARY KEY (campaign_id, subscriber_list_id)
+);
+
+ALTER TABLE campaign_subscriber_list
+    ADD CONSTRAINT FK_CAMPAIGN_SUBSCRIBER_LIST_ON_CAMPAIGN FOREIGN KEY (campaign_id) REFERENCES campaign (id) ON DELETE CASCADE;
+
+ALTER TABLE campaign_subscriber_list
+    ADD CONSTRAINT FK_CAMPAIGN_SUBSCRIBER_LIST_ON_LIST FOREIGN KEY (subscriber_list_id) REFERENCES subscriber_list (id) ON DELETE CASCADE;
+
+CREATE INDEX idx_campaign_subscriber_list_list ON campaign_subscriber_list (subscriber_list_id);
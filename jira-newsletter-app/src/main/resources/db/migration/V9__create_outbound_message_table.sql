@@ -0,0 +1,34 @@
+CREATE SEQUENCE outbound_message_seq INCREMENT BY 50;
+
+CREATE TABLE outbound_message
+(
+    id               BIGINT  DEFAULT nextval('outbound_message_seq') NOT NULL,
+    campaign_id      BIGINT                                          NOT NULL,
+    subscriber_id    BIGINT                                          NOT NULL,
+    recipient        VARCHAR(255)                                    NOT NULL,
+    status           VARCHAR(20)                                     NOT NULL,
+    attempts         INTEGER DEFAULT 0                               NOT NULL,
+    lease_owner      VARCHAR(100),
+    lease_expires_at TIMESTAMP WITH TIME ZONE,
+    created_at       TIMESTAMP WITH TIME ZONE                        NOT NULL,
+    sent_at          TIMESTAMP WITH TIME ZONE,
+    last_error       VARCHAR(1000),
+    CONSTRAINT pk_outbound_message PRIMARY KEY (id),
+    CONSTRAINT uc_outbound_message_campaign_subscriber UNIQUE (campaign_id, subscriber_id)
+);
+
+ALTER SEQUENCE outbound_message_seq OWNED BY outbound_message.id;
+
+ALTER TABLE outbound_message
+    ADD CONSTRAINT FK_OUTBOUND_MESSAGE_ON_CAMPAIGN FOREIGN KEY (campaign_id) REFERENCES campaign (id) ON DELETE CASCADE;
+
+ALTER TABLE outbound_message
+    ADD CONSTRAINT FK_OUTBOUND_MESSAGE_ON_SUBSCRIBER FOREIGN KEY (subscriber_id) REFERENCES subscriber (id) ON DELETE CASCADE;
+
+-- Workers claim in id order among pending rows only; sent and failed rows never enter this index.
+CREATE INDEX idx_outbound_message_pending ON outbound_message (id) WHERE status = 'PENDING';
+
+CREATE INDEX idx_outbound_message_subscriber ON outbound_message (subscriber_id);
+
+-- Lets the completion check for a campaign skip its already delivered rows.
+CREATE INDEX idx_outbound_message_pending_campaign ON outbound_message (campaign_id) WHERE status = 'PENDING';
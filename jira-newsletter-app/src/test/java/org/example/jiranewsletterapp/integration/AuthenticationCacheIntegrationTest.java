@@ -0,0 +1,134 @@
+package org.example.jiranewsletterapp.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.jiranewsletterapp.entity.Role;
+import org.example.jiranewsletterapp.entity.User;
+import org.example.jiranewsletterapp.repository.*;
+import org.example.jiranewsletterapp.security.AuthenticationCache;
+import org.example.jiranewsletterapp.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class AuthenticationCacheIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private AuthenticationCache authenticationCache;
+    @Autowired private UserService userService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubscriberListEntryRepository entryRepository;
+    @Autowired private SubscriberListRepository listRepository;
+
+    private User admin;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository.deleteAll();
+        listRepository.deleteAll();
+        userRepository.deleteAll();
+        authenticationCache.invalidateAll();
+
+        admin = new User();
+        admin.setEmail("admin@example.com");
+        admin.setPassword(passwordEncoder.encode("secret123"));
+        admin.setRole(Role.ADMIN);
+        admin = userRepository.save(admin);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    private long statementsForGetUser(String password, int expectedStatus) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/users/" + admin.getId()).with(httpBasic("admin@example.com", password)))
+                .andExpect(status().is(expectedStatus));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", AuthenticationCache.CACHE_NAME, "result", result)
+                .functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Repeat Basic auth request should skip the user lookup")
+    void testRepeatRequestServedFromCache() throws Exception {
+        double hitsBefore = cacheGets("hit");
+        double missesBefore = cacheGets("miss");
+
+        long firstCount = statementsForGetUser("secret123", 200);
+        long secondCount = statementsForGetUser("secret123", 200);
+
+        assertEquals(2, firstCount);
+        assertEquals(1, secondCount);
+        assertEquals(1, cacheGets("hit") - hitsBefore);
+        assertEquals(1, cacheGets("miss") - missesBefore);
+    }
+
+    @Test
+    @DisplayName("Wrong password should not be cached or served from cache")
+    void testWrongPasswordRejected() throws Exception {
+        statementsForGetUser("secret123", 200);
+
+        statementsForGetUser("wrong", 401);
+        statementsForGetUser("wrong", 401);
+
+        assertEquals(1, authenticationCache.size());
+    }
+
+    @Test
+    @DisplayName("Updating the user should invalidate cached credentials")
+    void testUpdateInvalidates() throws Exception {
+        statementsForGetUser("secret123", 200);
+
+        User updated = userRepository.findById(admin.getId()).orElseThrow();
+        updated.setPassword(passwordEncoder.encode("changed456"));
+        userService.updateUser(admin.getId(), updated);
+
+        assertEquals(0, authenticationCache.size());
+        statementsForGetUser("secret123", 401);
+        statementsForGetUser("changed456", 200);
+    }
+
+    @Test
+    @DisplayName("Deleting the user should invalidate cached credentials")
+    void testDeleteInvalidates() throws Exception {
+        statementsForGetUser("secret123", 200);
+
+        userService.deleteUser(admin.getId());
+
+        statementsForGetUser("secret123", 401);
+    }
+
+    @Test
+    @DisplayName("Cache metrics should be exposed to admins")
+    void testMetricsEndpoint() throws Exception {
+        statementsForGetUser("secret123", 200);
+
+        mockMvc.perform(get("/actuator/metrics/cache.gets")
+                        .param("tag", "cache:" + AuthenticationCache.CACHE_NAME)
+                        .with(httpBasic("admin@example.com", "secret123")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("cache.gets"));
+    }
+}
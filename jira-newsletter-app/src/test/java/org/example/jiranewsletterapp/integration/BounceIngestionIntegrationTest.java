@@ -0,0 +1,149 @@
+package org.example.jiranewsletterapp.integration;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.example.jiranewsletterapp.service.BounceIngestionService;
+import org.example.jiranewsletterapp.service.OutboundMessageQueue;
+import org.example.jiranewsletterapp.service.OutboundQueueWorker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class BounceIngestionIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static final int REPORTS = 1200;
+
+    @Autowired private BounceIngestionService ingestionService;
+    @Autowired private OutboundMessageQueue queue;
+    @Autowired private OutboundQueueWorker worker;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Value("${app.bounces.spool-dir}") private Path spoolDir;
+
+    private long campaignId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileSystemUtils.deleteRecursively(spoolDir);
+        Files.createDirectories(spoolDir);
+        jdbcTemplate.execute("TRUNCATE campaign_link_click, campaign_tracking, dead_letter, outbound_message, scheduled_send, campaign, campaign_subscriber_list, campaign_excluded_list, subscriber_list_entry, subscriber_list, subscriber, user_app");
+        jdbcTemplate.update("INSERT INTO user_app (email, password, gender, role) VALUES ('owner@example.com', 'pass', 'UNKNOWN', 'ADMIN')");
+        jdbcTemplate.update("INSERT INTO subscriber_list (name, owner_id) SELECT 'News', id FROM user_app");
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, gender, join_date)
+                SELECT 'Subscriber' || g || '@example.com', 'UNKNOWN', localtimestamp FROM generate_series(1, ?) g
+                """, REPORTS * 2);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, true, 'SEED', l.id, s.id FROM subscriber s CROSS JOIN subscriber_list l
+                """);
+        campaignId = jdbcTemplate.queryForObject("""
+                INSERT INTO campaign (name, subject, body, status, created_at, started_at)
+                VALUES ('Spring', 'Spring news', 'Hello!', 'SENDING', localtimestamp, localtimestamp)
+                RETURNING id
+                """, Long.class);
+        jdbcTemplate.update("INSERT INTO campaign_subscriber_list (campaign_id, subscriber_list_id) SELECT ?, id FROM subscriber_list", campaignId);
+    }
+
+    private static String bounce(String recipient, String status) {
+        return """
+                Content-Type: multipart/report; report-type=delivery-status; boundary="B"
+
+                --B
+                Content-Type: message/delivery-status
+
+                Reporting-MTA: dns; mx.example.net
+
+                Final-Recipient: rfc822; %s
+                Action: failed
+                Status: %s
+
+                --B--
+                """.formatted(recipient, status);
+    }
+
+    private static String complaint(String recipient) {
+        return """
+                Content-Type: multipart/report; report-type=feedback-report; boundary="F"
+
+                --F
+                Content-Type: message/feedback-report
+
+                Feedback-Type: abuse
+                Original-Rcpt-To: %s
+
+                --F--
+                """.formatted(recipient);
+    }
+
+    private int suppressed(String reason) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM subscriber WHERE suppression_reason = ? AND suppressed_at IS NOT NULL",
+                Integer.class, reason);
+    }
+
+    @Test
+    @DisplayName("Should suppress hard bounces and complaints from the spool directory and delete the reports")
+    void testIngestsSpoolDirectory() throws IOException {
+        for (int i = 1; i <= REPORTS; i++) {
+            String recipient = "subscriber" + i + "@example.com";
+            Files.writeString(spoolDir.resolve("report-" + i + ".eml"),
+                    i % 3 == 0 ? complaint(recipient) : bounce(recipient, "5.1.1"));
+        }
+        Files.writeString(spoolDir.resolve("soft.eml"), bounce("subscriber" + (REPORTS + 1) + "@example.com", "4.2.2"));
+        Files.writeString(spoolDir.resolve("repeat.eml"), bounce("SUBSCRIBER1@example.com", "5.1.1"));
+        Files.writeString(spoolDir.resolve("stranger.eml"), bounce("stranger@example.org", "5.1.1"));
+        Files.writeString(spoolDir.resolve(".incoming.eml"), bounce("subscriber" + (REPORTS + 2) + "@example.com", "5.1.1"));
+
+        assertEquals(REPORTS + 3, ingestionService.ingestPending());
+
+        assertEquals(REPORTS / 3, suppressed("COMPLAINT"));
+        assertEquals(REPORTS - REPORTS / 3, suppressed("HARD_BOUNCE"));
+        try (var remaining = Files.list(spoolDir)) {
+            assertEquals(List.of(spoolDir.resolve(".incoming.eml")), remaining.toList());
+        }
+        assertEquals(0, ingestionService.ingestPending());
+    }
+
+    @Test
+    @DisplayName("Should leave suppressed subscribers out of new sends and fail their queued messages unsent")
+    void testSuppressedSubscribersAreNotMailed() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO outbound_message (campaign_id, subscriber_id, subscriber_list_id, recipient, status, created_at)
+                SELECT ?, s.id, l.id, s.email, 'PENDING', now()
+                FROM subscriber s CROSS JOIN subscriber_list l
+                WHERE s.email = 'Subscriber1@example.com'
+                """, campaignId);
+        Files.writeString(spoolDir.resolve("a.eml"), bounce("subscriber1@example.com", "5.1.1"));
+        Files.writeString(spoolDir.resolve("b.eml"), complaint("subscriber2@example.com"));
+        assertEquals(2, ingestionService.ingestPending());
+
+        assertEquals(REPORTS * 2 - 2, queue.enqueueCampaign(campaignId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbound_message WHERE recipient = 'Subscriber2@example.com'", Integer.class));
+
+        jdbcTemplate.update("UPDATE outbound_message SET status = 'SENT' WHERE recipient <> 'Subscriber1@example.com'");
+        worker.drain();
+        assertEquals("FAILED", jdbcTemplate.queryForObject(
+                "SELECT status FROM outbound_message WHERE recipient = 'Subscriber1@example.com'", String.class));
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT permanent FROM dead_letter WHERE recipient = 'Subscriber1@example.com'", Boolean.class));
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+}
@@ -0,0 +1,290 @@
+package org.example.jiranewsletterapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import org.example.jiranewsletterapp.dto.CampaignRequest;
+import org.example.jiranewsletterapp.entity.*;
+import org.example.jiranewsletterapp.repository.*;
+import org.example.jiranewsletterapp.service.OutboundQueueWorker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class CampaignControllerIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private CampaignRepository campaignRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubscriberRepository subscriberRepository;
+    @Autowired private SubscriberListRepository listRepository;
+    @Autowired private SubscriberListEntryRepository entryRepository;
+    @Autowired private OutboundQueueWorker outboundQueueWorker;
+
+    private SubscriberList newsList;
+    private SubscriberList offersList;
+
+    @BeforeEach
+    void setUp() {
+        campaignRepository.deleteAll();
+        entryRepository.deleteAll();
+        listRepository.deleteAll();
+        userRepository.deleteAll();
+        subscriberRepository.deleteAll();
+
+        User owner = new User();
+        owner.setEmail("owner@example.com");
+        owner.setPassword("pass");
+        owner.setRole(Role.ADMIN);
+        owner = userRepository.save(owner);
+
+        newsList = saveList("News", owner);
+        offersList = saveList("Offers", owner);
+        Subscriber shared = saveSubscriber("shared@example.com");
+        shared.setFirstName("Ala");
+        shared = subscriberRepository.save(shared);
+        addEntry(newsList, shared, true);
+        addEntry(offersList, shared, true);
+        addEntry(newsList, saveSubscriber("news@example.com"), true);
+        addEntry(offersList, saveSubscriber("offers@example.com"), true);
+        addEntry(newsList, saveSubscriber("pending@example.com"), false);
+    }
+
+    private SubscriberList saveList(String name, User owner) {
+        SubscriberList list = new SubscriberList();
+        list.setName(name);
+        list.setOwner(owner);
+        return listRepository.save(list);
+    }
+
+    private Subscriber saveSubscriber(String email) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setEmail(email);
+        return subscriberRepository.save(subscriber);
+    }
+
+    private void addEntry(SubscriberList list, Subscriber subscriber, boolean confirmed) {
+        SubscriberListEntry entry = new SubscriberListEntry();
+        entry.setList(list);
+        entry.setSubscriber(subscriber);
+        entry.setConfirmed(confirmed);
+        entryRepository.save(entry);
+    }
+
+    private long createCampaign(List<Long> listIds) throws Exception {
+        return createCampaign(listIds, "Spring news", "Hello!");
+    }
+
+    private long createCampaign(List<Long> listIds, String subject, String body) throws Exception {
+        return createCampaign(new CampaignRequest("Spring", subject, body, listIds));
+    }
+
+    private long createCampaign(CampaignRequest request) throws Exception {
+        String json = objectMapper.writeValueAsString(request);
+        String response = mockMvc.perform(post("/campaigns").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DRAFT"))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private Campaign drainQueue(long campaignId) {
+        outboundQueueWorker.drain();
+        return campaignRepository.findById(campaignId).orElseThrow();
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should send once to each confirmed subscriber of the campaign lists")
+    void testSendCampaign() throws Exception {
+        long campaignId = createCampaign(List.of(newsList.getId(), offersList.getId()));
+
+        mockMvc.perform(post("/campaigns/" + campaignId + "/send"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("SENDING"));
+
+        Campaign finished = drainQueue(campaignId);
+        assertEquals(CampaignStatus.SENT, finished.getStatus());
+        assertEquals(3, finished.getSentCount());
+        assertEquals(0, finished.getFailedCount());
+        assertNotNull(finished.getFinishedAt());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        Set<String> recipients = Arrays.stream(received)
+                .map(message -> {
+                    try {
+                        return message.getRecipients(Message.RecipientType.TO)[0].toString();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toSet());
+        assertEquals(3, received.length);
+        assertEquals(Set.of("shared@example.com", "news@example.com", "offers@example.com"), recipients);
+        assertEquals("Spring news", received[0].getSubject());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should skip subscribers who are on an excluded list")
+    void testSendCampaignWithExcludedList() throws Exception {
+        long campaignId = createCampaign(new CampaignRequest("Spring", "Spring news", "Hello!",
+                List.of(newsList.getId()), List.of(offersList.getId())));
+
+        mockMvc.perform(post("/campaigns/" + campaignId + "/send")).andExpect(status().isAccepted());
+
+        Campaign finished = drainQueue(campaignId);
+        assertEquals(1, finished.getSentCount());
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("news@example.com", received[0].getRecipients(Message.RecipientType.TO)[0].toString());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should dead-letter an undeliverable address and still deliver the rest")
+    void testUndeliverableRecipientIsDeadLettered() throws Exception {
+        addEntry(newsList, saveSubscriber("broken@@example.com"), true);
+        long campaignId = createCampaign(List.of(newsList.getId()));
+
+        mockMvc.perform(post("/campaigns/" + campaignId + "/send")).andExpect(status().isAccepted());
+
+        Campaign finished = drainQueue(campaignId);
+        assertEquals(CampaignStatus.SENT, finished.getStatus());
+        assertEquals(2, finished.getSentCount());
+        assertEquals(1, finished.getFailedCount());
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        mockMvc.perform(get("/campaigns/" + campaignId + "/dead-letters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].recipient").value("broken@@example.com"))
+                .andExpect(jsonPath("$.items[0].attempts").value(1))
+                .andExpect(jsonPath("$.items[0].permanent").value(true))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should personalize subject and body for each subscriber")
+    void testSendPersonalizedCampaign() throws Exception {
+        long campaignId = createCampaign(List.of(newsList.getId(), offersList.getId()),
+                "{{firstName|Hi}}, spring news", "Hello {{firstName|there}}, you are on {{listName}}.");
+
+        mockMvc.perform(post("/campaigns/" + campaignId + "/send")).andExpect(status().isAccepted());
+        drainQueue(campaignId);
+
+        Map<String, MimeMessage> byRecipient = new HashMap<>();
+        for (MimeMessage message : greenMail.getReceivedMessages()) {
+            byRecipient.put(message.getRecipients(Message.RecipientType.TO)[0].toString(), message);
+        }
+        MimeMessage shared = byRecipient.get("shared@example.com");
+        assertEquals("Ala, spring news", shared.getSubject());
+        assertEquals("Hello Ala, you are on News.", ((String) shared.getContent()).strip());
+        MimeMessage offers = byRecipient.get("offers@example.com");
+        assertEquals("Hi, spring news", offers.getSubject());
+        assertEquals("Hello there, you are on Offers.", ((String) offers.getContent()).strip());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should reject a campaign with an unknown merge field")
+    void testCreateCampaignWithInvalidTemplate() throws Exception {
+        mockMvc.perform(post("/campaigns").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CampaignRequest("a", "b", "Hi {{nickname}}",
+                                List.of(newsList.getId())))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should reject sending a campaign twice")
+    void testSendCampaignTwice() throws Exception {
+        long campaignId = createCampaign(List.of(newsList.getId()));
+
+        mockMvc.perform(post("/campaigns/" + campaignId + "/send")).andExpect(status().isAccepted());
+        drainQueue(campaignId);
+
+        mockMvc.perform(post("/campaigns/" + campaignId + "/send")).andExpect(status().isConflict());
+        assertEquals(2, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should return campaign by ID")
+    void testGetCampaign() throws Exception {
+        long campaignId = createCampaign(List.of(newsList.getId()));
+
+        mockMvc.perform(get("/campaigns/" + campaignId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Spring"))
+                .andExpect(jsonPath("$.sentCount").value(0));
+        mockMvc.perform(get("/campaigns"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(campaignId));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should reject campaign without lists, with unknown list or with a list both targeted and excluded")
+    void testCreateCampaignValidation() throws Exception {
+        mockMvc.perform(post("/campaigns").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CampaignRequest("a", "b", "c", List.of()))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/campaigns").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CampaignRequest("a", "b", "c", List.of(-1L)))))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/campaigns").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CampaignRequest("a", "b", "c",
+                                List.of(newsList.getId()), List.of(-1L)))))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/campaigns").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CampaignRequest("a", "b", "c",
+                                List.of(newsList.getId()), List.of(newsList.getId())))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    @DisplayName("USER: Should be forbidden from campaigns")
+    void testUserForbidden() throws Exception {
+        mockMvc.perform(get("/campaigns")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Deleting a list should detach it from campaigns")
+    void testDeleteListReferencedByCampaign() {
+        Campaign campaign = new Campaign();
+        campaign.setName("n");
+        campaign.setSubject("s");
+        campaign.setBody("b");
+        campaign.getLists().add(newsList);
+        campaign = campaignRepository.save(campaign);
+
+        entryRepository.deleteAll();
+        listRepository.deleteById(newsList.getId());
+
+        assertTrue(campaignRepository.findListIdsById(campaign.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.jiranewsletterapp.integration;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.example.jiranewsletterapp.dto.CampaignRequest;
+import org.example.jiranewsletterapp.entity.Campaign;
+import org.example.jiranewsletterapp.entity.CampaignStatus;
+import org.example.jiranewsletterapp.repository.*;
+import org.example.jiranewsletterapp.service.CampaignDispatchService;
+import org.example.jiranewsletterapp.service.CampaignService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Run with {@code mvn test -Pbenchmark}; excluded from the default build.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false", "app.mail.throttle.default-rate=0",
+        "app.mail.queue.enabled=true", "app.mail.queue.workers=8", "app.mail.queue.batch-size=250",
+        "app.mail.queue.idle-delay=50ms"})
+class CampaignDispatchBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CampaignDispatchBenchmarkTest.class);
+
+    private static final int RECIPIENTS = 20_000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired private CampaignService campaignService;
+    @Autowired private CampaignDispatchService dispatchService;
+    @Autowired private CampaignRepository campaignRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long listId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE campaign_link_click, campaign_tracking, dead_letter, outbound_message, scheduled_send, campaign, campaign_subscriber_list, campaign_excluded_list, subscriber_list_entry, subscriber_list, subscriber, user_app");
+        jdbcTemplate.update("INSERT INTO user_app (email, password, gender, role) VALUES ('owner@example.com', 'pass', 'UNKNOWN', 'ADMIN')");
+        jdbcTemplate.update("INSERT INTO subscriber_list (name, owner_id) SELECT 'Benchmark', id FROM user_app");
+        listId = jdbcTemplate.queryForObject("SELECT id FROM subscriber_list", Long.class);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, gender, join_date)
+                SELECT 'subscriber' || g || '@example.com', 'UNKNOWN', localtimestamp FROM generate_series(1, ?) g
+                """, RECIPIENTS);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, true, 'SEED', ?, id FROM subscriber
+                """, listId);
+    }
+
+    @Test
+    @DisplayName("Benchmark: campaign dispatch to an in-process SMTP server")
+    void benchmarkDispatch() throws InterruptedException {
+        Campaign campaign = campaignService.createCampaign(
+                new CampaignRequest("Benchmark", "Benchmark subject", "Benchmark body", List.of(listId)));
+
+        long start = System.nanoTime();
+        dispatchService.startDispatch(campaign.getId());
+        Campaign finished;
+        do {
+            Thread.sleep(50);
+            finished = campaignRepository.findById(campaign.getId()).orElseThrow();
+        } while (finished.getStatus() == CampaignStatus.SENDING);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("Campaign dispatch: {} messages in {} s, {} messages/min",
+                finished.getSentCount(), Math.round(seconds * 10) / 10.0, Math.round(finished.getSentCount() / seconds * 60));
+        assertEquals(CampaignStatus.SENT, finished.getStatus());
+        assertEquals(RECIPIENTS, finished.getSentCount());
+        assertEquals(RECIPIENTS, greenMail.getReceivedMessages().length);
+    }
+}
@@ -0,0 +1,305 @@
+package org.example.jiranewsletterapp.integration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.jiranewsletterapp.dto.JiraSyncResult;
+import org.example.jiranewsletterapp.dto.JiraSyncResult.Outcome;
+import org.example.jiranewsletterapp.jira.JiraClient;
+import org.example.jiranewsletterapp.service.JiraIssueSyncService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.profiles.active=test", "app.jira.page-size=2"})
+@AutoConfigureMockMvc
+class JiraIssueSyncIntegrationTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2025, 3, 3, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final StubJira jira = new StubJira();
+
+    @DynamicPropertySource
+    static void jiraProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.jira.base-url", jira::baseUrl);
+    }
+
+    @AfterAll
+    static void stopJira() {
+        jira.stop();
+    }
+
+    @Autowired private JiraIssueSyncService syncService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE jira_issue, jira_sync_state");
+        jira.reset();
+        for (int i = 1; i <= 5; i++) {
+            jira.put(new StubIssue(10_000 + i, "NEWS-" + i, "Feature " + i, "In Progress", null, START.plusHours(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should page through the whole project on the first sync")
+    void testInitialSync() {
+        JiraSyncResult result = syncService.sync("NEWS");
+
+        // Each page after the first starts at the newest minute of the one before, so it repeats one issue.
+        assertEquals(Outcome.SYNCED, result.outcome());
+        assertEquals(4, result.requests());
+        assertEquals(5, result.issuesFetched());
+        assertEquals(5, result.issuesChanged());
+        assertEquals(START.plusHours(5).toInstant(), result.watermark().toInstant());
+        assertEquals("project = \"NEWS\" ORDER BY updated ASC", jira.requests.getFirst().jql());
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT count(*) FROM jira_issue", Integer.class));
+        assertEquals("Feature 3", jdbcTemplate.queryForObject(
+                "SELECT summary FROM jira_issue WHERE issue_key = 'NEWS-3'", String.class));
+    }
+
+    @Test
+    @DisplayName("Should fetch only issues changed since the watermark and get 304 when nothing changed")
+    void testIncrementalSync() {
+        syncService.sync("NEWS");
+        OffsetDateTime shipped = START.plusDays(1);
+        jira.put(new StubIssue(10_002, "NEWS-2", "Feature 2", "Done", shipped, shipped));
+        jira.requests.clear();
+
+        JiraSyncResult delta = syncService.sync("NEWS");
+
+        // NEWS-5 is re-fetched because it is the watermark itself; only NEWS-2 is written.
+        assertEquals(Outcome.SYNCED, delta.outcome());
+        assertEquals(2, delta.issuesFetched());
+        assertEquals(1, delta.issuesChanged());
+        assertEquals("project = \"NEWS\" AND updated >= \"2025/03/03 12:59\" ORDER BY updated ASC",
+                jira.requests.getFirst().jql());
+        assertEquals("Done", jdbcTemplate.queryForObject(
+                "SELECT status FROM jira_issue WHERE issue_key = 'NEWS-2'", String.class));
+
+        // The first poll at the new watermark learns its ETag, later ones are answered with 304.
+        JiraSyncResult settled = syncService.sync("NEWS");
+        assertEquals(1, settled.issuesFetched());
+        assertEquals(0, settled.issuesChanged());
+        assertEquals("project = \"NEWS\" AND updated >= \"2025/03/04 07:59\" ORDER BY updated ASC",
+                jira.requests.getLast().jql());
+
+        JiraSyncResult unchanged = syncService.sync("NEWS");
+
+        assertEquals(Outcome.NOT_MODIFIED, unchanged.outcome());
+        assertEquals(304, jira.requests.getLast().status());
+        assertNotNull(jira.requests.getLast().ifNoneMatch());
+        assertEquals(3, jira.requests.size());
+    }
+
+    @Test
+    @DisplayName("Should not rewrite re-fetched issues whose updated timestamp did not change")
+    void testOverlapIsNotRewritten() {
+        syncService.sync("NEWS");
+        jira.put(new StubIssue(10_006, "NEWS-6", "Feature 6", "To Do", null, START.plusHours(5).plusSeconds(30)));
+
+        JiraSyncResult result = syncService.sync("NEWS");
+
+        assertEquals(2, result.issuesFetched());
+        assertEquals(1, result.issuesChanged());
+    }
+
+    @Test
+    @DisplayName("Should not lose issues that slide across a page boundary when an issue is edited mid-sync")
+    void testEditDuringSync() {
+        jira.afterRequest = () -> {
+            jira.afterRequest = null;
+            jira.put(new StubIssue(10_001, "NEWS-1", "Feature 1", "Done", START.plusHours(6), START.plusHours(6)));
+        };
+
+        JiraSyncResult result = syncService.sync("NEWS");
+
+        assertEquals(5, result.issuesFetched());
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT count(*) FROM jira_issue", Integer.class));
+        assertEquals("Done", jdbcTemplate.queryForObject(
+                "SELECT status FROM jira_issue WHERE issue_key = 'NEWS-1'", String.class));
+        assertEquals(START.plusHours(6).toInstant(), result.watermark().toInstant());
+    }
+
+    @Test
+    @DisplayName("Should skip a project whose lease is held by another sync and take it over once it expires")
+    void testLease() {
+        syncService.sync("NEWS");
+        jdbcTemplate.update(
+                "UPDATE jira_sync_state SET lease_owner = 'other', lease_expires_at = now() + INTERVAL '1 hour'");
+        jira.requests.clear();
+
+        assertEquals(Outcome.IN_PROGRESS, syncService.sync("NEWS").outcome());
+        assertTrue(jira.requests.isEmpty());
+
+        jdbcTemplate.update("UPDATE jira_sync_state SET lease_expires_at = now() - INTERVAL '1 second'");
+        assertEquals(Outcome.SYNCED, syncService.sync("NEWS").outcome());
+        assertNull(jdbcTemplate.queryForObject("SELECT lease_owner FROM jira_sync_state", String.class));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should sync on demand and list issues resolved since a date")
+    void testEndpoints() throws Exception {
+        jira.put(new StubIssue(10_001, "NEWS-1", "Feature 1", "Done", START.plusHours(6), START.plusHours(6)));
+
+        mockMvc.perform(post("/jira-issues/sync").param("project", "NEWS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.outcome").value("SYNCED"))
+                .andExpect(jsonPath("$.issuesFetched").value(5));
+        mockMvc.perform(get("/jira-issues/resolved").param("project", "NEWS").param("since", START.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].key").value("NEWS-1"));
+        mockMvc.perform(post("/jira-issues/sync").param("project", "news\" OR project = \"X"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    @DisplayName("USER: Should be forbidden from Jira endpoints")
+    void testUserForbidden() throws Exception {
+        mockMvc.perform(post("/jira-issues/sync").param("project", "NEWS")).andExpect(status().isForbidden());
+    }
+
+    private record StubIssue(long id, String key, String summary, String status, OffsetDateTime resolved,
+                             OffsetDateTime updated) {
+    }
+
+    private record StubRequest(String jql, int startAt, String ifNoneMatch, int status) {
+    }
+
+    /**
+     * Answers the search endpoint like Jira: JQL {@code updated >=} with minute precision, results ordered by
+     * {@code updated}, {@code startAt} paging and an ETag over the returned page.
+     */
+    private static final class StubJira {
+
+        private static final Pattern UPDATED_SINCE = Pattern.compile("updated >= \"([^\"]+)\"");
+        private static final DateTimeFormatter JQL_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
+        private static final DateTimeFormatter JIRA_TIMESTAMP =
+                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+
+        private final HttpServer server;
+        private final Map<Long, StubIssue> issues = Collections.synchronizedMap(new HashMap<>());
+        private final List<StubRequest> requests = new CopyOnWriteArrayList<>();
+        // Runs once a page has been read, before it is sent.
+        private volatile Runnable afterRequest;
+
+        private StubJira() {
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            server.createContext(JiraClient.SEARCH_PATH, this::search);
+            server.start();
+        }
+
+        String baseUrl() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        void put(StubIssue issue) {
+            issues.put(issue.id(), issue);
+        }
+
+        void reset() {
+            issues.clear();
+            requests.clear();
+            afterRequest = null;
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void search(HttpExchange exchange) throws IOException {
+            Map<String, String> query = new HashMap<>();
+            for (String parameter : exchange.getRequestURI().getRawQuery().split("&")) {
+                String[] pair = parameter.split("=", 2);
+                query.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+            }
+            String jql = query.get("jql");
+            int startAt = Integer.parseInt(query.get("startAt"));
+            int maxResults = Integer.parseInt(query.get("maxResults"));
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+
+            Matcher since = UPDATED_SINCE.matcher(jql);
+            OffsetDateTime from = since.find()
+                    ? LocalDateTime.parse(since.group(1), JQL_TIMESTAMP).atOffset(ZoneOffset.UTC)
+                    : OffsetDateTime.MIN;
+            List<StubIssue> matching;
+            synchronized (issues) {
+                matching = issues.values().stream()
+                        .filter(issue -> !issue.updated().isBefore(from))
+                        .sorted(Comparator.comparing(StubIssue::updated).thenComparing(StubIssue::id))
+                        .toList();
+            }
+            List<StubIssue> page = matching.subList(Math.min(startAt, matching.size()),
+                    Math.min(startAt + maxResults, matching.size()));
+
+            StringBuilder json = new StringBuilder("{\"startAt\":" + startAt + ",\"maxResults\":" + maxResults
+                    + ",\"total\":" + matching.size() + ",\"issues\":[");
+            for (int i = 0; i < page.size(); i++) {
+                StubIssue issue = page.get(i);
+                json.append(i == 0 ? "" : ",")
+                        .append("{\"id\":\"").append(issue.id()).append("\",\"key\":\"").append(issue.key())
+                        .append("\",\"fields\":{\"summary\":\"").append(issue.summary())
+                        .append("\",\"issuetype\":{\"name\":\"Story\"},\"status\":{\"name\":\"")
+                        .append(issue.status()).append("\"},\"resolutiondate\":")
+                        .append(issue.resolved() == null ? "null" : "\"" + JIRA_TIMESTAMP.format(issue.resolved()) + "\"")
+                        .append(",\"updated\":\"").append(JIRA_TIMESTAMP.format(issue.updated())).append("\"}}");
+            }
+            byte[] body = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+            Runnable hook = afterRequest;
+            if (hook != null) {
+                hook.run();
+            }
+            String etag = "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(ifNoneMatch)) {
+                requests.add(new StubRequest(jql, startAt, ifNoneMatch, 304));
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            requests.add(new StubRequest(jql, startAt, ifNoneMatch, 200));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.jiranewsletterapp.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("ADMIN: Should expose endpoint and service latency histograms and queue depths to Prometheus")
+    void testPrometheusScrape() throws Exception {
+        mockMvc.perform(get("/subscribers")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint histogram missing");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("newsletter_service_seconds_bucket{")
+                && line.contains("class=\"org.example.jiranewsletterapp.service.SubscriberService\"")
+                && line.contains("method=\"getAllSubscribers\"")), "service histogram missing");
+        assertTrue(scrape.contains("newsletter_outbound_queued{state=\"due\"}"), "queue depth missing");
+        assertTrue(scrape.contains("newsletter_mail_dispatch_in_flight "), "dispatch gauge missing");
+        assertTrue(scrape.contains("newsletter_schedule_waiting "), "schedule gauge missing");
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    @DisplayName("USER: Should be forbidden from the Prometheus endpoint")
+    void testPrometheusForbiddenForUsers() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+    }
+}
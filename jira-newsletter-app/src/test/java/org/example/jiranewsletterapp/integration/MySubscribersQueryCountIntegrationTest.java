@@ -0,0 +1,125 @@
+package org.example.jiranewsletterapp.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.jiranewsletterapp.entity.*;
+import org.example.jiranewsletterapp.repository.*;
+import org.example.jiranewsletterapp.security.UserPrincipal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class MySubscribersQueryCountIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubscriberRepository subscriberRepository;
+    @Autowired private SubscriberListRepository listRepository;
+    @Autowired private SubscriberListEntryRepository entryRepository;
+
+    private User owner;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository.deleteAll();
+        listRepository.deleteAll();
+        userRepository.deleteAll();
+        subscriberRepository.deleteAll();
+
+        owner = new User();
+        owner.setEmail("owner@example.com");
+        owner.setPassword("pass");
+        owner.setRole(Role.USER);
+        owner = userRepository.save(owner);
+
+        User otherOwner = new User();
+        otherOwner.setEmail("other@example.com");
+        otherOwner.setPassword("pass");
+        otherOwner.setRole(Role.USER);
+        otherOwner = userRepository.save(otherOwner);
+        seedLists(otherOwner, 2, 3, "other");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        var principal = new UserPrincipal(owner);
+        var auth = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+
+    private void seedLists(User listOwner, int lists, int entriesPerList, String prefix) {
+        Subscriber shared = new Subscriber();
+        shared.setEmail(prefix + "-shared@example.com");
+        shared = subscriberRepository.save(shared);
+
+        for (int l = 0; l < lists; l++) {
+            SubscriberList list = new SubscriberList();
+            list.setName(prefix + " list " + l);
+            list.setOwner(listOwner);
+            list = listRepository.save(list);
+
+            addEntry(list, shared);
+            for (int e = 0; e < entriesPerList; e++) {
+                Subscriber subscriber = new Subscriber();
+                subscriber.setEmail(prefix + "-" + l + "-" + e + "@example.com");
+                addEntry(list, subscriberRepository.save(subscriber));
+            }
+        }
+    }
+
+    private void addEntry(SubscriberList list, Subscriber subscriber) {
+        SubscriberListEntry entry = new SubscriberListEntry();
+        entry.setList(list);
+        entry.setSubscriber(subscriber);
+        entryRepository.save(entry);
+    }
+
+    private long statementsForMySubscribers(int expectedItems) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/subscribers/my").param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(expectedItems)));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("USER: Should return distinct subscribers of own lists only")
+    void testMySubscribersDistinctAndScoped() throws Exception {
+        seedLists(owner, 3, 2, "mine");
+
+        mockMvc.perform(get("/subscribers/my"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(7)))
+                .andExpect(jsonPath("$.items[*].email", everyItem(startsWith("mine-"))))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("USER: Statement count should not grow with number of lists and entries")
+    void testMySubscribersStatementCountIsConstant() throws Exception {
+        seedLists(owner, 1, 1, "small");
+        long smallCount = statementsForMySubscribers(2);
+
+        seedLists(owner, 20, 10, "large");
+        long largeCount = statementsForMySubscribers(2 + 1 + 20 * 10);
+
+        assertEquals(1, smallCount);
+        assertEquals(smallCount, largeCount);
+    }
+}
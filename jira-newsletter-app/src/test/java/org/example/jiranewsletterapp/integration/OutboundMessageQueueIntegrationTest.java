@@ -0,0 +1,232 @@
+package org.example.jiranewsletterapp.integration;
+
+import org.example.jiranewsletterapp.dto.DeliveryFailure;
+import org.example.jiranewsletterapp.dto.OutboundMessage;
+import org.example.jiranewsletterapp.service.OutboundMessageQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class OutboundMessageQueueIntegrationTest {
+
+    private static final int SUBSCRIBERS = 500;
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Autowired private OutboundMessageQueue queue;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long campaignId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE campaign_link_click, campaign_tracking, dead_letter, outbound_message, scheduled_send, campaign, campaign_subscriber_list, campaign_excluded_list, subscriber_list_entry, subscriber_list, subscriber, user_app");
+        jdbcTemplate.update("INSERT INTO user_app (email, password, gender, role) VALUES ('owner@example.com', 'pass', 'UNKNOWN', 'ADMIN')");
+        jdbcTemplate.update("INSERT INTO subscriber_list (name, owner_id) SELECT name, id FROM user_app, (VALUES ('News'), ('Offers')) l(name)");
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, gender, join_date)
+                SELECT 'subscriber' || g || '@example.com', 'UNKNOWN', localtimestamp FROM generate_series(1, ?) g
+                """, SUBSCRIBERS);
+        // Every subscriber is on both lists; subscribers 1-9 have not confirmed the second one.
+        jdbcTemplate.update("""
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, l.name = 'News' OR s.email NOT LIKE 'subscriber_@example.com', 'SEED', l.id, s.id
+                FROM subscriber s CROSS JOIN subscriber_list l
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, gender, join_date) VALUES ('unconfirmed@example.com', 'UNKNOWN', localtimestamp)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, false, 'SEED', l.id, s.id
+                FROM subscriber s, subscriber_list l WHERE s.email = 'unconfirmed@example.com' AND l.name = 'Offers'
+                """);
+        campaignId = jdbcTemplate.queryForObject("""
+                INSERT INTO campaign (name, subject, body, status, created_at, started_at)
+                VALUES ('Spring', 'Spring news', 'Hello!', 'SENDING', localtimestamp, localtimestamp)
+                RETURNING id
+                """, Long.class);
+        jdbcTemplate.update("INSERT INTO campaign_subscriber_list (campaign_id, subscriber_list_id) SELECT ?, id FROM subscriber_list", campaignId);
+    }
+
+    private Map<String, Object> campaignRow() {
+        return jdbcTemplate.queryForMap("SELECT status, sent_count, failed_count FROM campaign WHERE id = ?", campaignId);
+    }
+
+    @Test
+    @DisplayName("Should enqueue each confirmed subscriber once, however often it is enqueued")
+    void testEnqueueIsIdempotent() {
+        assertEquals(SUBSCRIBERS, queue.enqueueCampaign(campaignId));
+        assertEquals(0, queue.enqueueCampaign(campaignId));
+
+        assertEquals(SUBSCRIBERS, jdbcTemplate.queryForObject(
+                "SELECT count(DISTINCT subscriber_id) FROM outbound_message WHERE status = 'PENDING'", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbound_message WHERE recipient = 'unconfirmed@example.com'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should leave out excluded subscribers and attribute each recipient to its lowest list")
+    void testEnqueueAppliesExclusions() {
+        jdbcTemplate.update("INSERT INTO subscriber_list (name, owner_id) SELECT 'Suppressed', id FROM user_app");
+        // Excluded whether or not the membership is confirmed.
+        jdbcTemplate.update("""
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, s.id % 2 = 0, 'SEED', l.id, s.id
+                FROM subscriber s, subscriber_list l
+                WHERE l.name = 'Suppressed' AND s.email LIKE 'subscriber__@example.com'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO campaign_excluded_list (campaign_id, subscriber_list_id)
+                SELECT ?, id FROM subscriber_list WHERE name = 'Suppressed'
+                """, campaignId);
+
+        assertEquals(SUBSCRIBERS - 90, queue.enqueueCampaign(campaignId));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbound_message WHERE recipient LIKE 'subscriber__@example.com'", Integer.class));
+        assertEquals(List.of("News"), jdbcTemplate.queryForList("""
+                SELECT DISTINCT l.name FROM outbound_message m JOIN subscriber_list l ON l.id = m.subscriber_list_id
+                """, String.class));
+    }
+
+    @Test
+    @DisplayName("Should never hand the same message to two concurrent claimers")
+    void testConcurrentClaimsDoNotOverlap() throws Exception {
+        queue.enqueueCampaign(campaignId);
+        Set<Long> claimedIds = ConcurrentHashMap.newKeySet();
+        List<Long> duplicates = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService nodes = Executors.newFixedThreadPool(4)) {
+            List<Future<Integer>> claimedPerNode = new ArrayList<>();
+            for (int node = 0; node < 4; node++) {
+                String owner = "node-" + node;
+                claimedPerNode.add(nodes.submit(() -> {
+                    int claimed = 0;
+                    List<OutboundMessage> batch;
+                    while (!(batch = queue.claim(owner, 20, LEASE)).isEmpty()) {
+                        for (OutboundMessage message : batch) {
+                            if (!claimedIds.add(message.id())) {
+                                duplicates.add(message.id());
+                            }
+                        }
+                        claimed += batch.size();
+                        queue.complete(owner, batch, List.of());
+                    }
+                    return claimed;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> claimed : claimedPerNode) {
+                total += claimed.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(SUBSCRIBERS, total);
+        }
+
+        assertTrue(duplicates.isEmpty(), "claimed twice: " + duplicates);
+        assertEquals(SUBSCRIBERS, claimedIds.size());
+        assertEquals("SENT", campaignRow().get("status"));
+        assertEquals((long) SUBSCRIBERS, campaignRow().get("sent_count"));
+    }
+
+    @Test
+    @DisplayName("Should let another node re-claim a batch whose lease expired and ignore the old owner")
+    void testExpiredLeaseIsReclaimed() throws InterruptedException {
+        queue.enqueueCampaign(campaignId);
+        List<OutboundMessage> crashed = queue.claim("crashed-node", 10, Duration.ofMillis(200));
+        assertTrue(queue.claim("other-node", 10, LEASE).stream().noneMatch(crashed::contains));
+
+        Thread.sleep(300);
+        List<OutboundMessage> reclaimed = queue.claim("rescue-node", 10, LEASE);
+
+        assertEquals(crashed.stream().map(OutboundMessage::id).toList(),
+                reclaimed.stream().map(OutboundMessage::id).toList());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT attempts FROM outbound_message WHERE id = ?", Integer.class, reclaimed.getFirst().id()));
+
+        queue.complete("crashed-node", crashed, List.of());
+        assertEquals(0L, campaignRow().get("sent_count"));
+        queue.complete("rescue-node", reclaimed, List.of());
+        assertEquals(10L, campaignRow().get("sent_count"));
+    }
+
+    @Test
+    @DisplayName("Should record failures and finish the campaign once nothing is pending")
+    void testFailuresFinishCampaign() {
+        queue.enqueueCampaign(campaignId);
+        List<OutboundMessage> batch = queue.claim("node", SUBSCRIBERS, LEASE);
+        OutboundMessage rejected = batch.getFirst();
+
+        queue.complete("node", batch.subList(1, batch.size()),
+                List.of(new DeliveryFailure(rejected, "550 mailbox unavailable", true)));
+
+        assertEquals("SENT", campaignRow().get("status"));
+        assertEquals((long) SUBSCRIBERS - 1, campaignRow().get("sent_count"));
+        assertEquals(1L, campaignRow().get("failed_count"));
+        assertEquals("550 mailbox unavailable", jdbcTemplate.queryForObject(
+                "SELECT last_error FROM outbound_message WHERE id = ?", String.class, rejected.id()));
+        assertTrue(queue.claim("node", SUBSCRIBERS, LEASE).isEmpty());
+        assertEquals(Map.of("recipient", rejected.recipient(), "attempts", 1, "permanent", true),
+                jdbcTemplate.queryForMap("SELECT recipient, attempts, permanent FROM dead_letter WHERE outbound_message_id = ?",
+                        rejected.id()));
+    }
+
+    @Test
+    @DisplayName("Should hold back a transient failure until its retry is due and keep the campaign sending")
+    void testTransientFailureIsRetriedLater() {
+        queue.enqueueCampaign(campaignId);
+        List<OutboundMessage> batch = queue.claim("node", SUBSCRIBERS, LEASE);
+        OutboundMessage deferred = batch.getFirst();
+
+        queue.complete("node", batch.subList(1, batch.size()),
+                List.of(new DeliveryFailure(deferred, "421 try again later", false)));
+
+        assertEquals("SENDING", campaignRow().get("status"));
+        assertEquals(0L, campaignRow().get("failed_count"));
+        assertTrue(queue.claim("node", SUBSCRIBERS, LEASE).isEmpty());
+        // Base delay 30s with equal jitter: the first retry is due 15-30s out.
+        Double delaySeconds = jdbcTemplate.queryForObject(
+                "SELECT extract(epoch FROM next_attempt_at - now()) FROM outbound_message WHERE id = ?",
+                Double.class, deferred.id());
+        assertTrue(delaySeconds > 14 && delaySeconds <= 30, "retry due in " + delaySeconds + "s");
+
+        jdbcTemplate.update("UPDATE outbound_message SET next_attempt_at = now() WHERE id = ?", deferred.id());
+        List<OutboundMessage> retried = queue.claim("node", SUBSCRIBERS, LEASE);
+        assertEquals(List.of(deferred.id()), retried.stream().map(OutboundMessage::id).toList());
+        assertEquals(2, retried.getFirst().attempts());
+
+        queue.complete("node", retried, List.of());
+        assertEquals("SENT", campaignRow().get("status"));
+        assertEquals((long) SUBSCRIBERS, campaignRow().get("sent_count"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM dead_letter", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should dead-letter a message once its transient failures use up every attempt")
+    void testExhaustedRetriesAreDeadLettered() {
+        queue.enqueueCampaign(campaignId);
+        queue.complete("node", queue.claim("node", SUBSCRIBERS - 1, LEASE), List.of());
+        List<OutboundMessage> last;
+        int attempts = 0;
+        while (!(last = queue.claim("node", 1, LEASE)).isEmpty()) {
+            attempts = last.getFirst().attempts();
+            queue.complete("node", List.of(), List.of(new DeliveryFailure(last.getFirst(), "451 greylisted", false)));
+            jdbcTemplate.update("UPDATE outbound_message SET next_attempt_at = now() WHERE next_attempt_at IS NOT NULL");
+        }
+
+        assertEquals(5, attempts);
+        assertEquals("SENT", campaignRow().get("status"));
+        assertEquals(1L, campaignRow().get("failed_count"));
+        assertEquals(Map.of("attempts", 5, "last_error", "451 greylisted", "permanent", false),
+                jdbcTemplate.queryForMap("SELECT attempts, last_error, permanent FROM dead_letter"));
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.jiranewsletterapp.integration;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.example.jiranewsletterapp.service.OutboundQueueWorker;
+import org.example.jiranewsletterapp.service.PublicSignupService;
+import org.example.jiranewsletterapp.service.SubscriberListMembershipIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class PublicSignupIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PublicSignupService signupService;
+    @Autowired private SubscriberListMembershipIndex membershipIndex;
+    @Autowired private OutboundQueueWorker outboundWorker;
+
+    private long listId;
+
+    @BeforeEach
+    void setUp() {
+        signupService.flush();
+        jdbcTemplate.execute("TRUNCATE subscriber_list_entry, subscriber_list, subscriber, user_app CASCADE");
+        jdbcTemplate.update("INSERT INTO user_app (email, password, gender, role) VALUES ('owner@example.com', 'pass', 'UNKNOWN', 'ADMIN')");
+        listId = jdbcTemplate.queryForObject(
+                "INSERT INTO subscriber_list (name, owner_id, public_signup) SELECT 'News', id, true FROM user_app RETURNING id",
+                Long.class);
+        membershipIndex.rebuild();
+    }
+
+    private void signup(String json) throws Exception {
+        mockMvc.perform(post("/public/subscriptions").with(anonymous())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    @DisplayName("Should upsert a burst of signups by email in one flush and mail each new entry once")
+    void testSignupsAreUpsertedInBatches() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, first_name, gender, join_date)
+                VALUES ('Existing@example.com', 'Old', 'UNKNOWN', localtimestamp)
+                """);
+        for (int i = 1; i <= 100; i++) {
+            signup("{\"email\":\"signup" + i + "@example.com\",\"listId\":" + listId + "}");
+        }
+        signup("{\"email\":\"signup1@example.com\",\"listId\":" + listId + "}");
+        signup("{\"email\":\"existing@EXAMPLE.com\",\"firstName\":\"New\",\"listId\":" + listId + ",\"source\":\"landing-page\"}");
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM subscriber_list_entry", Integer.class));
+        assertEquals(101, signupService.flush());
+
+        assertEquals(101, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM subscriber_list_entry WHERE subscriber_list_id = ? AND NOT confirmed", Integer.class, listId));
+        assertEquals(101, jdbcTemplate.queryForObject("SELECT count(*) FROM subscriber", Integer.class));
+        Map<String, Object> existing = jdbcTemplate.queryForMap("""
+                SELECT s.email, s.first_name, e.source
+                FROM subscriber s JOIN subscriber_list_entry e ON e.subscriber_id = s.id
+                WHERE lower(s.email) = 'existing@example.com'
+                """);
+        // The public form must not change an existing subscriber's name.
+        assertEquals(Map.of("email", "Existing@example.com", "first_name", "Old", "source", "landing-page"), existing);
+        assertEquals(101, membershipIndex.cardinality(listId));
+        assertEquals(101, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbound_message WHERE campaign_id IS NULL", Integer.class));
+        outboundWorker.drain();
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 101));
+
+        // Signing up again changes nothing and mails nobody.
+        signup("{\"email\":\"signup2@example.com\",\"listId\":" + listId + "}");
+        assertEquals(1, signupService.flush());
+        assertEquals(101, jdbcTemplate.queryForObject("SELECT count(*) FROM subscriber_list_entry", Integer.class));
+        assertEquals(101, jdbcTemplate.queryForObject("SELECT count(*) FROM outbound_message", Integer.class));
+        assertEquals("SIGNUP", jdbcTemplate.queryForObject("""
+                SELECT e.source FROM subscriber_list_entry e JOIN subscriber s ON s.id = e.subscriber_id
+                WHERE s.email = 'signup2@example.com'
+                """, String.class));
+    }
+
+    @Test
+    @DisplayName("Should not mail a confirmation to a suppressed address signing up again")
+    void testSuppressedSignupIsNotMailed() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, gender, join_date, suppressed_at, suppression_reason)
+                VALUES ('bounced@example.com', 'UNKNOWN', localtimestamp, now(), 'HARD_BOUNCE')
+                """);
+
+        signup("{\"email\":\"bounced@example.com\",\"listId\":" + listId + "}");
+        signup("{\"email\":\"fresh@example.com\",\"listId\":" + listId + "}");
+        assertEquals(2, signupService.flush());
+
+        assertEquals(List.of("fresh@example.com"),
+                jdbcTemplate.queryForList("SELECT recipient FROM outbound_message", String.class));
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for a missing list or one that does not take public signups")
+    void testRejectsListWithoutPublicSignup() throws Exception {
+        long privateListId = jdbcTemplate.queryForObject(
+                "INSERT INTO subscriber_list (name, owner_id) SELECT 'Internal', id FROM user_app RETURNING id", Long.class);
+        for (long id : new long[]{privateListId, privateListId + 1000}) {
+            mockMvc.perform(post("/public/subscriptions").with(anonymous())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"lost@example.com\",\"listId\":" + id + "}"))
+                    .andExpect(status().isNotFound());
+        }
+        assertEquals(0, signupService.flush());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM subscriber", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid signup without buffering it")
+    void testRejectsInvalidSignup() throws Exception {
+        mockMvc.perform(post("/public/subscriptions").with(anonymous())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"nope\",\"listId\":" + listId + "}"))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, signupService.flush());
+    }
+}
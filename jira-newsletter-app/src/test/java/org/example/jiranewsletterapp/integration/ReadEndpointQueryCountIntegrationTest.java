@@ -0,0 +1,125 @@
+package org.example.jiranewsletterapp.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.jiranewsletterapp.entity.*;
+import org.example.jiranewsletterapp.repository.*;
+import org.example.jiranewsletterapp.security.UserPrincipal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class ReadEndpointQueryCountIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubscriberRepository subscriberRepository;
+    @Autowired private SubscriberListRepository listRepository;
+    @Autowired private SubscriberListEntryRepository entryRepository;
+
+    private User admin;
+    private SubscriberList list;
+    private Subscriber subscriber;
+    private SubscriberListEntry entry;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository.deleteAll();
+        listRepository.deleteAll();
+        userRepository.deleteAll();
+        subscriberRepository.deleteAll();
+
+        admin = new User();
+        admin.setEmail("admin@example.com");
+        admin.setPassword("pass");
+        admin.setRole(Role.ADMIN);
+        admin = userRepository.save(admin);
+
+        for (int l = 0; l < 5; l++) {
+            list = new SubscriberList();
+            list.setName("List " + l);
+            list.setOwner(admin);
+            list = listRepository.save(list);
+
+            for (int e = 0; e < 5; e++) {
+                subscriber = new Subscriber();
+                subscriber.setEmail("sub-" + l + "-" + e + "@example.com");
+                subscriber = subscriberRepository.save(subscriber);
+
+                entry = new SubscriberListEntry();
+                entry.setList(list);
+                entry.setSubscriber(subscriber);
+                entry = entryRepository.save(entry);
+            }
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        var principal = new UserPrincipal(admin);
+        var auth = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+
+    private long statementsFor(String url) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("ADMIN: Every read endpoint should run exactly one statement")
+    void testReadEndpointsRunSingleStatement() throws Exception {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String url : new String[] {
+                "/users", "/users/" + admin.getId(),
+                "/subscribers", "/subscribers/" + subscriber.getId(), "/subscribers/my",
+                "/subscriber-lists", "/subscriber-lists/" + list.getId(),
+                "/subscriber-lists/my", "/subscriber-lists/my/" + list.getId(),
+                "/subscriber-entries", "/subscriber-entries/" + entry.getId(), "/subscriber-entries/my"}) {
+            counts.put(url, statementsFor(url));
+        }
+
+        assertTrue(counts.values().stream().allMatch(count -> count == 1), counts.toString());
+    }
+
+    @Test
+    @DisplayName("ADMIN: Responses should not expose passwords or nested collections")
+    void testResponsesAreFlat() throws Exception {
+        mockMvc.perform(get("/users/" + admin.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("admin@example.com"))
+                .andExpect(jsonPath("$.password").doesNotExist())
+                .andExpect(jsonPath("$.subscriberLists").doesNotExist());
+
+        mockMvc.perform(get("/subscriber-lists/" + list.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ownerId").value(admin.getId()))
+                .andExpect(jsonPath("$.entries").doesNotExist())
+                .andExpect(jsonPath("$.owner").doesNotExist());
+
+        mockMvc.perform(get("/subscriber-entries/" + entry.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.listId").value(list.getId()))
+                .andExpect(jsonPath("$.subscriber.email").value(subscriber.getEmail()))
+                .andExpect(jsonPath("$.subscriber.entries").doesNotExist());
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.jiranewsletterapp.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.jiranewsletterapp.repository.*;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every captured repository statement through {@code EXPLAIN} on a seeded database and fails when the
+ * generic plan sequentially scans one of the large tables. Full scans by design (membership index rebuild,
+ * {@code findAll}, {@code count}) are not listed here.
+ */
+@SpringBootTest(properties = "spring.profiles.active=test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanIntegrationTest {
+
+    private static final Set<String> LARGE_TABLES = Set.of("subscriber", "subscriber_list", "subscriber_list_entry");
+
+    private static final int OWNERS = 100;
+    private static final int LISTS_PER_OWNER = 20;
+    private static final int SUBSCRIBERS = 100_000;
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(StatementCapture capture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, capture);
+        }
+    }
+
+    static class StatementCapture implements StatementInspector {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+        private volatile boolean enabled;
+
+        @Override
+        public String inspect(String sql) {
+            if (enabled) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired private StatementCapture capture;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubscriberRepository subscriberRepository;
+    @Autowired private SubscriberListRepository listRepository;
+    @Autowired private SubscriberListEntryRepository entryRepository;
+
+    private long ownerId;
+    private long listId;
+    private long subscriberId;
+
+    @BeforeAll
+    void seed() {
+        truncate();
+        jdbcTemplate.update("""
+                INSERT INTO user_app (email, password, gender, role)
+                SELECT 'owner' || g || '@example.com', 'pass', 'UNKNOWN', 'USER' FROM generate_series(1, ?) g
+                """, OWNERS);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber_list (name, owner_id)
+                SELECT 'List ' || g, u.id FROM user_app u, generate_series(1, ?) g
+                """, LISTS_PER_OWNER);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, first_name, gender, join_date)
+                SELECT 'subscriber' || g || '@example.com', 'Name ' || g, 'UNKNOWN', localtimestamp
+                FROM generate_series(1, ?) g
+                """, SUBSCRIBERS);
+        jdbcTemplate.update("""
+                WITH lists AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM subscriber_list),
+                     subscribers AS (SELECT id, row_number() OVER (ORDER BY id) AS n FROM subscriber)
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, true, 'SEED', l.id, s.id
+                FROM subscribers s
+                         CROSS JOIN (VALUES (1), (7)) k(factor)
+                         JOIN lists l ON l.n = (s.n * k.factor + k.factor / 2) % ?
+                """, OWNERS * LISTS_PER_OWNER);
+        jdbcTemplate.execute("VACUUM ANALYZE");
+
+        ownerId = jdbcTemplate.queryForObject("SELECT min(id) FROM user_app", Long.class);
+        listId = jdbcTemplate.queryForObject("SELECT min(id) FROM subscriber_list WHERE owner_id = ?", Long.class, ownerId);
+        subscriberId = jdbcTemplate.queryForObject(
+                "SELECT min(subscriber_id) FROM subscriber_list_entry WHERE subscriber_list_id = ?", Long.class, listId);
+    }
+
+    @AfterAll
+    void truncate() {
+        jdbcTemplate.execute("TRUNCATE dead_letter, outbound_message, scheduled_send, campaign_subscriber_list, campaign_excluded_list, subscriber_list_entry, subscriber_list, subscriber, user_app");
+    }
+
+    private void assertNoSequentialScans(Runnable repositoryCall) {
+        capture.statements.clear();
+        capture.enabled = true;
+        try {
+            transactionTemplate.executeWithoutResult(status -> repositoryCall.run());
+        } finally {
+            capture.enabled = false;
+        }
+        assertFalse(capture.statements.isEmpty(), "no statements captured");
+
+        List<String> failures = new ArrayList<>();
+        for (String sql : capture.statements) {
+            JsonNode plan = explainGenericPlan(sql);
+            List<String> scanned = new ArrayList<>();
+            collectSequentialScans(plan, scanned);
+            if (!scanned.isEmpty()) {
+                failures.add("Seq Scan on " + scanned + " for: " + sql + "\n" + plan.toPrettyString());
+            }
+        }
+        assertTrue(failures.isEmpty(), String.join("\n\n", failures));
+    }
+
+    // Plans the statement with placeholders left unbound, like the cached plan a long-lived prepared statement gets.
+    private JsonNode explainGenericPlan(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String preparedSql = numbered.toString();
+        String execute = "EXECUTE plan_check"
+                + (parameters == 0 ? "" : "(" + String.join(",", Collections.nCopies(parameters, "NULL")) + ")");
+
+        return jdbcTemplate.execute((ConnectionCallback<JsonNode>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE plan_check AS " + preparedSql);
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (FORMAT JSON) " + execute)) {
+                    rs.next();
+                    return objectMapper.readTree(rs.getString(1));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    statement.execute("DEALLOCATE plan_check");
+                    statement.execute("RESET plan_cache_mode");
+                }
+            }
+        });
+    }
+
+    private static void collectSequentialScans(JsonNode node, List<String> scanned) {
+        if (node.isArray()) {
+            node.forEach(child -> collectSequentialScans(child, scanned));
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && LARGE_TABLES.contains(node.path("Relation Name").asText())) {
+            scanned.add(node.path("Relation Name").asText());
+        }
+        node.forEach(child -> collectSequentialScans(child, scanned));
+    }
+
+    @Test
+    @DisplayName("SubscriberRepository.findByEmail uses the lower(email) index")
+    void testSubscriberFindByEmail() {
+        assertNoSequentialScans(() -> assertTrue(subscriberRepository.findByEmail("Subscriber500@Example.com").isPresent()));
+    }
+
+    @Test
+    @DisplayName("SubscriberRepository.findById")
+    void testSubscriberFindById() {
+        assertNoSequentialScans(() -> subscriberRepository.findById(subscriberId));
+    }
+
+    @Test
+    @DisplayName("SubscriberRepository.findByIdGreaterThanOrderByIdAsc")
+    void testSubscriberKeysetPage() {
+        assertNoSequentialScans(() -> subscriberRepository.findByIdGreaterThanOrderByIdAsc(subscriberId, Limit.of(51)));
+    }
+
+    @Test
+    @DisplayName("SubscriberRepository.findByOwnerIdAndIdGreaterThan")
+    void testSubscriberFindByOwner() {
+        assertNoSequentialScans(() -> subscriberRepository.findByOwnerIdAndIdGreaterThan(ownerId, 0L, Limit.of(51)));
+    }
+
+    @Test
+    @DisplayName("SubscriberListRepository.findByIdGreaterThanOrderByIdAsc")
+    void testListKeysetPage() {
+        assertNoSequentialScans(() -> listRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51)));
+    }
+
+    @Test
+    @DisplayName("SubscriberListRepository.findByIdAndOwnerId")
+    void testListFindByIdAndOwner() {
+        assertNoSequentialScans(() -> listRepository.findByIdAndOwnerId(listId, ownerId));
+    }
+
+    @Test
+    @DisplayName("SubscriberListRepository.findResponsesByOwnerId")
+    void testListResponsesByOwner() {
+        assertNoSequentialScans(() -> listRepository.findResponsesByOwnerId(ownerId));
+    }
+
+    @Test
+    @DisplayName("SubscriberListRepository.findResponseByIdAndOwnerId")
+    void testListResponseByIdAndOwner() {
+        assertNoSequentialScans(() -> listRepository.findResponseByIdAndOwnerId(listId, ownerId));
+    }
+
+    @Test
+    @DisplayName("findResponseById on every repository")
+    void testFindResponseById() {
+        assertNoSequentialScans(() -> {
+            userRepository.findResponseById(ownerId);
+            subscriberRepository.findResponseById(subscriberId);
+            listRepository.findResponseById(listId);
+            entryRepository.findResponseById(subscriberId);
+        });
+    }
+
+    @Test
+    @DisplayName("SubscriberListEntryRepository.findResponsesByListOwnerId")
+    void testEntryResponsesByListOwner() {
+        assertNoSequentialScans(() -> entryRepository.findResponsesByListOwnerId(ownerId));
+    }
+
+    @Test
+    @DisplayName("SubscriberListEntryRepository.findByIdGreaterThanOrderByIdAsc")
+    void testEntryKeysetPage() {
+        assertNoSequentialScans(() -> entryRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51)));
+    }
+
+    @Test
+    @DisplayName("SubscriberListEntryRepository.existsBySubscriberIdAndListOwnerId")
+    void testEntryExistsBySubscriberAndOwner() {
+        assertNoSequentialScans(() -> entryRepository.existsBySubscriberIdAndListOwnerId(subscriberId, ownerId));
+    }
+
+    @Test
+    @DisplayName("SubscriberListEntryRepository.existsByListIdAndSubscriberId")
+    void testEntryExistsByListAndSubscriber() {
+        assertNoSequentialScans(() -> entryRepository.existsByListIdAndSubscriberId(listId, subscriberId));
+    }
+
+    @Test
+    @DisplayName("SubscriberListEntryRepository.findSubscriberIdsByListId")
+    void testEntrySubscriberIdsByList() {
+        assertNoSequentialScans(() -> entryRepository.findSubscriberIdsByListId(listId));
+    }
+
+    @Test
+    @DisplayName("SubscriberListEntryRepository.streamMembersByListId")
+    void testEntryStreamMembersByList() {
+        assertNoSequentialScans(() -> {
+            try (var members = entryRepository.streamMembersByListId(listId)) {
+                members.forEach(member -> { });
+            }
+        });
+    }
+}
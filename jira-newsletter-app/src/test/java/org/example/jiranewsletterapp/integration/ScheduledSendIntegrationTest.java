@@ -0,0 +1,141 @@
+package org.example.jiranewsletterapp.integration;
+
+import org.example.jiranewsletterapp.dto.OutboundMessage;
+import org.example.jiranewsletterapp.dto.ScheduleRequest;
+import org.example.jiranewsletterapp.service.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.*;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+class ScheduledSendIntegrationTest {
+
+    private static final Instant MORNING = Instant.parse("2030-06-03T08:00:00Z");
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 6, 3, 9, 0);
+
+    @Autowired private CampaignDispatchService dispatchService;
+    @Autowired private ScheduledSendStore store;
+    @Autowired private OutboundMessageQueue queue;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long campaignId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE campaign_link_click, campaign_tracking, dead_letter, outbound_message, scheduled_send, campaign, campaign_subscriber_list, campaign_excluded_list, subscriber_list_entry, subscriber_list, subscriber, user_app");
+        jdbcTemplate.update("INSERT INTO user_app (email, password, gender, role) VALUES ('owner@example.com', 'pass', 'UNKNOWN', 'ADMIN')");
+        jdbcTemplate.update("INSERT INTO subscriber_list (name, owner_id) SELECT 'News', id FROM user_app");
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, gender, join_date, time_zone)
+                VALUES ('tokyo@example.com', 'UNKNOWN', localtimestamp, 'Asia/Tokyo'),
+                       ('newyork@example.com', 'UNKNOWN', localtimestamp, 'America/New_York'),
+                       ('nowhere@example.com', 'UNKNOWN', localtimestamp, NULL)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, true, 'SEED', l.id, s.id FROM subscriber s CROSS JOIN subscriber_list l
+                """);
+        campaignId = jdbcTemplate.queryForObject("""
+                INSERT INTO campaign (name, subject, body, status, created_at)
+                VALUES ('Spring', 'Spring news', 'Hello!', 'DRAFT', localtimestamp)
+                RETURNING id
+                """, Long.class);
+        jdbcTemplate.update("INSERT INTO campaign_subscriber_list (campaign_id, subscriber_list_id) SELECT ?, id FROM subscriber_list", campaignId);
+    }
+
+    private ScheduledSendScheduler newScheduler() {
+        return new ScheduledSendScheduler(store, false, Duration.ofSeconds(1), Duration.ofHours(1),
+                Duration.ofMinutes(1), 1000);
+    }
+
+    private Map<String, Instant> sendTimes() {
+        return jdbcTemplate.query("SELECT s.email, d.send_at FROM scheduled_send d JOIN subscriber s ON s.id = d.subscriber_id",
+                        (rs, rowNum) -> Map.entry(rs.getString(1), rs.getObject(2, OffsetDateTime.class).toInstant()))
+                .stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private String campaignStatus() {
+        return jdbcTemplate.queryForObject("SELECT status FROM campaign WHERE id = ?", String.class, campaignId);
+    }
+
+    @Test
+    @DisplayName("Should schedule each recipient at the same local time in their own time zone")
+    void testScheduleAtSubscriberLocalTime() {
+        dispatchService.scheduleDispatch(campaignId, new ScheduleRequest(NINE, true));
+
+        assertEquals("SCHEDULED", campaignStatus());
+        assertEquals(Map.of(
+                "tokyo@example.com", Instant.parse("2030-06-03T00:00:00Z"),
+                "newyork@example.com", Instant.parse("2030-06-03T13:00:00Z"),
+                "nowhere@example.com", Instant.parse("2030-06-03T09:00:00Z")), sendTimes());
+    }
+
+    @Test
+    @DisplayName("Should release sends when the wheel reaches them and finish the campaign once sent")
+    void testReleaseWhenDue() {
+        dispatchService.scheduleDispatch(campaignId, new ScheduleRequest(NINE, false));
+        ScheduledSendScheduler scheduler = newScheduler();
+
+        // The first window ends at 09:00; the next one is loaded half-way through.
+        assertEquals(0, scheduler.tick(MORNING));
+        assertEquals(0, scheduler.tick(MORNING.plus(Duration.ofMinutes(30))));
+        assertEquals(0, scheduler.tick(MORNING.plus(Duration.ofMinutes(59))));
+        assertEquals("SCHEDULED", campaignStatus());
+
+        assertEquals(3, scheduler.tick(MORNING.plus(Duration.ofHours(1))));
+
+        assertEquals("SENDING", campaignStatus());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM scheduled_send", Integer.class));
+        List<OutboundMessage> batch = queue.claim("node", 10, Duration.ofMinutes(5));
+        assertEquals(3, batch.size());
+        queue.complete("node", batch, List.of());
+        assertEquals("SENT", campaignStatus());
+    }
+
+    @Test
+    @DisplayName("Should restore the schedule after a restart and release overdue sends once")
+    void testRestoreAfterRestart() {
+        dispatchService.scheduleDispatch(campaignId, new ScheduleRequest(NINE, false));
+        ScheduledSendScheduler crashed = newScheduler();
+        crashed.tick(MORNING.plus(Duration.ofMinutes(30)));
+
+        ScheduledSendScheduler restarted = newScheduler();
+        assertEquals(3, restarted.tick(MORNING.plus(Duration.ofMinutes(75))));
+        assertEquals(0, crashed.tick(MORNING.plus(Duration.ofMinutes(76))));
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM outbound_message", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should pick up sends scheduled into a window that is already loaded")
+    void testLateArrivals() {
+        ScheduledSendScheduler scheduler = newScheduler();
+        scheduler.tick(MORNING);
+        dispatchService.scheduleDispatch(campaignId, new ScheduleRequest(NINE.minusMinutes(40), false));
+
+        assertEquals(0, scheduler.tick(MORNING.plus(Duration.ofMinutes(20))));
+        scheduler.onCampaignScheduled(new CampaignScheduledEvent(campaignId));
+        assertEquals(3, scheduler.tick(MORNING.plus(Duration.ofMinutes(20)).plusSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("Should sweep up overdue sends that no node had loaded")
+    void testSweepOverdue() {
+        ScheduledSendScheduler scheduler = newScheduler();
+        scheduler.tick(MORNING);
+        dispatchService.scheduleDispatch(campaignId, new ScheduleRequest(NINE.minusMinutes(40), false));
+
+        assertEquals(0, scheduler.tick(MORNING.plus(Duration.ofMinutes(21))));
+        assertEquals(3, scheduler.tick(MORNING.plus(Duration.ofMinutes(22))));
+    }
+}
@@ -1,9 +1,12 @@
 package org.example.jiranewsletterapp.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
 import org.example.jiranewsletterapp.entity.Gender;
 import org.example.jiranewsletterapp.entity.Subscriber;
 import org.example.jiranewsletterapp.repository.SubscriberRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +17,8 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
@@ -34,6 +39,9 @@ class SubscriberControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Subscriber testSubscriber;
 
     @BeforeEach
@@ -55,8 +63,43 @@ class SubscriberControllerIntegrationTest {
     void testGetAllSubscribers() throws Exception {
         mockMvc.perform(get("/subscribers"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].email").value("subscriber@example.com"));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].email").value("subscriber@example.com"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("Should page through subscribers with cursor")
+    void testGetAllSubscribersPaged() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            Subscriber subscriber = new Subscriber();
+            subscriber.setEmail("paged" + i + "@example.com");
+            subscriberRepository.save(subscriber);
+        }
+
+        String firstPage = mockMvc.perform(get("/subscribers").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].email").value("subscriber@example.com"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        String lastPage = mockMvc.perform(get("/subscribers").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].email").value("paged1@example.com"))
+                .andReturn().getResponse().getContentAsString();
+        assertFalse(objectMapper.readTree(lastPage).has("nextCursor"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("Should reject invalid cursor")
+    void testGetAllSubscribersInvalidCursor() throws Exception {
+        mockMvc.perform(get("/subscribers").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -87,6 +130,62 @@ class SubscriberControllerIntegrationTest {
         assertTrue(subscriberRepository.findByEmail("newsub@example.com").isPresent());
     }
 
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("Should create subscribers in batches instead of one statement per row")
+    void testCreateSubscriberBatch() throws Exception {
+        List<Subscriber> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Subscriber subscriber = new Subscriber();
+            subscriber.setEmail("batch" + i + "@example.com");
+            batch.add(subscriber);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/subscribers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(120)))
+                .andExpect(jsonPath("$[0].id").isNumber());
+
+        assertEquals(121, subscriberRepository.count());
+        assertTrue(statistics.getPrepareStatementCount() < 10);
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("Should reject an email that differs from an existing one only by case")
+    void testCreateDuplicateEmailConflict() throws Exception {
+        Subscriber duplicate = new Subscriber();
+        duplicate.setEmail("Subscriber@Example.com");
+
+        mockMvc.perform(post("/subscribers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isConflict());
+
+        Subscriber fresh = new Subscriber();
+        fresh.setEmail("fresh@example.com");
+        mockMvc.perform(post("/subscribers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(fresh, duplicate))))
+                .andExpect(status().isConflict());
+
+        assertEquals(1, subscriberRepository.count());
+
+        Subscriber other = new Subscriber();
+        other.setEmail("other@example.com");
+        other = subscriberRepository.save(other);
+        mockMvc.perform(put("/subscribers/" + other.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isConflict());
+
+        assertEquals("other@example.com", subscriberRepository.findById(other.getId()).orElseThrow().getEmail());
+    }
+
     @Test
     @WithMockUser(authorities = "ADMIN")
     @DisplayName("Should update subscriber")
@@ -0,0 +1,152 @@
+package org.example.jiranewsletterapp.integration;
+
+import org.example.jiranewsletterapp.entity.*;
+import org.example.jiranewsletterapp.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class SubscriberImportIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SubscriberRepository subscriberRepository;
+    @Autowired private SubscriberListRepository listRepository;
+    @Autowired private SubscriberListEntryRepository entryRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private SubscriberList list;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository.deleteAll();
+        listRepository.deleteAll();
+        userRepository.deleteAll();
+        subscriberRepository.deleteAll();
+
+        User owner = new User();
+        owner.setEmail("owner@example.com");
+        owner.setPassword("pass");
+        owner.setRole(Role.USER);
+        owner = userRepository.save(owner);
+
+        list = new SubscriberList();
+        list.setName("Imported");
+        list.setOwner(owner);
+        list = listRepository.save(list);
+
+        Subscriber existing = new Subscriber();
+        existing.setEmail("existing@example.com");
+        subscriberRepository.save(existing);
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("Should import CSV, deduplicate by email and report rejects")
+    void testImportCsv() throws Exception {
+        String csv = """
+                email,first_name,last_name,birth_date,gender
+                jan@example.com,Jan,Nowak,1990-05-01,male
+                "quoted@example.com","Kowalska, Anna","O""Brien",,FEMALE
+                JAN@example.com,Duplicate,,,
+                EXISTING@example.com,,,,
+                not-an-email,,,,
+                bad-date@example.com,,,01.01.1990,
+                """;
+
+        mockMvc.perform(post("/subscribers/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(6))
+                .andExpect(jsonPath("$.rowsAccepted").value(4))
+                .andExpect(jsonPath("$.rowsRejected").value(2))
+                .andExpect(jsonPath("$.subscribersCreated").value(2))
+                .andExpect(jsonPath("$.entriesCreated").value(0))
+                .andExpect(jsonPath("$.rejects[0].row").value(5))
+                .andExpect(jsonPath("$.rejects[0].reason").value("Invalid email"))
+                .andExpect(jsonPath("$.rejects[1].row").value(6))
+                .andExpect(jsonPath("$.rejectsTruncated").value(false));
+
+        assertEquals(3, subscriberRepository.count());
+        Subscriber jan = subscriberRepository.findByEmail("jan@example.com").orElseThrow();
+        assertEquals("Jan", jan.getFirstName());
+        assertEquals(Gender.MALE, jan.getGender());
+        assertEquals(LocalDate.of(1990, 5, 1), jan.getBirthDate());
+        Subscriber quoted = subscriberRepository.findByEmail("quoted@example.com").orElseThrow();
+        assertEquals("Kowalska, Anna", quoted.getFirstName());
+        assertEquals("O\"Brien", quoted.getLastName());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("Should import NDJSON into target list without duplicating entries and request confirmations")
+    void testImportNdjsonIntoList() throws Exception {
+        String ndjson = """
+                {"email":"first@example.com","firstName":"First"}
+                {"email":"existing@example.com"}
+                {broken
+                """;
+
+        mockMvc.perform(post("/subscribers/import")
+                        .param("listId", list.getId().toString())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(3))
+                .andExpect(jsonPath("$.rowsRejected").value(1))
+                .andExpect(jsonPath("$.subscribersCreated").value(1))
+                .andExpect(jsonPath("$.entriesCreated").value(2));
+
+        mockMvc.perform(post("/subscribers/import")
+                        .param("listId", list.getId().toString())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subscribersCreated").value(0))
+                .andExpect(jsonPath("$.entriesCreated").value(0));
+
+        assertEquals(2, entryRepository.count());
+        assertTrue(entryRepository.findAll().stream().allMatch(e -> "IMPORT".equals(e.getSource())));
+        assertEquals(2, jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM outbound_message
+                WHERE campaign_id IS NULL AND subscriber_list_id = ? AND status = 'PENDING'
+                  AND body LIKE '%/public/subscriptions/confirm?token=%'
+                """, Long.class, list.getId()));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("Should reject CSV without email column")
+    void testImportCsvWithoutEmailColumn() throws Exception {
+        mockMvc.perform(post("/subscribers/import")
+                        .contentType("text/csv")
+                        .content("first_name\nJan\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    @DisplayName("USER: Should not be able to import subscribers")
+    void testImportForbiddenForUser() throws Exception {
+        mockMvc.perform(post("/subscribers/import")
+                        .contentType("text/csv")
+                        .content("email\njan@example.com\n"))
+                .andExpect(status().isForbidden());
+    }
+}
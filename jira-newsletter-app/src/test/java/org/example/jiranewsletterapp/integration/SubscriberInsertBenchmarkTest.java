@@ -0,0 +1,92 @@
+package org.example.jiranewsletterapp.integration;
+
+import org.example.jiranewsletterapp.entity.Subscriber;
+import org.example.jiranewsletterapp.repository.*;
+import org.example.jiranewsletterapp.service.SubscriberService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Run with {@code mvn test -Pbenchmark}; excluded from the default build.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false"})
+class SubscriberInsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriberInsertBenchmarkTest.class);
+
+    private static final int ROWS = 5_000;
+    private static final int BATCH = 1_000;
+
+    @Autowired private SubscriberService subscriberService;
+    @Autowired private SubscriberRepository subscriberRepository;
+    @Autowired private SubscriberListEntryRepository entryRepository;
+    @Autowired private SubscriberListRepository listRepository;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository.deleteAllInBatch();
+        listRepository.deleteAllInBatch();
+        subscriberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Benchmark: row-by-row create vs batched createAll")
+    void benchmarkInserts() {
+        warmUp();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            subscriberService.create(subscriber("single" + i));
+        }
+        double single = rowsPerSecond(start);
+
+        start = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += BATCH) {
+            List<Subscriber> batch = new ArrayList<>(BATCH);
+            for (int i = offset; i < offset + BATCH; i++) {
+                batch.add(subscriber("batch" + i));
+            }
+            subscriberService.createAll(batch);
+        }
+        double batched = rowsPerSecond(start);
+
+        log.info("Subscriber inserts: {} rows/s one by one, {} rows/s batched ({}x)",
+                Math.round(single), Math.round(batched), Math.round(batched / single * 10) / 10.0);
+        assertEquals(2L * ROWS + BATCH + 100, subscriberRepository.count());
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 100; i++) {
+            subscriberService.create(subscriber("warmup-single" + i));
+        }
+        List<Subscriber> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(subscriber("warmup-batch" + i));
+        }
+        subscriberService.createAll(batch);
+    }
+
+    private static Subscriber subscriber(String name) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setEmail(name + "@example.com");
+        subscriber.setFirstName(name);
+        return subscriber;
+    }
+
+    private static double rowsPerSecond(long startNanos) {
+        return ROWS / ((System.nanoTime() - startNanos) / 1e9);
+    }
+}
@@ -1,9 +1,11 @@
 package org.example.jiranewsletterapp.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.jiranewsletterapp.dto.AudienceQuery;
 import org.example.jiranewsletterapp.entity.*;
 import org.example.jiranewsletterapp.repository.*;
 import org.example.jiranewsletterapp.security.UserPrincipal;
+import org.example.jiranewsletterapp.service.SubscriberListMembershipIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,9 +15,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +43,15 @@ class SubscriberListControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SubscriberRepository subscriberRepository;
+
+    @Autowired
+    private SubscriberListEntryRepository entryRepository;
+
+    @Autowired
+    private SubscriberListMembershipIndex membershipIndex;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -44,8 +61,10 @@ class SubscriberListControllerIntegrationTest {
 
     @BeforeEach
     void setUp() {
+        entryRepository.deleteAll();
         listRepository.deleteAll();
         userRepository.deleteAll();
+        subscriberRepository.deleteAll();
 
         testUser = new User();
         testUser.setEmail("user@example.com");
@@ -84,8 +103,55 @@ class SubscriberListControllerIntegrationTest {
 
         mockMvc.perform(get("/subscriber-lists"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].name").value("Initial List"));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name").value("Initial List"));
+    }
+
+    @Test
+    @DisplayName("ADMIN: Should evaluate audience from list set algebra")
+    void testAdminAudience() throws Exception {
+        SubscriberList second = new SubscriberList();
+        second.setName("Second List");
+        second.setOwner(testUser);
+        second = listRepository.save(second);
+
+        Subscriber both = saveSubscriber("both@example.com");
+        Subscriber firstOnly = saveSubscriber("first@example.com");
+        addEntry(testList, both);
+        addEntry(testList, firstOnly);
+        addEntry(second, both);
+        membershipIndex.rebuild();
+
+        authenticateAs(testAdmin);
+
+        mockMvc.perform(post("/subscriber-lists/audience")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AudienceQuery(List.of(testList.getId()), null, List.of(second.getId())))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardinality").value(1))
+                .andExpect(jsonPath("$.subscriberIds[0]").value(firstOnly.getId()));
+
+        mockMvc.perform(post("/subscriber-lists/audience")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AudienceQuery(null, List.of(testList.getId(), second.getId()), null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardinality").value(1))
+                .andExpect(jsonPath("$.subscriberIds[0]").value(both.getId()));
+    }
+
+    private Subscriber saveSubscriber(String email) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setEmail(email);
+        return subscriberRepository.save(subscriber);
+    }
+
+    private void addEntry(SubscriberList list, Subscriber subscriber) {
+        SubscriberListEntry entry = new SubscriberListEntry();
+        entry.setList(list);
+        entry.setSubscriber(subscriber);
+        entryRepository.save(entry);
     }
 
     @Test
@@ -98,6 +164,76 @@ class SubscriberListControllerIntegrationTest {
                 .andExpect(jsonPath("$.name").value("Initial List"));
     }
 
+    private void addMember(String email, String firstName) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setEmail(email);
+        subscriber.setFirstName(firstName);
+        subscriber = subscriberRepository.save(subscriber);
+
+        SubscriberListEntry entry = new SubscriberListEntry();
+        entry.setList(testList);
+        entry.setSubscriber(subscriber);
+        entry.setSource("API");
+        entryRepository.save(entry);
+    }
+
+    private String export(String... params) throws Exception {
+        var builder = get("/subscriber-lists/" + testList.getId() + "/export");
+        for (int i = 0; i < params.length; i += 2) {
+            builder.param(params[i], params[i + 1]);
+        }
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("ADMIN: Should export list members as CSV")
+    void testAdminExportCsv() throws Exception {
+        authenticateAs(testAdmin);
+        addMember("first@example.com", "Kowalski, Jan");
+        addMember("second@example.com", null);
+
+        String[] lines = export().split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("subscriber_id,email,first_name"));
+        assertTrue(lines[1].contains(",first@example.com,\"Kowalski, Jan\","));
+        assertTrue(lines[2].contains(",second@example.com,,"));
+    }
+
+    @Test
+    @DisplayName("ADMIN: Should export list members as gzipped NDJSON")
+    void testAdminExportNdjsonGzip() throws Exception {
+        authenticateAs(testAdmin);
+        addMember("first@example.com", "Jan");
+
+        MvcResult result = mockMvc.perform(get("/subscriber-lists/" + testList.getId() + "/export")
+                        .param("format", "ndjson")
+                        .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        result.getAsyncResult();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        var member = objectMapper.readTree(json.strip());
+        assertEquals("first@example.com", member.get("email").asText());
+        assertEquals("API", member.get("source").asText());
+    }
+
+    @Test
+    @DisplayName("ADMIN: Should reject unknown export format")
+    void testAdminExportUnknownFormat() throws Exception {
+        authenticateAs(testAdmin);
+
+        mockMvc.perform(get("/subscriber-lists/" + testList.getId() + "/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("ADMIN: Should delete list")
     void testAdminDeleteList() throws Exception {
@@ -96,8 +96,8 @@ class SubscriberListEntryControllerIntegrationTest {
         authenticateAs(admin);
         mockMvc.perform(get("/subscriber-entries"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].subscriber.email").value("sub@example.com"));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].subscriber.email").value("sub@example.com"));
     }
 
     @Test
@@ -112,12 +112,28 @@ class SubscriberListEntryControllerIntegrationTest {
     @Test
     @DisplayName("ADMIN: Should assign subscriber to list")
     void testAdminAssignSubscriber() throws Exception {
+        Subscriber other = new Subscriber();
+        other.setEmail("other@example.com");
+        Subscriber saved = subscriberRepository.save(other);
+
         authenticateAs(admin);
         mockMvc.perform(post("/subscriber-entries/assign")
                         .param("listId", list.getId().toString())
-                        .param("subscriberId", subscriber.getId().toString()))
+                        .param("subscriberId", saved.getId().toString()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.subscriber.id").value(subscriber.getId()));
+                .andExpect(jsonPath("$.subscriber.id").value(saved.getId()));
+    }
+
+    @Test
+    @DisplayName("ADMIN: Should not assign subscriber already on the list")
+    void testAdminAssignSubscriberTwice() {
+        authenticateAs(admin);
+        Exception exception = assertThrows(Exception.class, () ->
+                mockMvc.perform(post("/subscriber-entries/assign")
+                        .param("listId", list.getId().toString())
+                        .param("subscriberId", subscriber.getId().toString())));
+        assertEquals("Subscriber already assigned to list", exception.getCause().getMessage());
+        assertEquals(1, entryRepository.count());
     }
 
     @Test
@@ -139,6 +155,38 @@ class SubscriberListEntryControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].subscriber.email").value("sub@example.com"));
     }
 
+    @Test
+    @DisplayName("USER: Should assign subscriber from own list to another own list")
+    void testUserAssignToMyList() throws Exception {
+        SubscriberList secondList = new SubscriberList();
+        secondList.setName("Second List");
+        secondList.setOwner(user);
+        secondList = listRepository.save(secondList);
+
+        authenticateAs(user);
+        mockMvc.perform(post("/subscriber-entries/my/assign")
+                        .param("listId", secondList.getId().toString())
+                        .param("subscriberId", subscriber.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subscriber.id").value(subscriber.getId()));
+    }
+
+    @Test
+    @DisplayName("USER: Should not assign subscriber known only from another owner's list")
+    void testUserAssignSubscriberFromForeignList() {
+        SubscriberList adminList = new SubscriberList();
+        adminList.setName("Admin List");
+        adminList.setOwner(admin);
+        listRepository.save(adminList);
+
+        authenticateAs(admin);
+        Exception exception = assertThrows(Exception.class, () ->
+                mockMvc.perform(post("/subscriber-entries/my/assign")
+                        .param("listId", adminList.getId().toString())
+                        .param("subscriberId", subscriber.getId().toString())));
+        assertEquals("Subscriber not found on any of your lists", exception.getCause().getMessage());
+    }
+
     @Test
     @DisplayName("USER: Should delete own entry")
     void testUserDeleteOwnEntry() throws Exception {
@@ -0,0 +1,117 @@
+package org.example.jiranewsletterapp.integration;
+
+import org.example.jiranewsletterapp.repository.*;
+import org.example.jiranewsletterapp.service.FileFormat;
+import org.example.jiranewsletterapp.service.SubscriberListExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Run with {@code mvn test -Pbenchmark}; excluded from the default build.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false"})
+class SubscriberListExportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriberListExportBenchmarkTest.class);
+
+    private static final int MEMBERS = 1_000_000;
+
+    @Autowired private SubscriberListExportService exportService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private SubscriberRepository subscriberRepository;
+    @Autowired private SubscriberListEntryRepository entryRepository;
+    @Autowired private SubscriberListRepository listRepository;
+    @Autowired private UserRepository userRepository;
+
+    private long listId;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository.deleteAllInBatch();
+        listRepository.deleteAllInBatch();
+        subscriberRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        Long ownerId = jdbcTemplate.queryForObject("""
+                INSERT INTO user_app (email, password, gender, role)
+                VALUES ('owner@example.com', 'pass', 'UNKNOWN', 'USER') RETURNING id
+                """, Long.class);
+        listId = jdbcTemplate.queryForObject(
+                "INSERT INTO subscriber_list (name, owner_id) VALUES ('Big list', ?) RETURNING id", Long.class, ownerId);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, first_name, gender, join_date)
+                SELECT 'export' || g || '@example.com', 'Name ' || g, 'UNKNOWN', localtimestamp
+                FROM generate_series(1, ?) g
+                """, MEMBERS);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, true, 'BENCHMARK', ?, id FROM subscriber
+                """, listId);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("Benchmark: export heap stays flat regardless of list size")
+    void benchmarkExportHeap() throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        CountingOutputStream out = new CountingOutputStream(memory);
+
+        long start = System.nanoTime();
+        long rows = exportService.exportMembers(listId, FileFormat.CSV, out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long peakGrowth = out.peakHeap - baseline;
+        log.info("Exported {} rows ({} MB) in {} s, {} rows/s, heap growth above baseline {} MB",
+                rows, out.bytes >> 20, Math.round(seconds * 10) / 10.0, Math.round(rows / seconds), peakGrowth >> 20);
+        assertEquals(MEMBERS, rows);
+        assertTrue(peakGrowth < 64L << 20, "heap grew by " + (peakGrowth >> 20) + " MB");
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final MemoryMXBean memory;
+        private long bytes;
+        private long peakHeap;
+        private long nextSample;
+
+        private CountingOutputStream(MemoryMXBean memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public void write(int b) {
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count(len);
+        }
+
+        // Samples live heap every ~8 MB written so the peak reflects retained rows, not garbage.
+        private void count(int len) {
+            bytes += len;
+            if (bytes >= nextSample) {
+                nextSample = bytes + (8 << 20);
+                System.gc();
+                peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+            }
+        }
+    }
+}
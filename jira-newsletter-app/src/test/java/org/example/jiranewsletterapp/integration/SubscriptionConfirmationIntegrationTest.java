@@ -0,0 +1,146 @@
+package org.example.jiranewsletterapp.integration;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.example.jiranewsletterapp.service.OutboundQueueWorker;
+import org.example.jiranewsletterapp.service.SubscriptionConfirmationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class SubscriptionConfirmationIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static final Pattern CONFIRM_LINK = Pattern.compile("/public/subscriptions/confirm\\?token=([A-Za-z0-9_-]+)");
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private SubscriptionConfirmationService confirmationService;
+    @Autowired private OutboundQueueWorker outboundWorker;
+
+    private long listId;
+    private long subscriberId;
+
+    @BeforeEach
+    void setUp() {
+        confirmationService.flush();
+        jdbcTemplate.execute("TRUNCATE subscriber_list_entry, subscriber_list, subscriber, user_app CASCADE");
+        jdbcTemplate.update("INSERT INTO user_app (email, password, gender, role) VALUES ('owner@example.com', 'pass', 'UNKNOWN', 'ADMIN')");
+        listId = jdbcTemplate.queryForObject(
+                "INSERT INTO subscriber_list (name, owner_id) SELECT 'News', id FROM user_app RETURNING id", Long.class);
+        subscriberId = jdbcTemplate.queryForObject("""
+                INSERT INTO subscriber (email, gender, join_date) VALUES ('new@example.com', 'UNKNOWN', localtimestamp)
+                RETURNING id
+                """, Long.class);
+    }
+
+    private Boolean confirmed() {
+        return jdbcTemplate.queryForObject("SELECT confirmed FROM subscriber_list_entry WHERE subscriber_id = ?",
+                Boolean.class, subscriberId);
+    }
+
+    private String confirmToken() throws Exception {
+        outboundWorker.drain();
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1), "no confirmation mail");
+        MimeMessage message = greenMail.getReceivedMessages()[0];
+        assertEquals("new@example.com", message.getAllRecipients()[0].toString());
+        Matcher link = CONFIRM_LINK.matcher((String) message.getContent());
+        assertTrue(link.find(), "no confirmation link in the mail");
+        return link.group(1);
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("Should queue a link for a new entry and confirm it from the link's page without logging in")
+    void testConfirmFromMailedLink() throws Exception {
+        mockMvc.perform(post("/subscriber-entries/assign")
+                        .param("listId", String.valueOf(listId))
+                        .param("subscriberId", String.valueOf(subscriberId)))
+                .andExpect(status().isOk());
+        // The mail is a queued row, so it survives a restart and is retried like campaign mail.
+        assertEquals(1, jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM outbound_message
+                WHERE campaign_id IS NULL AND subscriber_id = ? AND status = 'PENDING'
+                """, Integer.class, subscriberId));
+        String token = confirmToken();
+
+        // Opening the link, as a mail scanner would, only shows the page.
+        mockMvc.perform(get("/public/subscriptions/confirm").param("token", token).with(anonymous()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("value=\"" + token + "\"")));
+        assertEquals(0, confirmationService.flush());
+        assertFalse(confirmed());
+
+        mockMvc.perform(post("/public/subscriptions/confirm").param("token", token).with(anonymous()))
+                .andExpect(status().isAccepted());
+        // A second click is coalesced with the first.
+        mockMvc.perform(post("/public/subscriptions/confirm").param("token", token).with(anonymous()))
+                .andExpect(status().isAccepted());
+
+        assertFalse(confirmed());
+        assertEquals(1, confirmationService.flush());
+        assertTrue(confirmed());
+    }
+
+    @Test
+    @DisplayName("Should reject a forged or tampered confirmation link")
+    void testRejectsInvalidToken() throws Exception {
+        mockMvc.perform(post("/public/subscriptions/confirm").param("token", "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/public/subscriptions/confirm").param("token", "garbage"))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, confirmationService.flush());
+    }
+
+    @Test
+    @DisplayName("Should write a burst of confirmations in one flush")
+    void testConfirmationsAreBatched() throws Exception {
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, gender, join_date)
+                SELECT 'bulk' || g || '@example.com', 'UNKNOWN', localtimestamp FROM generate_series(1, 200) g
+                """);
+        List<SubscriptionConfirmationService.PendingEntry> entries = jdbcTemplate.query("""
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, false, 'SEED', ?, id FROM subscriber WHERE email LIKE 'bulk%'
+                RETURNING id, subscriber_id
+                """, (rs, rowNum) -> new SubscriptionConfirmationService.PendingEntry(rs.getLong("id"),
+                rs.getLong("subscriber_id"), listId, "bulk@example.com", "News"), listId);
+        confirmationService.requestConfirmations(entries);
+        outboundWorker.drain();
+        assertTrue(greenMail.waitForIncomingEmail(10_000, entries.size()));
+        for (MimeMessage message : greenMail.getReceivedMessages()) {
+            Matcher link = CONFIRM_LINK.matcher((String) message.getContent());
+            assertTrue(link.find());
+            mockMvc.perform(post("/public/subscriptions/confirm").param("token", link.group(1)))
+                    .andExpect(status().isAccepted());
+        }
+
+        assertEquals(entries.size(), confirmationService.flush());
+        assertEquals(entries.size(), jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM subscriber_list_entry WHERE confirmed", Integer.class));
+    }
+}
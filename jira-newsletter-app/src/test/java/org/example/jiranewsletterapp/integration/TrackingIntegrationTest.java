@@ -0,0 +1,186 @@
+package org.example.jiranewsletterapp.integration;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.example.jiranewsletterapp.service.OutboundQueueWorker;
+import org.example.jiranewsletterapp.service.TrackingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class TrackingIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static final String LINK = "https://example.com/spring?utm_source=newsletter&a=1";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TrackingService trackingService;
+    @Autowired private OutboundQueueWorker outboundWorker;
+
+    private long campaignId;
+
+    @BeforeEach
+    void setUp() {
+        trackingService.flush();
+        jdbcTemplate.execute("TRUNCATE campaign_link_click, campaign_tracking, dead_letter, outbound_message, scheduled_send, campaign, subscriber, user_app CASCADE");
+        campaignId = jdbcTemplate.queryForObject("""
+                INSERT INTO campaign (name, subject, body, status, created_at, started_at)
+                VALUES ('Spring', 'Spring news', 'Hello!', 'SENDING', localtimestamp, localtimestamp)
+                RETURNING id
+                """, Long.class);
+    }
+
+    private static String pathOf(String url) {
+        return url.substring(url.indexOf("/public/track/"));
+    }
+
+    @Test
+    @DisplayName("Should serve the pixel and redirect clicks without logging in, counting only valid links")
+    void testTrackingEndpoints() throws Exception {
+        String pixel = pathOf(trackingService.openPixelUrl(campaignId, 7L));
+        mockMvc.perform(get(pixel).with(anonymous()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/gif"))
+                .andExpect(header().string("Cache-Control", "no-store"));
+        // A forged pixel still gets an image but is not counted.
+        mockMvc.perform(get(pixel.replace("/" + campaignId + "/", "/" + (campaignId + 1) + "/")).with(anonymous()))
+                .andExpect(status().isOk());
+
+        String click = pathOf(trackingService.clickUrl(campaignId, 7L, LINK));
+        mockMvc.perform(get(URI.create(click)).with(anonymous()))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", LINK));
+        // Swapping the target must not turn the endpoint into an open redirect.
+        mockMvc.perform(get(click.substring(0, click.indexOf("?url=")))
+                        .param("url", "https://evil.example/").with(anonymous()))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(2, trackingService.flush());
+        assertEquals(List.of(1L, 1L), jdbcTemplate.queryForObject(
+                "SELECT open_count, click_count FROM campaign_tracking WHERE campaign_id = ?",
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2)), campaignId));
+    }
+
+    @Test
+    @DisplayName("Should send campaign links as tracked links that redirect to the original")
+    void testCampaignLinksAreTracked() throws Exception {
+        long linkedCampaignId = jdbcTemplate.queryForObject("""
+                INSERT INTO campaign (name, subject, body, status, created_at, started_at)
+                VALUES ('Links', 'Spring news', ?, 'SENDING', localtimestamp, localtimestamp)
+                RETURNING id
+                """, Long.class, "Read more at " + LINK + ".\nPlain text stays as it is.");
+        jdbcTemplate.update("""
+                WITH o AS (INSERT INTO user_app (email, password, gender, role)
+                    VALUES ('owner@example.com', 'pass', 'UNKNOWN', 'ADMIN') RETURNING id),
+                     l AS (INSERT INTO subscriber_list (name, owner_id) SELECT 'News', id FROM o RETURNING id),
+                     s AS (INSERT INTO subscriber (email, gender, join_date)
+                         VALUES ('reader@example.com', 'UNKNOWN', localtimestamp) RETURNING id),
+                     e AS (INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                         SELECT localtimestamp, true, 'SEED', l.id, s.id FROM l, s)
+                INSERT INTO outbound_message (campaign_id, subscriber_id, subscriber_list_id, recipient, status, created_at)
+                SELECT ?, s.id, l.id, 'reader@example.com', 'PENDING', now() FROM l, s
+                """, linkedCampaignId);
+
+        outboundWorker.drain();
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1), "no campaign mail");
+        String text = (String) greenMail.getReceivedMessages()[0].getContent();
+        assertFalse(text.contains("at " + LINK), text);
+        assertTrue(text.contains("Plain text stays as it is."), text);
+        Matcher click = Pattern.compile("(/public/track/click/\\S+?)\\.\\s").matcher(text);
+        assertTrue(click.find(), text);
+
+        mockMvc.perform(get(URI.create(click.group(1))).with(anonymous()))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", LINK));
+        assertEquals(1, trackingService.flush());
+    }
+
+    @Test
+    @DisplayName("Should aggregate concurrent hits in memory and write them as deltas")
+    void testConcurrentHitsAreAggregated() throws Exception {
+        String openToken = tokenOf(trackingService.openPixelUrl(campaignId, 1L));
+        String clickToken = tokenOf(trackingService.clickUrl(campaignId, 1L, LINK));
+        String otherToken = tokenOf(trackingService.clickUrl(campaignId, 2L, "https://example.com/other"));
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int thread = 0; thread < 16; thread++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        assertTrue(trackingService.recordOpen(campaignId, openToken));
+                        assertTrue(trackingService.recordClick(campaignId, clickToken, LINK));
+                    }
+                    assertTrue(trackingService.recordClick(campaignId, otherToken, "https://example.com/other"));
+                });
+            }
+        }
+        assertEquals(16 * 1001, trackingService.flush());
+        assertTrue(trackingService.recordOpen(campaignId, openToken));
+        assertEquals(1, trackingService.flush());
+        assertEquals(0, trackingService.flush());
+
+        assertEquals(8001L, jdbcTemplate.queryForObject(
+                "SELECT open_count FROM campaign_tracking WHERE campaign_id = ?", Long.class, campaignId));
+        assertEquals(8016L, jdbcTemplate.queryForObject(
+                "SELECT click_count FROM campaign_tracking WHERE campaign_id = ?", Long.class, campaignId));
+        assertEquals(8000L, jdbcTemplate.queryForObject(
+                "SELECT click_count FROM campaign_link_click WHERE campaign_id = ? AND url = ?", Long.class, campaignId, LINK));
+
+        Path logFile = trackingService.eventLogFile(LocalDate.now(ZoneOffset.UTC));
+        long deadline = System.currentTimeMillis() + 5000;
+        String clickLine = "\tclick\t" + campaignId + "\t2\thttps://example.com/other";
+        while (System.currentTimeMillis() < deadline
+                && Files.readAllLines(logFile).stream().filter(line -> line.endsWith(clickLine)).count() < 16) {
+            Thread.sleep(50);
+        }
+        assertEquals(16, Files.readAllLines(logFile).stream().filter(line -> line.endsWith(clickLine)).count());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @DisplayName("Should report flushed opens and clicks per link")
+    void testTrackingReport() throws Exception {
+        trackingService.recordClick(campaignId, tokenOf(trackingService.clickUrl(campaignId, 3L, LINK)), LINK);
+        trackingService.recordOpen(campaignId, tokenOf(trackingService.openPixelUrl(campaignId, 3L)));
+        trackingService.flush();
+
+        mockMvc.perform(get("/campaigns/{id}/tracking", campaignId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.opens").value(1))
+                .andExpect(jsonPath("$.clicks").value(1))
+                .andExpect(jsonPath("$.links", hasSize(1)))
+                .andExpect(jsonPath("$.links[0].url").value(LINK));
+    }
+
+    private static String tokenOf(String url) {
+        String path = url.contains("?") ? url.substring(0, url.indexOf('?')) : url;
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.jiranewsletterapp.integration;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.example.jiranewsletterapp.dto.OutboundMessage;
+import org.example.jiranewsletterapp.mail.EncodedBody;
+import org.example.jiranewsletterapp.mail.MailSendScheduler;
+import org.example.jiranewsletterapp.mail.OutboundMail;
+import org.example.jiranewsletterapp.security.SignedTokens;
+import org.example.jiranewsletterapp.service.OutboundMessageQueue;
+import org.example.jiranewsletterapp.service.OutboundQueueWorker;
+import org.example.jiranewsletterapp.service.SubscriberListMembershipIndex;
+import org.example.jiranewsletterapp.service.UnsubscribeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+class UnsubscribeIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private UnsubscribeService unsubscribeService;
+    @Autowired private OutboundMessageQueue queue;
+    @Autowired private MailSendScheduler sendScheduler;
+    @Autowired private SubscriberListMembershipIndex membershipIndex;
+    @Autowired private SignedTokens signedTokens;
+    @Autowired private OutboundQueueWorker outboundWorker;
+
+    private long listId;
+    private long campaignId;
+
+    @BeforeEach
+    void setUp() {
+        unsubscribeService.flush();
+        jdbcTemplate.execute("TRUNCATE campaign_link_click, campaign_tracking, dead_letter, outbound_message, scheduled_send, campaign, campaign_subscriber_list, campaign_excluded_list, subscriber_list_entry, subscriber_list, subscriber, user_app");
+        jdbcTemplate.update("INSERT INTO user_app (email, password, gender, role) VALUES ('owner@example.com', 'pass', 'UNKNOWN', 'ADMIN')");
+        listId = jdbcTemplate.queryForObject(
+                "INSERT INTO subscriber_list (name, owner_id) SELECT 'News', id FROM user_app RETURNING id", Long.class);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber (email, gender, join_date)
+                SELECT 'subscriber' || g || '@example.com', 'UNKNOWN', localtimestamp FROM generate_series(1, 50) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO subscriber_list_entry (date_added, confirmed, source, subscriber_list_id, subscriber_id)
+                SELECT localtimestamp, true, 'SEED', ?, id FROM subscriber
+                """, listId);
+        campaignId = jdbcTemplate.queryForObject("""
+                INSERT INTO campaign (name, subject, body, status, created_at, started_at)
+                VALUES ('Spring', 'Spring news', 'Hello!', 'SENDING', localtimestamp, localtimestamp)
+                RETURNING id
+                """, Long.class);
+        jdbcTemplate.update("INSERT INTO campaign_subscriber_list (campaign_id, subscriber_list_id) VALUES (?, ?)",
+                campaignId, listId);
+        membershipIndex.rebuild();
+    }
+
+    private static String pathOf(String url) {
+        return url.substring(url.indexOf(UnsubscribeService.UNSUBSCRIBE_PATH));
+    }
+
+    private int entryCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM subscriber_list_entry", Integer.class);
+    }
+
+    @Test
+    @DisplayName("Should advertise a one-click unsubscribe link in the message headers")
+    void testMailCarriesListUnsubscribeHeaders() throws Exception {
+        String url = unsubscribeService.unsubscribeUrl(42L);
+        sendScheduler.submit(new OutboundMail("subscriber1@example.com", "Spring news", EncodedBody.ofText("Hello!"), url)).join();
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        MimeMessage message = greenMail.getReceivedMessages()[0];
+        assertEquals("<" + url + ">", message.getHeader("List-Unsubscribe", null));
+        assertEquals("List-Unsubscribe=One-Click", message.getHeader("List-Unsubscribe-Post", null));
+    }
+
+    @Test
+    @DisplayName("Should remove the entries behind one-click unsubscribes in one batch")
+    void testUnsubscribeFromClaimedMessages() throws Exception {
+        queue.enqueueCampaign(campaignId);
+        List<OutboundMessage> claimed = queue.claim("unsubscribe-test", 100, Duration.ofMinutes(5));
+        assertEquals(50, claimed.size());
+        assertTrue(claimed.stream().allMatch(message -> message.entryId() != null));
+
+        for (OutboundMessage message : claimed.subList(0, 20)) {
+            String path = pathOf(unsubscribeService.unsubscribeUrl(message.entryId()));
+            mockMvc.perform(post(path).with(anonymous())
+                            .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                            .content("List-Unsubscribe=One-Click"))
+                    .andExpect(status().isAccepted());
+        }
+        // A repeated click is coalesced with the first.
+        mockMvc.perform(post(pathOf(unsubscribeService.unsubscribeUrl(claimed.get(0).entryId()))).with(anonymous()))
+                .andExpect(status().isAccepted());
+
+        assertEquals(50, entryCount());
+        assertEquals(20, unsubscribeService.flush());
+        assertEquals(30, entryCount());
+        assertEquals(30, membershipIndex.cardinality(listId));
+    }
+
+    @Test
+    @DisplayName("Should show a page posting the token back when the link is opened in a browser")
+    void testUnsubscribePageDoesNotUnsubscribe() throws Exception {
+        long entryId = jdbcTemplate.queryForObject("SELECT min(id) FROM subscriber_list_entry", Long.class);
+        String path = pathOf(unsubscribeService.unsubscribeUrl(entryId));
+        String token = path.substring(path.indexOf("token=") + "token=".length());
+
+        mockMvc.perform(get(path).with(anonymous()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("action=\"" + UnsubscribeService.UNSUBSCRIBE_PATH + "\"")))
+                .andExpect(content().string(containsString("value=\"" + token + "\"")));
+        assertEquals(0, unsubscribeService.flush());
+        assertEquals(50, entryCount());
+
+        mockMvc.perform(post(UnsubscribeService.UNSUBSCRIBE_PATH).param("token", token).with(anonymous()))
+                .andExpect(status().isAccepted());
+        assertEquals(1, unsubscribeService.flush());
+        assertEquals(49, entryCount());
+    }
+
+    @Test
+    @DisplayName("Should not send the rest of a queued campaign to a recipient who unsubscribed")
+    void testQueuedMessageIsCancelledAfterUnsubscribe() throws Exception {
+        jdbcTemplate.update("DELETE FROM subscriber_list_entry WHERE subscriber_id <> (SELECT min(id) FROM subscriber)");
+        long entryId = jdbcTemplate.queryForObject("SELECT id FROM subscriber_list_entry", Long.class);
+        assertEquals(1, queue.enqueueCampaign(campaignId));
+
+        mockMvc.perform(post(pathOf(unsubscribeService.unsubscribeUrl(entryId))).with(anonymous()))
+                .andExpect(status().isAccepted());
+        assertEquals(1, unsubscribeService.flush());
+        outboundWorker.drain();
+
+        assertFalse(greenMail.waitForIncomingEmail(1000, 1), "mail sent after unsubscribe");
+        assertEquals("CANCELLED", jdbcTemplate.queryForObject("SELECT status FROM outbound_message", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM dead_letter", Integer.class));
+        assertEquals("SENT", jdbcTemplate.queryForObject("SELECT status FROM campaign WHERE id = ?", String.class,
+                campaignId));
+    }
+
+    @Test
+    @DisplayName("Should reject forged and confirmation tokens on the unsubscribe endpoint")
+    void testRejectsInvalidToken() throws Exception {
+        long entryId = jdbcTemplate.queryForObject("SELECT min(id) FROM subscriber_list_entry", Long.class);
+        String confirmToken = signedTokens.sign(SignedTokens.Purpose.CONFIRM_SUBSCRIPTION, entryId,
+                Instant.now().plusSeconds(60));
+        mockMvc.perform(post(UnsubscribeService.UNSUBSCRIBE_PATH).param("token", confirmToken).with(anonymous()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(UnsubscribeService.UNSUBSCRIBE_PATH).param("token", "garbage").with(anonymous()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(UnsubscribeService.UNSUBSCRIBE_PATH).with(anonymous()))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, unsubscribeService.flush());
+        assertEquals(50, entryCount());
+    }
+}
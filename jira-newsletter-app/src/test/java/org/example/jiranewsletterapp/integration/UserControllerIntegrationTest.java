@@ -57,8 +57,8 @@ class UserControllerIntegrationTest {
     void testGetAllUsers() throws Exception {
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].email").value("admin@example.com"));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].email").value("admin@example.com"));
     }
 
     @Test
@@ -0,0 +1,131 @@
+package org.example.jiranewsletterapp.mail;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeliveryReportParserTest {
+
+    static final String DSN = """
+            From: MAILER-DAEMON@mx.example.net
+            To: newsletter@example.com
+            Subject: Undelivered Mail Returned to Sender
+            Content-Type: multipart/report; report-type=delivery-status;
+            \tboundary="B1"
+
+            --B1
+            Content-Type: text/plain
+
+            Action: failed is how this line would look in prose, it is not a field of the report.
+
+            --B1
+            Content-Type: message/delivery-status
+
+            Reporting-MTA: dns; mx.example.net
+            Arrival-Date: Mon, 12 Oct 2026 10:00:00 +0200
+
+            Final-Recipient: rfc822; Gone@Example.org
+            Original-Recipient: rfc822;gone@example.org
+            Action: failed
+            Status: 5.1.1
+            Diagnostic-Code: smtp; 550 5.1.1 <gone@example.org>: Recipient address rejected
+
+            Final-Recipient: rfc822;
+              full@example.org
+            Action: failed
+            Status: 4.2.2
+
+            Final-Recipient: rfc822; slow@example.org
+            Action: delayed
+            Status: 5.0.0
+
+            --B1
+            Content-Type: text/rfc822-headers
+
+            To: gone@example.org
+            Subject: Spring news
+
+            --B1--
+            """;
+
+    static final String ARF = """
+            From: feedback@isp.example
+            To: abuse@example.com
+            Subject: Abuse report
+            Content-Type: multipart/report; report-type=feedback-report; boundary="part"
+
+            --part
+            Content-Type: text/plain
+
+            This is an email abuse report.
+
+            --part
+            Content-Type: message/feedback-report
+
+            Feedback-Type: abuse
+            User-Agent: ExampleFBL/1.0
+            Version: 1
+            Original-Rcpt-To: <angry@example.org>
+
+            --part
+            Content-Type: message/rfc822
+
+            To: Someone Else <other@example.org>
+            Subject: Spring news
+
+            Hello!
+            --part--
+            """;
+
+    private static List<DeliveryReport> parse(String report) throws IOException {
+        return DeliveryReportParser.parse(new BufferedReader(new StringReader(report)));
+    }
+
+    @Test
+    @DisplayName("Should report permanently failed recipients of a DSN and ignore delays and temporary failures")
+    void testDeliveryStatusNotification() throws IOException {
+        assertEquals(List.of(new DeliveryReport("Gone@Example.org", DeliveryReport.Kind.HARD_BOUNCE)), parse(DSN));
+    }
+
+    @Test
+    @DisplayName("Should read folded fields of a DSN")
+    void testFoldedFields() throws IOException {
+        String folded = DSN.replace("Status: 4.2.2", "Status:\n 5.2.2");
+        assertEquals(List.of(new DeliveryReport("Gone@Example.org", DeliveryReport.Kind.HARD_BOUNCE),
+                new DeliveryReport("full@example.org", DeliveryReport.Kind.HARD_BOUNCE)), parse(folded));
+    }
+
+    @Test
+    @DisplayName("Should report the original recipient of an abuse feedback report")
+    void testFeedbackReport() throws IOException {
+        assertEquals(List.of(new DeliveryReport("angry@example.org", DeliveryReport.Kind.COMPLAINT)), parse(ARF));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the attached message's To when the report has no Original-Rcpt-To")
+    void testFeedbackReportWithoutOriginalRecipient() throws IOException {
+        String report = ARF.replace("Original-Rcpt-To: <angry@example.org>\n", "");
+        assertEquals(List.of(new DeliveryReport("other@example.org", DeliveryReport.Kind.COMPLAINT)), parse(report));
+    }
+
+    @Test
+    @DisplayName("Should not report anything for not-spam feedback or an ordinary message")
+    void testNothingToReport() throws IOException {
+        assertEquals(List.of(), parse(ARF.replace("Feedback-Type: abuse", "Feedback-Type: not-spam")));
+        assertEquals(List.of(), parse("""
+                From: someone@example.org
+                To: newsletter@example.com
+                Subject: Re: Spring news
+
+                Action: failed
+                Status: 5.1.1
+                Final-Recipient: rfc822; someone@example.org
+                """));
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.jiranewsletterapp.mail;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MailSendSchedulerTest {
+
+    private final Map<String, Long> sentAt = new ConcurrentHashMap<>();
+    private MailSendScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    private MailSendScheduler schedulerWith(DomainRateLimits limits, MailTransport transport) {
+        scheduler = new MailSendScheduler(transport, limits, 16);
+        return scheduler;
+    }
+
+    private static OutboundMail mail(String to) {
+        return new OutboundMail(to, "subject", "body");
+    }
+
+    @Test
+    @DisplayName("Should park a throttled domain while other domains keep flowing")
+    void testThrottledDomainDoesNotBlockOthers() throws Exception {
+        schedulerWith(DomainRateLimits.parse(0, "slow.example=5"),
+                mail -> sentAt.put(mail.to(), System.nanoTime()));
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> slow = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            slow.add(scheduler.submit(mail("user" + i + "@slow.example")));
+        }
+        List<CompletableFuture<Void>> fast = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            fast.add(scheduler.submit(mail("user" + i + "@fast.example")));
+        }
+
+        CompletableFuture.allOf(fast.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertTrue(scheduler.parkedCount("slow.example") > 0, "slow domain should still have parked mail");
+
+        CompletableFuture.allOf(slow.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        long slowElapsedMillis = TimeUnit.NANOSECONDS.toMillis(sentAt.get("user9@slow.example") - start);
+        // Burst of 5, then 5 more at 200 ms intervals.
+        assertTrue(slowElapsedMillis >= 900, "slow domain finished after " + slowElapsedMillis + " ms");
+        assertEquals(0, scheduler.parkedCount("slow.example"));
+        assertEquals(210, sentAt.size());
+    }
+
+    @Test
+    @DisplayName("Should drop a domain's queue once it is drained and its bucket has refilled")
+    void testIdleDomainQueuesAreDropped() throws Exception {
+        schedulerWith(DomainRateLimits.parse(0, "slow.example=10"), mail -> sentAt.put(mail.to(), System.nanoTime()));
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(scheduler.submit(mail("user@domain" + i + ".example")));
+        }
+        for (int i = 0; i < 3; i++) {
+            results.add(scheduler.submit(mail("user" + i + "@slow.example")));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.domainCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, scheduler.domainCount());
+
+        scheduler.submit(mail("again@slow.example")).get(5, TimeUnit.SECONDS);
+        assertEquals(104, sentAt.size());
+    }
+
+    @Test
+    @DisplayName("Should fail the returned future when the transport fails")
+    void testTransportFailurePropagates() {
+        schedulerWith(new DomainRateLimits(0, Map.of()), mail -> {
+            throw new MailTransportException("rejected", null);
+        });
+
+        CompletableFuture<Void> result = scheduler.submit(mail("user@example.com"));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(MailTransportException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("Should time throttle waits per configured domain and sends by result")
+    void testRecordsThrottleWaitsAndSendTimes() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scheduler = new MailSendScheduler(mail -> {
+            if (mail.to().startsWith("bounce")) {
+                throw new MailTransportException("rejected", null);
+            }
+        }, DomainRateLimits.parse(0, "slow.example=5"), 16, registry);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(scheduler.submit(mail("user" + i + "@slow.example")));
+        }
+        results.add(scheduler.submit(mail("user@other.example")));
+        results.add(scheduler.submit(mail("bounce@another.example")));
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> null)
+                .get(5, TimeUnit.SECONDS);
+
+        Timer slowWaits = registry.get("newsletter.mail.throttle.wait").tag("domain", "slow.example").timer();
+        assertEquals(6, slowWaits.count());
+        // The sixth message waits for a refill after the burst of five.
+        assertTrue(slowWaits.max(TimeUnit.MILLISECONDS) >= 150, "max wait " + slowWaits.max(TimeUnit.MILLISECONDS));
+        assertEquals(2, registry.get("newsletter.mail.throttle.wait").tag("domain", "other").timer().count());
+        assertEquals(7, registry.get("newsletter.mail.send").tag("result", "success").timer().count());
+        assertEquals(1, registry.get("newsletter.mail.send").tag("result", "failure").timer().count());
+        assertEquals(0, registry.get("newsletter.mail.throttle.parked").gauge().value());
+    }
+}
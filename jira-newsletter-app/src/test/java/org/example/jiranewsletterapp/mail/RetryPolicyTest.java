@@ -0,0 +1,71 @@
+package org.example.jiranewsletterapp.mail;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryPolicyTest {
+
+    private static final RetryPolicy POLICY = new RetryPolicy(5, Duration.ofSeconds(30), Duration.ofMinutes(10));
+
+    private static RandomGenerator fixed(boolean highest) {
+        return new RandomGenerator() {
+            @Override
+            public long nextLong() {
+                return 0;
+            }
+
+            @Override
+            public long nextLong(long bound) {
+                return highest ? bound - 1 : 0;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should double the backoff ceiling per attempt and wait at least half of it")
+    void testExponentialBounds() {
+        assertEquals(Duration.ofSeconds(15), POLICY.backoff(1, fixed(false)));
+        assertEquals(Duration.ofSeconds(30), POLICY.backoff(1, fixed(true)));
+        assertEquals(Duration.ofSeconds(30), POLICY.backoff(2, fixed(false)));
+        assertEquals(Duration.ofSeconds(60), POLICY.backoff(2, fixed(true)));
+        assertEquals(Duration.ofSeconds(240), POLICY.backoff(4, fixed(true)));
+    }
+
+    @Test
+    @DisplayName("Should cap the backoff at the maximum delay however many attempts were made")
+    void testCappedAtMaxDelay() {
+        assertEquals(Duration.ofMinutes(10), POLICY.backoff(6, fixed(true)));
+        assertEquals(Duration.ofMinutes(5), POLICY.backoff(6, fixed(false)));
+        assertEquals(Duration.ofMinutes(10), POLICY.backoff(Integer.MAX_VALUE, fixed(true)));
+    }
+
+    @Test
+    @DisplayName("Should spread retries of the same attempt over the jitter range")
+    void testJitterSpreadsDelays() {
+        SplittableRandom random = new SplittableRandom(42);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 10_000; i++) {
+            long millis = POLICY.backoff(3, random).toMillis();
+            min = Math.min(min, millis);
+            max = Math.max(max, millis);
+        }
+        assertTrue(min >= 60_000 && min < 61_000, "min " + min);
+        assertTrue(max <= 120_000 && max > 119_000, "max " + max);
+    }
+
+    @Test
+    @DisplayName("Should allow retries only below the maximum number of attempts")
+    void testCanRetry() {
+        assertTrue(POLICY.canRetry(1));
+        assertTrue(POLICY.canRetry(4));
+        assertFalse(POLICY.canRetry(5));
+        assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(0, Duration.ofSeconds(1), Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.jiranewsletterapp.mail;
+
+import jakarta.mail.internet.MimeUtility;
+import org.example.jiranewsletterapp.template.CompiledTemplate;
+import org.example.jiranewsletterapp.template.MergeValues;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH comparison of encoding each recipient's whole body against gathering the shared pre-encoded body with the
+ * encoded merge fields. Run with {@code mvn test -Pbenchmark}; excluded from the default build.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SharedBodyBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedBodyBenchmarkTest.class);
+
+    private static final String BODY = "Hi {{firstName|there}},\n\n"
+            + "This month in {{listName}}: faster sending, per-domain throttling and a shared send queue.\n".repeat(40)
+            + "\nYou are subscribed as {{email}}.\n";
+
+    public record Recipient(String email, String firstName, String lastName, LocalDate birthDate, String listName)
+            implements MergeValues {
+    }
+
+    private CompiledTemplate template;
+    private SharedBodyTemplate shared;
+    private Recipient[] recipients;
+    private StringBuilder scratch;
+    private OutputStream sink;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        template = CompiledTemplate.compile(BODY);
+        shared = SharedBodyTemplate.compile(template);
+        scratch = new StringBuilder(template.estimatedLength());
+        sink = OutputStream.nullOutputStream();
+        recipients = new Recipient[1024];
+        for (int i = 0; i < recipients.length; i++) {
+            recipients[i] = new Recipient("subscriber" + i + "@example.com", "Name" + i, null, null, "Monthly news");
+        }
+    }
+
+    private Recipient nextRecipient() {
+        return recipients[next++ & (recipients.length - 1)];
+    }
+
+    @Benchmark
+    public void encodeWholeBody() throws Exception {
+        String text = template.render(nextRecipient(), scratch);
+        OutputStream encoder = MimeUtility.encode(sink, "quoted-printable");
+        encoder.write(text.getBytes(StandardCharsets.UTF_8));
+        encoder.flush();
+    }
+
+    @Benchmark
+    public void gatherSharedBody() throws IOException {
+        shared.render(nextRecipient(), scratch).writeTo(sink);
+    }
+
+    @Test
+    @DisplayName("Benchmark: whole-body encoding vs shared pre-encoded body")
+    void benchmarkBodies() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SharedBodyBenchmarkTest.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        for (RunResult result : results) {
+            Result<?> allocated = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            log.info("{}: {} bodies/s, {} B allocated per body", result.getParams().getBenchmark(),
+                    Math.round(result.getPrimaryResult().getScore()),
+                    allocated == null ? "?" : Math.round(allocated.getScore()));
+        }
+        assertEquals(2, results.size());
+    }
+}
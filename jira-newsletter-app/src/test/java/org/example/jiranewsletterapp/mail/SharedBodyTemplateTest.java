@@ -0,0 +1,113 @@
+package org.example.jiranewsletterapp.mail;
+
+import jakarta.mail.internet.MimeUtility;
+import org.example.jiranewsletterapp.template.CompiledTemplate;
+import org.example.jiranewsletterapp.template.MergeValues;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedBodyTemplateTest {
+
+    private record Values(String email, String firstName, String lastName, LocalDate birthDate, String listName)
+            implements MergeValues {
+    }
+
+    private static final Values ALA = new Values("ala@example.com", "Ala", "Kowalska", null, "News");
+    private static final Values ZOFIA = new Values("zofia@example.com", "Zofia Żółć", null, null, "Offers");
+
+    private static String encoded(EncodedBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        assertEquals(out.size(), body.size());
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static String decoded(EncodedBody body) throws Exception {
+        byte[] bytes = encoded(body).getBytes(StandardCharsets.US_ASCII);
+        return new String(MimeUtility.decode(new ByteArrayInputStream(bytes), "quoted-printable").readAllBytes(),
+                StandardCharsets.UTF_8);
+    }
+
+    private static void assertValidLines(String encoded) {
+        for (String line : encoded.split("\r\n", -1)) {
+            assertTrue(line.length() <= QuotedPrintable.MAX_LINE_LENGTH, "line too long: " + line);
+            assertFalse(line.endsWith(" ") || line.endsWith("\t"), "trailing whitespace: [" + line + "]");
+            assertFalse(line.contains("\n") || line.contains("\r"), "bare line break: " + line);
+        }
+    }
+
+    @Test
+    @DisplayName("Should decode to the rendered text for every recipient")
+    void testRenderMatchesTemplate() throws Exception {
+        String source = "Hi {{firstName|there}} {{lastName}},\n\nthis = that, for {{listName}} \nBye ";
+        CompiledTemplate template = CompiledTemplate.compile(source);
+        SharedBodyTemplate shared = SharedBodyTemplate.compile(template);
+        StringBuilder scratch = new StringBuilder();
+
+        for (Values values : List.of(ALA, ZOFIA)) {
+            EncodedBody body = shared.render(values, scratch);
+            String expected = template.render(values, new StringBuilder()).replace("\n", "\r\n");
+            assertEquals(expected, decoded(body));
+            assertValidLines(encoded(body));
+        }
+    }
+
+    @Test
+    @DisplayName("Should wrap long lines and encode non-ASCII, '=' and trailing whitespace")
+    void testQuotedPrintableEdgeCases() throws Exception {
+        String text = "x".repeat(200) + " \t\nzażółć = gęślą \uD83C\uDF89\r\njaźń\rend ";
+
+        EncodedBody body = EncodedBody.ofText(text);
+
+        assertEquals(text.replace("\r\n", "\n").replace("\n", "\r\n"), decoded(body));
+        assertValidLines(encoded(body));
+        assertTrue(encoded(body).contains(" =09\r\n"), encoded(body));
+        assertTrue(encoded(body).endsWith("end=20"), encoded(body));
+    }
+
+    @Test
+    @DisplayName("Should map each link in the literal text and leave the rest of the body alone")
+    void testLinkMapping() throws Exception {
+        String source = "Hi {{firstName}}, see https://example.com/a?b=1. Or (https://example.com/wiki/X_(y)), "
+                + "or https://example.com/u?e={{email}} and http://example.com";
+        CompiledTemplate template = CompiledTemplate.compile(source);
+        SharedBodyTemplate shared = SharedBodyTemplate.compile(template);
+        StringBuilder scratch = new StringBuilder();
+
+        EncodedBody mapped = shared.render(ALA, url -> "<" + url + ">", scratch);
+        EncodedBody unmapped = shared.render(ALA, scratch);
+
+        assertEquals("Hi Ala, see <https://example.com/a?b=1>. Or (<https://example.com/wiki/X_(y)>), "
+                + "or https://example.com/u?e=ala@example.com and <http://example.com>", decoded(mapped));
+        assertValidLines(encoded(mapped));
+        assertEquals(template.render(ALA, new StringBuilder()), decoded(unmapped));
+    }
+
+    @Test
+    @DisplayName("Should share one read-only buffer for the common text and only encode merge fields")
+    void testSharedBuffers() throws Exception {
+        String common = "Lorem ipsum dolor sit amet. ".repeat(100);
+        SharedBodyTemplate shared = SharedBodyTemplate.compile(CompiledTemplate.compile(common + "{{email}}"));
+        StringBuilder scratch = new StringBuilder();
+
+        EncodedBody first = shared.render(ALA, scratch);
+        EncodedBody second = shared.render(ZOFIA, scratch);
+
+        List<ByteBuffer> firstBuffers = first.buffers();
+        List<ByteBuffer> secondBuffers = second.buffers();
+        assertEquals(2, firstBuffers.size());
+        assertTrue(firstBuffers.getFirst().isReadOnly());
+        assertEquals(firstBuffers.getFirst(), secondBuffers.getFirst());
+        assertEquals("ala@example.com", StandardCharsets.US_ASCII.decode(firstBuffers.get(1)).toString());
+        assertEquals(common + "zofia@example.com", decoded(second));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.jiranewsletterapp.mail;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should allow a burst, then one token per emission interval")
+    void testBurstThenSteadyRate() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = 1_000L;
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        long wait = bucket.tryAcquire(now);
+        assertEquals(SECOND / 10, wait);
+
+        assertEquals(0, bucket.tryAcquire(now + wait));
+        assertTrue(bucket.tryAcquire(now + wait) > 0);
+    }
+
+    @Test
+    @DisplayName("Should refill up to the burst size only")
+    void testRefillCappedAtBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long later = 60 * SECOND;
+
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    @DisplayName("Should report when the whole burst is available again")
+    void testNanosUntilFull() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long now = 1_000L;
+
+        assertEquals(0, bucket.nanosUntilFull(now));
+        bucket.tryAcquire(now);
+        bucket.tryAcquire(now);
+        assertEquals(2 * SECOND / 10, bucket.nanosUntilFull(now));
+        assertEquals(0, bucket.nanosUntilFull(now + 2 * SECOND / 10));
+    }
+
+    @Test
+    @DisplayName("Should never throttle when rate is zero")
+    void testUnlimited() {
+        TokenBucket bucket = new TokenBucket(0, 1);
+
+        assertTrue(bucket.isUnlimited());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand out exactly the burst when raced by many threads")
+    void testConcurrentAcquire() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 500);
+        long now = System.nanoTime();
+        AtomicInteger granted = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 2_000; i++) {
+                executor.execute(() -> {
+                    if (bucket.tryAcquire(now) == 0) {
+                        granted.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertEquals(500, granted.get());
+    }
+
+    @Test
+    @DisplayName("Should parse per-domain rates and fall back to the default")
+    void testDomainRateLimits() {
+        DomainRateLimits limits = DomainRateLimits.parse(50, "Gmail.com=20, outlook.com=10");
+
+        assertEquals(20, limits.rateFor("gmail.com"));
+        assertEquals(10, limits.rateFor("outlook.com"));
+        assertEquals(50, limits.rateFor("example.com"));
+        assertEquals("gmail.com", DomainRateLimits.domainOf("Someone@GMAIL.com"));
+        assertThrows(IllegalArgumentException.class, () -> DomainRateLimits.parse(1, "gmail.com"));
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.jiranewsletterapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.jiranewsletterapp.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthenticationCacheTest {
+
+    private final AuthenticationCache cache = new AuthenticationCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+
+    @Test
+    @DisplayName("Should not cache a principal read before the user was invalidated")
+    void testStalePutAfterInvalidation() {
+        long stamp = cache.stamp();
+        cache.invalidateUser(1L);
+        cache.put("alice", "old", principal(1L), stamp);
+
+        assertNull(cache.get("alice", "old"));
+
+        cache.put("alice", "new", principal(1L), cache.stamp());
+
+        assertNotNull(cache.get("alice", "new"));
+    }
+
+    @Test
+    @DisplayName("Should evict only the invalidated user's entries")
+    void testInvalidateUser() {
+        cache.put("alice", "secret", principal(1L), cache.stamp());
+        cache.put("alice", "other", principal(1L), cache.stamp());
+        cache.put("bob", "secret", principal(2L), cache.stamp());
+
+        cache.invalidateUser(1L);
+
+        assertNull(cache.get("alice", "secret"));
+        assertNull(cache.get("alice", "other"));
+        assertNotNull(cache.get("bob", "secret"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should stop tracking a user once their entries are evicted")
+    void testEvictedEntriesAreUnindexed() throws InterruptedException {
+        AuthenticationCache small = new AuthenticationCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 1);
+        small.put("alice", "secret", principal(1L), small.stamp());
+        small.put("bob", "secret", principal(2L), small.stamp());
+
+        // Removal listeners run asynchronously.
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (small.trackedUsers() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, small.size());
+        assertEquals(1, small.trackedUsers());
+    }
+
+    @Test
+    @DisplayName("Should bound remembered invalidations and still reject stale principals")
+    void testForgottenInvalidationsStillReject() {
+        AuthenticationCache small = new AuthenticationCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 2);
+        long stamp = small.stamp();
+        for (long id = 1; id <= 10; id++) {
+            small.invalidateUser(id);
+        }
+
+        assertTrue(small.trackedUsers() <= 2);
+        small.put("alice", "old", principal(1L), stamp);
+        assertNull(small.get("alice", "old"));
+
+        small.put("alice", "new", principal(1L), small.stamp());
+        assertNotNull(small.get("alice", "new"));
+    }
+
+    private static UserPrincipal principal(long id) {
+        User user = new User();
+        user.setId(id);
+        return new UserPrincipal(user);
+    }
+}
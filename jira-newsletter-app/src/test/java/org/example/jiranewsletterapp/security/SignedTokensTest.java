@@ -0,0 +1,65 @@
+package org.example.jiranewsletterapp.security;
+
+import org.example.jiranewsletterapp.security.SignedTokens.Purpose;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignedTokensTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
+
+    private final SignedTokens tokens = new SignedTokens(SECRET);
+
+    @Test
+    @DisplayName("Should return the signed id until the token expires")
+    void testRoundTripAndExpiry() {
+        String token = tokens.sign(Purpose.CONFIRM_SUBSCRIPTION, 42L, NOW.plus(Duration.ofDays(7)));
+
+        assertEquals(OptionalLong.of(42L), tokens.verify(Purpose.CONFIRM_SUBSCRIPTION, token, NOW));
+        assertEquals(OptionalLong.of(42L), new SignedTokens(SECRET).verify(Purpose.CONFIRM_SUBSCRIPTION, token, NOW));
+        assertTrue(tokens.verify(Purpose.CONFIRM_SUBSCRIPTION, token, NOW.plus(Duration.ofDays(7))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, truncated, garbage and foreign tokens")
+    void testRejectsInvalidTokens() {
+        String token = tokens.sign(Purpose.CONFIRM_SUBSCRIPTION, 42L, NOW.plus(Duration.ofDays(7)));
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        bytes[7] ^= 1;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        assertTrue(tokens.verify(Purpose.CONFIRM_SUBSCRIPTION, tampered, NOW).isEmpty());
+        assertTrue(tokens.verify(Purpose.CONFIRM_SUBSCRIPTION, token.substring(1), NOW).isEmpty());
+        assertTrue(tokens.verify(Purpose.CONFIRM_SUBSCRIPTION, "not a token!", NOW).isEmpty());
+        assertTrue(tokens.verify(Purpose.CONFIRM_SUBSCRIPTION, null, NOW).isEmpty());
+        assertTrue(new SignedTokens("another-secret-another-secret-xx")
+                .verify(Purpose.CONFIRM_SUBSCRIPTION, token, NOW).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should refuse a secret shorter than 32 bytes")
+    void testShortSecret() {
+        assertThrows(IllegalArgumentException.class, () -> new SignedTokens("too-short"));
+    }
+
+    @Test
+    @DisplayName("Should only accept a context-bound token with the context it was signed with")
+    void testContextIsAuthenticated() {
+        String token = tokens.sign(Purpose.TRACK_CLICK, 7L, NOW.plus(Duration.ofDays(1)), "3 https://example.com/a");
+
+        assertEquals(OptionalLong.of(7L), tokens.verify(Purpose.TRACK_CLICK, token, NOW, "3 https://example.com/a"));
+        assertTrue(tokens.verify(Purpose.TRACK_CLICK, token, NOW, "3 https://evil.example/a").isEmpty());
+        assertTrue(tokens.verify(Purpose.TRACK_CLICK, token, NOW).isEmpty());
+        // Without a context a token is the same as before contexts existed.
+        String plain = tokens.sign(Purpose.UNSUBSCRIBE, 7L, NOW.plus(Duration.ofDays(1)));
+        assertEquals(OptionalLong.of(7L), tokens.verify(Purpose.UNSUBSCRIBE, plain, NOW, ""));
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.jiranewsletterapp.service;
+
+import org.example.jiranewsletterapp.dto.CampaignResponse;
+import org.example.jiranewsletterapp.dto.ScheduleRequest;
+import org.example.jiranewsletterapp.entity.CampaignStatus;
+import org.example.jiranewsletterapp.repository.CampaignRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CampaignDispatchServiceTest {
+
+    private CampaignRepository campaignRepository;
+    private OutboundMessageQueue outboundMessageQueue;
+    private ScheduledSendStore scheduledSendStore;
+    private ApplicationEventPublisher eventPublisher;
+    private CampaignDispatchService dispatchService;
+
+    @BeforeEach
+    void setUp() {
+        campaignRepository = mock(CampaignRepository.class);
+        outboundMessageQueue = mock(OutboundMessageQueue.class);
+        scheduledSendStore = mock(ScheduledSendStore.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        dispatchService = new CampaignDispatchService(campaignRepository, outboundMessageQueue, scheduledSendStore,
+                eventPublisher, "Europe/Warsaw");
+
+        when(campaignRepository.existsById(1L)).thenReturn(true);
+        when(campaignRepository.findResponseById(1L)).thenReturn(Optional.of(new CampaignResponse(1L, "Spring",
+                "Hello", CampaignStatus.SENDING, null, null, null, null, 0, 0)));
+    }
+
+    @Test
+    @DisplayName("Should move a draft to SENDING and enqueue its recipients")
+    void testStartDispatchEnqueues() {
+        when(campaignRepository.transitionStatus(eq(1L), eq(CampaignStatus.DRAFT), eq(CampaignStatus.SENDING), any()))
+                .thenReturn(1);
+        when(outboundMessageQueue.enqueueCampaign(1L)).thenReturn(3);
+
+        CampaignResponse response = dispatchService.startDispatch(1L);
+
+        assertEquals(CampaignStatus.SENDING, response.status());
+        verify(outboundMessageQueue).enqueueCampaign(1L);
+        verify(outboundMessageQueue, never()).finishIfDrained(any());
+    }
+
+    @Test
+    @DisplayName("Should finish a campaign straight away when it has no recipients")
+    void testStartDispatchWithoutRecipients() {
+        when(campaignRepository.transitionStatus(eq(1L), eq(CampaignStatus.DRAFT), eq(CampaignStatus.SENDING), any()))
+                .thenReturn(1);
+        when(outboundMessageQueue.enqueueCampaign(1L)).thenReturn(0);
+
+        dispatchService.startDispatch(1L);
+
+        verify(outboundMessageQueue).finishIfDrained(1L);
+    }
+
+    @Test
+    @DisplayName("Should refuse to start a campaign that is not a draft")
+    void testStartDispatchAlreadySent() {
+        when(campaignRepository.transitionStatus(eq(1L), eq(CampaignStatus.DRAFT), eq(CampaignStatus.SENDING), any()))
+                .thenReturn(0);
+
+        assertThrows(ResponseStatusException.class, () -> dispatchService.startDispatch(1L));
+        verify(outboundMessageQueue, never()).enqueueCampaign(any());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when starting unknown campaign")
+    void testStartDispatchNotFound() {
+        when(campaignRepository.existsById(99L)).thenReturn(false);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> dispatchService.startDispatch(99L));
+
+        assertEquals("Campaign not found with id: 99", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should schedule a draft's recipients in the configured time zone and announce it")
+    void testScheduleDispatch() {
+        LocalDateTime sendAt = LocalDateTime.of(2030, 1, 1, 9, 0);
+        when(campaignRepository.schedule(1L, sendAt, true)).thenReturn(1);
+        when(scheduledSendStore.scheduleCampaign(1L, sendAt, true, ZoneId.of("Europe/Warsaw"))).thenReturn(3);
+
+        dispatchService.scheduleDispatch(1L, new ScheduleRequest(sendAt, true));
+
+        verify(eventPublisher).publishEvent(new CampaignScheduledEvent(1L));
+        verify(outboundMessageQueue, never()).finishIfDrained(any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to schedule a campaign that is not a draft or has no send time")
+    void testScheduleDispatchRejected() {
+        LocalDateTime sendAt = LocalDateTime.of(2030, 1, 1, 9, 0);
+        when(campaignRepository.schedule(1L, sendAt, false)).thenReturn(0);
+
+        assertThrows(ResponseStatusException.class,
+                () -> dispatchService.scheduleDispatch(1L, new ScheduleRequest(sendAt, false)));
+        assertThrows(ResponseStatusException.class,
+                () -> dispatchService.scheduleDispatch(1L, new ScheduleRequest(null, false)));
+        verifyNoInteractions(scheduledSendStore);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.jiranewsletterapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTest {
+
+    @Test
+    @DisplayName("Should parse quoted fields with commas, quotes and line breaks")
+    void testNextParsesQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,\"b,c\",\"d\"\"e\"\r\n\"multi\nline\",,x\n"));
+
+        assertEquals(List.of("a", "b,c", "d\"e"), reader.next());
+        assertEquals(List.of("multi\nline", "", "x"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should return last record without trailing newline")
+    void testNextWithoutTrailingNewline() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b"));
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertNull(reader.next());
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.jiranewsletterapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvWriterTest {
+
+    @Test
+    @DisplayName("Should quote only values that need it")
+    void testWriteField() throws IOException {
+        StringBuilder out = new StringBuilder();
+        CsvWriter.writeField(out, "plain");
+        out.append(',');
+        CsvWriter.writeField(out, "a,\"b\"");
+        out.append(',');
+        CsvWriter.writeField(out, null);
+        out.append(',');
+        CsvWriter.writeField(out, "");
+
+        assertEquals("plain,\"a,\"\"b\"\"\",,\"\"", out.toString());
+    }
+}
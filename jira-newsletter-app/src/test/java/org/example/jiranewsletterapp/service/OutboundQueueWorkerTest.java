@@ -0,0 +1,72 @@
+package org.example.jiranewsletterapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.jiranewsletterapp.dto.OutboundMessage;
+import org.example.jiranewsletterapp.mail.MailSendScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OutboundQueueWorkerTest {
+
+    private OutboundMessageQueue queue;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        queue = mock(OutboundMessageQueue.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private OutboundQueueWorker workerWithMeterIdle(Duration meterIdle) {
+        return new OutboundQueueWorker(queue, mock(MailSendScheduler.class), mock(CampaignTemplateCache.class),
+                mock(UnsubscribeService.class), mock(TrackingService.class), meterRegistry, false, 1, 10,
+                Duration.ofMinutes(5), Duration.ofSeconds(1), "test", meterIdle);
+    }
+
+    private static OutboundMessage suppressedMessage(long id, long campaignId) {
+        return new OutboundMessage(id, campaignId, 1L, "gone@example.com", null, null, null, null, 1, null, true,
+                null, null);
+    }
+
+    private double messages(String campaign) {
+        Counter counter = meterRegistry.find("newsletter.mail.messages").tag("campaign", campaign).counter();
+        return counter == null ? -1 : counter.count();
+    }
+
+    @Test
+    @DisplayName("Should count attempts per campaign and remove the counters once the campaign is idle")
+    void testIdleCampaignMetersAreRemoved() {
+        when(queue.claim(anyString(), anyInt(), any())).thenReturn(List.of(suppressedMessage(1, 7)), List.of());
+        OutboundQueueWorker worker = workerWithMeterIdle(Duration.ZERO);
+
+        assertEquals(1, worker.processBatch());
+        assertEquals(1.0, messages("7"));
+
+        assertEquals(0, worker.processBatch());
+        assertEquals(-1, messages("7"));
+        assertTrue(meterRegistry.find("newsletter.mail.messages").meters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the counters of a campaign counted recently")
+    void testActiveCampaignMetersAreKept() {
+        when(queue.claim(anyString(), anyInt(), any()))
+                .thenReturn(List.of(suppressedMessage(1, 7)), List.of(), List.of(suppressedMessage(2, 7)));
+        OutboundQueueWorker worker = workerWithMeterIdle(Duration.ofHours(1));
+
+        worker.processBatch();
+        worker.processBatch();
+        worker.processBatch();
+
+        assertEquals(2.0, messages("7"));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.jiranewsletterapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.jiranewsletterapp.dto.SignupRequest;
+import org.example.jiranewsletterapp.repository.SubscriberListRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PublicSignupServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SubscriberListRepository listRepository;
+    private PublicSignupService signupService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        listRepository = mock(SubscriberListRepository.class);
+        when(listRepository.existsByIdAndPublicSignupTrue(anyLong())).thenReturn(true);
+        signupService = new PublicSignupService(jdbcTemplate, mock(TransactionTemplate.class),
+                mock(SubscriberListMembershipIndex.class), mock(SubscriptionConfirmationService.class),
+                listRepository, new SimpleMeterRegistry(), 2, 10, Duration.ofHours(1), Duration.ofMinutes(1));
+    }
+
+    private static HttpStatus statusOf(Runnable action) {
+        return (HttpStatus) assertThrows(ResponseStatusException.class, action::run).getStatusCode();
+    }
+
+    @Test
+    @DisplayName("Should reject a signup without a valid email or list")
+    void testRejectsInvalidSignup() {
+        assertEquals(HttpStatus.BAD_REQUEST,
+                statusOf(() -> signupService.signup(new SignupRequest("not-an-email", null, null, 1L, null))));
+        assertEquals(HttpStatus.BAD_REQUEST,
+                statusOf(() -> signupService.signup(new SignupRequest(" ", null, null, 1L, null))));
+        assertEquals(HttpStatus.BAD_REQUEST,
+                statusOf(() -> signupService.signup(new SignupRequest("jan@example.com", null, null, null, null))));
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(() -> signupService.signup(
+                new SignupRequest("jan@example.com", "x".repeat(256), null, 1L, null))));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for a list that does not take public signups")
+    void testRejectsListWithoutPublicSignup() {
+        when(listRepository.existsByIdAndPublicSignupTrue(7L)).thenReturn(false);
+
+        assertEquals(HttpStatus.NOT_FOUND,
+                statusOf(() -> signupService.signup(new SignupRequest("jan@example.com", null, null, 7L, null))));
+        assertEquals(HttpStatus.NOT_FOUND,
+                statusOf(() -> signupService.signup(new SignupRequest("anna@example.com", null, null, 7L, null))));
+        // The answer is cached, so a burst against one list costs a single lookup.
+        verify(listRepository, times(1)).existsByIdAndPublicSignupTrue(7L);
+        assertEquals(0, signupService.flush());
+    }
+
+    @Test
+    @DisplayName("Should coalesce repeated signups and answer 503 once the buffer is full")
+    void testBackpressureWhenBufferIsFull() {
+        signupService.signup(new SignupRequest("jan@example.com", "Jan", null, 1L, null));
+        signupService.signup(new SignupRequest("JAN@example.com", "Jan", "Kowalski", 1L, null));
+        signupService.signup(new SignupRequest("jan@example.com", null, null, 2L, null));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                statusOf(() -> signupService.signup(new SignupRequest("anna@example.com", null, null, 1L, null))));
+        // A repeat of a queued signup still fits.
+        signupService.signup(new SignupRequest("jan@example.com", null, null, 2L, "landing-page"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
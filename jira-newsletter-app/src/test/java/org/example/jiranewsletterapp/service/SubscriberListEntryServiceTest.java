@@ -1,11 +1,14 @@
 package org.example.jiranewsletterapp.service;
 
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.SubscriberListEntryResponse;
 import org.example.jiranewsletterapp.entity.*;
 import org.example.jiranewsletterapp.repository.*;
 import org.example.jiranewsletterapp.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,20 +23,24 @@ import static org.mockito.Mockito.*;
 public class SubscriberListEntryServiceTest {
 
     private SubscriberListEntryRepository entryRepository;
-    private UserRepository userRepository;
     private SubscriberListRepository listRepository;
     private SubscriberRepository subscriberRepository;
+    private SubscriberListMembershipIndex membershipIndex;
+    private SubscriptionConfirmationService confirmationService;
     private SubscriberListEntryService entryService;
     private User testUser;
 
     @BeforeEach
     void setUp() {
         entryRepository = mock(SubscriberListEntryRepository.class);
-        userRepository = mock(UserRepository.class);
         listRepository = mock(SubscriberListRepository.class);
         subscriberRepository = mock(SubscriberRepository.class);
 
-        entryService = new SubscriberListEntryService(entryRepository, userRepository, listRepository, subscriberRepository);
+        membershipIndex = mock(SubscriberListMembershipIndex.class);
+        confirmationService = mock(SubscriptionConfirmationService.class);
+
+        entryService = new SubscriberListEntryService(entryRepository, listRepository, subscriberRepository, membershipIndex,
+                confirmationService);
 
         testUser = new User();
         testUser.setId(1L);
@@ -56,33 +63,34 @@ public class SubscriberListEntryServiceTest {
     @Test
     @DisplayName("Should return all subscriber list entries")
     void testGetAllEntries() {
-        SubscriberListEntry entry1 = new SubscriberListEntry();
-        SubscriberListEntry entry2 = new SubscriberListEntry();
+        SubscriberListEntryResponse entry1 = SubscriberListEntryResponse.from(new SubscriberListEntry());
+        SubscriberListEntryResponse entry2 = SubscriberListEntryResponse.from(new SubscriberListEntry());
 
-        when(entryRepository.findAll()).thenReturn(Arrays.asList(entry1, entry2));
+        when(entryRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51))).thenReturn(Arrays.asList(entry1, entry2));
 
-        List<SubscriberListEntry> entries = entryService.getAllEntries();
+        CursorPage<SubscriberListEntryResponse> entries = entryService.getAllEntries(null, null);
 
-        assertEquals(2, entries.size());
-        verify(entryRepository, times(1)).findAll();
+        assertEquals(2, entries.items().size());
+        assertNull(entries.nextCursor());
+        verify(entryRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51));
     }
 
     @Test
     @DisplayName("Should return entry by ID")
     void testGetEntryById() {
-        SubscriberListEntry entry = new SubscriberListEntry();
-        when(entryRepository.findById(10L)).thenReturn(Optional.of(entry));
+        SubscriberListEntryResponse entry = SubscriberListEntryResponse.from(new SubscriberListEntry());
+        when(entryRepository.findResponseById(10L)).thenReturn(Optional.of(entry));
 
-        SubscriberListEntry result = entryService.getById(10L);
+        SubscriberListEntryResponse result = entryService.getById(10L);
 
         assertNotNull(result);
-        verify(entryRepository, times(1)).findById(10L);
+        verify(entryRepository, times(1)).findResponseById(10L);
     }
 
     @Test
     @DisplayName("Should throw exception when entry not found by ID")
     void testGetEntryByIdNotFound() {
-        when(entryRepository.findById(99L)).thenReturn(Optional.empty());
+        when(entryRepository.findResponseById(99L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             entryService.getById(99L);
@@ -118,9 +126,13 @@ public class SubscriberListEntryServiceTest {
     @Test
     @DisplayName("Should delete subscriber list entry by ID")
     void testDeleteEntry() {
+        SubscriberListEntry entry = new SubscriberListEntry();
+        when(entryRepository.findById(8L)).thenReturn(Optional.of(entry));
+
         entryService.deleteEntry(8L);
 
-        verify(entryRepository, times(1)).deleteById(8L);
+        verify(entryRepository, times(1)).delete(entry);
+        verify(membershipIndex, times(1)).remove(entry);
     }
 
     @Test
@@ -141,22 +153,72 @@ public class SubscriberListEntryServiceTest {
         assertEquals(list, result.getList());
         assertEquals(subscriber, result.getSubscriber());
         verify(entryRepository, times(1)).save(result);
+        verify(membershipIndex, times(1)).add(result);
+    }
+
+    @Test
+    @DisplayName("Should ask a newly assigned subscriber to confirm")
+    void testAssignRequestsConfirmation() {
+        SubscriberList list = new SubscriberList();
+        list.setId(1L);
+        list.setName("News");
+        Subscriber subscriber = new Subscriber();
+        subscriber.setId(2L);
+        subscriber.setEmail("new@example.com");
+
+        when(listRepository.findById(1L)).thenReturn(Optional.of(list));
+        when(subscriberRepository.findById(2L)).thenReturn(Optional.of(subscriber));
+        when(entryRepository.save(any(SubscriberListEntry.class))).thenAnswer(inv -> {
+            SubscriberListEntry entry = inv.getArgument(0);
+            entry.setId(3L);
+            return entry;
+        });
+
+        entryService.assignSubscriberToListAsAdmin(1L, 2L);
+
+        verify(confirmationService, times(1)).requestConfirmation(
+                new SubscriptionConfirmationService.PendingEntry(3L, 2L, 1L, "new@example.com", "News"));
     }
+
+    @Test
+    @DisplayName("Should not ask for confirmation of an entry created as confirmed")
+    void testCreateConfirmedEntrySkipsConfirmation() {
+        SubscriberListEntry entry = new SubscriberListEntry();
+        entry.setConfirmed(true);
+        entry.setSubscriber(new Subscriber());
+        when(entryRepository.save(entry)).thenReturn(entry);
+
+        entryService.createEntry(entry);
+
+        verifyNoInteractions(confirmationService);
+    }
+
+    @Test
+    @DisplayName("Should not assign subscriber already on the list")
+    void testAssignSubscriberToListAsAdminAlreadyAssigned() {
+        when(listRepository.findById(1L)).thenReturn(Optional.of(new SubscriberList()));
+        when(subscriberRepository.findById(2L)).thenReturn(Optional.of(new Subscriber()));
+        when(entryRepository.existsByListIdAndSubscriberId(1L, 2L)).thenReturn(true);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> entryService.assignSubscriberToListAsAdmin(1L, 2L));
+
+        assertEquals("Subscriber already assigned to list", exception.getMessage());
+        verify(entryRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should return entries for current user")
     void testGetEntriesForCurrentUser() {
-        SubscriberList list1 = new SubscriberList();
-        SubscriberListEntry entry1 = new SubscriberListEntry();
-        SubscriberListEntry entry2 = new SubscriberListEntry();
-        list1.setEntries(Arrays.asList(entry1, entry2));
-        testUser.setSubscriberLists(List.of(list1));
+        SubscriberListEntryResponse entry1 = SubscriberListEntryResponse.from(new SubscriberListEntry());
+        SubscriberListEntryResponse entry2 = SubscriberListEntryResponse.from(new SubscriberListEntry());
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(entryRepository.findResponsesByListOwnerId(1L)).thenReturn(Arrays.asList(entry1, entry2));
 
-        List<SubscriberListEntry> result = entryService.getEntriesForCurrentUser();
+        List<SubscriberListEntryResponse> result = entryService.getEntriesForCurrentUser();
 
         assertEquals(2, result.size());
-        verify(userRepository, times(1)).findById(1L);
+        verify(entryRepository, times(1)).findResponsesByListOwnerId(1L);
     }
 
     @Test
@@ -173,6 +235,7 @@ public class SubscriberListEntryServiceTest {
         entryService.deleteEntryForCurrentUser(11L);
 
         verify(entryRepository, times(1)).delete(entry);
+        verify(membershipIndex, times(1)).remove(entry);
     }
 
     @Test
@@ -206,12 +269,8 @@ public class SubscriberListEntryServiceTest {
         Subscriber existingSubscriber = new Subscriber();
         existingSubscriber.setId(200L);
 
-        SubscriberListEntry existingEntry = new SubscriberListEntry();
-        existingEntry.setSubscriber(existingSubscriber);
-        userList.setEntries(List.of(existingEntry));
-
-        when(listRepository.findById(100L)).thenReturn(Optional.of(userList));
-        when(listRepository.findAll()).thenReturn(List.of(userList));
+        when(listRepository.findByIdAndOwnerId(100L, 1L)).thenReturn(Optional.of(userList));
+        when(entryRepository.existsBySubscriberIdAndListOwnerId(200L, 1L)).thenReturn(true);
         when(subscriberRepository.findById(200L)).thenReturn(Optional.of(existingSubscriber));
         when(entryRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
@@ -220,6 +279,7 @@ public class SubscriberListEntryServiceTest {
         assertEquals(existingSubscriber, result.getSubscriber());
         assertEquals(userList, result.getList());
         verify(entryRepository, times(1)).save(result);
+        verify(listRepository, never()).findAll();
     }
 
     @Test
@@ -228,15 +288,28 @@ public class SubscriberListEntryServiceTest {
         SubscriberList list = new SubscriberList();
         list.setId(400L);
         list.setOwner(testUser);
-        list.setEntries(List.of()); // no matching subscriber
 
-        when(listRepository.findById(400L)).thenReturn(Optional.of(list));
-        when(listRepository.findAll()).thenReturn(List.of(list));
+        when(listRepository.findByIdAndOwnerId(400L, 1L)).thenReturn(Optional.of(list));
+        when(entryRepository.existsBySubscriberIdAndListOwnerId(99L, 1L)).thenReturn(false);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             entryService.assignSubscriberToMyList(400L, 99L);
         });
 
         assertEquals("Subscriber not found on any of your lists", exception.getMessage());
+        verify(entryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when assigning to list not owned by user")
+    void testAssignToListNotOwned() {
+        when(listRepository.findByIdAndOwnerId(500L, 1L)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            entryService.assignSubscriberToMyList(500L, 99L);
+        });
+
+        assertEquals("List not found or not owned by current user", exception.getMessage());
+        verify(entryRepository, never()).existsBySubscriberIdAndListOwnerId(any(), any());
     }
 }
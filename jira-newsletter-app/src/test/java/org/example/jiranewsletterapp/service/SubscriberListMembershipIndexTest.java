@@ -0,0 +1,135 @@
+package org.example.jiranewsletterapp.service;
+
+import org.example.jiranewsletterapp.dto.AudienceQuery;
+import org.example.jiranewsletterapp.dto.ListMembership;
+import org.example.jiranewsletterapp.entity.Subscriber;
+import org.example.jiranewsletterapp.entity.SubscriberList;
+import org.example.jiranewsletterapp.entity.SubscriberListEntry;
+import org.example.jiranewsletterapp.repository.SubscriberListEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SubscriberListMembershipIndexTest {
+
+    private SubscriberListEntryRepository entryRepository;
+    private SubscriberListMembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository = mock(SubscriberListEntryRepository.class);
+        index = new SubscriberListMembershipIndex(entryRepository);
+
+        // list 1: {1,2,3,4}, list 2: {3,4,5}, list 3: {4}
+        when(entryRepository.streamAllMemberships()).thenReturn(Stream.of(
+                new ListMembership(1L, 1L), new ListMembership(1L, 2L),
+                new ListMembership(1L, 3L), new ListMembership(1L, 4L),
+                new ListMembership(2L, 3L), new ListMembership(2L, 4L), new ListMembership(2L, 5L),
+                new ListMembership(3L, 4L)));
+        index.rebuild();
+    }
+
+    private static long[] ids(Roaring64Bitmap bitmap) {
+        return bitmap.toArray();
+    }
+
+    @Test
+    @DisplayName("Should refuse queries before the index is built")
+    void testNotReady() {
+        SubscriberListMembershipIndex fresh = new SubscriberListMembershipIndex(entryRepository);
+
+        assertThrows(ResponseStatusException.class, () -> fresh.evaluate(new AudienceQuery(List.of(1L), null, null)));
+    }
+
+    @Test
+    @DisplayName("Should compute union of lists")
+    void testUnion() {
+        Roaring64Bitmap result = index.evaluate(new AudienceQuery(List.of(1L, 2L), null, null));
+
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5}, ids(result));
+    }
+
+    @Test
+    @DisplayName("Should compute intersection minus exclusion")
+    void testIntersectionMinusExclusion() {
+        Roaring64Bitmap result = index.evaluate(new AudienceQuery(null, List.of(1L, 2L), List.of(3L)));
+
+        assertArrayEquals(new long[]{3}, ids(result));
+    }
+
+    @Test
+    @DisplayName("Should not modify stored bitmaps when evaluating")
+    void testEvaluateDoesNotMutate() {
+        index.evaluate(new AudienceQuery(List.of(1L), null, List.of(2L)));
+
+        assertEquals(4L, index.cardinality(1L));
+        assertEquals(3L, index.cardinality(2L));
+    }
+
+    @Test
+    @DisplayName("Should treat unknown lists as empty")
+    void testUnknownList() {
+        assertTrue(index.evaluate(new AudienceQuery(List.of(99L), null, null)).isEmpty());
+        assertTrue(index.evaluate(new AudienceQuery(List.of(1L), List.of(99L), null)).isEmpty());
+        assertEquals(0L, index.cardinality(99L));
+    }
+
+    @Test
+    @DisplayName("Should add and remove memberships incrementally")
+    void testIncrementalUpdates() {
+        SubscriberList list = new SubscriberList();
+        list.setId(3L);
+        Subscriber subscriber = new Subscriber();
+        subscriber.setId(7L);
+        SubscriberListEntry entry = new SubscriberListEntry();
+        entry.setList(list);
+        entry.setSubscriber(subscriber);
+
+        index.add(entry);
+        assertEquals(2L, index.cardinality(3L));
+
+        when(entryRepository.existsByListIdAndSubscriberId(3L, 7L)).thenReturn(false);
+        index.remove(entry);
+        assertEquals(1L, index.cardinality(3L));
+    }
+
+    @Test
+    @DisplayName("Should keep membership while another entry for the same pair exists")
+    void testRemoveKeepsDuplicateMembership() {
+        when(entryRepository.existsByListIdAndSubscriberId(1L, 2L)).thenReturn(true);
+
+        index.remove(1L, 2L);
+
+        assertEquals(4L, index.cardinality(1L));
+    }
+
+    @Test
+    @DisplayName("Should remove deleted memberships in bulk without asking the repository")
+    void testRemoveAll() {
+        index.removeAll(List.of(new ListMembership(1L, 1L), new ListMembership(1L, 4L), new ListMembership(2L, 4L),
+                new ListMembership(99L, 1L)));
+
+        assertArrayEquals(new long[]{2, 3}, ids(index.evaluate(new AudienceQuery(List.of(1L), null, null))));
+        assertArrayEquals(new long[]{3, 5}, ids(index.evaluate(new AudienceQuery(List.of(2L), null, null))));
+        verify(entryRepository, never()).existsByListIdAndSubscriberId(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should drop and reload whole lists")
+    void testRemoveAndReloadList() {
+        index.removeList(2L);
+        assertEquals(0L, index.cardinality(2L));
+
+        when(entryRepository.findSubscriberIdsByListId(2L)).thenReturn(List.of(8L, 9L));
+        index.reloadList(2L);
+        assertArrayEquals(new long[]{8, 9}, ids(index.evaluate(new AudienceQuery(List.of(2L), null, null))));
+    }
+}
@@ -1,13 +1,19 @@
 package org.example.jiranewsletterapp.service;
 
+import org.example.jiranewsletterapp.dto.AudienceQuery;
+import org.example.jiranewsletterapp.dto.AudienceResult;
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.SubscriberListResponse;
 import org.example.jiranewsletterapp.entity.SubscriberList;
 import org.example.jiranewsletterapp.entity.User;
 import org.example.jiranewsletterapp.repository.SubscriberListRepository;
 import org.example.jiranewsletterapp.repository.UserRepository;
 import org.example.jiranewsletterapp.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -23,6 +29,7 @@ public class SubscriberListServiceTest {
 
     private SubscriberListRepository listRepository;
     private UserRepository userRepository;
+    private SubscriberListMembershipIndex membershipIndex;
     private SubscriberListService listService;
 
     private User testUser;
@@ -31,7 +38,8 @@ public class SubscriberListServiceTest {
     void setUp() {
         listRepository = mock(SubscriberListRepository.class);
         userRepository = mock(UserRepository.class);
-        listService = new SubscriberListService(listRepository, userRepository);
+        membershipIndex = mock(SubscriberListMembershipIndex.class);
+        listService = new SubscriberListService(listRepository, userRepository, membershipIndex);
 
         testUser = new User();
         testUser.setId(1L);
@@ -62,12 +70,14 @@ public class SubscriberListServiceTest {
         SubscriberList list2 = new SubscriberList();
         list2.setName("List B");
 
-        when(listRepository.findAll()).thenReturn(Arrays.asList(list1, list2));
+        when(listRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51)))
+                .thenReturn(Arrays.asList(SubscriberListResponse.from(list1), SubscriberListResponse.from(list2)));
 
-        List<SubscriberList> result = listService.getAllLists();
+        CursorPage<SubscriberListResponse> result = listService.getAllLists(null, null);
 
-        assertEquals(2, result.size());
-        verify(listRepository, times(1)).findAll();
+        assertEquals(2, result.items().size());
+        assertNull(result.nextCursor());
+        verify(listRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51));
     }
 
     @Test
@@ -76,25 +86,25 @@ public class SubscriberListServiceTest {
         SubscriberList list = new SubscriberList();
         list.setName("VIP List");
 
-        when(listRepository.findById(1L)).thenReturn(Optional.of(list));
+        when(listRepository.findResponseById(1L)).thenReturn(Optional.of(SubscriberListResponse.from(list)));
 
-        SubscriberList result = listService.getById(1L);
+        SubscriberListResponse result = listService.getById(1L);
 
-        assertEquals("VIP List", result.getName());
-        verify(listRepository, times(1)).findById(1L);
+        assertEquals("VIP List", result.name());
+        verify(listRepository, times(1)).findResponseById(1L);
     }
 
     @Test
     @DisplayName("Should throw exception if list by ID not found")
     void testGetByIdNotFound() {
-        when(listRepository.findById(42L)).thenReturn(Optional.empty());
+        when(listRepository.findResponseById(42L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             listService.getById(42L);
         });
 
         assertEquals("List not found with id: 42", exception.getMessage());
-        verify(listRepository, times(1)).findById(42L);
+        verify(listRepository, times(1)).findResponseById(42L);
     }
 
     @Test
@@ -159,6 +169,23 @@ public class SubscriberListServiceTest {
         listService.deleteList(7L);
 
         verify(listRepository, times(1)).deleteById(7L);
+        verify(membershipIndex, times(1)).removeList(7L);
+    }
+
+    @Test
+    @DisplayName("Should return audience cardinality and capped subscriber ids")
+    void testGetAudience() {
+        AudienceQuery query = new AudienceQuery(List.of(1L), null, null);
+        Roaring64Bitmap audience = new Roaring64Bitmap();
+        for (long id = 1; id <= 10; id++) {
+            audience.addLong(id);
+        }
+        when(membershipIndex.evaluate(query)).thenReturn(audience);
+
+        AudienceResult result = listService.getAudience(query, 3);
+
+        assertEquals(10L, result.cardinality());
+        assertEquals(List.of(1L, 2L, 3L), result.subscriberIds());
     }
 
     @Test
@@ -172,15 +199,16 @@ public class SubscriberListServiceTest {
         list2.setName("List B");
         list2.setOwner(testUser);
 
-        testUser.setSubscriberLists(Arrays.asList(list1, list2));
+        when(listRepository.findResponsesByOwnerId(1L))
+                .thenReturn(Arrays.asList(SubscriberListResponse.from(list1), SubscriberListResponse.from(list2)));
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-
-        List<SubscriberList> result = listService.getCurrentUserLists();
+        List<SubscriberListResponse> result = listService.getCurrentUserLists();
 
         assertEquals(2, result.size());
-        assertEquals("List A", result.get(0).getName());
-        verify(userRepository, times(1)).findById(1L);
+        assertEquals("List A", result.get(0).name());
+        assertEquals(1L, result.get(0).ownerId());
+        verify(listRepository, times(1)).findResponsesByOwnerId(1L);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -191,24 +219,18 @@ public class SubscriberListServiceTest {
         list.setName("My List");
         list.setOwner(testUser);
 
-        when(listRepository.findById(5L)).thenReturn(Optional.of(list));
+        when(listRepository.findResponseByIdAndOwnerId(5L, 1L)).thenReturn(Optional.of(SubscriberListResponse.from(list)));
 
-        SubscriberList result = listService.getMyListById(5L);
+        SubscriberListResponse result = listService.getMyListById(5L);
 
-        assertEquals("My List", result.getName());
-        verify(listRepository, times(1)).findById(5L);
+        assertEquals("My List", result.name());
+        verify(listRepository, times(1)).findResponseByIdAndOwnerId(5L, 1L);
     }
 
     @Test
     @DisplayName("Should throw exception when list not found or not owned")
     void testGetMyListByIdForbidden() {
-        SubscriberList list = new SubscriberList();
-        list.setId(6L);
-        User anotherUser = new User();
-        anotherUser.setId(999L);
-        list.setOwner(anotherUser);
-
-        when(listRepository.findById(6L)).thenReturn(Optional.of(list));
+        when(listRepository.findResponseByIdAndOwnerId(6L, 1L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             listService.getMyListById(6L);
@@ -244,7 +266,7 @@ public class SubscriberListServiceTest {
         SubscriberList updated = new SubscriberList();
         updated.setName("Updated Name");
 
-        when(listRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(listRepository.findByIdAndOwnerId(10L, 1L)).thenReturn(Optional.of(existing));
         when(listRepository.save(existing)).thenReturn(existing);
 
         SubscriberList result = listService.updateListForCurrentUser(10L, updated);
@@ -260,10 +282,11 @@ public class SubscriberListServiceTest {
         list.setId(20L);
         list.setOwner(testUser);
 
-        when(listRepository.findById(20L)).thenReturn(Optional.of(list));
+        when(listRepository.findByIdAndOwnerId(20L, 1L)).thenReturn(Optional.of(list));
 
         listService.deleteListForCurrentUser(20L);
 
         verify(listRepository, times(1)).delete(list);
+        verify(membershipIndex, times(1)).removeList(20L);
     }
 }
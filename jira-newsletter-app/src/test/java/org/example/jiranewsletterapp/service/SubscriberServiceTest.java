@@ -1,16 +1,19 @@
 package org.example.jiranewsletterapp.service;
 
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.SubscriberResponse;
 import org.example.jiranewsletterapp.entity.Subscriber;
-import org.example.jiranewsletterapp.entity.SubscriberList;
-import org.example.jiranewsletterapp.entity.SubscriberListEntry;
 import org.example.jiranewsletterapp.entity.User;
 import org.example.jiranewsletterapp.repository.SubscriberRepository;
-import org.example.jiranewsletterapp.repository.UserRepository;
 import org.example.jiranewsletterapp.security.UserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -21,14 +24,12 @@ import static org.mockito.Mockito.*;
 public class SubscriberServiceTest {
 
     private SubscriberRepository subscriberRepository;
-    private UserRepository userRepository;
     private SubscriberService subscriberService;
 
     @BeforeEach
     void setUp() {
         subscriberRepository = mock(SubscriberRepository.class);
-        userRepository = mock(UserRepository.class);
-        subscriberService = new SubscriberService(subscriberRepository, userRepository);
+        subscriberService = new SubscriberService(subscriberRepository);
     }
 
     @Test
@@ -40,12 +41,62 @@ public class SubscriberServiceTest {
         Subscriber subscriber2 = new Subscriber();
         subscriber2.setEmail("bob@example.com");
 
-        when(subscriberRepository.findAll()).thenReturn(Arrays.asList(subscriber1, subscriber2));
+        when(subscriberRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51)))
+                .thenReturn(Arrays.asList(SubscriberResponse.from(subscriber1), SubscriberResponse.from(subscriber2)));
 
-        List<Subscriber> subscribers = subscriberService.getAllSubscribers();
+        CursorPage<SubscriberResponse> page = subscriberService.getAllSubscribers(null, null);
 
-        assertEquals(2, subscribers.size());
-        verify(subscriberRepository, times(1)).findAll();
+        assertEquals(2, page.items().size());
+        assertNull(page.nextCursor());
+        verify(subscriberRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51));
+    }
+
+    @Test
+    @DisplayName("Should return next cursor when more subscribers exist")
+    void testGetAllSubscribersNextPage() {
+        Subscriber subscriber1 = new Subscriber();
+        subscriber1.setId(1L);
+        Subscriber subscriber2 = new Subscriber();
+        subscriber2.setId(2L);
+        Subscriber subscriber3 = new Subscriber();
+        subscriber3.setId(3L);
+
+        when(subscriberRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(Arrays.asList(SubscriberResponse.from(subscriber1), SubscriberResponse.from(subscriber2),
+                        SubscriberResponse.from(subscriber3)));
+        when(subscriberRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3)))
+                .thenReturn(List.of(SubscriberResponse.from(subscriber3)));
+
+        CursorPage<SubscriberResponse> first = subscriberService.getAllSubscribers(null, 2);
+
+        assertEquals(2, first.items().size());
+        assertNotNull(first.nextCursor());
+
+        CursorPage<SubscriberResponse> second = subscriberService.getAllSubscribers(first.nextCursor(), 2);
+
+        assertEquals(1, second.items().size());
+        assertEquals(3L, second.items().get(0).id());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should cap page size at the maximum")
+    void testGetAllSubscribersPageSizeCapped() {
+        when(subscriberRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of());
+
+        subscriberService.getAllSubscribers(null, 1_000_000);
+
+        verify(subscriberRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CursorPage.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void testGetAllSubscribersInvalidCursor() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            subscriberService.getAllSubscribers("not-a-cursor", null);
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
     }
 
     @Test
@@ -54,25 +105,25 @@ public class SubscriberServiceTest {
         Subscriber subscriber = new Subscriber();
         subscriber.setEmail("carol@example.com");
 
-        when(subscriberRepository.findById(1L)).thenReturn(Optional.of(subscriber));
+        when(subscriberRepository.findResponseById(1L)).thenReturn(Optional.of(SubscriberResponse.from(subscriber)));
 
-        Subscriber result = subscriberService.getById(1L);
+        SubscriberResponse result = subscriberService.getById(1L);
 
-        assertEquals("carol@example.com", result.getEmail());
-        verify(subscriberRepository, times(1)).findById(1L);
+        assertEquals("carol@example.com", result.email());
+        verify(subscriberRepository, times(1)).findResponseById(1L);
     }
 
     @Test
     @DisplayName("Should throw exception if subscriber by ID not found")
     void testGetSubscriberByIdNotFound() {
-        when(subscriberRepository.findById(99L)).thenReturn(Optional.empty());
+        when(subscriberRepository.findResponseById(99L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             subscriberService.getById(99L);
         });
 
         assertEquals("Subscriber not found with id: 99", exception.getMessage());
-        verify(subscriberRepository, times(1)).findById(99L);
+        verify(subscriberRepository, times(1)).findResponseById(99L);
     }
 
     @Test
@@ -89,6 +140,38 @@ public class SubscriberServiceTest {
         verify(subscriberRepository, times(1)).save(subscriber);
     }
 
+    @Test
+    @DisplayName("Should create subscribers in one batch")
+    void testCreateAllSubscribers() {
+        Subscriber subscriber1 = new Subscriber();
+        subscriber1.setEmail("frank@example.com");
+        Subscriber subscriber2 = new Subscriber();
+        subscriber2.setEmail("grace@example.com");
+        List<Subscriber> subscribers = List.of(subscriber1, subscriber2);
+
+        when(subscriberRepository.saveAll(subscribers)).thenReturn(subscribers);
+
+        List<Subscriber> result = subscriberService.createAll(subscribers);
+
+        assertEquals(2, result.size());
+        verify(subscriberRepository, times(1)).saveAll(subscribers);
+    }
+
+    @Test
+    @DisplayName("Should reject batch larger than the limit")
+    void testCreateAllSubscribersTooLarge() {
+        List<Subscriber> subscribers = new ArrayList<>();
+        for (int i = 0; i <= SubscriberService.MAX_BATCH_SIZE; i++) {
+            subscribers.add(new Subscriber());
+        }
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> subscriberService.createAll(subscribers));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(subscriberRepository, never()).saveAll(any());
+    }
+
     @Test
     @DisplayName("Should update subscriber")
     void testUpdateSubscriber() {
@@ -147,15 +230,8 @@ public class SubscriberServiceTest {
         subscriber.setId(1L);
         subscriber.setEmail("user@example.com");
 
-        SubscriberListEntry entry = new SubscriberListEntry();
-        entry.setSubscriber(subscriber);
-
-        SubscriberList list = new SubscriberList();
-        list.setEntries(List.of(entry));
-
         User mockUser = new User();
         mockUser.setId(10L);
-        mockUser.setSubscriberLists(List.of(list));
 
         UserPrincipal principal = mock(UserPrincipal.class);
         when(principal.getUser()).thenReturn(mockUser);
@@ -168,11 +244,13 @@ public class SubscriberServiceTest {
 
         org.springframework.security.core.context.SecurityContextHolder.setContext(context);
 
-        when(userRepository.findById(10L)).thenReturn(Optional.of(mockUser));
+        when(subscriberRepository.findByOwnerIdAndIdGreaterThan(10L, 0L, Limit.of(51)))
+                .thenReturn(List.of(SubscriberResponse.from(subscriber)));
 
-        List<Subscriber> result = subscriberService.getMySubscribers();
+        CursorPage<SubscriberResponse> result = subscriberService.getMySubscribers(null, null);
 
-        assertEquals(1, result.size());
-        assertEquals("user@example.com", result.get(0).getEmail());
+        assertEquals(1, result.items().size());
+        assertEquals("user@example.com", result.items().get(0).email());
+        verify(subscriberRepository, times(1)).findByOwnerIdAndIdGreaterThan(10L, 0L, Limit.of(51));
     }
 }
@@ -1,13 +1,16 @@
 package org.example.jiranewsletterapp.service;
 
+import org.example.jiranewsletterapp.dto.CursorPage;
+import org.example.jiranewsletterapp.dto.UserResponse;
 import org.example.jiranewsletterapp.entity.User;
 import org.example.jiranewsletterapp.repository.UserRepository;
+import org.example.jiranewsletterapp.security.AuthenticationCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -16,12 +19,14 @@ import static org.mockito.Mockito.*;
 public class UserServiceTest {
 
     private UserRepository userRepository;
+    private AuthenticationCache authenticationCache;
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
-        userService = new UserService(userRepository);
+        authenticationCache = mock(AuthenticationCache.class);
+        userService = new UserService(userRepository, authenticationCache);
     }
 
     @Test
@@ -33,12 +38,13 @@ public class UserServiceTest {
         User user2 = new User();
         user2.setEmail("user2@example.com");
 
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user1, user2));
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51))).thenReturn(Arrays.asList(UserResponse.from(user1), UserResponse.from(user2)));
 
-        List<User> users = userService.getAllUsers();
+        CursorPage<UserResponse> users = userService.getAllUsers(null, null);
 
-        assertEquals(2, users.size());
-        verify(userRepository, times(1)).findAll();
+        assertEquals(2, users.items().size());
+        assertNull(users.nextCursor());
+        verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51));
     }
 
     @Test
@@ -94,6 +100,7 @@ public class UserServiceTest {
         assertEquals("updated@example.com", result.getEmail());
         assertEquals(1L, result.getId());
         verify(userRepository, times(1)).save(updated);
+        verify(authenticationCache, times(1)).invalidateUser(1L);
     }
 
     @Test
@@ -102,5 +109,6 @@ public class UserServiceTest {
         userService.deleteUser(1L);
 
         verify(userRepository, times(1)).deleteById(1L);
+        verify(authenticationCache, times(1)).invalidateUser(1L);
     }
 }
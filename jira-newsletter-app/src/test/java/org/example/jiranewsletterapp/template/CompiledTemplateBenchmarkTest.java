@@ -0,0 +1,93 @@
+package org.example.jiranewsletterapp.template;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH renders-per-second for a typical newsletter body. Run with {@code mvn test -Pbenchmark}; excluded from the
+ * default build.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledTemplateBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CompiledTemplateBenchmarkTest.class);
+
+    private static final String BODY = """
+            <p>Hi {{firstName|there}} {{lastName}},</p>
+            <p>thanks for reading {{listName}}. This month we shipped faster campaign sending, per-domain throttling
+            and a durable send queue shared between instances.</p>
+            <p>Your subscription for {{email}} is active; we will send a small gift for your birthday on {{birthDate}}.</p>
+            <p>See you next month!</p>
+            """;
+
+    public record Recipient(String email, String firstName, String lastName, LocalDate birthDate, String listName)
+            implements MergeValues {
+    }
+
+    private CompiledTemplate compiled;
+    private Recipient[] recipients;
+    private StringBuilder buffer;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        compiled = CompiledTemplate.compile(BODY);
+        buffer = new StringBuilder(compiled.estimatedLength());
+        recipients = new Recipient[1024];
+        for (int i = 0; i < recipients.length; i++) {
+            recipients[i] = new Recipient("subscriber" + i + "@example.com", i % 10 == 0 ? null : "Name" + i,
+                    "Surname" + i, LocalDate.of(1970 + i % 40, 1 + i % 12, 1 + i % 28), "Monthly news");
+        }
+    }
+
+    private Recipient nextRecipient() {
+        return recipients[next++ & (recipients.length - 1)];
+    }
+
+    @Benchmark
+    public String renderCompiled() {
+        return compiled.render(nextRecipient(), buffer);
+    }
+
+    @Benchmark
+    public String compileAndRender() {
+        return CompiledTemplate.compile(BODY).render(nextRecipient(), new StringBuilder());
+    }
+
+    @Test
+    @DisplayName("Benchmark: template renders per second")
+    void benchmarkRender() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CompiledTemplateBenchmarkTest.class.getName() + "\\.")
+                .shouldFailOnError(true)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        for (RunResult result : results) {
+            log.info("{}: {} renders/s", result.getParams().getBenchmark(),
+                    Math.round(result.getPrimaryResult().getScore()));
+        }
+        assertEquals(2, results.size());
+    }
+}
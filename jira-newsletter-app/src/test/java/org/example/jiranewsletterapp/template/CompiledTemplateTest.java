@@ -0,0 +1,72 @@
+package org.example.jiranewsletterapp.template;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledTemplateTest {
+
+    private record Values(String email, String firstName, String lastName, LocalDate birthDate, String listName)
+            implements MergeValues {
+    }
+
+    private static final Values ALA = new Values("ala@example.com", "Ala", "Kowalska", LocalDate.of(1990, 3, 7), "News");
+    private static final Values ANONYMOUS = new Values("anon@example.com", null, "", null, null);
+
+    @Test
+    @DisplayName("Should merge every field between literal text")
+    void testRenderAllFields() {
+        CompiledTemplate template = CompiledTemplate.compile(
+                "Hi {{firstName}} {{ lastName }} <{{email}}>, born {{birthDate}}, from {{listName}}.");
+
+        assertEquals("Hi Ala Kowalska <ala@example.com>, born 1990-03-07, from News.",
+                template.render(ALA, new StringBuilder()));
+        assertFalse(template.isStatic());
+    }
+
+    @Test
+    @DisplayName("Should use the fallback for missing or empty values")
+    void testFallbacks() {
+        CompiledTemplate template = CompiledTemplate.compile("Hi {{firstName|there}}{{lastName| friend}}{{birthDate}}!");
+
+        assertEquals("Hi there friend!", template.render(ANONYMOUS, new StringBuilder()));
+        assertEquals("Hi AlaKowalska1990-03-07!", template.render(ALA, new StringBuilder()));
+    }
+
+    @Test
+    @DisplayName("Should return text without merge fields as is")
+    void testStaticTemplate() {
+        CompiledTemplate template = CompiledTemplate.compile("Spring news");
+        StringBuilder buffer = new StringBuilder("untouched");
+
+        assertTrue(template.isStatic());
+        assertEquals("Spring news", template.render(ALA, buffer));
+        assertEquals("untouched", buffer.toString());
+        assertEquals("", CompiledTemplate.compile("").render(ALA, buffer));
+    }
+
+    @Test
+    @DisplayName("Should clear the reused buffer between renders")
+    void testBufferReuse() {
+        CompiledTemplate template = CompiledTemplate.compile("Dear {{firstName|reader}}");
+        StringBuilder buffer = new StringBuilder();
+
+        assertEquals("Dear Ala", template.render(ALA, buffer));
+        assertEquals("Dear reader", template.render(ANONYMOUS, buffer));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown and unclosed merge fields")
+    void testInvalidTemplates() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> CompiledTemplate.compile("Hi {{nickname}}"));
+        assertEquals("Unknown merge field: nickname", unknown.getMessage());
+
+        IllegalArgumentException unclosed = assertThrows(IllegalArgumentException.class,
+                () -> CompiledTemplate.compile("Hi {{firstName"));
+        assertEquals("Unclosed merge field at position 3", unclosed.getMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.jiranewsletterapp.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AppendOnlyLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should write every line appended from many threads to today's file by close")
+    void testWritesConcurrentAppends() throws Exception {
+        AppendOnlyLog log = new AppendOnlyLog(directory, "events", 100_000);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int thread = 0; thread < 8; thread++) {
+                int base = thread * 1000;
+                executor.execute(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        assertTrue(log.append("line " + (base + i)));
+                    }
+                });
+            }
+        }
+        log.close();
+
+        List<String> lines = Files.readAllLines(log.fileFor(LocalDate.now(ZoneOffset.UTC)));
+        assertEquals(8000, lines.size());
+        assertEquals(8000, new HashSet<>(lines).size());
+        assertEquals(0, log.dropped());
+    }
+
+    @Test
+    @DisplayName("Should append to an existing file and count lines offered after close as dropped")
+    void testAppendsAndDropsAfterClose() throws IOException, InterruptedException {
+        AppendOnlyLog first = new AppendOnlyLog(directory, "events", 10);
+        first.append("first");
+        first.close();
+        AppendOnlyLog second = new AppendOnlyLog(directory, "events", 10);
+        second.append("second");
+        second.close();
+
+        assertFalse(second.append("late"));
+        assertEquals(1, second.dropped());
+        assertEquals(List.of("first", "second"),
+                new ArrayList<>(Files.readAllLines(second.fileFor(LocalDate.now(ZoneOffset.UTC)))));
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.jiranewsletterapp.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private static List<Long> advance(HierarchicalTimingWheel<Long> wheel, long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(nowMillis, expired::add);
+        return expired;
+    }
+
+    @Test
+    @DisplayName("Should expire a timer on the tick of its deadline and not before")
+    void testExpiresOnDeadline() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, START);
+        wheel.add(START + 5_500, 1L);
+
+        assertTrue(advance(wheel, START + 4_999).isEmpty());
+        assertEquals(List.of(1L), advance(wheel, START + 5_000));
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should cascade timers from higher levels down to the tick they are due")
+    void testCascadesAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, START);
+        // 8 ticks per level: 7 s stays on level 0, 60 s lands on level 1 and 300 s on level 2.
+        wheel.add(START + 300_000, 300L);
+        wheel.add(START + 60_000, 60L);
+        wheel.add(START + 7_000, 7L);
+
+        assertEquals(3, wheel.size());
+        assertEquals(List.of(7L), advance(wheel, START + 59_999));
+        assertEquals(List.of(60L), advance(wheel, START + 60_000));
+        assertTrue(advance(wheel, START + 299_999).isEmpty());
+        assertEquals(List.of(300L), advance(wheel, START + 300_000));
+    }
+
+    @Test
+    @DisplayName("Should release overdue timers on the next advance")
+    void testOverdue() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 8, 2, START);
+        advance(wheel, START + 10_000);
+        wheel.add(START, 1L);
+        wheel.add(START + 10_000, 2L);
+
+        assertEquals(List.of(1L, 2L), advance(wheel, START + 10_000));
+    }
+
+    @Test
+    @DisplayName("Should hold timers beyond the top level until they come within range")
+    void testOverflow() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 4, 2, START);
+        // Two levels of 4 cover 16 ticks.
+        wheel.add(START + 40_000, 40L);
+
+        assertTrue(advance(wheel, START + 39_999).isEmpty());
+        assertEquals(List.of(40L), advance(wheel, START + 40_000));
+    }
+
+    @Test
+    @DisplayName("Should expire random deadlines exactly once, in the advance that reaches their tick")
+    void testRandomDeadlines() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(100, 16, 3, START);
+        Random random = new Random(11);
+        long[] deadlines = new long[10_000];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = START + 100 + random.nextInt(1_000_000);
+            wheel.add(deadlines[i], (long) i);
+        }
+
+        boolean[] expired = new boolean[deadlines.length];
+        long previous = START;
+        for (long now = START; previous < START + 1_100_000; now += random.nextInt(5_000)) {
+            for (long value : advance(wheel, now)) {
+                int i = (int) value;
+                assertFalse(expired[i]);
+                expired[i] = true;
+                assertTrue(deadlines[i] / 100 > previous / 100 && deadlines[i] / 100 <= now / 100,
+                        "deadline " + deadlines[i] + " expired between " + previous + " and " + now);
+            }
+            previous = now;
+        }
+
+        assertTrue(wheel.isEmpty());
+    }
+}
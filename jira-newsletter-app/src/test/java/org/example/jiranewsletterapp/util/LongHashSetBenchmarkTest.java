@@ -0,0 +1,54 @@
+package org.example.jiranewsletterapp.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deduplicates an audience the size of the largest campaigns and reports the heap it retains. Run with
+ * {@code mvn test -Pbenchmark}; excluded from the default build.
+ */
+@Tag("benchmark")
+public class LongHashSetBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LongHashSetBenchmarkTest.class);
+
+    private static final int RECIPIENTS = 20_000_000;
+
+    @Test
+    @DisplayName("Benchmark: 20M subscriber ids deduplicated within a few hundred MB")
+    void benchmarkDeduplication() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+
+        long start = System.nanoTime();
+        LongHashSet seen = new LongHashSet();
+        int duplicates = 0;
+        // Two overlapping lists: the second half of the first is also the first half of the second.
+        for (long id = 1; id <= RECIPIENTS * 2L / 3; id++) {
+            seen.add(id);
+        }
+        for (long id = RECIPIENTS / 3 + 1; id <= RECIPIENTS; id++) {
+            if (!seen.add(id)) {
+                duplicates++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        memory.gc();
+        long retained = memory.getHeapMemoryUsage().getUsed() - baseline;
+        log.info("Deduplicated {} ids ({} duplicates) in {} s, {} MB retained, {} bytes per recipient",
+                seen.size(), duplicates, String.format("%.2f", seconds), retained >> 20, retained / seen.size());
+        assertEquals(RECIPIENTS, seen.size());
+        assertEquals(RECIPIENTS * 2L / 3 - RECIPIENTS / 3, duplicates);
+        assertTrue(retained < 320L << 20, "retained " + (retained >> 20) + " MB");
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.jiranewsletterapp.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    @DisplayName("Should report whether a value was newly added")
+    void testAdd() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(43));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    @DisplayName("Should hold zero and negative values")
+    void testSpecialValues() {
+        LongHashSet set = new LongHashSet();
+
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Long.MIN_VALUE));
+
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-1));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    @DisplayName("Should keep every value across resizes")
+    void testGrowSequentialIds() {
+        LongHashSet set = new LongHashSet(4);
+        for (long id = 1; id <= 100_000; id++) {
+            assertTrue(set.add(id));
+        }
+
+        assertEquals(100_000, set.size());
+        for (long id = 1; id <= 100_000; id++) {
+            assertTrue(set.contains(id));
+            assertFalse(set.add(id));
+        }
+        assertFalse(set.contains(100_001));
+    }
+
+    @Test
+    @DisplayName("Should agree with HashSet on random values")
+    void testMatchesHashSet() {
+        Random random = new Random(7);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            // A narrow range so that duplicates are common.
+            long value = random.nextInt(20_000) - 10_000L;
+            assertEquals(expected.add(value), set.add(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value = -10_000; value < 10_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+}
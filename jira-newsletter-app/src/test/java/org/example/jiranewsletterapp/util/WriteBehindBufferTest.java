@@ -0,0 +1,104 @@
+package org.example.jiranewsletterapp.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindBufferTest {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("Should coalesce writes per key, keep the latest value and write in batches")
+    void testCoalescesAndBatches() {
+        WriteBehindBuffer<Integer, String> buffer = new WriteBehindBuffer<>(100, 2, Duration.ofSeconds(1), batches::add);
+
+        assertTrue(buffer.offer(1, "a"));
+        assertTrue(buffer.offer(2, "b"));
+        assertTrue(buffer.offer(1, "a2"));
+        assertTrue(buffer.offer(3, "c"));
+
+        assertEquals(3, buffer.flush());
+        assertEquals(List.of(List.of("a2", "b"), List.of("c")), batches);
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.flush());
+    }
+
+    @Test
+    @DisplayName("Should refuse new keys when full but still accept updates to pending ones")
+    void testBounded() {
+        WriteBehindBuffer<Integer, String> buffer = new WriteBehindBuffer<>(2, 10, Duration.ofSeconds(1), batches::add);
+
+        assertTrue(buffer.offer(1, "a"));
+        assertTrue(buffer.offer(2, "b"));
+        assertFalse(buffer.offer(3, "c"));
+        assertTrue(buffer.offer(2, "b2"));
+
+        buffer.flush();
+        assertTrue(buffer.offer(3, "c"));
+    }
+
+    @Test
+    @DisplayName("Should put a failed batch back ahead of newer writes")
+    void testRequeuesFailedBatch() {
+        List<String> written = new ArrayList<>();
+        boolean[] failNext = {true};
+        WriteBehindBuffer<Integer, String> buffer = new WriteBehindBuffer<>(10, 10, Duration.ofSeconds(1), values -> {
+            if (failNext[0]) {
+                failNext[0] = false;
+                throw new IllegalStateException("database down");
+            }
+            written.addAll(values);
+        });
+        buffer.offer(1, "a");
+        buffer.offer(2, "b");
+
+        assertThrows(IllegalStateException.class, buffer::flush);
+        buffer.offer(3, "c");
+        buffer.offer(1, "a2");
+
+        assertEquals(3, buffer.flush());
+        assertEquals(List.of("a2", "b", "c"), written);
+    }
+
+    @Test
+    @DisplayName("Should flush as soon as a batch fills up, or once the oldest write is max-delay old")
+    void testAwaitFlushesOnSizeOrAge() throws Exception {
+        WriteBehindBuffer<Integer, String> buffer = new WriteBehindBuffer<>(100, 3, Duration.ofMillis(200), batches::add);
+        try (ExecutorService flusher = Executors.newSingleThreadExecutor()) {
+            Future<Integer> full = flusher.submit(buffer::awaitAndFlush);
+            buffer.offer(1, "a");
+            buffer.offer(2, "b");
+            buffer.offer(3, "c");
+            assertEquals(3, full.get(1, TimeUnit.SECONDS));
+
+            long start = System.nanoTime();
+            Future<Integer> aged = flusher.submit(buffer::awaitAndFlush);
+            buffer.offer(4, "d");
+            assertEquals(1, aged.get(2, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190);
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish the pending writes as a gauge tagged with the buffer's name")
+    void testBindTo() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WriteBehindBuffer<Integer, String> buffer = new WriteBehindBuffer<>(100, 10, Duration.ofSeconds(1), batches::add);
+        buffer.bindTo(registry, "test");
+
+        buffer.offer(1, "a");
+        buffer.offer(2, "b");
+
+        assertEquals(2, registry.get("newsletter.write-behind.pending").tag("buffer", "test").gauge().value());
+        buffer.flush();
+        assertEquals(0, registry.get("newsletter.write-behind.pending").tag("buffer", "test").gauge().value());
+    }
+}